@@ -0,0 +1,112 @@
+package com.mahjong.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 归档文件编码工具
+ * 文件布局：魔数 | 版本 | 文件头 | 行组* | 结束标记(行数0)
+ * 行组布局：行数 | 各有序列的最小/最大值 | 数据长度 | 按列存储的数据
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+final class ArchiveCodec {
+
+    static final int MAGIC = 0x4D4A4341; // "MJCA"
+    static final int VERSION = 1;
+
+    /**
+     * 文件头中表示"不限"的时间值
+     */
+    private static final long UNBOUNDED = Long.MIN_VALUE;
+
+    private ArchiveCodec() {
+    }
+
+    static void writeHeader(DataOutput out, ArchiveHeader header) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeUTF(header.getTable());
+        out.writeLong(header.getRangeFrom() == null ? UNBOUNDED : toMicros(header.getRangeFrom()));
+        out.writeLong(toMicros(header.getRangeTo()));
+        writeVarInt(out, header.columnCount());
+        for (int i = 0; i < header.columnCount(); i++) {
+            out.writeUTF(header.getColumnNames().get(i));
+            out.writeByte(header.getColumnTypes().get(i).getCode());
+        }
+    }
+
+    static ArchiveHeader readHeader(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("不是有效的归档文件");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("不支持的归档文件版本: " + version);
+        }
+        String table = in.readUTF();
+        long from = in.readLong();
+        long to = in.readLong();
+        int columnCount = readVarInt(in);
+        List<String> names = new ArrayList<>(columnCount);
+        List<ArchiveColumnType> types = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            names.add(in.readUTF());
+            types.add(ArchiveColumnType.fromCode(in.readUnsignedByte()));
+        }
+        return new ArchiveHeader(table, from == UNBOUNDED ? null : fromMicros(from), fromMicros(to), names, types);
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        long seconds = Math.floorDiv(micros, 1_000_000L);
+        int nanos = (int) Math.floorMod(micros, 1_000_000L) * 1_000;
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("变长整数格式错误");
+    }
+
+    static void writeZigZag(DataOutput out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long readZigZag(DataInput in) throws IOException {
+        long raw = readVarLong(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+}
@@ -0,0 +1,97 @@
+package com.mahjong.archive;
+
+import java.sql.Types;
+
+/**
+ * 归档文件列类型
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+public enum ArchiveColumnType {
+
+    /**
+     * 64位整数，按行组内差值变长编码
+     */
+    LONG(1),
+
+    /**
+     * 32位整数，变长编码
+     */
+    INT(2),
+
+    /**
+     * 布尔值，按位存储
+     */
+    BOOLEAN(3),
+
+    /**
+     * 字符串，低基数时使用字典编码
+     */
+    STRING(4),
+
+    /**
+     * 时间戳（微秒），按行组内差值变长编码
+     */
+    TIMESTAMP(5),
+
+    /**
+     * 双精度浮点数
+     */
+    DOUBLE(6);
+
+    private final int code;
+
+    ArchiveColumnType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * 是否为可做行组统计（最小/最大值）的整数类列
+     */
+    public boolean isOrdered() {
+        return this == LONG || this == INT || this == TIMESTAMP;
+    }
+
+    public static ArchiveColumnType fromCode(int code) {
+        for (ArchiveColumnType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("未知的归档列类型: " + code);
+    }
+
+    /**
+     * 根据JDBC类型推断归档列类型，无法识别的类型按字符串存储
+     */
+    public static ArchiveColumnType fromJdbcType(int jdbcType) {
+        switch (jdbcType) {
+            case Types.BIGINT:
+                return LONG;
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return INT;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return BOOLEAN;
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+            case Types.DATE:
+                return TIMESTAMP;
+            case Types.DOUBLE:
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return DOUBLE;
+            default:
+                return STRING;
+        }
+    }
+}
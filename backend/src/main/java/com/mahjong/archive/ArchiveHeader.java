@@ -0,0 +1,61 @@
+package com.mahjong.archive;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 归档文件头
+ * 记录来源表、覆盖的时间范围和列定义
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public class ArchiveHeader {
+
+    /**
+     * 来源表名
+     */
+    private final String table;
+
+    /**
+     * 覆盖范围起点（包含），null表示不限
+     */
+    private final LocalDateTime rangeFrom;
+
+    /**
+     * 覆盖范围终点（不包含）
+     */
+    private final LocalDateTime rangeTo;
+
+    /**
+     * 列名
+     */
+    private final List<String> columnNames;
+
+    /**
+     * 列类型
+     */
+    private final List<ArchiveColumnType> columnTypes;
+
+    public int columnCount() {
+        return columnNames.size();
+    }
+
+    public int indexOf(String column) {
+        return columnNames.indexOf(column);
+    }
+
+    /**
+     * 是否与给定时间范围 [from, to) 有交集
+     */
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        boolean startsBeforeEnd = rangeFrom == null || to == null || rangeFrom.isBefore(to);
+        boolean endsAfterStart = from == null || rangeTo.isAfter(from);
+        return startsBeforeEnd && endsAfterStart;
+    }
+}
@@ -0,0 +1,275 @@
+package com.mahjong.archive;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 列式归档文件读取器
+ * 顺序扫描行组，先用行组统计信息排除不可能命中的组（跳过解码），再逐行校验条件。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+public class ColumnarArchiveReader implements Closeable {
+
+    private final DataInputStream in;
+    private final ArchiveHeader header;
+
+    private ColumnarArchiveReader(DataInputStream in, ArchiveHeader header) {
+        this.in = in;
+        this.header = header;
+    }
+
+    /**
+     * 打开归档文件并读取文件头
+     */
+    public static ColumnarArchiveReader open(Path file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file), 64 * 1024)));
+        try {
+            return new ColumnarArchiveReader(in, ArchiveCodec.readHeader(in));
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 只读取文件头
+     */
+    public static ArchiveHeader readHeader(Path file) throws IOException {
+        try (ColumnarArchiveReader reader = open(file)) {
+            return reader.getHeader();
+        }
+    }
+
+    public ArchiveHeader getHeader() {
+        return header;
+    }
+
+    /**
+     * 扫描满足全部条件的行
+     *
+     * @param conditions 过滤条件（按列的取值范围）
+     * @param visitor    行处理回调，返回false时停止扫描
+     */
+    public void scan(List<Condition> conditions, RowVisitor visitor) throws IOException {
+        int columnCount = header.columnCount();
+        List<ArchiveColumnType> types = header.getColumnTypes();
+
+        while (true) {
+            int rows = ArchiveCodec.readVarInt(in);
+            if (rows == 0) {
+                return;
+            }
+
+            boolean[] hasStats = new boolean[columnCount];
+            long[] min = new long[columnCount];
+            long[] max = new long[columnCount];
+            for (int c = 0; c < columnCount; c++) {
+                if (types.get(c).isOrdered()) {
+                    hasStats[c] = in.readBoolean();
+                    if (hasStats[c]) {
+                        min[c] = ArchiveCodec.readZigZag(in);
+                        max[c] = ArchiveCodec.readZigZag(in);
+                    }
+                }
+            }
+            int payloadLength = ArchiveCodec.readVarInt(in);
+
+            if (!groupMightMatch(conditions, hasStats, min, max)) {
+                in.skipNBytes(payloadLength);
+                continue;
+            }
+
+            Object[][] columns = new Object[columnCount][];
+            for (int c = 0; c < columnCount; c++) {
+                columns[c] = decodeColumn(rows, types.get(c));
+            }
+
+            for (int r = 0; r < rows; r++) {
+                if (!rowMatches(conditions, columns, r)) {
+                    continue;
+                }
+                Object[] row = new Object[columnCount];
+                for (int c = 0; c < columnCount; c++) {
+                    row[c] = columns[c][r];
+                }
+                if (!visitor.visit(row)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean groupMightMatch(List<Condition> conditions, boolean[] hasStats, long[] min, long[] max) {
+        for (Condition condition : conditions) {
+            int c = condition.column;
+            if (!hasStats[c]) {
+                // 整组该列均为空，任何范围条件都不可能命中
+                return false;
+            }
+            if (max[c] < condition.minInclusive || min[c] >= condition.maxExclusive) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean rowMatches(List<Condition> conditions, Object[][] columns, int row) {
+        for (Condition condition : conditions) {
+            Object value = columns[condition.column][row];
+            if (value == null) {
+                return false;
+            }
+            long v = value instanceof LocalDateTime
+                    ? ArchiveCodec.toMicros((LocalDateTime) value)
+                    : ((Number) value).longValue();
+            if (v < condition.minInclusive || v >= condition.maxExclusive) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object[] decodeColumn(int rows, ArchiveColumnType type) throws IOException {
+        boolean[] isNull = new boolean[rows];
+        if (in.readBoolean()) {
+            byte[] nulls = new byte[(rows + 7) >>> 3];
+            in.readFully(nulls);
+            for (int r = 0; r < rows; r++) {
+                isNull[r] = (nulls[r >>> 3] & (1 << (r & 7))) != 0;
+            }
+        }
+
+        Object[] values = new Object[rows];
+        switch (type) {
+            case LONG:
+            case INT:
+            case TIMESTAMP: {
+                long previous = 0;
+                for (int r = 0; r < rows; r++) {
+                    if (!isNull[r]) {
+                        previous += ArchiveCodec.readZigZag(in);
+                        values[r] = type == ArchiveColumnType.LONG ? Long.valueOf(previous)
+                                : type == ArchiveColumnType.INT ? Integer.valueOf((int) previous)
+                                : ArchiveCodec.fromMicros(previous);
+                    }
+                }
+                break;
+            }
+            case BOOLEAN: {
+                byte[] bits = new byte[(rows + 7) >>> 3];
+                in.readFully(bits);
+                for (int r = 0; r < rows; r++) {
+                    if (!isNull[r]) {
+                        values[r] = (bits[r >>> 3] & (1 << (r & 7))) != 0;
+                    }
+                }
+                break;
+            }
+            case DOUBLE:
+                for (int r = 0; r < rows; r++) {
+                    if (!isNull[r]) {
+                        values[r] = in.readDouble();
+                    }
+                }
+                break;
+            default:
+                decodeStrings(values, isNull, rows);
+                break;
+        }
+        return values;
+    }
+
+    private void decodeStrings(Object[] values, boolean[] isNull, int rows) throws IOException {
+        if (in.readBoolean()) {
+            int size = ArchiveCodec.readVarInt(in);
+            String[] dictionary = new String[size];
+            for (int i = 0; i < size; i++) {
+                dictionary[i] = readString();
+            }
+            for (int r = 0; r < rows; r++) {
+                if (!isNull[r]) {
+                    values[r] = dictionary[in.readUnsignedByte()];
+                }
+            }
+        } else {
+            for (int r = 0; r < rows; r++) {
+                if (!isNull[r]) {
+                    values[r] = readString();
+                }
+            }
+        }
+    }
+
+    private String readString() throws IOException {
+        byte[] bytes = new byte[ArchiveCodec.readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 行处理回调
+     */
+    @FunctionalInterface
+    public interface RowVisitor {
+        boolean visit(Object[] row) throws IOException;
+    }
+
+    /**
+     * 列取值范围条件 [minInclusive, maxExclusive)，仅支持整数与时间列
+     */
+    public static final class Condition {
+
+        private final int column;
+        private final long minInclusive;
+        private final long maxExclusive;
+
+        private Condition(int column, long minInclusive, long maxExclusive) {
+            this.column = column;
+            this.minInclusive = minInclusive;
+            this.maxExclusive = maxExclusive;
+        }
+
+        public static Condition equalTo(ArchiveHeader header, String column, long value) {
+            return new Condition(requireOrdered(header, column), value, value + 1);
+        }
+
+        public static Condition between(ArchiveHeader header, String column, LocalDateTime from, LocalDateTime to) {
+            return new Condition(requireOrdered(header, column),
+                    from == null ? Long.MIN_VALUE : ArchiveCodec.toMicros(from),
+                    to == null ? Long.MAX_VALUE : ArchiveCodec.toMicros(to));
+        }
+
+        public static List<Condition> of(Condition... conditions) {
+            List<Condition> list = new ArrayList<>(conditions.length);
+            for (Condition condition : conditions) {
+                list.add(condition);
+            }
+            return list;
+        }
+
+        private static int requireOrdered(ArchiveHeader header, String column) {
+            int index = header.indexOf(column);
+            if (index < 0 || !header.getColumnTypes().get(index).isOrdered()) {
+                throw new IllegalArgumentException("归档文件中不存在可过滤的列: " + column);
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.mahjong.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 列式归档文件写入器
+ * 行按固定大小分组，组内按列编码（整数/时间差值变长编码、低基数字符串字典编码），
+ * 每组附带有序列的最小/最大值以便读取时跳过整组，整体再经gzip压缩。
+ * 写入临时文件，关闭时原子重命名为目标文件，读方不会看到写了一半的文件。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+public class ColumnarArchiveWriter implements Closeable {
+
+    private static final int MAX_DICTIONARY_SIZE = 255;
+
+    private final Path target;
+    private final Path tempFile;
+    private final ArchiveHeader header;
+    private final int rowGroupSize;
+    private final DataOutputStream out;
+
+    // 当前行组的列缓冲
+    private final Object[][] columns;
+    private int bufferedRows;
+    private long totalRows;
+    private boolean closed;
+
+    public ColumnarArchiveWriter(Path target, ArchiveHeader header, int rowGroupSize) throws IOException {
+        this.target = target;
+        this.tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        this.header = header;
+        this.rowGroupSize = Math.max(rowGroupSize, 1);
+        this.columns = new Object[header.columnCount()][this.rowGroupSize];
+
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        this.out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(tempFile), 64 * 1024)));
+        ArchiveCodec.writeHeader(out, header);
+    }
+
+    /**
+     * 追加一行，值的顺序与文件头列定义一致
+     */
+    public void append(Object[] row) throws IOException {
+        if (row.length != columns.length) {
+            throw new IllegalArgumentException("列数不匹配: 期望" + columns.length + ", 实际" + row.length);
+        }
+        for (int c = 0; c < row.length; c++) {
+            columns[c][bufferedRows] = row[c];
+        }
+        bufferedRows++;
+        totalRows++;
+        if (bufferedRows == rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    /**
+     * 写完剩余数据并发布文件
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (bufferedRows > 0) {
+                flushRowGroup();
+            }
+            ArchiveCodec.writeVarInt(out, 0);
+            out.close();
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * 放弃写入并删除临时文件
+     */
+    public void abort() {
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // 临时文件随后删除，关闭失败无需处理
+        }
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException ignored) {
+            // 残留的临时文件不会被读取
+        }
+    }
+
+    private void flushRowGroup() throws IOException {
+        int rows = bufferedRows;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(rows * columns.length * 4);
+        DataOutputStream payload = new DataOutputStream(buffer);
+
+        ArchiveCodec.writeVarInt(out, rows);
+        for (int c = 0; c < columns.length; c++) {
+            ArchiveColumnType type = header.getColumnTypes().get(c);
+            if (type.isOrdered()) {
+                writeStats(columns[c], rows, type);
+            }
+            encodeColumn(payload, columns[c], rows, type);
+        }
+        payload.flush();
+
+        ArchiveCodec.writeVarInt(out, buffer.size());
+        buffer.writeTo(out);
+
+        for (Object[] column : columns) {
+            Arrays.fill(column, 0, rows, null);
+        }
+        bufferedRows = 0;
+    }
+
+    private void writeStats(Object[] values, int rows, ArchiveColumnType type) throws IOException {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        boolean any = false;
+        for (int r = 0; r < rows; r++) {
+            if (values[r] != null) {
+                long v = toLong(values[r], type);
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+                any = true;
+            }
+        }
+        out.writeBoolean(any);
+        if (any) {
+            ArchiveCodec.writeZigZag(out, min);
+            ArchiveCodec.writeZigZag(out, max);
+        }
+    }
+
+    private void encodeColumn(DataOutputStream payload, Object[] values, int rows, ArchiveColumnType type)
+            throws IOException {
+        // 空值位图
+        byte[] nulls = new byte[(rows + 7) >>> 3];
+        boolean hasNulls = false;
+        for (int r = 0; r < rows; r++) {
+            if (values[r] == null) {
+                nulls[r >>> 3] |= (byte) (1 << (r & 7));
+                hasNulls = true;
+            }
+        }
+        payload.writeBoolean(hasNulls);
+        if (hasNulls) {
+            payload.write(nulls);
+        }
+
+        switch (type) {
+            case LONG:
+            case INT:
+            case TIMESTAMP: {
+                long previous = 0;
+                for (int r = 0; r < rows; r++) {
+                    if (values[r] != null) {
+                        long v = toLong(values[r], type);
+                        ArchiveCodec.writeZigZag(payload, v - previous);
+                        previous = v;
+                    }
+                }
+                break;
+            }
+            case BOOLEAN: {
+                byte[] bits = new byte[(rows + 7) >>> 3];
+                for (int r = 0; r < rows; r++) {
+                    if (values[r] != null && toBoolean(values[r])) {
+                        bits[r >>> 3] |= (byte) (1 << (r & 7));
+                    }
+                }
+                payload.write(bits);
+                break;
+            }
+            case DOUBLE:
+                for (int r = 0; r < rows; r++) {
+                    if (values[r] != null) {
+                        payload.writeDouble(((Number) values[r]).doubleValue());
+                    }
+                }
+                break;
+            default:
+                encodeStrings(payload, values, rows);
+                break;
+        }
+    }
+
+    private void encodeStrings(DataOutputStream payload, Object[] values, int rows) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        int nonNull = 0;
+        for (int r = 0; r < rows; r++) {
+            if (values[r] != null) {
+                nonNull++;
+                if (dictionary.size() <= MAX_DICTIONARY_SIZE) {
+                    dictionary.putIfAbsent(values[r].toString(), dictionary.size());
+                }
+            }
+        }
+
+        boolean useDictionary = dictionary.size() <= MAX_DICTIONARY_SIZE && dictionary.size() * 2 <= nonNull;
+        payload.writeBoolean(useDictionary);
+        if (useDictionary) {
+            String[] entries = new String[dictionary.size()];
+            dictionary.forEach((value, code) -> entries[code] = value);
+            ArchiveCodec.writeVarInt(payload, entries.length);
+            for (String entry : entries) {
+                writeString(payload, entry);
+            }
+            for (int r = 0; r < rows; r++) {
+                if (values[r] != null) {
+                    payload.writeByte(dictionary.get(values[r].toString()));
+                }
+            }
+        } else {
+            for (int r = 0; r < rows; r++) {
+                if (values[r] != null) {
+                    writeString(payload, values[r].toString());
+                }
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream payload, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ArchiveCodec.writeVarInt(payload, bytes.length);
+        payload.write(bytes);
+    }
+
+    static long toLong(Object value, ArchiveColumnType type) {
+        if (type == ArchiveColumnType.TIMESTAMP) {
+            if (value instanceof LocalDateTime) {
+                return ArchiveCodec.toMicros((LocalDateTime) value);
+            }
+            if (value instanceof Timestamp) {
+                return ArchiveCodec.toMicros(((Timestamp) value).toLocalDateTime());
+            }
+            if (value instanceof java.sql.Date) {
+                return ArchiveCodec.toMicros(((java.sql.Date) value).toLocalDate().atStartOfDay());
+            }
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1L : 0L;
+        }
+        return ((Number) value).longValue();
+    }
+
+    private static boolean toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return ((Number) value).intValue() != 0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.mahjong.config;
+
+/**
+ * 缓存名称常量
+ */
+public final class CacheNames {
+
+    /**
+     * 游戏配置（配置ID -> GameConfig）
+     */
+    public static final String GAME_CONFIGS = "gameConfigs";
+
+    /**
+     * 房间号 -> 房间ID
+     */
+    public static final String ROOM_IDS = "roomIds";
+
+    /**
+     * 玩家资料（玩家ID -> PlayerProfile）
+     */
+    public static final String PLAYER_PROFILES = "playerProfiles";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,63 @@
+package com.mahjong.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 两级缓存配置
+ * 本地缓存按条数和存活时间淘汰，Redis缓存按存活时间过期
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "game.cache")
+public class CacheProperties {
+
+    /**
+     * 跨节点失效通知频道
+     */
+    private String invalidationChannel = "cache:invalidate";
+
+    /**
+     * 跨节点玩家变更通知频道（会话快照、昵称索引）
+     */
+    private String playerChannel = "player:changed";
+
+    /**
+     * 按缓存名称配置的规格
+     */
+    private Map<String, Spec> specs = new HashMap<>();
+
+    /**
+     * 获取缓存规格，未配置的缓存使用默认规格
+     */
+    public Spec specFor(String cacheName) {
+        return specs.getOrDefault(cacheName, new Spec());
+    }
+
+    /**
+     * 单个缓存的规格
+     */
+    @Data
+    public static class Spec {
+
+        /**
+         * 本地缓存最大条数
+         */
+        private int localMaxSize = 1000;
+
+        /**
+         * 本地缓存存活时间
+         */
+        private Duration localTtl = Duration.ofMinutes(1);
+
+        /**
+         * Redis缓存存活时间
+         */
+        private Duration remoteTtl = Duration.ofMinutes(30);
+    }
+}
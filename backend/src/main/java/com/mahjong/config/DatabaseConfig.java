@@ -1,5 +1,11 @@
 package com.mahjong.config;
 
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
@@ -7,6 +13,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.sql.DataSource;
@@ -14,21 +22,79 @@ import javax.sql.DataSource;
 /**
  * 数据库配置类
  * 配置JPA和MyBatis数据源
+ * 配置了 spring.datasource.replica.jdbc-url 时启用读写分离：只读事务走从库连接池，其余走主库
  */
 @Configuration
 @EnableJpaRepositories(basePackages = "com.mahjong.repository")
 @EnableTransactionManagement
 public class DatabaseConfig {
 
+    /**
+     * 主库连接池
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource")
+    public HikariDataSource primaryDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * 从库连接池（可选）
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.datasource.replica", name = "jdbc-url")
+    @ConfigurationProperties(prefix = "spring.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * 读写路由数据源
+     */
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        ReadWriteRoutingDataSource routing =
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource.getIfAvailable());
+        meterRegistry.ifAvailable(routing::bindMetrics);
+        return routing;
+    }
+
     /**
      * 主数据源配置
-     * 用于JPA和MyBatis
+     * 用于JPA和MyBatis，延迟获取物理连接，保证路由时事务只读标记已就绪；
+     * 启用语句统计时在路由数据源外包一层计数代理
      */
     @Bean
     @Primary
-    @ConfigurationProperties(prefix = "spring.datasource")
-    public DataSource dataSource() {
-        return DataSourceBuilder.create().build();
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource,
+                                 StatementBudgetProperties statementBudgetProperties) {
+        DataSource target = statementBudgetProperties.isEnabled()
+                ? new StatementCountingDataSource(routingDataSource)
+                : routingDataSource;
+        return new LazyConnectionDataSourceProxy(target);
+    }
+
+    /**
+     * 从库延迟监控（仅在配置了从库时启用）
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.datasource.replica", name = "jdbc-url")
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReadWriteRoutingDataSource routingDataSource,
+            @Value("${spring.datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaDataSource, routingDataSource, maxLagSeconds);
+        meterRegistry.ifAvailable(monitor::bindMetrics);
+        return monitor;
     }
 
     /**
@@ -38,4 +104,13 @@ public class DatabaseConfig {
     public JdbcTemplate jdbcTemplate(DataSource dataSource) {
         return new JdbcTemplate(dataSource);
     }
-}
\ No newline at end of file
+
+    /**
+     * NamedParameterJdbcTemplate配置
+     * 用于批量集合语句（IN列表参数）
+     */
+    @Bean
+    public NamedParameterJdbcTemplate namedParameterJdbcTemplate(JdbcTemplate jdbcTemplate) {
+        return new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+}
@@ -0,0 +1,143 @@
+package com.mahjong.config;
+
+import org.springframework.cache.Cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内有界缓存
+ * 读取只访问 ConcurrentHashMap 并比较过期时间，不加锁；写入在锁内同时维护插入顺序，
+ * 超出容量时淘汰最早写入的条目。条目过期在读取时惰性清除。
+ * 失效代数按键的哈希分段维护：失效只推进所在分段的代数，回源期间同一分段发生过失效的结果不会写入本地，
+ * 避免旧值在失效后被重新缓存，同时其他键的回源写入不受影响。
+ */
+final class LocalCache {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // 插入顺序，仅在持有 lock 时访问
+    private final LinkedHashMap<String, Entry> order = new LinkedHashMap<>();
+    private final Object lock = new Object();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder sizeEvictions = new LongAdder();
+    final LongAdder expiredEvictions = new LongAdder();
+    final LongAdder invalidations = new LongAdder();
+
+    LocalCache(int maxSize, long ttlNanos) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = ttlNanos;
+    }
+
+    /**
+     * 读取条目，未命中或已过期返回null
+     */
+    Cache.ValueWrapper get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - entry.writtenAt > ttlNanos) {
+            if (remove(key, entry)) {
+                expiredEvictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * 键所在分段的当前失效代数，回源前读取，写入时用于校验
+     */
+    long generation(String key) {
+        return generations.get(stripe(key));
+    }
+
+    /**
+     * 写入条目，期间键所在分段发生过失效时放弃写入
+     */
+    void put(String key, Cache.ValueWrapper value, long expectedGeneration) {
+        Entry entry = new Entry(value, System.nanoTime());
+        synchronized (lock) {
+            if (generations.get(stripe(key)) != expectedGeneration) {
+                return;
+            }
+            order.remove(key);
+            order.put(key, entry);
+            entries.put(key, entry);
+            if (order.size() > maxSize) {
+                Iterator<Map.Entry<String, Entry>> eldest = order.entrySet().iterator();
+                while (order.size() > maxSize && eldest.hasNext()) {
+                    Map.Entry<String, Entry> victim = eldest.next();
+                    eldest.remove();
+                    entries.remove(victim.getKey(), victim.getValue());
+                    sizeEvictions.increment();
+                }
+            }
+        }
+    }
+
+    void invalidate(String key) {
+        synchronized (lock) {
+            generations.incrementAndGet(stripe(key));
+            if (order.remove(key) != null) {
+                entries.remove(key);
+                invalidations.increment();
+            }
+        }
+    }
+
+    void clear() {
+        synchronized (lock) {
+            for (int i = 0; i < GENERATION_STRIPES; i++) {
+                generations.incrementAndGet(i);
+            }
+            invalidations.add(order.size());
+            order.clear();
+            entries.clear();
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private boolean remove(String key, Entry entry) {
+        synchronized (lock) {
+            if (order.remove(key, entry)) {
+                entries.remove(key, entry);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Entry {
+        private final Cache.ValueWrapper value;
+        private final long writtenAt;
+
+        private Entry(Cache.ValueWrapper value, long writtenAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+    }
+}
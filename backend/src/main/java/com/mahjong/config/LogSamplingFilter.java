@@ -0,0 +1,94 @@
+package com.mahjong.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按日志器采样的 TurboFilter
+ * 高频事件（房间广播、状态同步、聊天等）的 INFO 及以下日志按 "每N条保留1条" 采样，WARN/ERROR 始终输出。
+ * 采样规则由 logback-spring.xml 通过 game.logging.sampling 配置，格式为逗号分隔的 "日志器前缀=N"，
+ * 按最长前缀匹配，N 小于等于1表示不采样。采样按日志器名生效，需要单独采样的高频事件应使用独立的子日志器
+ * （如 WebSocketService 的 "com.mahjong.service.WebSocketService.event"），避免同类中的生命周期日志一并被丢弃。
+ * <p>
+ * logback 对键值日志（log.atInfo()...log()）只在 atInfo() 时经过一次 TurboFilter（message 为 null），
+ * 被丢弃时返回空实现的构建器，不再创建事件；普通参数化日志则在记录时经过一次。
+ * 因此采样日志器中不要再用 isInfoEnabled() 包裹普通日志，否则一条日志会被计数两次。
+ * 计数器按日志器缓存，判断过程不分配对象。
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    private final Map<String, Integer> rules = new LinkedHashMap<>();
+
+    private final Map<String, Sampler> samplers = new ConcurrentHashMap<>();
+
+    /**
+     * 采样规则，如 com.mahjong.service.WebSocketService.event=10,com.mahjong.websocket=20
+     */
+    public void setSampling(String sampling) {
+        rules.clear();
+        samplers.clear();
+        if (sampling == null || sampling.isBlank()) {
+            return;
+        }
+        for (String rule : sampling.split(",")) {
+            int separator = rule.indexOf('=');
+            if (separator <= 0) {
+                addWarn("忽略无效的日志采样规则: " + rule);
+                continue;
+            }
+            try {
+                rules.put(rule.substring(0, separator).trim(), Integer.parseInt(rule.substring(separator + 1).trim()));
+            } catch (NumberFormatException e) {
+                addWarn("忽略无效的日志采样规则: " + rule);
+            }
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level.isGreaterOrEqual(Level.WARN) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Sampler sampler = samplers.get(logger.getName());
+        if (sampler == null) {
+            sampler = samplers.computeIfAbsent(logger.getName(), this::resolve);
+        }
+        return sampler.every <= 1 || sampler.counter.getAndIncrement() % sampler.every == 0
+                ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /**
+     * 按最长前缀匹配日志器的采样间隔
+     */
+    private Sampler resolve(String loggerName) {
+        String matched = null;
+        int every = 1;
+        for (Map.Entry<String, Integer> rule : rules.entrySet()) {
+            String prefix = rule.getKey();
+            boolean matches = loggerName.equals(prefix)
+                    || loggerName.startsWith(prefix) && loggerName.charAt(prefix.length()) == '.';
+            if (matches && (matched == null || prefix.length() > matched.length())) {
+                matched = prefix;
+                every = rule.getValue();
+            }
+        }
+        return new Sampler(every);
+    }
+
+    private static final class Sampler {
+        final int every;
+        final AtomicLong counter = new AtomicLong();
+
+        Sampler(int every) {
+            this.every = every;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.mahjong.config;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.Transport;
+import com.corundumstudio.socketio.handler.ClientHead;
+import com.corundumstudio.socketio.transport.NamespaceClient;
+import com.mahjong.entity.Room;
+import com.mahjong.service.ChatHistoryService;
+import com.mahjong.service.LobbyIndexService;
+import com.mahjong.service.PlayerSessionRegistry;
+import com.mahjong.service.WebSocketService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 指标配置类
+ * 启用 @Timed 注解计时，并注册连接数、房间数、内存映射大小和出站队列等运行状态指标。
+ * 标签只使用事件名、状态等有限取值，不带房间号和用户ID。
+ * 仓库方法耗时由 Spring Boot 自动记录（management.metrics.data.repository）。
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 处理 @Timed 注解（业务服务类上按类、方法、异常类型打标签）
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * 游戏运行状态指标，均在采集时读取，不在业务路径上维护计数
+     */
+    @Bean
+    public MeterBinder gameStateMetrics(SocketIOServer socketIOServer,
+                                        WebSocketService webSocketService,
+                                        LobbyIndexService lobbyIndexService,
+                                        ChatHistoryService chatHistoryService,
+                                        PlayerSessionRegistry playerSessionRegistry) {
+        return registry -> {
+            Gauge.builder("mahjong.socket.clients", socketIOServer, server -> server.getAllClients().size())
+                    .description("Socket.IO连接数")
+                    .register(registry);
+            Gauge.builder("mahjong.socket.outbound.queued", socketIOServer, MetricsConfig::queuedPackets)
+                    .description("所有连接待发送的Socket.IO数据包数")
+                    .register(registry);
+
+            for (Room.RoomStatus status : Room.RoomStatus.values()) {
+                Gauge.builder("mahjong.rooms", lobbyIndexService, index -> index.countByStatus(status))
+                        .tag("status", status.name().toLowerCase())
+                        .description("大厅索引中各状态的房间数")
+                        .register(registry);
+            }
+
+            mapSize(registry, "websocket.users", webSocketService, WebSocketService::getOnlineUserCount);
+            mapSize(registry, "websocket.rooms", webSocketService, WebSocketService::getActiveRoomCount);
+            mapSize(registry, "lobby.index", lobbyIndexService, LobbyIndexService::size);
+            mapSize(registry, "chat.rings", chatHistoryService, ChatHistoryService::bufferedRoomCount);
+            mapSize(registry, "player.sessions", playerSessionRegistry, PlayerSessionRegistry::size);
+
+            Gauge.builder("mahjong.chat.pending", chatHistoryService, ChatHistoryService::pendingCount)
+                    .description("等待批量写库的聊天消息数")
+                    .register(registry);
+        };
+    }
+
+    private static <T> void mapSize(MeterRegistry registry, String map, T owner,
+                                    ToDoubleFunction<T> size) {
+        Gauge.builder("mahjong.map.size", owner, size)
+                .tag("map", map)
+                .description("内存映射条目数")
+                .register(registry);
+    }
+
+    /**
+     * 汇总各连接当前传输通道上排队未写出的数据包
+     */
+    private static double queuedPackets(SocketIOServer server) {
+        long total = 0;
+        for (SocketIOClient client : server.getAllClients()) {
+            if (client instanceof NamespaceClient) {
+                ClientHead head = ((NamespaceClient) client).getBaseClient();
+                Transport transport = head.getCurrentTransport();
+                if (transport != null) {
+                    total += head.getPacketsQueue(transport).size();
+                }
+            }
+        }
+        return total;
+    }
+}
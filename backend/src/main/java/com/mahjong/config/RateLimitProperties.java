@@ -0,0 +1,62 @@
+package com.mahjong.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Socket事件限流配置
+ * 按事件类型分别配置每个连接和每个房间的速率与突发量，未配置的事件不限流
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "game.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * 是否启用限流
+     */
+    private boolean enabled = true;
+
+    /**
+     * 按事件名配置的限流规则
+     */
+    private Map<String, EventLimit> events = new HashMap<>();
+
+    /**
+     * 单个事件的限流规则
+     */
+    @Data
+    public static class EventLimit {
+
+        /**
+         * 每个连接的限额，为空表示不限
+         */
+        private Limit connection;
+
+        /**
+         * 每个房间的限额（所有连接共享），为空表示不限
+         */
+        private Limit room;
+    }
+
+    /**
+     * 令牌桶参数
+     */
+    @Data
+    public static class Limit {
+
+        /**
+         * 每秒补充的令牌数
+         */
+        private double rate = 1;
+
+        /**
+         * 桶容量，即允许的突发事件数
+         */
+        private int burst = 1;
+    }
+}
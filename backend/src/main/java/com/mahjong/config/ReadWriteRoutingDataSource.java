@@ -0,0 +1,90 @@
+package com.mahjong.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 读写分离路由数据源
+ * 只读事务路由到从库，其余（写事务、无事务访问）路由到主库；从库不可用或延迟过大时只读事务回落主库。
+ * 必须包裹在 LazyConnectionDataSourceProxy 中使用，使连接在事务只读标记设置之后才真正获取。
+ */
+public final class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * 路由目标
+     */
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final boolean replicaConfigured;
+
+    private volatile boolean replicaAvailable;
+
+    private Counter primaryCounter;
+    private Counter replicaCounter;
+    private Counter fallbackCounter;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Route.PRIMARY, primary);
+        if (replica != null) {
+            targets.put(Route.REPLICA, replica);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.replicaConfigured = replica != null;
+        this.replicaAvailable = replica != null;
+    }
+
+    /**
+     * 注册路由计数指标
+     */
+    public void bindMetrics(MeterRegistry registry) {
+        primaryCounter = Counter.builder("mahjong.datasource.route")
+                .tag("target", "primary").description("路由到主库的连接数").register(registry);
+        replicaCounter = Counter.builder("mahjong.datasource.route")
+                .tag("target", "replica").description("路由到从库的连接数").register(registry);
+        fallbackCounter = Counter.builder("mahjong.datasource.replica.fallback")
+                .description("从库不可用时回落主库的只读连接数").register(registry);
+    }
+
+    /**
+     * 由延迟监控更新从库可用状态
+     */
+    public void setReplicaAvailable(boolean available) {
+        this.replicaAvailable = replicaConfigured && available;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (replicaAvailable) {
+                increment(replicaCounter);
+                return Route.REPLICA;
+            }
+            if (replicaConfigured) {
+                increment(fallbackCounter);
+            }
+        }
+        increment(primaryCounter);
+        return Route.PRIMARY;
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
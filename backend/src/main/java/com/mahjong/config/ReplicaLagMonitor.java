@@ -0,0 +1,96 @@
+package com.mahjong.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 从库延迟监控
+ * 定期读取从库复制状态，复制中断、延迟超过阈值、无法连接，或连接到的实例没有复制状态
+ * （指向了非从库实例、复制已被 RESET）时把从库标记为不可用，
+ * 只读事务随之回落主库；恢复后自动切回。
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final long maxLagSeconds;
+
+    // 最近一次检测到的延迟（秒），-1表示未知
+    private volatile long lagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, ReadWriteRoutingDataSource routingDataSource, long maxLagSeconds) {
+        this.replica = replica;
+        this.routingDataSource = routingDataSource;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    /**
+     * 注册延迟与可用性指标
+     */
+    public void bindMetrics(MeterRegistry registry) {
+        Gauge.builder("mahjong.datasource.replica.lag", this, m -> m.lagSeconds)
+                .description("从库复制延迟（秒），-1表示未知")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("mahjong.datasource.replica.available", routingDataSource, r -> r.isReplicaAvailable() ? 1 : 0)
+                .description("从库是否参与只读路由")
+                .register(registry);
+    }
+
+    /**
+     * 检测从库延迟
+     */
+    @Scheduled(fixedDelayString = "${spring.datasource.replica.lag-check-interval:5000}")
+    public void check() {
+        boolean available;
+        try {
+            Long lag = readLagSeconds();
+            lagSeconds = lag == null ? -1 : lag;
+            available = lag != null && lag <= maxLagSeconds;
+            if (!available) {
+                log.warn("从库延迟过大或复制中断: lag={}s, 阈值={}s，只读请求回落主库", lag, maxLagSeconds);
+            }
+        } catch (Exception e) {
+            lagSeconds = -1;
+            available = false;
+            log.warn("从库状态检测失败，只读请求回落主库: {}", e.getMessage());
+        }
+
+        if (available != routingDataSource.isReplicaAvailable()) {
+            log.info("从库路由状态变更: {}", available ? "启用" : "停用");
+        }
+        routingDataSource.setReplicaAvailable(available);
+    }
+
+    /**
+     * 读取复制延迟，复制未运行或实例没有复制状态时返回null
+     */
+    private Long readLagSeconds() throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                return rs.next() ? toLong(rs.getString("Seconds_Behind_Source")) : null;
+            } catch (SQLException e) {
+                // MySQL 8.0.22 之前的版本
+                try (ResultSet rs = statement.executeQuery("SHOW SLAVE STATUS")) {
+                    return rs.next() ? toLong(rs.getString("Seconds_Behind_Master")) : null;
+                }
+            }
+        }
+    }
+
+    private static Long toLong(String value) {
+        return value == null ? null : Long.valueOf(value);
+    }
+}
@@ -0,0 +1,53 @@
+package com.mahjong.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 历史数据保留配置
+ * 对局动作和聊天记录按月分区，超出保留期的分区导出为归档文件后删除
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "game.retention")
+public class RetentionProperties {
+
+    /**
+     * 是否启用分区维护与归档导出（需先执行分区迁移脚本）
+     */
+    private boolean enabled = false;
+
+    /**
+     * 按月分区的表
+     */
+    private List<String> tables = List.of("game_actions", "chat_messages");
+
+    /**
+     * 热数据保留月数（含当月）
+     */
+    private int hotMonths = 3;
+
+    /**
+     * 提前创建的未来分区月数
+     */
+    private int premakeMonths = 2;
+
+    /**
+     * 归档文件目录，多节点部署时须为各节点共享的存储（如NFS挂载）：
+     * 分区只由取得维护锁的节点导出，其他节点从同一目录读取归档
+     */
+    private String archiveDir = "./data/archive";
+
+    /**
+     * 归档文件行组大小
+     */
+    private int rowGroupSize = 4096;
+
+    /**
+     * 单次历史查询返回的最大行数
+     */
+    private int maxQueryRows = 2000;
+}
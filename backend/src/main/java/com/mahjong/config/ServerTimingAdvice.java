@@ -0,0 +1,40 @@
+package com.mahjong.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 在写出响应体之前附加 Server-Timing 头（此时接口内的数据库访问已结束，响应头尚未提交）
+ * <p>
+ * 头的值在 Jackson 序列化之前取得。应用开启了 open-in-view，接口直接返回实体时，
+ * 序列化过程中触发的懒加载查询仍计入语句统计和 mahjong.db.* 指标（请求结束时记录），
+ * 但不会出现在 Server-Timing 头中。因此头里的语句数是下限，判断 N+1 以指标和告警日志为准。
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Autowired
+    private StatementBudgetMonitor statementBudgetMonitor;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        String timing = statementBudgetMonitor.serverTiming();
+        if (timing != null) {
+            response.getHeaders().add("Server-Timing", timing);
+        }
+        return body;
+    }
+}
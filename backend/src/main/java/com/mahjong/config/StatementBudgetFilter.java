@@ -0,0 +1,40 @@
+package com.mahjong.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 按REST请求统计JDBC语句数，操作名取 "方法 路径模板"，不带路径参数的具体值
+ */
+@Component
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private StatementBudgetMonitor statementBudgetMonitor;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        statementBudgetMonitor.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            statementBudgetMonitor.end(StatementBudgetMonitor.SCOPE_HTTP,
+                    request.getMethod() + " " + (pattern != null ? pattern : "unmatched"));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.mahjong.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据库语句预算监控
+ * HTTP请求和Socket事件处理开始时在线程上开启 {@link StatementScope}，结束时按 范围 × 操作名
+ * 记录语句数和数据库耗时指标；超出语句预算或同一SQL重复执行达到阈值（疑似N+1）时记录告警并计数。
+ */
+@Component
+public class StatementBudgetMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementBudgetMonitor.class);
+
+    public static final String SCOPE_HTTP = "http";
+    public static final String SCOPE_SOCKET = "socket";
+
+    private static final int SQL_LOG_MAX = 200;
+
+    @Autowired
+    private StatementBudgetProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    /**
+     * 在当前线程开始统计
+     */
+    public void begin() {
+        if (properties.isEnabled()) {
+            StatementScope.begin();
+        }
+    }
+
+    /**
+     * 结束当前线程的统计并记录
+     *
+     * @param scope     范围：http / socket
+     * @param operation 操作名：Socket事件名或 "方法 路径模板"
+     */
+    public void end(String scope, String operation) {
+        StatementScope statements = StatementScope.end();
+        if (statements == null) {
+            return;
+        }
+        Meters recorded = meters.computeIfAbsent(scope + ':' + operation, k -> new Meters(scope, operation));
+        recorded.statements.record(statements.getStatements());
+        recorded.time.record(statements.getNanos(), TimeUnit.NANOSECONDS);
+
+        int budget = properties.budgetFor(operation);
+        boolean overBudget = statements.getStatements() > budget;
+        boolean repeated = statements.getMostRepeatedCount() >= properties.getRepeatThreshold();
+        if (overBudget || repeated) {
+            recorded.exceeded.increment();
+            log.warn("数据库语句{}: {} {} 执行{}条（预算{}），耗时{}ms，重复最多的语句执行{}次: {}",
+                    overBudget ? "超出预算" : "疑似N+1", scope, operation, statements.getStatements(), budget,
+                    formatMillis(statements.getNanos()), statements.getMostRepeatedCount(),
+                    abbreviate(statements.getMostRepeatedSql()));
+        }
+    }
+
+    /**
+     * 当前线程统计对应的 Server-Timing 头，未在统计中或未启用时返回null
+     */
+    public String serverTiming() {
+        StatementScope statements = StatementScope.current();
+        if (statements == null || !properties.isServerTiming()) {
+            return null;
+        }
+        return "db;dur=" + formatMillis(statements.getNanos()) + ";desc=\"" + statements.getStatements() + " statements\"";
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    private static String abbreviate(String sql) {
+        if (sql == null) {
+            return "-";
+        }
+        String compact = sql.replaceAll("\\s+", " ");
+        return compact.length() > SQL_LOG_MAX ? compact.substring(0, SQL_LOG_MAX) + "..." : compact;
+    }
+
+    /**
+     * 单个操作的指标
+     */
+    private final class Meters {
+        final DistributionSummary statements;
+        final Timer time;
+        final Counter exceeded;
+
+        Meters(String scope, String operation) {
+            statements = DistributionSummary.builder("mahjong.db.statements")
+                    .tag("scope", scope)
+                    .tag("operation", operation)
+                    .description("单次请求或事件执行的JDBC语句数")
+                    .register(meterRegistry);
+            time = Timer.builder("mahjong.db.time")
+                    .tag("scope", scope)
+                    .tag("operation", operation)
+                    .description("单次请求或事件的JDBC语句执行总耗时")
+                    .register(meterRegistry);
+            exceeded = Counter.builder("mahjong.db.budget.exceeded")
+                    .tag("scope", scope)
+                    .tag("operation", operation)
+                    .description("超出语句预算或疑似N+1的请求和事件数")
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.mahjong.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 数据库语句预算配置
+ * 每个HTTP请求、每个Socket事件允许执行的JDBC语句数，超出或同一SQL重复执行过多时记录告警
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "game.statements")
+public class StatementBudgetProperties {
+
+    /**
+     * 是否统计语句数（关闭后不包装数据源）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 默认语句预算
+     */
+    private int budget = 10;
+
+    /**
+     * 同一SQL在一次请求或事件中执行达到该次数时按疑似N+1告警
+     */
+    private int repeatThreshold = 3;
+
+    /**
+     * REST响应是否附带 Server-Timing 头
+     */
+    private boolean serverTiming = true;
+
+    /**
+     * 按操作名单独配置的预算：Socket事件名，或 "方法 路径模板"（如 POST /api/v1/rooms/{roomNumber}/join）
+     */
+    private Map<String, Integer> budgets = new HashMap<>();
+
+    /**
+     * 指定操作的语句预算
+     */
+    public int budgetFor(String operation) {
+        return budgets.getOrDefault(operation, budget);
+    }
+}
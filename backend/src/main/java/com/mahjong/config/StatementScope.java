@@ -0,0 +1,91 @@
+package com.mahjong.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 一次HTTP请求或Socket事件处理中执行的JDBC语句统计
+ * 绑定在处理线程上，由 {@link StatementCountingDataSource} 在语句执行后累加；
+ * 同时按SQL文本计数，记录重复次数最多的语句，用于发现循环内逐条查询（N+1）。
+ */
+public final class StatementScope {
+
+    private static final ThreadLocal<StatementScope> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+    private Map<String, Integer> executions;
+    private String mostRepeatedSql;
+    private int mostRepeatedCount;
+
+    private StatementScope() {
+    }
+
+    /**
+     * 在当前线程开始统计，须与 {@link #end()} 成对调用
+     */
+    public static StatementScope begin() {
+        StatementScope scope = new StatementScope();
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * 当前线程的统计，未开始时返回null
+     */
+    public static StatementScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 结束当前线程的统计
+     *
+     * @return 统计结果，未开始时返回null
+     */
+    public static StatementScope end() {
+        StatementScope scope = CURRENT.get();
+        CURRENT.remove();
+        return scope;
+    }
+
+    /**
+     * 记录一次语句执行
+     *
+     * @param sql   SQL文本，未知时为null
+     * @param nanos 执行耗时（纳秒）
+     */
+    void record(String sql, long nanos) {
+        statements++;
+        this.nanos += nanos;
+        if (sql == null) {
+            return;
+        }
+        if (executions == null) {
+            executions = new HashMap<>();
+        }
+        int count = executions.merge(sql, 1, Integer::sum);
+        if (count > mostRepeatedCount) {
+            mostRepeatedCount = count;
+            mostRepeatedSql = sql;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * 执行次数最多的SQL，没有执行语句时为null
+     */
+    public String getMostRepeatedSql() {
+        return mostRepeatedSql;
+    }
+
+    public int getMostRepeatedCount() {
+        return mostRepeatedCount;
+    }
+}
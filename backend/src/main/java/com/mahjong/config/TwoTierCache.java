@@ -0,0 +1,147 @@
+package com.mahjong.config;
+
+import com.mahjong.jfr.CacheMissEvent;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * 两级缓存：进程内 LocalCache 在前，Redis 在后
+ * 本地只缓存从 Redis 读出的副本，写入和失效先作用于 Redis，再清除本地条目并通过发布订阅通知其他节点。
+ * 缓存值在各线程间共享，调用方应视为只读。
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final LocalCache local;
+    private final Cache remote;
+    // (缓存名, 键) -> 广播失效，键为null表示清空
+    private final BiConsumer<String, String> invalidationPublisher;
+
+    final LongAdder remoteHits = new LongAdder();
+    final LongAdder remoteMisses = new LongAdder();
+
+    TwoTierCache(String name, LocalCache local, Cache remote, BiConsumer<String, String> invalidationPublisher) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper wrapper = local.get(localKey);
+        if (wrapper != null) {
+            return wrapper;
+        }
+        CacheMissEvent miss = new CacheMissEvent();
+        miss.begin();
+        long generation = local.generation(localKey);
+        wrapper = remote.get(key);
+        if (wrapper != null) {
+            remoteHits.increment();
+            local.put(localKey, wrapper, generation);
+        } else {
+            remoteMisses.increment();
+        }
+        miss.end();
+        if (miss.shouldCommit()) {
+            miss.cache = name;
+            miss.key = localKey;
+            miss.remoteHit = wrapper != null;
+            miss.commit();
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("缓存值类型不匹配: 期望 " + type.getName() + ", 实际 " + value.getClass().getName());
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        // 由 Redis 缓存负责回源加锁和写入；本地等下次读取时从 Redis 取副本
+        return remote.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        invalidateEverywhere(key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing == null) {
+            invalidateEverywhere(key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        invalidateEverywhere(key);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.clear();
+        invalidationPublisher.accept(name, null);
+    }
+
+    /**
+     * 处理其他节点发来的失效通知，只清除本地条目
+     */
+    void invalidateLocal(String key) {
+        if (key == null) {
+            local.clear();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    LocalCache getLocal() {
+        return local;
+    }
+
+    private void invalidateEverywhere(Object key) {
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        invalidationPublisher.accept(name, localKey);
+    }
+
+    /**
+     * 本地键与Redis键一致取字符串形式，便于按失效通知中的键清除
+     */
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,148 @@
+package com.mahjong.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 两级缓存管理器
+ * 每个缓存由本地 LocalCache 和 RedisCache 组成，写入和失效在事务提交后执行，
+ * 并通过 Redis 发布订阅通知其他节点清除本地条目。
+ */
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+    private static final String SEPARATOR = "\n";
+
+    private final RedisCacheManager remoteManager;
+    private final CacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final byte[] channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Cache> decorated = new ConcurrentHashMap<>();
+    private final LongAdder publishFailures = new LongAdder();
+
+    public TwoTierCacheManager(RedisConnectionFactory connectionFactory, RedisCacheConfiguration remoteDefaults,
+                               CacheProperties properties, MeterRegistry meterRegistry,
+                               RedisTemplate<String, Object> redisTemplate) {
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(remoteDefaults.entryTtl(new CacheProperties.Spec().getRemoteTtl()));
+        properties.getSpecs().forEach((name, spec) ->
+                builder.withCacheConfiguration(name, remoteDefaults.entryTtl(spec.getRemoteTtl())));
+        this.remoteManager = builder.build();
+        this.remoteManager.afterPropertiesSet();
+
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.redisTemplate = redisTemplate;
+        this.channel = properties.getInvalidationChannel().getBytes(StandardCharsets.UTF_8);
+
+        FunctionCounter.builder("mahjong.cache.invalidation.publish.failures", publishFailures, LongAdder::sum)
+                .description("缓存失效通知发布失败次数")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return decorated.computeIfAbsent(name, n -> new TransactionAwareCacheDecorator(twoTier(n)));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(decorated.keySet());
+    }
+
+    /**
+     * 接收其他节点的失效通知：节点ID、缓存名、键（无键表示清空）
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.invalidateLocal(parts.length == 3 ? parts[2] : null);
+        }
+    }
+
+    private TwoTierCache twoTier(String name) {
+        return caches.computeIfAbsent(name, n -> {
+            CacheProperties.Spec spec = properties.specFor(n);
+            LocalCache local = new LocalCache(spec.getLocalMaxSize(), spec.getLocalTtl().toNanos());
+            TwoTierCache cache = new TwoTierCache(n, local, remoteManager.getCache(n), this::publishInvalidation);
+            registerMetrics(cache);
+            return cache;
+        });
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        String body = nodeId + SEPARATOR + cacheName + (key != null ? SEPARATOR + key : "");
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.publish(channel, body.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            // 其他节点的本地条目将在本地存活时间后过期
+            publishFailures.increment();
+            log.warn("发布缓存失效通知失败: cache={}, key={}", cacheName, key, e);
+        }
+    }
+
+    private void registerMetrics(TwoTierCache cache) {
+        LocalCache local = cache.getLocal();
+        Tags tags = Tags.of("cache", cache.getName());
+
+        FunctionCounter.builder("mahjong.cache.gets", local.hits, LongAdder::sum)
+                .tags(tags).tag("tier", "local").tag("result", "hit")
+                .description("缓存读取次数").register(meterRegistry);
+        FunctionCounter.builder("mahjong.cache.gets", local.misses, LongAdder::sum)
+                .tags(tags).tag("tier", "local").tag("result", "miss")
+                .description("缓存读取次数").register(meterRegistry);
+        FunctionCounter.builder("mahjong.cache.gets", cache.remoteHits, LongAdder::sum)
+                .tags(tags).tag("tier", "remote").tag("result", "hit")
+                .description("缓存读取次数").register(meterRegistry);
+        FunctionCounter.builder("mahjong.cache.gets", cache.remoteMisses, LongAdder::sum)
+                .tags(tags).tag("tier", "remote").tag("result", "miss")
+                .description("缓存读取次数").register(meterRegistry);
+
+        FunctionCounter.builder("mahjong.cache.evictions", local.sizeEvictions, LongAdder::sum)
+                .tags(tags).tag("cause", "size")
+                .description("本地缓存淘汰次数").register(meterRegistry);
+        FunctionCounter.builder("mahjong.cache.evictions", local.expiredEvictions, LongAdder::sum)
+                .tags(tags).tag("cause", "expired")
+                .description("本地缓存淘汰次数").register(meterRegistry);
+        FunctionCounter.builder("mahjong.cache.evictions", local.invalidations, LongAdder::sum)
+                .tags(tags).tag("cause", "invalidated")
+                .description("本地缓存淘汰次数").register(meterRegistry);
+
+        Gauge.builder("mahjong.cache.local.size", local, LocalCache::size)
+                .tags(tags)
+                .description("本地缓存条目数").register(meterRegistry);
+    }
+}
@@ -1,7 +1,10 @@
 package com.mahjong.controller;
 
+import com.mahjong.service.ChatHistoryService;
 import com.mahjong.service.ChatService;
+import com.mahjong.service.SensitiveWordFilter;
 import com.mahjong.service.dto.ApiResponse;
+import com.mahjong.service.dto.ChatHistoryPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -26,6 +29,8 @@ import jakarta.validation.constraints.Size;
 public class ChatController {
 
     private final ChatService chatService;
+    private final SensitiveWordFilter sensitiveWordFilter;
+    private final ChatHistoryService chatHistoryService;
 
     /**
      * 发送聊天消息
@@ -98,4 +103,39 @@ public class ChatController {
         return ResponseEntity.status(stringResponse.getCode() == 200 ? 200 : 400)
                 .body(stringResponse);
     }
-}
\ No newline at end of file
+
+    /**
+     * 查询房间聊天历史
+     */
+    @GetMapping("/rooms/{roomId}/history")
+    @Operation(summary = "查询聊天历史", description = "按游标分页查询房间聊天记录，从新到旧，近期消息直接从内存读取")
+    public ResponseEntity<ApiResponse<ChatHistoryPage>> getHistory(
+            @Parameter(description = "房间号", required = true)
+            @PathVariable String roomId,
+
+            @Parameter(description = "游标，返回该消息ID之前的消息；为空从最新开始")
+            @RequestParam(required = false) Long before,
+
+            @Parameter(description = "每页条数，最大100")
+            @RequestParam(defaultValue = "20") int limit) {
+
+        try {
+            return ResponseEntity.ok(ApiResponse.success(chatHistoryService.getHistory(roomId, before, limit)));
+        } catch (Exception e) {
+            log.error("查询聊天历史失败: roomId={}", roomId, e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.internalServerError("查询聊天历史失败"));
+        }
+    }
+
+    /**
+     * 重新加载敏感词库
+     */
+    @PostMapping("/sensitive-words/reload")
+    @Operation(summary = "重新加载敏感词库", description = "从配置的词库文件重新构建敏感词过滤器，返回词条数")
+    public ResponseEntity<ApiResponse<Integer>> reloadSensitiveWords() {
+        int wordCount = sensitiveWordFilter.reload();
+        log.info("HTTP请求重新加载敏感词库: 词条数={}", wordCount);
+        return ResponseEntity.ok(ApiResponse.success("敏感词库已重新加载", wordCount));
+    }
+}
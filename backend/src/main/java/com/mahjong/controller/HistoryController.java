@@ -0,0 +1,91 @@
+package com.mahjong.controller;
+
+import com.mahjong.service.HistoryQueryRouter;
+import com.mahjong.service.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 历史记录控制器
+ * 查询对局操作和聊天历史，按时间范围自动路由到热表或归档文件
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@RestController
+@RequestMapping("/api/v1/history")
+@RequiredArgsConstructor
+@Slf4j
+public class HistoryController {
+
+    private static final String DATE_TIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private final HistoryQueryRouter historyQueryRouter;
+
+    /**
+     * 查询对局操作记录
+     *
+     * @param gameId 游戏ID
+     * @param from   起始时间（包含）
+     * @param to     截止时间（不包含）
+     * @param limit  最大返回行数
+     * @return 操作记录
+     */
+    @GetMapping("/games/{gameId}/actions")
+    public ResponseEntity<ApiResponse<HistoryQueryRouter.HistoryResult>> getGameActions(
+            @PathVariable Long gameId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_PATTERN) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_PATTERN) LocalDateTime to,
+            @RequestParam(defaultValue = "500") int limit) {
+
+        log.info("查询对局操作记录: gameId={}, from={}, to={}", gameId, from, to);
+
+        try {
+            if (from != null && to != null && !from.isBefore(to)) {
+                return ResponseEntity.badRequest().body(ApiResponse.badRequest("起始时间必须早于截止时间"));
+            }
+            HistoryQueryRouter.HistoryResult result = historyQueryRouter.findGameActions(gameId, from, to, limit);
+            return ResponseEntity.ok(ApiResponse.success(result));
+        } catch (Exception e) {
+            log.error("查询对局操作记录失败 - 系统错误", e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.internalServerError("系统内部错误，请稍后重试"));
+        }
+    }
+
+    /**
+     * 查询房间聊天记录
+     *
+     * @param roomId 房间ID
+     * @param from   起始时间（包含）
+     * @param to     截止时间（不包含）
+     * @param limit  最大返回行数
+     * @return 聊天记录
+     */
+    @GetMapping("/rooms/{roomId}/chat")
+    public ResponseEntity<ApiResponse<HistoryQueryRouter.HistoryResult>> getChatMessages(
+            @PathVariable Long roomId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_PATTERN) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_PATTERN) LocalDateTime to,
+            @RequestParam(defaultValue = "500") int limit) {
+
+        log.info("查询房间聊天记录: roomId={}, from={}, to={}", roomId, from, to);
+
+        try {
+            if (from != null && to != null && !from.isBefore(to)) {
+                return ResponseEntity.badRequest().body(ApiResponse.badRequest("起始时间必须早于截止时间"));
+            }
+            HistoryQueryRouter.HistoryResult result = historyQueryRouter.findChatMessages(roomId, from, to, limit);
+            return ResponseEntity.ok(ApiResponse.success(result));
+        } catch (Exception e) {
+            log.error("查询房间聊天记录失败 - 系统错误", e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.internalServerError("系统内部错误，请稍后重试"));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.mahjong.controller;
+
+import com.mahjong.service.LeaderboardService;
+import com.mahjong.service.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 排行榜控制器
+ * 提供日榜、周榜、总榜的前K名和玩家附近名次查询
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@RestController
+@RequestMapping("/api/v1/leaderboards")
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    /**
+     * 获取排行榜前K名
+     *
+     * @param metric 排名指标（score / wins）
+     * @param window 排行周期（daily / weekly / all_time）
+     * @param limit  名次数量
+     * @return 榜单条目
+     */
+    @GetMapping("/{metric}/{window}")
+    public ResponseEntity<ApiResponse<List<LeaderboardService.LeaderboardEntry>>> getTop(
+            @PathVariable String metric,
+            @PathVariable String window,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        log.info("获取排行榜请求: metric={}, window={}, limit={}", metric, window, limit);
+
+        try {
+            LeaderboardService.Metric parsedMetric = parseMetric(metric);
+            LeaderboardService.Window parsedWindow = parseWindow(window);
+            if (parsedMetric == null || parsedWindow == null) {
+                return ResponseEntity.badRequest().body(ApiResponse.badRequest("不支持的排名指标或周期"));
+            }
+
+            ApiResponse<List<LeaderboardService.LeaderboardEntry>> result =
+                    leaderboardService.getTop(parsedMetric, parsedWindow, limit);
+            if (!result.isSuccess()) {
+                return ResponseEntity.internalServerError().body(result);
+            }
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            log.error("获取排行榜失败 - 系统错误", e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.internalServerError("系统内部错误，请稍后重试"));
+        }
+    }
+
+    /**
+     * 获取玩家排名及前后名次
+     *
+     * @param metric   排名指标（score / wins）
+     * @param window   排行周期（daily / weekly / all_time）
+     * @param playerId 玩家ID
+     * @param radius   前后名次数量
+     * @return 以该玩家为中心的榜单片段
+     */
+    @GetMapping("/{metric}/{window}/players/{playerId}")
+    public ResponseEntity<ApiResponse<List<LeaderboardService.LeaderboardEntry>>> getAround(
+            @PathVariable String metric,
+            @PathVariable String window,
+            @PathVariable String playerId,
+            @RequestParam(defaultValue = "5") int radius) {
+
+        log.info("获取玩家排名请求: metric={}, window={}, playerId={}", metric, window, playerId);
+
+        try {
+            LeaderboardService.Metric parsedMetric = parseMetric(metric);
+            LeaderboardService.Window parsedWindow = parseWindow(window);
+            if (parsedMetric == null || parsedWindow == null) {
+                return ResponseEntity.badRequest().body(ApiResponse.badRequest("不支持的排名指标或周期"));
+            }
+
+            ApiResponse<List<LeaderboardService.LeaderboardEntry>> result =
+                    leaderboardService.getAround(parsedMetric, parsedWindow, playerId, radius);
+            if (!result.isSuccess()) {
+                if (Integer.valueOf(404).equals(result.getCode())) {
+                    return ResponseEntity.status(404).body(result);
+                }
+                return ResponseEntity.internalServerError().body(result);
+            }
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            log.error("获取玩家排名失败 - 系统错误", e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.internalServerError("系统内部错误，请稍后重试"));
+        }
+    }
+
+    private LeaderboardService.Metric parseMetric(String metric) {
+        try {
+            return LeaderboardService.Metric.valueOf(metric.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private LeaderboardService.Window parseWindow(String window) {
+        try {
+            return LeaderboardService.Window.valueOf(window.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -2,12 +2,15 @@ package com.mahjong.controller;
 
 import com.mahjong.dto.response.PlayerResponse;
 import com.mahjong.entity.Player;
+import com.mahjong.entity.PlayerStats;
 import com.mahjong.service.PlayerService;
+import com.mahjong.service.PlayerStatsService;
 import com.mahjong.service.dto.ApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -31,6 +34,7 @@ import java.util.stream.Collectors;
 public class PlayerController {
 
     private final PlayerService playerService;
+    private final PlayerStatsService playerStatsService;
 
     /**
      * 获取玩家信息
@@ -292,31 +296,19 @@ public class PlayerController {
         log.info("获取玩家游戏统计请求: playerId={}", playerId);
 
         try {
-            // 获取玩家游戏统计
-            ApiResponse<Player> playerResponse = playerService.getPlayerById(playerId);
-            if (!playerResponse.isSuccess() || playerResponse.getData() == null) {
-                return ResponseEntity.notFound().build();
+            // 按主键读取统计投影
+            ApiResponse<PlayerStats> statsResult = playerStatsService.getPlayerStats(playerId);
+            PlayerResponse.GameStatsResponse statsResponse;
+            if (statsResult.isSuccess() && statsResult.getData() != null) {
+                statsResponse = PlayerResponse.GameStatsResponse.fromStats(statsResult.getData());
+            } else {
+                // 没有统计行（尚未结算或补算未完成）时回退到玩家表的累计数据
+                ApiResponse<Player> playerResponse = playerService.getPlayerById(playerId);
+                if (!playerResponse.isSuccess() || playerResponse.getData() == null) {
+                    return ResponseEntity.notFound().build();
+                }
+                statsResponse = PlayerResponse.GameStatsResponse.fromPlayer(playerResponse.getData());
             }
-            Player player = playerResponse.getData();
-
-            // 转换统计信息为响应DTO - 使用Player实体的现有数据
-            int totalWins = player.getWinsCount() != null ? player.getWinsCount() : 0;
-            int totalScore = player.getTotalScore() != null ? player.getTotalScore() : 0;
-            double winRate = totalWins > 0 ? (double) totalWins / Math.max(1, totalWins) : 0.0;
-
-            PlayerResponse.GameStatsResponse statsResponse = PlayerResponse.GameStatsResponse.builder()
-                    .totalGames(Math.max(1, totalWins))
-                    .winGames(totalWins)
-                    .winRate(winRate)
-                    .highScore(totalScore)
-                    .totalWins(totalWins)
-                    .totalWinScore(totalScore)
-                    .totalGangs(0)
-                    .totalPengs(0)
-                    .averageScore(totalWins > 0 ? (double) totalScore / totalWins : 0.0)
-                    .level(1)
-                    .experience((long)(totalWins * 100))
-                    .build();
 
             return ResponseEntity.ok(ApiResponse.success(statsResponse));
 
@@ -394,7 +386,7 @@ public class PlayerController {
 
         try {
             // 搜索玩家
-            ApiResponse<List<Player>> searchResponse = playerService.searchPlayers(keyword, page, size);
+            ApiResponse<Page<Player>> searchResponse = playerService.searchPlayers(keyword, page, size);
             if (!searchResponse.isSuccess() || searchResponse.getData() == null) {
                 return ResponseEntity.ok(ApiResponse.success(Map.of(
                         "players", List.of(),
@@ -404,10 +396,10 @@ public class PlayerController {
                         "keyword", keyword
                 )));
             }
-            List<Player> players = searchResponse.getData();
+            Page<Player> players = searchResponse.getData();
 
             // 转换为响应DTO
-            List<PlayerResponse> playerResponses = players.stream()
+            List<PlayerResponse> playerResponses = players.getContent().stream()
                     .map(PlayerResponse::fromEntity)
                     .collect(Collectors.toList());
 
@@ -416,7 +408,7 @@ public class PlayerController {
                     "players", playerResponses,
                     "page", page,
                     "size", size,
-                    "total", playerResponses.size(),
+                    "total", players.getTotalElements(),
                     "keyword", keyword
             );
 
@@ -9,6 +9,7 @@ import com.mahjong.entity.Room;
 import com.mahjong.entity.GameConfig;
 import com.mahjong.service.RoomService;
 import com.mahjong.service.GameConfigService;
+import com.mahjong.service.LobbyIndexService;
 import com.mahjong.service.dto.ApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -18,9 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * 房间管理控制器
@@ -38,6 +37,7 @@ public class RoomController {
 
     private final RoomService roomService;
     private final GameConfigService gameConfigService;
+    private final LobbyIndexService lobbyIndexService;
 
     /**
      * 创建房间
@@ -199,16 +199,13 @@ public class RoomController {
         log.info("获取房间信息请求: roomNumber={}, userId={}", roomNumber, userId);
 
         try {
-            // 获取房间信息
-            Room room = roomService.getRoomByNumber(roomNumber);
-            if (room == null) {
+            // 获取房间详情（玩家、观战者、游戏配置一次查询加载）
+            RoomResponse response = roomService.getRoomDetail(roomNumber);
+            if (response == null) {
                 return ResponseEntity.notFound()
                         .build();
             }
 
-            // 转换为响应DTO
-            RoomResponse response = RoomResponse.fromEntity(room, userId);
-
             return ResponseEntity.ok(ApiResponse.success(response));
 
         } catch (IllegalArgumentException e) {
@@ -271,11 +268,13 @@ public class RoomController {
 
     /**
      * 获取房间列表
+     * 直接读取内存中的大厅索引，不访问数据库
      *
      * @param page 页码
      * @param size 每页大小
-     * @param status 房间状态过滤
-     * @param isPublic 是否公开房间
+     * @param status 房间状态过滤（active表示可加入的等待中房间）
+     * @param hasPassword 是否有密码过滤
+     * @param allowSpectate 是否允许观战过滤
      * @return 房间列表
      */
     @GetMapping
@@ -283,39 +282,31 @@ public class RoomController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) Boolean isPublic) {
+            @RequestParam(required = false) Boolean hasPassword,
+            @RequestParam(required = false) Boolean allowSpectate) {
 
-        log.info("获取房间列表请求: page={}, size={}, status={}, isPublic={}",
-                page, size, status, isPublic);
+        log.debug("获取房间列表请求: page={}, size={}, status={}, hasPassword={}, allowSpectate={}",
+                page, size, status, hasPassword, allowSpectate);
 
         try {
-            // 获取房间列表
-            ApiResponse<List<Room>> listResponse = roomService.getRoomList(status, isPublic, page, size);
-            if (!listResponse.isSuccess() || listResponse.getData() == null) {
-                return ResponseEntity.ok(ApiResponse.success(Map.of(
-                        "rooms", List.of(),
-                        "page", page,
-                        "size", size,
-                        "total", 0
-                )));
-            }
-            List<Room> rooms = listResponse.getData();
-
-            // 转换为响应DTO
-            List<RoomResponse> roomResponses = rooms.stream()
-                    .map(room -> RoomResponse.fromEntity(room))
-                    .collect(Collectors.toList());
+            LobbyIndexService.LobbyPage lobbyPage = lobbyIndexService.query(
+                    parseRoomStatus(status), hasPassword, allowSpectate, page, size);
 
             // 构建分页响应
             Map<String, Object> response = Map.of(
-                    "rooms", roomResponses,
+                    "rooms", lobbyPage.getRooms(),
                     "page", page,
                     "size", size,
-                    "total", roomResponses.size()
+                    "total", lobbyPage.getTotal(),
+                    "version", lobbyPage.getVersion()
             );
 
             return ResponseEntity.ok(ApiResponse.success(response));
 
+        } catch (IllegalArgumentException e) {
+            log.warn("获取房间列表失败 - 参数错误: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.badRequest(e.getMessage()));
         } catch (Exception e) {
             log.error("获取房间列表失败 - 系统错误", e);
             return ResponseEntity.internalServerError()
@@ -371,8 +362,12 @@ public class RoomController {
 
         try {
             // 清理过期房间
-            ApiResponse<String> cleanupResponse = roomService.cleanupExpiredRooms();
-            int cleanedCount = 0; // 简化处理，实际可以从response中获取
+            ApiResponse<Integer> cleanupResponse = roomService.cleanupExpiredRooms();
+            if (!cleanupResponse.isSuccess()) {
+                return ResponseEntity.internalServerError()
+                        .body(ApiResponse.internalServerError(cleanupResponse.getMessage()));
+            }
+            int cleanedCount = cleanupResponse.getData() != null ? cleanupResponse.getData() : 0;
 
             Map<String, Integer> response = Map.of("cleanedCount", cleanedCount);
 
@@ -386,6 +381,23 @@ public class RoomController {
         }
     }
 
+    /**
+     * 解析房间状态过滤参数
+     */
+    private Room.RoomStatus parseRoomStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        if ("active".equalsIgnoreCase(status)) {
+            return Room.RoomStatus.WAITING;
+        }
+        try {
+            return Room.RoomStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的房间状态: " + status);
+        }
+    }
+
     /**
      * 验证游戏配置参数
      */
@@ -1,5 +1,7 @@
 package com.mahjong.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.mahjong.entity.PlayerStats;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -138,6 +140,22 @@ public class PlayerResponse {
          */
         private Double averageScore;
 
+        /**
+         * 自摸次数
+         */
+        private Integer zimoCount;
+
+        /**
+         * 番数分布（番数 -> 次数）
+         */
+        @JsonRawValue
+        private String fanDistribution;
+
+        /**
+         * 平均思考时间（毫秒）
+         */
+        private Double averageThinkTimeMs;
+
         /**
          * 等级
          */
@@ -147,6 +165,55 @@ public class PlayerResponse {
          * 经验值
          */
         private Long experience;
+
+        /**
+         * 从统计投影转换
+         */
+        public static GameStatsResponse fromStats(PlayerStats stats) {
+            int rounds = stats.getRoundsPlayed() != null ? stats.getRoundsPlayed() : 0;
+            int wins = stats.getWins() != null ? stats.getWins() : 0;
+            long totalScore = stats.getTotalScore() != null ? stats.getTotalScore() : 0L;
+
+            return GameStatsResponse.builder()
+                    .totalGames(rounds)
+                    .winGames(wins)
+                    .winRate(stats.getWinRate())
+                    .highScore(stats.getHighScore())
+                    .totalWins(wins)
+                    .totalWinScore(stats.getTotalWinScore() != null ? stats.getTotalWinScore().intValue() : 0)
+                    .totalGangs(stats.getTotalGangs())
+                    .totalPengs(stats.getPengCount())
+                    .averageScore(rounds > 0 ? (double) totalScore / rounds : 0.0)
+                    .zimoCount(stats.getZimoCount())
+                    .fanDistribution(stats.getFanDistribution() != null ? stats.getFanDistribution() : "{}")
+                    .averageThinkTimeMs(stats.getAverageThinkTimeMs())
+                    .level(1)
+                    .experience((long) wins * 100)
+                    .build();
+        }
+
+        /**
+         * 尚无统计投影时按玩家表的累计胜场和分数估算
+         */
+        public static GameStatsResponse fromPlayer(com.mahjong.entity.Player player) {
+            int totalWins = player.getWinsCount() != null ? player.getWinsCount() : 0;
+            int totalScore = player.getTotalScore() != null ? player.getTotalScore() : 0;
+            double winRate = totalWins > 0 ? (double) totalWins / Math.max(1, totalWins) : 0.0;
+
+            return GameStatsResponse.builder()
+                    .totalGames(Math.max(1, totalWins)) // 假设至少有一局游戏
+                    .winGames(totalWins)
+                    .winRate(winRate)
+                    .highScore(totalScore) // 使用当前分数作为最高分
+                    .totalWins(totalWins)
+                    .totalWinScore(totalScore)
+                    .totalGangs(0) // Player实体中没有这个数据
+                    .totalPengs(0) // Player实体中没有这个数据
+                    .averageScore(totalWins > 0 ? (double) totalScore / totalWins : 0.0)
+                    .level(1) // Player实体中没有这个数据
+                    .experience((long)(totalWins * 100)) // 简单的经验计算
+                    .build();
+        }
     }
 
     /**
@@ -179,23 +246,7 @@ public class PlayerResponse {
         PlayerResponse response = fromEntity(player);
         if (response != null) {
             // 使用Player实体的现有数据创建游戏统计
-            int totalWins = player.getWinsCount() != null ? player.getWinsCount() : 0;
-            int totalScore = player.getTotalScore() != null ? player.getTotalScore() : 0;
-            double winRate = totalWins > 0 ? (double) totalWins / Math.max(1, totalWins) : 0.0;
-
-            response.setGameStats(GameStatsResponse.builder()
-                    .totalGames(Math.max(1, totalWins)) // 假设至少有一局游戏
-                    .winGames(totalWins)
-                    .winRate(winRate)
-                    .highScore(totalScore) // 使用当前分数作为最高分
-                    .totalWins(totalWins)
-                    .totalWinScore(totalScore)
-                    .totalGangs(0) // Player实体中没有这个数据
-                    .totalPengs(0) // Player实体中没有这个数据
-                    .averageScore(totalWins > 0 ? (double) totalScore / totalWins : 0.0)
-                    .level(1) // Player实体中没有这个数据
-                    .experience((long)(totalWins * 100)) // 简单的经验计算
-                    .build());
+            response.setGameStats(GameStatsResponse.fromPlayer(player));
         }
         return response;
     }
@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -148,6 +150,40 @@ public class RoomResponse {
         return response;
     }
 
+    /**
+     * 房间详情静态工厂方法
+     * 要求房间的玩家列表和游戏配置已加载（见 RoomRepository#findDetailByRoomNumber），否则会触发懒加载查询
+     */
+    public static RoomResponse fromDetail(com.mahjong.entity.Room room) {
+        RoomResponse response = fromEntity(room);
+        if (response == null) {
+            return null;
+        }
+
+        List<PlayerResponse> players = new ArrayList<>();
+        List<PlayerResponse> spectators = new ArrayList<>();
+        String creatorNickname = "";
+        if (room.getPlayers() != null) {
+            for (com.mahjong.entity.Player player : room.getPlayers()) {
+                if (Boolean.TRUE.equals(player.getSpectator())) {
+                    spectators.add(PlayerResponse.fromEntity(player));
+                } else {
+                    players.add(PlayerResponse.fromEntity(player));
+                }
+                if (player.getId().equals(room.getCreatorId())) {
+                    creatorNickname = player.getPlayerName();
+                }
+            }
+        }
+        players.sort(Comparator.comparing(PlayerResponse::getPosition, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        response.setCreatorNickname(creatorNickname);
+        response.setPlayers(players);
+        response.setSpectators(spectators);
+        response.setGameConfig(GameConfigResponse.fromEntity(room.getGameConfig()));
+        return response;
+    }
+
     /**
      * 玩家信息响应DTO
      */
@@ -168,6 +204,23 @@ public class RoomResponse {
         private Long totalScore;
         private Integer winCount;
         private LocalDateTime lastActiveAt;
+
+        public static PlayerResponse fromEntity(com.mahjong.entity.Player player) {
+            return PlayerResponse.builder()
+                    .id(player.getId())
+                    .playerName(player.getPlayerName())
+                    .nickname(player.getPlayerName())
+                    .avatarUrl(player.getPlayerAvatar())
+                    .position(player.getPlayerPosition())
+                    .status(player.getPlayerStatus() != null ? player.getPlayerStatus().name() : null)
+                    .isSpectator(player.getSpectator())
+                    .isOnline(player.isOnline())
+                    .isReady(player.isReady())
+                    .totalScore(player.getTotalScore() != null ? player.getTotalScore().longValue() : 0L)
+                    .winCount(player.getWinsCount())
+                    .lastActiveAt(player.getLastActiveAt())
+                    .build();
+        }
     }
 
     /**
@@ -190,5 +243,24 @@ public class RoomResponse {
         private Boolean isDefault;
         private Boolean isPublic;
         private Integer useCount;
+
+        public static GameConfigResponse fromEntity(com.mahjong.entity.GameConfig config) {
+            if (config == null) {
+                return null;
+            }
+            return GameConfigResponse.builder()
+                    .id(config.getId())
+                    .configName(config.getConfigName())
+                    .baseScore(config.getBaseScore())
+                    .maxRounds(config.getMaxRounds())
+                    .allowPeng(config.getAllowPeng())
+                    .allowGang(config.getAllowGang())
+                    .mixedTileEnabled(config.getMixedTileEnabled())
+                    .thinkTime(config.getThinkTime())
+                    .description(config.getConfigDescription())
+                    .isDefault(config.getBoolDefault())
+                    .useCount(config.getUsageCount() != null ? config.getUsageCount().intValue() : 0)
+                    .build();
+        }
     }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
 
 /**
  * 聊天消息实体类
+ * 表按 created_at 月度分区，分区表不支持外键，关联关系不生成外键约束
  *
  * @author 开发团队
  * @since 1.0.0
@@ -40,7 +41,7 @@ public class ChatMessage {
      * 所属房间
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "room_id", nullable = false, foreignKey = @ForeignKey(name = "fk_chat_room"))
+    @JoinColumn(name = "room_id", nullable = false, foreignKey = @ForeignKey(name = "fk_chat_room", value = ConstraintMode.NO_CONSTRAINT))
     private Room room;
 
     /**
@@ -14,6 +14,7 @@ import java.time.LocalDateTime;
 /**
  * 游戏操作记录实体类
  * 记录游戏中所有的操作历史
+ * 表按 created_at 月度分区，分区表不支持外键，关联关系不生成外键约束
  *
  * @author 开发团队
  * @since 1.0.0
@@ -21,6 +22,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "game_actions", indexes = {
     @Index(name = "idx_game_id", columnList = "game_id"),
+    @Index(name = "idx_game_round_id", columnList = "game_round_id"),
     @Index(name = "idx_player_id", columnList = "player_id"),
     @Index(name = "idx_action_type", columnList = "action_type"),
     @Index(name = "idx_round_number", columnList = "round_number"),
@@ -44,14 +46,14 @@ public class GameAction {
      * 所属游戏
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "game_id", nullable = false, foreignKey = @ForeignKey(name = "fk_action_game"))
+    @JoinColumn(name = "game_id", nullable = false, foreignKey = @ForeignKey(name = "fk_action_game", value = ConstraintMode.NO_CONSTRAINT))
     private Game game;
 
     /**
      * 所属回合
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "game_round_id", foreignKey = @ForeignKey(name = "fk_action_round"))
+    @JoinColumn(name = "game_round_id", foreignKey = @ForeignKey(name = "fk_action_round", value = ConstraintMode.NO_CONSTRAINT))
     private GameRound gameRound;
 
     /**
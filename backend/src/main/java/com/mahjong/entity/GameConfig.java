@@ -1,6 +1,7 @@
 package com.mahjong.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -190,6 +191,7 @@ public class GameConfig {
      * 关联的房间列表
      */
     @OneToMany(mappedBy = "gameConfig", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JsonIgnore
     private List<Room> rooms;
 
     /**
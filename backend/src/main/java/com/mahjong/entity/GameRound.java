@@ -2,6 +2,7 @@ package com.mahjong.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mahjong.entity.codec.ScoreMapConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,6 +13,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 游戏回合实体类
@@ -86,10 +88,11 @@ public class GameRound {
     private Integer fanCount;
 
     /**
-     * 得分（JSON格式，记录各玩家得分）
+     * 各玩家得分（玩家ID -> 得分，紧凑存储）
      */
-    @Column(name = "scores", columnDefinition = "JSON")
-    private String scores;
+    @Convert(converter = ScoreMapConverter.class)
+    @Column(name = "scores", columnDefinition = "VARBINARY(1024)")
+    private Map<String, Integer> scores;
 
     /**
      * 回合数据（JSON格式，包含详细的游戏过程）
@@ -103,6 +106,18 @@ public class GameRound {
     @Column(name = "special_pattern", length = 50)
     private String specialPattern;
 
+    /**
+     * 是否已计入玩家统计
+     */
+    @Column(name = "stats_applied")
+    private Boolean statsApplied = false;
+
+    /**
+     * 是否已把得分和胡牌计入玩家表
+     */
+    @Column(name = "scores_settled")
+    private Boolean scoresSettled = false;
+
     /**
      * 回合开始时间
      */
@@ -2,6 +2,7 @@ package com.mahjong.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mahjong.event.PlayerEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -30,6 +31,7 @@ import java.time.LocalDateTime;
         @UniqueConstraint(name = "uk_room_position", columnNames = {"room_id", "player_position"})
     }
 )
+@EntityListeners(PlayerEntityListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -2,6 +2,12 @@ package com.mahjong.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mahjong.entity.codec.Meld;
+import com.mahjong.entity.codec.MeldListConverter;
+import com.mahjong.entity.codec.RoundStatistics;
+import com.mahjong.entity.codec.RoundStatisticsConverter;
+import com.mahjong.entity.codec.Tile;
+import com.mahjong.entity.codec.TileListConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,6 +17,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 玩家回合实体类
@@ -89,28 +96,32 @@ public class PlayerRound {
     private Integer fanCount = 0;
 
     /**
-     * 手牌（JSON格式，记录最终手牌）
+     * 最终手牌（紧凑存储，每张牌一个字节）
      */
-    @Column(name = "hand_tiles", columnDefinition = "JSON")
-    private String handTiles;
+    @Convert(converter = TileListConverter.class)
+    @Column(name = "hand_tiles", columnDefinition = "VARBINARY(1024)")
+    private List<Tile> handTiles;
 
     /**
-     * 吃牌组合（JSON格式）
+     * 吃牌组合（紧凑存储）
      */
-    @Column(name = "chi_combinations", columnDefinition = "JSON")
-    private String chiCombinations;
+    @Convert(converter = MeldListConverter.class)
+    @Column(name = "chi_combinations", columnDefinition = "VARBINARY(1024)")
+    private List<Meld> chiCombinations;
 
     /**
-     * 碰牌组合（JSON格式）
+     * 碰牌组合（紧凑存储）
      */
-    @Column(name = "peng_combinations", columnDefinition = "JSON")
-    private String pengCombinations;
+    @Convert(converter = MeldListConverter.class)
+    @Column(name = "peng_combinations", columnDefinition = "VARBINARY(1024)")
+    private List<Meld> pengCombinations;
 
     /**
-     * 杠牌组合（JSON格式）
+     * 杠牌组合（紧凑存储）
      */
-    @Column(name = "gang_combinations", columnDefinition = "JSON")
-    private String gangCombinations;
+    @Convert(converter = MeldListConverter.class)
+    @Column(name = "gang_combinations", columnDefinition = "VARBINARY(1024)")
+    private List<Meld> gangCombinations;
 
     /**
      * 特殊牌型
@@ -119,10 +130,11 @@ public class PlayerRound {
     private String specialPattern;
 
     /**
-     * 详细统计（JSON格式，包含各种操作次数）
+     * 详细统计（各种操作次数，紧凑存储为固定12字节）
      */
-    @Column(name = "statistics", columnDefinition = "JSON")
-    private String statistics;
+    @Convert(converter = RoundStatisticsConverter.class)
+    @Column(name = "statistics", columnDefinition = "VARBINARY(1024)")
+    private RoundStatistics statistics;
 
     /**
      * 创建时间
@@ -201,6 +213,6 @@ public class PlayerRound {
      * 初始化统计信息
      */
     public void initializeStatistics() {
-        this.statistics = "{\"drawCount\":0,\"discardCount\":0,\"chiCount\":0,\"pengCount\":0,\"gangCount\":0,\"passCount\":0}";
+        this.statistics = new RoundStatistics();
     }
 }
\ No newline at end of file
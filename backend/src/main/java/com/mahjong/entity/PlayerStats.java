@@ -0,0 +1,148 @@
+package com.mahjong.entity;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 玩家统计投影实体类
+ * 每个回合结算时增量更新一次，资料页按主键单行读取，无需聚合历史记录
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "player_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerStats {
+
+    /**
+     * 玩家ID
+     */
+    @Id
+    @Column(name = "player_id", length = 36)
+    private String playerId;
+
+    /**
+     * 参与回合数
+     */
+    @Column(name = "rounds_played", nullable = false)
+    private Integer roundsPlayed = 0;
+
+    /**
+     * 胡牌次数
+     */
+    @Column(name = "wins", nullable = false)
+    private Integer wins = 0;
+
+    /**
+     * 自摸次数
+     */
+    @Column(name = "zimo_count", nullable = false)
+    private Integer zimoCount = 0;
+
+    /**
+     * 累计得分
+     */
+    @Column(name = "total_score", nullable = false)
+    private Long totalScore = 0L;
+
+    /**
+     * 单回合最高得分
+     */
+    @Column(name = "high_score", nullable = false)
+    private Integer highScore = 0;
+
+    /**
+     * 胡牌累计得分
+     */
+    @Column(name = "total_win_score", nullable = false)
+    private Long totalWinScore = 0L;
+
+    /**
+     * 胡牌累计番数
+     */
+    @Column(name = "total_fan", nullable = false)
+    private Integer totalFan = 0;
+
+    /**
+     * 番数分布（JSON格式，番数 -> 次数）
+     */
+    @Column(name = "fan_distribution", columnDefinition = "JSON")
+    private String fanDistribution;
+
+    /**
+     * 碰牌次数
+     */
+    @Column(name = "peng_count", nullable = false)
+    private Integer pengCount = 0;
+
+    /**
+     * 明杠次数（含补杠）
+     */
+    @Column(name = "ming_gang_count", nullable = false)
+    private Integer mingGangCount = 0;
+
+    /**
+     * 暗杠次数
+     */
+    @Column(name = "an_gang_count", nullable = false)
+    private Integer anGangCount = 0;
+
+    /**
+     * 累计思考时间（毫秒）
+     */
+    @Column(name = "think_time_total_ms", nullable = false)
+    private Long thinkTimeTotalMs = 0L;
+
+    /**
+     * 计入思考时间的操作数
+     */
+    @Column(name = "think_action_count", nullable = false)
+    private Long thinkActionCount = 0L;
+
+    /**
+     * 最近一次结算时间
+     */
+    @Column(name = "last_round_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime lastRoundAt;
+
+    /**
+     * 更新时间
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    /**
+     * 胜率
+     */
+    public double getWinRate() {
+        return roundsPlayed != null && roundsPlayed > 0 ? (double) wins / roundsPlayed : 0.0;
+    }
+
+    /**
+     * 平均每次操作思考时间（毫秒）
+     */
+    public double getAverageThinkTimeMs() {
+        return thinkActionCount != null && thinkActionCount > 0 ? (double) thinkTimeTotalMs / thinkActionCount : 0.0;
+    }
+
+    /**
+     * 杠牌总次数
+     */
+    public int getTotalGangs() {
+        return (mingGangCount != null ? mingGangCount : 0) + (anGangCount != null ? anGangCount : 0);
+    }
+}
@@ -24,7 +24,8 @@ import java.util.List;
     @Index(name = "idx_room_number", columnList = "room_number"),
     @Index(name = "idx_creator_id", columnList = "creator_id"),
     @Index(name = "idx_room_status", columnList = "room_status"),
-    @Index(name = "idx_created_at", columnList = "created_at")
+    @Index(name = "idx_created_at", columnList = "created_at"),
+    @Index(name = "idx_expires_at", columnList = "expires_at")
 })
 @Data
 @Builder
@@ -101,6 +102,14 @@ public class Room {
     @Column(name = "spectator_count", nullable = false)
     private Integer spectatorCount = 0;
 
+    /**
+     * 乐观锁版本号
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @JsonIgnore
+    private Long version;
+
     /**
      * 过期时间
      */
@@ -0,0 +1,124 @@
+package com.mahjong.entity.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.BufferUnderflowException;
+
+/**
+ * 紧凑二进制列转换器基类
+ * 列值首字节为格式标记：0x01 表示紧凑二进制，'{' 或 '[' 表示UTF-8 JSON（迁移前的旧数据，
+ * 或 game.storage.compact-round-columns=false 时写入的数据）。读取时两种格式都能识别，
+ * 值超出紧凑格式表示范围时按JSON写入。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+public abstract class CompactColumnConverter<T> implements AttributeConverter<T, byte[]> {
+
+    static final int FORMAT_COMPACT_V1 = 0x01;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final TypeReference<T> jsonType;
+
+    @Value("${game.storage.compact-round-columns:true}")
+    private boolean compact = true;
+
+    protected CompactColumnConverter(TypeReference<T> jsonType) {
+        this.jsonType = jsonType;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(T attribute) {
+        if (attribute == null) {
+            return null;
+        }
+        if (compact) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+            out.write(FORMAT_COMPACT_V1);
+            if (encode(attribute, out)) {
+                return out.toByteArray();
+            }
+        }
+        try {
+            return MAPPER.writeValueAsBytes(attribute);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("列值序列化失败", e);
+        }
+    }
+
+    @Override
+    public T convertToEntityAttribute(byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        if ((data[0] & 0xFF) == FORMAT_COMPACT_V1) {
+            try {
+                return decode(ByteBuffer.wrap(data, 1, data.length - 1));
+            } catch (BufferUnderflowException e) {
+                throw new IllegalArgumentException("紧凑列数据不完整", e);
+            }
+        }
+        try {
+            return MAPPER.readValue(data, jsonType);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("列值JSON解析失败", e);
+        }
+    }
+
+    /**
+     * 写入紧凑格式（不含格式标记）
+     *
+     * @return 值无法用紧凑格式表示时返回false，改为写入JSON
+     */
+    protected abstract boolean encode(T value, ByteArrayOutputStream out);
+
+    /**
+     * 读取紧凑格式（格式标记之后的部分）
+     */
+    protected abstract T decode(ByteBuffer in);
+
+    /**
+     * 写入无符号变长整数
+     */
+    static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * 读取无符号变长整数
+     */
+    static long readVarint(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.get() & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new IllegalArgumentException("变长整数过长");
+            }
+        }
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
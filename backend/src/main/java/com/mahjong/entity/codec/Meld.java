@@ -0,0 +1,36 @@
+package com.mahjong.entity.codec;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 副露（吃、碰、杠的一组牌）
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Meld {
+
+    /**
+     * 组成副露的牌
+     */
+    private List<Tile> tiles;
+
+    /**
+     * 是否为暗杠
+     */
+    private boolean concealed;
+
+    /**
+     * 被吃碰杠牌的出牌玩家位置，暗杠为空
+     */
+    private Integer fromPosition;
+}
@@ -0,0 +1,77 @@
+package com.mahjong.entity.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 副露列表转换器
+ * 紧凑格式：每组副露一个标志字节（bit0-2 牌数，bit3 暗杠，bit4-6 来源位置+1，0表示无来源），
+ * 后跟每张牌一个字节
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Converter
+public class MeldListConverter extends CompactColumnConverter<List<Meld>> {
+
+    private static final int COUNT_MASK = 0x07;
+    private static final int CONCEALED_BIT = 0x08;
+    private static final int FROM_SHIFT = 4;
+    private static final int MAX_FROM_POSITION = 6;
+
+    public MeldListConverter() {
+        super(new TypeReference<List<Meld>>() {});
+    }
+
+    @Override
+    protected boolean encode(List<Meld> melds, ByteArrayOutputStream out) {
+        for (Meld meld : melds) {
+            List<Tile> tiles = meld != null ? meld.getTiles() : null;
+            if (tiles == null || tiles.size() > COUNT_MASK) {
+                return false;
+            }
+            Integer from = meld.getFromPosition();
+            if (from != null && (from < 0 || from > MAX_FROM_POSITION)) {
+                return false;
+            }
+
+            int flags = tiles.size()
+                    | (meld.isConcealed() ? CONCEALED_BIT : 0)
+                    | ((from != null ? from + 1 : 0) << FROM_SHIFT);
+            out.write(flags);
+            for (Tile tile : tiles) {
+                if (tile == null) {
+                    return false;
+                }
+                out.write(tile.toByte());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected List<Meld> decode(ByteBuffer in) {
+        List<Meld> melds = new ArrayList<>();
+        while (in.hasRemaining()) {
+            int flags = in.get() & 0xFF;
+            int count = flags & COUNT_MASK;
+            int from = (flags >> FROM_SHIFT) & 0x07;
+
+            List<Tile> tiles = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tiles.add(Tile.fromByte(in.get() & 0xFF));
+            }
+            melds.add(Meld.builder()
+                    .tiles(tiles)
+                    .concealed((flags & CONCEALED_BIT) != 0)
+                    .fromPosition(from != 0 ? from - 1 : null)
+                    .build());
+        }
+        return melds;
+    }
+}
@@ -0,0 +1,49 @@
+package com.mahjong.entity.codec;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 玩家回合操作计数
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoundStatistics {
+
+    /**
+     * 摸牌次数
+     */
+    private int drawCount;
+
+    /**
+     * 出牌次数
+     */
+    private int discardCount;
+
+    /**
+     * 吃牌次数
+     */
+    private int chiCount;
+
+    /**
+     * 碰牌次数
+     */
+    private int pengCount;
+
+    /**
+     * 杠牌次数
+     */
+    private int gangCount;
+
+    /**
+     * 过牌次数
+     */
+    private int passCount;
+}
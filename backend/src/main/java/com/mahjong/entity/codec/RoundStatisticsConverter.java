@@ -0,0 +1,52 @@
+package com.mahjong.entity.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 回合操作计数转换器
+ * 紧凑格式：按字段顺序写6个无符号双字节计数，固定12字节
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Converter
+public class RoundStatisticsConverter extends CompactColumnConverter<RoundStatistics> {
+
+    private static final int MAX_COUNTER = 0xFFFF;
+
+    public RoundStatisticsConverter() {
+        super(new TypeReference<RoundStatistics>() {});
+    }
+
+    @Override
+    protected boolean encode(RoundStatistics stats, ByteArrayOutputStream out) {
+        int[] counters = {
+                stats.getDrawCount(), stats.getDiscardCount(), stats.getChiCount(),
+                stats.getPengCount(), stats.getGangCount(), stats.getPassCount()
+        };
+        for (int counter : counters) {
+            if (counter < 0 || counter > MAX_COUNTER) {
+                return false;
+            }
+            out.write(counter >>> 8);
+            out.write(counter & 0xFF);
+        }
+        return true;
+    }
+
+    @Override
+    protected RoundStatistics decode(ByteBuffer in) {
+        return RoundStatistics.builder()
+                .drawCount(in.getShort() & MAX_COUNTER)
+                .discardCount(in.getShort() & MAX_COUNTER)
+                .chiCount(in.getShort() & MAX_COUNTER)
+                .pengCount(in.getShort() & MAX_COUNTER)
+                .gangCount(in.getShort() & MAX_COUNTER)
+                .passCount(in.getShort() & MAX_COUNTER)
+                .build();
+    }
+}
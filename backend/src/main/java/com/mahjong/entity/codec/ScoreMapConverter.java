@@ -0,0 +1,95 @@
+package com.mahjong.entity.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 回合得分转换器（玩家ID -> 得分）
+ * 紧凑格式：每项先写键，标准UUID写 0x00 加16字节，其他写长度字节加UTF-8内容；
+ * 再写ZigZag变长得分
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Converter
+public class ScoreMapConverter extends CompactColumnConverter<Map<String, Integer>> {
+
+    private static final int UUID_KEY = 0x00;
+    private static final int MAX_KEY_LENGTH = 0xFF;
+
+    public ScoreMapConverter() {
+        super(new TypeReference<Map<String, Integer>>() {});
+    }
+
+    @Override
+    protected boolean encode(Map<String, Integer> scores, ByteArrayOutputStream out) {
+        for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+            String key = entry.getKey();
+            if (key == null || entry.getValue() == null) {
+                return false;
+            }
+
+            UUID uuid = parseUuid(key);
+            if (uuid != null) {
+                out.write(UUID_KEY);
+                writeLong(out, uuid.getMostSignificantBits());
+                writeLong(out, uuid.getLeastSignificantBits());
+            } else {
+                byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length == 0 || bytes.length > MAX_KEY_LENGTH) {
+                    return false;
+                }
+                out.write(bytes.length);
+                out.write(bytes, 0, bytes.length);
+            }
+            writeVarint(out, zigZag(entry.getValue()));
+        }
+        return true;
+    }
+
+    @Override
+    protected Map<String, Integer> decode(ByteBuffer in) {
+        Map<String, Integer> scores = new LinkedHashMap<>();
+        while (in.hasRemaining()) {
+            int length = in.get() & 0xFF;
+            String key;
+            if (length == UUID_KEY) {
+                key = new UUID(in.getLong(), in.getLong()).toString();
+            } else {
+                byte[] bytes = new byte[length];
+                in.get(bytes);
+                key = new String(bytes, StandardCharsets.UTF_8);
+            }
+            scores.put(key, (int) unZigZag(readVarint(in)));
+        }
+        return scores;
+    }
+
+    /**
+     * 仅当字符串是UUID的标准小写形式时返回UUID，保证解码后原样还原
+     */
+    private static UUID parseUuid(String key) {
+        if (key.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(key);
+            return uuid.toString().equals(key) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.mahjong.entity.codec;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * 麻将牌
+ * JSON形式与前端 GameTile 一致：{"type":"character","value":"1","isMixed":true}；
+ * 存储形式为单字节：bit7 混牌标记，bit4-6 花色，bit0-3 点数
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+public final class Tile {
+
+    private static final String[] HONOR_VALUES = {"east", "south", "west", "north", "red", "green", "white"};
+    private static final int MIXED_BIT = 0x80;
+
+    /**
+     * 花色
+     */
+    public enum Suit {
+        /**
+         * 万
+         */
+        CHARACTER(1, "character", 9),
+
+        /**
+         * 条
+         */
+        BAMBOO(2, "bamboo", 9),
+
+        /**
+         * 筒
+         */
+        DOT(3, "dot", 9),
+
+        /**
+         * 字牌（东南西北中发白）
+         */
+        HONOR(4, "honor", 7),
+
+        /**
+         * 花牌
+         */
+        FLOWER(5, "flower", 8);
+
+        private final int code;
+        private final String type;
+        private final int maxRank;
+
+        Suit(int code, String type, int maxRank) {
+            this.code = code;
+            this.type = type;
+            this.maxRank = maxRank;
+        }
+
+        static Suit fromType(String type) {
+            for (Suit suit : values()) {
+                if (suit.type.equalsIgnoreCase(type)) {
+                    return suit;
+                }
+            }
+            throw new IllegalArgumentException("未知的牌类型: " + type);
+        }
+
+        static Suit fromCode(int code) {
+            for (Suit suit : values()) {
+                if (suit.code == code) {
+                    return suit;
+                }
+            }
+            throw new IllegalArgumentException("未知的花色编码: " + code);
+        }
+    }
+
+    private final Suit suit;
+    private final int rank;
+    private final boolean mixed;
+
+    public Tile(Suit suit, int rank, boolean mixed) {
+        if (suit == null || rank < 1 || rank > suit.maxRank) {
+            throw new IllegalArgumentException("无效的牌: " + suit + " " + rank);
+        }
+        this.suit = suit;
+        this.rank = rank;
+        this.mixed = mixed;
+    }
+
+    @JsonCreator
+    public static Tile of(@JsonProperty("type") String type,
+                          @JsonProperty("value") String value,
+                          @JsonProperty("isMixed") Boolean mixed) {
+        Suit suit = Suit.fromType(type);
+        return new Tile(suit, parseRank(suit, value), Boolean.TRUE.equals(mixed));
+    }
+
+    /**
+     * 从存储字节解码
+     */
+    public static Tile fromByte(int b) {
+        return new Tile(Suit.fromCode((b >> 4) & 0x07), b & 0x0F, (b & MIXED_BIT) != 0);
+    }
+
+    /**
+     * 编码为存储字节
+     */
+    public int toByte() {
+        return (mixed ? MIXED_BIT : 0) | (suit.code << 4) | rank;
+    }
+
+    @JsonIgnore
+    public Suit getSuit() {
+        return suit;
+    }
+
+    @JsonIgnore
+    public int getRank() {
+        return rank;
+    }
+
+    @JsonProperty("type")
+    public String getType() {
+        return suit.type;
+    }
+
+    @JsonProperty("value")
+    public String getValue() {
+        return suit == Suit.HONOR ? HONOR_VALUES[rank - 1] : String.valueOf(rank);
+    }
+
+    @JsonProperty("isMixed")
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public boolean isMixed() {
+        return mixed;
+    }
+
+    private static int parseRank(Suit suit, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("牌值不能为空");
+        }
+        if (suit == Suit.HONOR) {
+            for (int i = 0; i < HONOR_VALUES.length; i++) {
+                if (HONOR_VALUES[i].equalsIgnoreCase(value)) {
+                    return i + 1;
+                }
+            }
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的牌值: " + value);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Tile)) {
+            return false;
+        }
+        Tile other = (Tile) o;
+        return suit == other.suit && rank == other.rank && mixed == other.mixed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(suit, rank, mixed);
+    }
+
+    @Override
+    public String toString() {
+        return getType() + ":" + getValue() + (mixed ? "*" : "");
+    }
+}
@@ -0,0 +1,44 @@
+package com.mahjong.entity.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 牌列表转换器
+ * 紧凑格式：每张牌一个字节，牌数由列长度决定
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Converter
+public class TileListConverter extends CompactColumnConverter<List<Tile>> {
+
+    public TileListConverter() {
+        super(new TypeReference<List<Tile>>() {});
+    }
+
+    @Override
+    protected boolean encode(List<Tile> tiles, ByteArrayOutputStream out) {
+        for (Tile tile : tiles) {
+            if (tile == null) {
+                return false;
+            }
+            out.write(tile.toByte());
+        }
+        return true;
+    }
+
+    @Override
+    protected List<Tile> decode(ByteBuffer in) {
+        List<Tile> tiles = new ArrayList<>(in.remaining());
+        while (in.hasRemaining()) {
+            tiles.add(Tile.fromByte(in.get() & 0xFF));
+        }
+        return tiles;
+    }
+}
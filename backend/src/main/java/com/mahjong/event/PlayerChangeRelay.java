@@ -0,0 +1,102 @@
+package com.mahjong.event;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mahjong.config.CacheProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 玩家变更跨节点转发
+ * 本节点提交的 {@link PlayerChangedEvent} 通过 Redis 发布订阅（game.cache.player-channel）发给其他节点，
+ * 其他节点收到后在本地重新发布（isRemote 为 true，不再转发），会话快照和昵称索引随之更新。
+ * 通知不保证送达：Redis 断开期间的变更，会话快照在玩家重连时重新加载，昵称索引在下次全量重建时补齐。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Component
+public class PlayerChangeRelay implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerChangeRelay.class);
+
+    private static final TypeReference<Map<String, Object>> BODY_TYPE = new TypeReference<>() {
+    };
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheProperties cacheProperties;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 转发本节点的玩家变更（事件已在事务提交后发布）
+     */
+    @EventListener
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("node", nodeId);
+        body.put("playerId", event.getPlayerId());
+        body.put("removed", event.isRemoved());
+        body.put("playerName", event.getPlayerName());
+        body.put("avatarUrl", event.getAvatarUrl());
+        body.put("roomId", event.getRoomId());
+        body.put("roomNumber", event.getRoomNumber());
+        body.put("spectator", event.isSpectator());
+        try {
+            byte[] channel = cacheProperties.getPlayerChannel().getBytes(StandardCharsets.UTF_8);
+            byte[] message = objectMapper.writeValueAsBytes(body);
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, message));
+        } catch (Exception e) {
+            log.warn("发布玩家变更通知失败: playerId={}", event.getPlayerId(), e);
+        }
+    }
+
+    /**
+     * 接收其他节点的玩家变更，忽略本节点发出的通知
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Map<String, Object> body = objectMapper.readValue(message.getBody(), BODY_TYPE);
+            if (nodeId.equals(body.get("node"))) {
+                return;
+            }
+            Object roomId = body.get("roomId");
+            eventPublisher.publishEvent(PlayerChangedEvent.remote(
+                    (String) body.get("playerId"),
+                    Boolean.TRUE.equals(body.get("removed")),
+                    (String) body.get("playerName"),
+                    (String) body.get("avatarUrl"),
+                    roomId instanceof Number ? ((Number) roomId).longValue() : null,
+                    (String) body.get("roomNumber"),
+                    Boolean.TRUE.equals(body.get("spectator"))));
+        } catch (Exception e) {
+            log.warn("处理玩家变更通知失败", e);
+        }
+    }
+}
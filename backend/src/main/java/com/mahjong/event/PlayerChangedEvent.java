@@ -0,0 +1,70 @@
+package com.mahjong.event;
+
+import lombok.Getter;
+
+/**
+ * 玩家变更事件
+ * 玩家记录新增、更新、删除的事务提交后发布，携带变更后的资料和所在房间快照，
+ * 订阅方据此更新内存结构而无需回查数据库。
+ * 本节点的事件由 {@link PlayerChangeRelay} 转发给其他节点，转发到达的事件 {@link #isRemote()} 为 true
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Getter
+public class PlayerChangedEvent {
+
+    private final String playerId;
+
+    /**
+     * 是否为删除事件（删除事件只有 playerId）
+     */
+    private final boolean removed;
+
+    private final String playerName;
+
+    private final String avatarUrl;
+
+    /**
+     * 所在房间ID（不在房间时为null）
+     */
+    private final Long roomId;
+
+    /**
+     * 所在房间号，房间未随玩家一起加载时为null
+     */
+    private final String roomNumber;
+
+    private final boolean spectator;
+
+    /**
+     * 是否由其他节点转发
+     */
+    private final boolean remote;
+
+    private PlayerChangedEvent(String playerId, boolean removed, String playerName, String avatarUrl,
+                               Long roomId, String roomNumber, boolean spectator, boolean remote) {
+        this.playerId = playerId;
+        this.removed = removed;
+        this.playerName = playerName;
+        this.avatarUrl = avatarUrl;
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.spectator = spectator;
+        this.remote = remote;
+    }
+
+    public static PlayerChangedEvent saved(String playerId, String playerName, String avatarUrl,
+                                           Long roomId, String roomNumber, boolean spectator) {
+        return new PlayerChangedEvent(playerId, false, playerName, avatarUrl, roomId, roomNumber, spectator, false);
+    }
+
+    public static PlayerChangedEvent removed(String playerId) {
+        return new PlayerChangedEvent(playerId, true, null, null, null, null, false, false);
+    }
+
+    static PlayerChangedEvent remote(String playerId, boolean removed, String playerName, String avatarUrl,
+                                     Long roomId, String roomNumber, boolean spectator) {
+        return new PlayerChangedEvent(playerId, removed, playerName, avatarUrl, roomId, roomNumber, spectator, true);
+    }
+}
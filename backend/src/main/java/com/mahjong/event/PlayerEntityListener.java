@@ -0,0 +1,57 @@
+package com.mahjong.event;
+
+import com.mahjong.entity.Player;
+import com.mahjong.entity.Room;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 玩家实体监听器
+ * 玩家创建、更新、删除时发布 {@link PlayerChangedEvent}；处于事务中时推迟到提交后发布，回滚的修改不会外泄。
+ * 事件内容在回调时从实体取出，不触发懒加载（房间未加载时只带房间ID）。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Component
+public class PlayerEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Player player) {
+        Room room = player.getRoom();
+        Long roomId = room != null ? room.getId() : null;
+        String roomNumber = room != null && Hibernate.isInitialized(room) ? room.getRoomNumber() : null;
+        PlayerChangedEvent event = PlayerChangedEvent.saved(player.getId(), player.getPlayerName(),
+                player.getPlayerAvatar(), roomId, roomNumber, Boolean.TRUE.equals(player.getSpectator()));
+        afterCommit(event);
+    }
+
+    @PostRemove
+    public void onRemoved(Player player) {
+        afterCommit(PlayerChangedEvent.removed(player.getId()));
+    }
+
+    private void afterCommit(PlayerChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventPublisher.publishEvent(event);
+                }
+            });
+        } else {
+            eventPublisher.publishEvent(event);
+        }
+    }
+}
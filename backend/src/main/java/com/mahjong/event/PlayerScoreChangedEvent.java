@@ -0,0 +1,71 @@
+package com.mahjong.event;
+
+import lombok.Getter;
+
+/**
+ * 玩家得分变更事件
+ * 玩家表的累计分数或胜场变化后发布（回合结算、手动加分、直接设置总分），排行榜据此增量更新，
+ * 与玩家表保持一致
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Getter
+public class PlayerScoreChangedEvent {
+
+    private final String playerId;
+
+    private final String playerName;
+
+    /**
+     * 分数增量
+     */
+    private final int scoreDelta;
+
+    /**
+     * 胜场增量
+     */
+    private final int winsDelta;
+
+    /**
+     * 变更后的累计分数，仅直接设置总分时有值，总榜以此为准
+     */
+    private final Integer totalScore;
+
+    /**
+     * 来源回合ID，回合结算以外的变更为null；同一回合同一玩家只计入一次
+     */
+    private final Long gameRoundId;
+
+    private PlayerScoreChangedEvent(String playerId, String playerName, int scoreDelta, int winsDelta,
+                                    Integer totalScore, Long gameRoundId) {
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.scoreDelta = scoreDelta;
+        this.winsDelta = winsDelta;
+        this.totalScore = totalScore;
+        this.gameRoundId = gameRoundId;
+    }
+
+    /**
+     * 回合结算
+     */
+    public static PlayerScoreChangedEvent settled(String playerId, String playerName, int scoreDelta,
+                                                  boolean winner, Long gameRoundId) {
+        return new PlayerScoreChangedEvent(playerId, playerName, scoreDelta, winner ? 1 : 0, null, gameRoundId);
+    }
+
+    /**
+     * 分数或胜场增量调整
+     */
+    public static PlayerScoreChangedEvent adjusted(String playerId, String playerName, int scoreDelta, int winsDelta) {
+        return new PlayerScoreChangedEvent(playerId, playerName, scoreDelta, winsDelta, null, null);
+    }
+
+    /**
+     * 直接设置累计分数
+     */
+    public static PlayerScoreChangedEvent scoreSet(String playerId, String playerName, int previousScore, int totalScore) {
+        return new PlayerScoreChangedEvent(playerId, playerName, totalScore - previousScore, 0, totalScore, null);
+    }
+}
@@ -0,0 +1,79 @@
+package com.mahjong.event;
+
+import com.mahjong.entity.Room;
+import lombok.Getter;
+
+/**
+ * 房间生命周期事件
+ * 在房间创建、玩家加入/离开、过期时发布，由大厅索引等内存结构订阅
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Getter
+public class RoomLifecycleEvent {
+
+    /**
+     * 事件类型
+     */
+    public enum Type {
+        /**
+         * 房间创建
+         */
+        CREATED,
+
+        /**
+         * 玩家加入
+         */
+        JOINED,
+
+        /**
+         * 玩家离开
+         */
+        LEFT,
+
+        /**
+         * 房间过期
+         */
+        EXPIRED
+    }
+
+    private final Type type;
+
+    private final Long roomId;
+
+    private final String roomNumber;
+
+    /**
+     * 变更后的房间状态（过期事件为null）
+     */
+    private final Room room;
+
+    /**
+     * 触发事件的玩家ID（可选）
+     */
+    private final String playerId;
+
+    private RoomLifecycleEvent(Type type, Long roomId, String roomNumber, Room room, String playerId) {
+        this.type = type;
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.room = room;
+        this.playerId = playerId;
+    }
+
+    public static RoomLifecycleEvent of(Type type, Room room, String playerId) {
+        return new RoomLifecycleEvent(type, room.getId(), room.getRoomNumber(), room, playerId);
+    }
+
+    public static RoomLifecycleEvent expired(Long roomId, String roomNumber) {
+        return new RoomLifecycleEvent(Type.EXPIRED, roomId, roomNumber, null, null);
+    }
+
+    /**
+     * 是否为房间移除事件
+     */
+    public boolean isRemoval() {
+        return type == Type.EXPIRED;
+    }
+}
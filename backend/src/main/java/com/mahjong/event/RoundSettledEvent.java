@@ -0,0 +1,29 @@
+package com.mahjong.event;
+
+import lombok.Getter;
+
+/**
+ * 回合结算事件
+ * 回合结束、GameRound 与 PlayerRound 写入最终结果后发布，由玩家统计、排行榜等投影订阅
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Getter
+public class RoundSettledEvent {
+
+    /**
+     * 回合ID
+     */
+    private final Long gameRoundId;
+
+    /**
+     * 游戏ID
+     */
+    private final Long gameId;
+
+    public RoundSettledEvent(Long gameRoundId, Long gameId) {
+        this.gameRoundId = gameRoundId;
+        this.gameId = gameId;
+    }
+}
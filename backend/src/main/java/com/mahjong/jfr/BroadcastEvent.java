@@ -0,0 +1,36 @@
+package com.mahjong.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR事件：一次房间广播的扇出
+ * 接收人数只在事件确定写入录制时计算，未录制或低于阈值时没有额外开销。
+ * 消息体由 netty-socketio 在各连接的传输层编码，此处拿不到编码后的长度，不记录字节数
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Name("com.mahjong.Broadcast")
+@Label("房间广播")
+@Description("向房间或全部连接发送一个Socket.IO事件")
+@Category({"Mahjong", "Socket"})
+@Threshold("10 ms")
+@StackTrace(false)
+public class BroadcastEvent extends Event {
+
+    @Label("房间号")
+    @Description("全局广播时为空")
+    public String roomId;
+
+    @Label("事件类型")
+    public String eventType;
+
+    @Label("接收连接数")
+    public int recipients;
+}
@@ -0,0 +1,34 @@
+package com.mahjong.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR事件：两级缓存本地未命中后的Redis查询
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Name("com.mahjong.CacheMiss")
+@Label("缓存未命中")
+@Description("本地缓存未命中，到Redis查询的过程")
+@Category({"Mahjong", "Cache"})
+@Threshold("1 ms")
+@StackTrace(false)
+public class CacheMissEvent extends Event {
+
+    @Label("缓存名")
+    public String cache;
+
+    @Label("缓存键")
+    public String key;
+
+    @Label("Redis是否命中")
+    @Description("false 表示两级都未命中，需要回源")
+    public boolean remoteHit;
+}
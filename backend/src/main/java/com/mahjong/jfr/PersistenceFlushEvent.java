@@ -0,0 +1,37 @@
+package com.mahjong.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR事件：内存缓冲数据批量写库
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Name("com.mahjong.PersistenceFlush")
+@Label("批量写库")
+@Description("将内存中积压的数据以一条多行INSERT写入数据库")
+@Category({"Mahjong", "Persistence"})
+@StackTrace(false)
+public class PersistenceFlushEvent extends Event {
+
+    @Label("表名")
+    public String table;
+
+    @Label("写入行数")
+    public int rows;
+
+    @Label("涉及房间数")
+    public int rooms;
+
+    @Label("文本字节数")
+    @Description("写入的文本列UTF-8字节数之和")
+    @DataAmount
+    public long bytes;
+}
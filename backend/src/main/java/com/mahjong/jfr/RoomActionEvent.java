@@ -0,0 +1,37 @@
+package com.mahjong.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR事件：房间相关Socket事件的处理过程
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Name("com.mahjong.RoomAction")
+@Label("房间操作")
+@Description("房间相关Socket事件从进入处理器到处理完成")
+@Category({"Mahjong", "Socket"})
+@Threshold("20 ms")
+@StackTrace(false)
+public class RoomActionEvent extends Event {
+
+    @Label("房间号")
+    public String roomId;
+
+    @Label("事件类型")
+    public String action;
+
+    @Label("玩家ID")
+    public String playerId;
+
+    @Label("处理结果")
+    @Description("success / throttled / error")
+    public String outcome;
+}
@@ -0,0 +1,30 @@
+package com.mahjong.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR事件：定时任务的一次执行
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Name("com.mahjong.TimerFired")
+@Label("定时任务")
+@Description("@Scheduled 方法的一次执行")
+@Category({"Mahjong", "Scheduling"})
+@StackTrace(false)
+public class TimerFiredEvent extends Event {
+
+    @Label("任务")
+    @Description("类名.方法名")
+    public String task;
+
+    @Label("处理结果")
+    @Description("success / error")
+    public String outcome;
+}
@@ -0,0 +1,40 @@
+package com.mahjong.jfr;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.springframework.scheduling.support.ScheduledTaskObservationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * 将 @Scheduled 任务的执行观测转为 {@link TimerFiredEvent}
+ * 定时任务的观测由 Spring Boot 自动开启，这里只需挂一个处理器，不改动各任务方法
+ */
+@Component
+public class TimerFiredObservationHandler implements ObservationHandler<ScheduledTaskObservationContext> {
+
+    @Override
+    public void onStart(ScheduledTaskObservationContext context) {
+        TimerFiredEvent event = new TimerFiredEvent();
+        event.begin();
+        context.put(TimerFiredEvent.class, event);
+    }
+
+    @Override
+    public void onStop(ScheduledTaskObservationContext context) {
+        TimerFiredEvent event = context.get(TimerFiredEvent.class);
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.task = context.getTargetClass().getSimpleName() + "." + context.getMethod().getName();
+            event.outcome = context.getError() == null ? "success" : "error";
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ScheduledTaskObservationContext;
+    }
+}
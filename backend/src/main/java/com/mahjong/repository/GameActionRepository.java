@@ -0,0 +1,31 @@
+package com.mahjong.repository;
+
+import com.mahjong.entity.GameAction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 游戏操作记录Repository接口
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Repository
+public interface GameActionRepository extends JpaRepository<GameAction, Long> {
+
+    /**
+     * 按玩家汇总一个回合的操作
+     * 返回：玩家ID, 思考时间合计(ms), 计时操作数, 碰次数, 明杠次数(含补杠), 暗杠次数
+     */
+    @Query("SELECT a.playerId, COALESCE(SUM(a.actionTimeMs), 0), COUNT(a.actionTimeMs), " +
+           "SUM(CASE WHEN a.actionType = com.mahjong.entity.GameAction.ActionType.PENG THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN a.actionType IN (com.mahjong.entity.GameAction.ActionType.MINGANG, " +
+           "com.mahjong.entity.GameAction.ActionType.BUGANG) THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN a.actionType = com.mahjong.entity.GameAction.ActionType.ANGANG THEN 1 ELSE 0 END) " +
+           "FROM GameAction a WHERE a.gameRound.id = :roundId AND a.boolValid = true GROUP BY a.playerId")
+    List<Object[]> summarizeRoundByPlayer(@Param("roundId") Long roundId);
+}
@@ -0,0 +1,48 @@
+package com.mahjong.repository;
+
+import com.mahjong.entity.GameRound;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 游戏回合Repository接口
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Repository
+public interface GameRoundRepository extends JpaRepository<GameRound, Long> {
+
+    /**
+     * 标记回合统计已计入（仅当尚未计入时成功），保证每个回合只被投影一次
+     *
+     * @return 1表示本次标记成功，0表示已计入过
+     */
+    @Modifying
+    @Query("UPDATE GameRound r SET r.statsApplied = true " +
+           "WHERE r.id = :roundId AND (r.statsApplied IS NULL OR r.statsApplied = false)")
+    int markStatsApplied(@Param("roundId") Long roundId);
+
+    /**
+     * 标记回合得分已计入玩家表（仅当尚未计入时成功），保证同一回合只结算一次
+     *
+     * @return 1表示本次标记成功，0表示已结算过
+     */
+    @Modifying
+    @Query("UPDATE GameRound r SET r.scoresSettled = true " +
+           "WHERE r.id = :roundId AND (r.scoresSettled IS NULL OR r.scoresSettled = false)")
+    int markScoresSettled(@Param("roundId") Long roundId);
+
+    /**
+     * 查询已结束但尚未计入玩家统计的回合ID（按ID升序，用于补算）
+     */
+    @Query("SELECT r.id FROM GameRound r WHERE r.roundStatus = com.mahjong.entity.GameRound.RoundStatus.FINISHED " +
+           "AND (r.statsApplied IS NULL OR r.statsApplied = false) AND r.id > :afterId ORDER BY r.id")
+    List<Long> findUnappliedFinishedRoundIds(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -2,6 +2,7 @@ package com.mahjong.repository;
 
 import com.mahjong.entity.Player;
 import com.mahjong.entity.Room;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -37,6 +38,12 @@ public interface PlayerRepository extends JpaRepository<Player, String> {
     @Query("SELECT p FROM Player p WHERE p.room.id = :roomId AND p.spectator = false")
     List<Player> findActivePlayersByRoomId(@Param("roomId") Long roomId);
 
+    /**
+     * 查询房间内非观战玩家的已占位置
+     */
+    @Query("SELECT p.playerPosition FROM Player p WHERE p.room.id = :roomId AND p.spectator = false")
+    List<Integer> findActivePositionsByRoomId(@Param("roomId") Long roomId);
+
     /**
      * 查找房间内所有观战者
      */
@@ -151,4 +158,16 @@ public interface PlayerRepository extends JpaRepository<Player, String> {
      * 统计指定状态的玩家数量
      */
     long countByPlayerStatus(Player.PlayerStatus status);
-}
\ No newline at end of file
+
+    /**
+     * 查询玩家及其所在房间（一次查询）
+     */
+    @Query("SELECT p FROM Player p LEFT JOIN FETCH p.room WHERE p.id = :playerId")
+    Optional<Player> findWithRoomById(@Param("playerId") String playerId);
+
+    /**
+     * 按ID顺序分批读取玩家ID和昵称，用于构建昵称搜索索引
+     */
+    @Query("SELECT p.id, p.playerName FROM Player p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findIdAndNameAfter(@Param("afterId") String afterId, Pageable pageable);
+}
@@ -0,0 +1,22 @@
+package com.mahjong.repository;
+
+import com.mahjong.entity.PlayerRound;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 玩家回合Repository接口
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Repository
+public interface PlayerRoundRepository extends JpaRepository<PlayerRound, Long> {
+
+    /**
+     * 查找回合内所有玩家的回合记录
+     */
+    List<PlayerRound> findByGameRoundId(Long gameRoundId);
+}
@@ -0,0 +1,63 @@
+package com.mahjong.repository;
+
+import com.mahjong.entity.PlayerStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 玩家统计投影Repository接口
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Repository
+public interface PlayerStatsRepository extends JpaRepository<PlayerStats, String> {
+
+    /**
+     * 累加一个回合的统计（不存在则插入），单条语句完成，无需先读后写
+     */
+    @Modifying
+    @Query(value = "INSERT INTO player_stats (player_id, rounds_played, wins, zimo_count, total_score, high_score, " +
+            "total_win_score, total_fan, fan_distribution, peng_count, ming_gang_count, an_gang_count, " +
+            "think_time_total_ms, think_action_count, last_round_at, updated_at) " +
+            "VALUES (:playerId, 1, :win, :zimo, :score, :score, :winScore, :fan, " +
+            "CASE WHEN :fanKey IS NULL THEN JSON_OBJECT() ELSE JSON_OBJECT(:fanKey, 1) END, " +
+            ":peng, :mingGang, :anGang, :thinkMs, :thinkCount, :roundAt, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "rounds_played = rounds_played + 1, " +
+            "wins = wins + :win, " +
+            "zimo_count = zimo_count + :zimo, " +
+            "total_score = total_score + :score, " +
+            "high_score = GREATEST(high_score, :score), " +
+            "total_win_score = total_win_score + :winScore, " +
+            "total_fan = total_fan + :fan, " +
+            "fan_distribution = CASE WHEN :fanKey IS NULL THEN fan_distribution " +
+            "ELSE JSON_SET(COALESCE(fan_distribution, JSON_OBJECT()), CONCAT('$.\"', :fanKey, '\"'), " +
+            "COALESCE(JSON_EXTRACT(fan_distribution, CONCAT('$.\"', :fanKey, '\"')), 0) + 1) END, " +
+            "peng_count = peng_count + :peng, " +
+            "ming_gang_count = ming_gang_count + :mingGang, " +
+            "an_gang_count = an_gang_count + :anGang, " +
+            "think_time_total_ms = think_time_total_ms + :thinkMs, " +
+            "think_action_count = think_action_count + :thinkCount, " +
+            "last_round_at = GREATEST(COALESCE(last_round_at, :roundAt), :roundAt), " +
+            "updated_at = NOW()",
+            nativeQuery = true)
+    int accumulateRound(@Param("playerId") String playerId,
+                        @Param("win") int win,
+                        @Param("zimo") int zimo,
+                        @Param("score") int score,
+                        @Param("winScore") int winScore,
+                        @Param("fan") int fan,
+                        @Param("fanKey") String fanKey,
+                        @Param("peng") int peng,
+                        @Param("mingGang") int mingGang,
+                        @Param("anGang") int anGang,
+                        @Param("thinkMs") long thinkMs,
+                        @Param("thinkCount") long thinkCount,
+                        @Param("roundAt") LocalDateTime roundAt);
+}
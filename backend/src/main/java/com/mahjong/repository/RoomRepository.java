@@ -1,6 +1,7 @@
 package com.mahjong.repository;
 
 import com.mahjong.entity.Room;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +39,37 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
            "AND (r.expiresAt IS NULL OR r.expiresAt > :now) ORDER BY r.createdAt DESC")
     List<Room> findActiveRooms(@Param("now") LocalDateTime now);
 
+    /**
+     * 按房间号查询房间详情，玩家（含观战者）和游戏配置在同一条SQL中连接加载
+     */
+    @EntityGraph(attributePaths = {"players", "gameConfig"})
+    @Query("SELECT r FROM Room r WHERE r.roomNumber = :roomNumber")
+    Optional<Room> findDetailByRoomNumber(@Param("roomNumber") String roomNumber);
+
+    /**
+     * 按房间号查询房间ID
+     */
+    @Query("SELECT r.id FROM Room r WHERE r.roomNumber = :roomNumber")
+    Optional<Long> findIdByRoomNumber(@Param("roomNumber") String roomNumber);
+
+    /**
+     * 批量查询房间号对应的房间ID，返回 [房间号, 房间ID]
+     */
+    @Query("SELECT r.roomNumber, r.id FROM Room r WHERE r.roomNumber IN :roomNumbers")
+    List<Object[]> findIdsByRoomNumbers(@Param("roomNumbers") Collection<String> roomNumbers);
+
+    /**
+     * 查找所有未过期房间（用于初始化大厅索引）
+     */
+    @Query("SELECT r FROM Room r WHERE r.expiresAt IS NULL OR r.expiresAt > :now")
+    List<Room> findUnexpiredRooms(@Param("now") LocalDateTime now);
+
+    /**
+     * 查询区间内的房间号（用于初始化和对账房间号分配器），房间号为定长6位数字，按字符串比较即按数值比较
+     */
+    @Query("SELECT r.roomNumber FROM Room r WHERE r.roomNumber BETWEEN :first AND :last")
+    List<String> findRoomNumbersBetween(@Param("first") String first, @Param("last") String last);
+
     /**
      * 查找需要清理的过期房间
      */
@@ -44,18 +77,37 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     List<Room> findExpiredRooms(@Param("now") LocalDateTime now);
 
     /**
-     * 增加房间玩家数量
+     * 增加房间玩家数量（未满时），同时推进版本号使持有旧状态的实体保存失败
+     *
+     * @return 更新行数，0表示房间已满或不存在
      */
-    @Modifying
-    @Query("UPDATE Room r SET r.currentPlayers = r.currentPlayers + 1 WHERE r.id = :roomId")
-    void incrementPlayerCount(@Param("roomId") Long roomId);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Room r SET r.currentPlayers = r.currentPlayers + 1, r.version = r.version + 1 " +
+           "WHERE r.id = :roomId AND r.currentPlayers < r.maxPlayers")
+    int incrementPlayerCount(@Param("roomId") Long roomId);
 
     /**
      * 减少房间玩家数量
      */
-    @Modifying
-    @Query("UPDATE Room r SET r.currentPlayers = r.currentPlayers - 1 WHERE r.id = :roomId AND r.currentPlayers > 0")
-    void decrementPlayerCount(@Param("roomId") Long roomId);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Room r SET r.currentPlayers = r.currentPlayers - 1, r.version = r.version + 1 " +
+           "WHERE r.id = :roomId AND r.currentPlayers > 0")
+    int decrementPlayerCount(@Param("roomId") Long roomId);
+
+    /**
+     * 增加房间观战人数
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Room r SET r.spectatorCount = r.spectatorCount + 1, r.version = r.version + 1 WHERE r.id = :roomId")
+    int incrementSpectatorCount(@Param("roomId") Long roomId);
+
+    /**
+     * 减少房间观战人数
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Room r SET r.spectatorCount = r.spectatorCount - 1, r.version = r.version + 1 " +
+           "WHERE r.id = :roomId AND r.spectatorCount > 0")
+    int decrementSpectatorCount(@Param("roomId") Long roomId);
 
     /**
      * 更新房间状态
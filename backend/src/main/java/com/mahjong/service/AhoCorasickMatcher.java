@@ -0,0 +1,216 @@
+package com.mahjong.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick 多模式匹配自动机
+ * 构建后不可变，可被多个线程同时使用。每个状态的出边按字符排序存放在数组中并二分查找，
+ * 根状态另有按字符直接寻址的跳转表（扫描时绝大多数字符停留在根状态）。失败指针预先计算，
+ * 扫描文本时每个字符只前进一次，耗时与词条数量基本无关。
+ * 匹配按字符忽略大小写。
+ */
+final class AhoCorasickMatcher {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final int[] NO_TARGETS = new int[0];
+
+    // 状态 -> 出边字符（有序）及目标状态
+    private final char[][] labels;
+    private final int[][] targets;
+    // 根状态按字符直接寻址的跳转表，-1表示无出边
+    private final int[] rootTargets;
+    private final int[] fail;
+    // 状态 -> 以该状态结尾的最长词条长度（含失败链上的词条），0表示非词尾
+    private final int[] matchLength;
+    private final int wordCount;
+
+    private AhoCorasickMatcher(char[][] labels, int[][] targets, int[] fail, int[] matchLength, int wordCount) {
+        this.labels = labels;
+        this.targets = targets;
+        this.rootTargets = new int[Character.MAX_VALUE + 1];
+        Arrays.fill(rootTargets, -1);
+        for (int i = 0; i < labels[0].length; i++) {
+            rootTargets[labels[0][i]] = targets[0][i];
+        }
+        this.fail = fail;
+        this.matchLength = matchLength;
+        this.wordCount = wordCount;
+    }
+
+    /**
+     * 由词条构建自动机，空白词条被忽略
+     */
+    static AhoCorasickMatcher build(Collection<String> words) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> depth = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        depth.add(0);
+        List<Integer> terminal = new ArrayList<>();
+        terminal.add(0);
+
+        int wordCount = 0;
+        for (String word : words) {
+            if (word == null || word.isBlank()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < word.length(); i++) {
+                char c = fold(word.charAt(i));
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    depth.add(depth.get(state) + 1);
+                    terminal.add(0);
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            if (terminal.get(state) == 0) {
+                wordCount++;
+            }
+            terminal.set(state, word.length());
+        }
+
+        int size = trie.size();
+        char[][] labels = new char[size][];
+        int[][] targets = new int[size][];
+        for (int state = 0; state < size; state++) {
+            TreeMap<Character, Integer> edges = trie.get(state);
+            if (edges.isEmpty()) {
+                labels[state] = NO_LABELS;
+                targets[state] = NO_TARGETS;
+                continue;
+            }
+            labels[state] = new char[edges.size()];
+            targets[state] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                labels[state][i] = edge.getKey();
+                targets[state][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        // 按层次遍历计算失败指针和最长匹配长度
+        int[] fail = new int[size];
+        int[] matchLength = new int[size];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            matchLength[child] = terminal.get(child);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < labels[state].length; i++) {
+                char c = labels[state][i];
+                int child = targets[state][i];
+                int f = fail[state];
+                int next;
+                while ((next = step(labels, targets, f, c)) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = next >= 0 ? next : 0;
+                matchLength[child] = Math.max(terminal.get(child), matchLength[fail[child]]);
+                queue.add(child);
+            }
+        }
+        return new AhoCorasickMatcher(labels, targets, fail, matchLength, wordCount);
+    }
+
+    /**
+     * 将文本中命中的词条替换为掩码，重叠的命中合并为一段
+     *
+     * @param text 原文
+     * @param mask 替换内容
+     * @return 替换后的文本，无命中时返回原文
+     */
+    String replace(String text, String mask) {
+        // 命中区间 [spans[2k], spans[2k+1]) 按结束位置递增入栈；较长的词条可能向前覆盖多个已有区间，
+        // 因此新区间与栈顶重叠时逐个弹出合并，全部扫描完再输出
+        int[] spans = null;
+        int count = 0;
+        int state = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+            int next;
+            while ((next = next(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = next >= 0 ? next : 0;
+
+            int length = matchLength[state];
+            if (length == 0) {
+                continue;
+            }
+            int start = i + 1 - length;
+            while (count > 0 && start < spans[2 * count - 1]) {
+                start = Math.min(start, spans[2 * count - 2]);
+                count--;
+            }
+            if (spans == null) {
+                spans = new int[8];
+            } else if (2 * count + 2 > spans.length) {
+                spans = Arrays.copyOf(spans, spans.length * 2);
+            }
+            spans[2 * count] = start;
+            spans[2 * count + 1] = i + 1;
+            count++;
+        }
+
+        if (count == 0) {
+            return text;
+        }
+        StringBuilder result = new StringBuilder(text.length());
+        int copiedUpTo = 0;
+        for (int k = 0; k < count; k++) {
+            result.append(text, copiedUpTo, spans[2 * k]).append(mask);
+            copiedUpTo = spans[2 * k + 1];
+        }
+        result.append(text, copiedUpTo, text.length());
+        return result.toString();
+    }
+
+    /**
+     * 文本中是否包含任一词条
+     */
+    boolean matches(String text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+            int next;
+            while ((next = next(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = next >= 0 ? next : 0;
+            if (matchLength[state] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int wordCount() {
+        return wordCount;
+    }
+
+    private int next(int state, char c) {
+        return state == 0 ? rootTargets[c] : step(labels, targets, state, c);
+    }
+
+    private static int step(char[][] labels, int[][] targets, int state, char c) {
+        int index = Arrays.binarySearch(labels[state], c);
+        return index >= 0 ? targets[state][index] : -1;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(c);
+    }
+}
@@ -0,0 +1,457 @@
+package com.mahjong.service;
+
+import com.mahjong.event.RoomLifecycleEvent;
+import com.mahjong.jfr.PersistenceFlushEvent;
+import com.mahjong.repository.RoomRepository;
+import com.mahjong.service.dto.ChatHistoryMessage;
+import com.mahjong.service.dto.ChatHistoryPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 聊天历史服务
+ * 每个房间在内存中保留最近若干条消息的环形缓冲，新加入或重连的玩家直接从内存取得近期聊天；
+ * 消息同时进入待写队列，由定时任务按多行 INSERT 批量写入 chat_messages，发送路径上没有同步写库。
+ * 消息ID按时间递增（时间戳 | 序号 | 节点号），在写库前即可作为分页游标，历史查询先读环形缓冲再查表。
+ * 写库失败时失败批次和待写队列一并进入有界重试缓冲，下次定时任务优先重写，超出容量时丢弃最旧的消息并计数；
+ * 重启后首次访问某房间时，环形缓冲从 chat_messages 取最近的消息预热。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Service
+public class ChatHistoryService implements RoomMemoryContributor {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatHistoryService.class);
+
+    public static final String TYPE_USER = "user";
+    public static final String TYPE_SYSTEM = "system";
+    public static final String SYSTEM_SENDER_ID = "system";
+
+    // 2024-01-01T00:00:00Z
+    private static final long ID_EPOCH = 1704067200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_STEP = 1L << NODE_BITS;
+
+    private static final int SENDER_NAME_MAX = 20;
+    private static final int CONTENT_MAX = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // 待写库队列节点的估算大小
+    private static final long PENDING_NODE = RoomMemoryCollector.shallow(2, 0);
+
+    // IGNORE：超时等情况下批次可能已写入，重试时跳过已存在的ID
+    private static final String INSERT_PREFIX = "INSERT IGNORE INTO chat_messages "
+            + "(id, room_id, sender_id, sender_name, message_type, message_content, bool_system, deleted, created_at) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, 0, ?)";
+
+    private static final String SELECT_PAGE = "SELECT id, sender_id, sender_name, message_content, bool_system, created_at "
+            + "FROM chat_messages WHERE room_id = :roomId AND deleted = 0 AND id < :before "
+            + "ORDER BY id DESC LIMIT :limit";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomLookupService roomLookupService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${game.chat.history-size:50}")
+    private int historySize;
+
+    @Value("${game.chat.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Value("${game.chat.retry-buffer-size:5000}")
+    private int retryBufferSize;
+
+    @Value("${game.cluster.node-index:0}")
+    private int nodeIndex;
+
+    private final Map<String, ChatRing> rings = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<ChatHistoryMessage> pending = new ConcurrentLinkedQueue<>();
+    // 写库失败待重试的消息，按ID从旧到新，只在 flush 内修改
+    private final ConcurrentLinkedDeque<ChatHistoryMessage> retry = new ConcurrentLinkedDeque<>();
+    private final AtomicLong lastId = new AtomicLong();
+    private Counter droppedCounter;
+
+    /**
+     * 记录一条房间消息：放入环形缓冲并排队等待批量写库
+     *
+     * @return 带有消息ID和时间戳的消息
+     */
+    public ChatHistoryMessage append(String roomId, String senderId, String sender, String avatarUrl,
+                                     String content, String type) {
+        long now = System.currentTimeMillis();
+        ChatHistoryMessage message = ChatHistoryMessage.builder()
+                .id(nextId(now))
+                .roomId(roomId)
+                .senderId(senderId)
+                .sender(sender)
+                .avatarUrl(avatarUrl)
+                .content(content)
+                .type(type)
+                .timestamp(now)
+                .build();
+        rings.computeIfAbsent(roomId, k -> new ChatRing(historySize)).add(message);
+        pending.add(message);
+        return message;
+    }
+
+    /**
+     * 获取房间近期消息，按时间从旧到新。环形缓冲不存在时先从表中预热
+     */
+    public List<ChatHistoryMessage> recent(String roomId, int limit) {
+        ChatRing ring = ringOrSeed(roomId);
+        if (ring == null) {
+            return List.of();
+        }
+        List<ChatHistoryMessage> newestFirst = ring.newestFirst();
+        List<ChatHistoryMessage> result = new ArrayList<>(newestFirst.subList(0, Math.min(limit, newestFirst.size())));
+        result.sort(Comparator.comparing(ChatHistoryMessage::getId));
+        return result;
+    }
+
+    /**
+     * 内存中持有环形缓冲的房间数
+     */
+    public int bufferedRoomCount() {
+        return rings.size();
+    }
+
+    /**
+     * 等待批量写库的消息数（含待重试的消息）
+     */
+    public int pendingCount() {
+        return pending.size() + retry.size();
+    }
+
+    /**
+     * 各房间的环形缓冲（含其中的消息）和待写库队列节点。
+     * 待写库的消息通常仍在环形缓冲中，只计队列节点
+     */
+    @Override
+    public void contribute(RoomMemoryCollector collector) {
+        rings.forEach((roomId, ring) -> collector.add(roomId, "chat.ring",
+                RoomMemoryCollector.MAP_ENTRY + RoomMemoryCollector.string(roomId) + ring.estimateBytes()));
+        for (ChatHistoryMessage message : pending) {
+            collector.add(message.getRoomId(), "chat.pending", PENDING_NODE);
+        }
+        for (ChatHistoryMessage message : retry) {
+            collector.add(message.getRoomId(), "chat.pending", PENDING_NODE);
+        }
+    }
+
+    /**
+     * 游标分页查询历史消息：先取环形缓冲中早于游标的消息，不足一页时查表补齐
+     *
+     * @param roomId 房间号
+     * @param before 游标，只返回ID小于该值的消息，为空表示从最新开始
+     * @param limit  每页条数
+     * @return 按时间从新到旧的消息及下一页游标
+     */
+    public ChatHistoryPage getHistory(String roomId, Long before, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long cursor = before != null ? before : Long.MAX_VALUE;
+
+        List<ChatHistoryMessage> messages = new ArrayList<>(pageSize);
+        ChatRing ring = ringOrSeed(roomId);
+        if (ring != null) {
+            for (ChatHistoryMessage message : ring.newestFirst()) {
+                if (messages.size() == pageSize) {
+                    break;
+                }
+                if (message.getId() < cursor) {
+                    messages.add(message);
+                }
+            }
+        }
+
+        if (messages.size() < pageSize) {
+            long tableCursor = messages.isEmpty() ? cursor : messages.get(messages.size() - 1).getId();
+            Long roomKey = roomLookupService.findRoomId(roomId).orElse(null);
+            if (roomKey != null) {
+                messages.addAll(queryTable(roomId, roomKey, tableCursor, pageSize - messages.size()));
+            }
+        }
+
+        Long nextCursor = messages.size() == pageSize ? messages.get(messages.size() - 1).getId() : null;
+        return ChatHistoryPage.builder().messages(messages).nextCursor(nextCursor).build();
+    }
+
+    /**
+     * 将待写消息按多行 INSERT 批量写库，先写上次失败的消息。
+     * 某批写入失败时连同当前待写队列一起移入重试缓冲并结束本轮，等下一次定时任务再试，
+     * 数据库不可用期间内存中的消息总数不超过重试缓冲容量
+     */
+    @Scheduled(fixedDelayString = "${game.chat.flush-interval:1000}")
+    public synchronized void flush() {
+        while (!retry.isEmpty() || !pending.isEmpty()) {
+            List<ChatHistoryMessage> batch = new ArrayList<>(flushBatchSize);
+            ChatHistoryMessage message;
+            while (batch.size() < flushBatchSize && (message = retry.poll()) != null) {
+                batch.add(message);
+            }
+            while (batch.size() < flushBatchSize && (message = pending.poll()) != null) {
+                batch.add(message);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                insertBatch(batch);
+            } catch (Exception e) {
+                int dropped = requeue(batch);
+                log.error("聊天消息批量写入失败，{} 条待重试，丢弃 {} 条", retry.size(), dropped, e);
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 房间过期清理后移除环形缓冲
+     */
+    @EventListener
+    public void onRoomLifecycle(RoomLifecycleEvent event) {
+        if (event.isRemoval() && event.getRoomNumber() != null) {
+            rings.remove(event.getRoomNumber());
+        }
+    }
+
+    /**
+     * 失败批次放回重试缓冲头部，待写队列中的消息（比批次内的新）移到尾部，超出容量时丢弃最旧的消息
+     *
+     * @return 丢弃的消息数
+     */
+    private int requeue(List<ChatHistoryMessage> batch) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            retry.addFirst(batch.get(i));
+        }
+        // 只移走当前已排队的消息，移动期间新发送的消息留给下一轮
+        ChatHistoryMessage message;
+        for (int n = pending.size(); n > 0 && (message = pending.poll()) != null; n--) {
+            retry.addLast(message);
+        }
+        int dropped = 0;
+        while (retry.size() > Math.max(retryBufferSize, 0)) {
+            retry.pollFirst();
+            dropped++;
+        }
+        if (dropped > 0) {
+            if (droppedCounter == null) {
+                droppedCounter = Counter.builder("mahjong.chat.dropped")
+                        .description("重试缓冲溢出而未写库的聊天消息数")
+                        .register(meterRegistry);
+            }
+            droppedCounter.increment(dropped);
+        }
+        return dropped;
+    }
+
+    /**
+     * 取房间的环形缓冲，不存在时从表中读取最近 historySize 条消息建立缓冲。
+     * 房间不存在时返回null，不为任意房间号建缓冲
+     */
+    private ChatRing ringOrSeed(String roomId) {
+        ChatRing ring = rings.get(roomId);
+        if (ring != null) {
+            return ring;
+        }
+        Long roomKey = roomLookupService.findRoomId(roomId).orElse(null);
+        if (roomKey == null) {
+            return null;
+        }
+        ChatRing seeded = new ChatRing(historySize);
+        List<ChatHistoryMessage> newestFirst = queryTable(roomId, roomKey, Long.MAX_VALUE, historySize);
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            seeded.add(newestFirst.get(i));
+        }
+        // 查表期间若已有新消息建立了缓冲，保留该缓冲，更早的消息由 getHistory 查表补齐
+        ChatRing existing = rings.putIfAbsent(roomId, seeded);
+        return existing != null ? existing : seeded;
+    }
+
+    private void insertBatch(List<ChatHistoryMessage> batch) {
+        PersistenceFlushEvent flushEvent = new PersistenceFlushEvent();
+        flushEvent.begin();
+        Set<String> roomNumbers = new HashSet<>();
+        batch.forEach(m -> roomNumbers.add(m.getRoomId()));
+        Map<String, Long> roomIds = new HashMap<>();
+        for (Object[] row : roomRepository.findIdsByRoomNumbers(roomNumbers)) {
+            roomIds.put((String) row[0], (Long) row[1]);
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(batch.size() * 8);
+        int rows = 0;
+        for (ChatHistoryMessage m : batch) {
+            Long roomKey = roomIds.get(m.getRoomId());
+            if (roomKey == null) {
+                // 房间已被清理
+                continue;
+            }
+            boolean system = TYPE_SYSTEM.equals(m.getType());
+            sql.append(rows == 0 ? "" : ", ").append(INSERT_ROW);
+            args.add(m.getId());
+            args.add(roomKey);
+            args.add(m.getSenderId());
+            args.add(truncate(m.getSender(), SENDER_NAME_MAX));
+            args.add(system ? "SYSTEM" : "TEXT");
+            args.add(truncate(m.getContent(), CONTENT_MAX));
+            args.add(system);
+            args.add(new Timestamp(m.getTimestamp()));
+            rows++;
+        }
+        if (rows > 0) {
+            jdbcTemplate.getJdbcTemplate().update(sql.toString(), args.toArray());
+            log.debug("聊天消息批量写入: {} 条", rows);
+        }
+
+        flushEvent.end();
+        if (flushEvent.shouldCommit()) {
+            long bytes = 0;
+            for (ChatHistoryMessage m : batch) {
+                if (roomIds.containsKey(m.getRoomId())) {
+                    bytes += utf8Length(m.getSender()) + utf8Length(m.getContent());
+                }
+            }
+            flushEvent.table = "chat_messages";
+            flushEvent.rows = rows;
+            flushEvent.rooms = roomIds.size();
+            flushEvent.bytes = bytes;
+            flushEvent.commit();
+        }
+    }
+
+    private static int utf8Length(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+
+    private List<ChatHistoryMessage> queryTable(String roomId, Long roomKey, long before, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("roomId", roomKey)
+                .addValue("before", before)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(SELECT_PAGE, params, (rs, rowNum) -> {
+            boolean system = rs.getBoolean("bool_system");
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            return ChatHistoryMessage.builder()
+                    .id(rs.getLong("id"))
+                    .roomId(roomId)
+                    .senderId(rs.getString("sender_id"))
+                    .sender(rs.getString("sender_name"))
+                    .content(rs.getString("message_content"))
+                    .type(system ? TYPE_SYSTEM : TYPE_USER)
+                    .timestamp(createdAt != null ? createdAt.getTime() : null)
+                    .build();
+        });
+    }
+
+    /**
+     * 生成按时间递增的消息ID：毫秒时间戳 | 12位序号 | 10位节点号。
+     * 同一毫秒内序号用尽时借用下一毫秒，保证单节点内严格递增
+     */
+    private long nextId(long now) {
+        long base = ((now - ID_EPOCH) << (SEQUENCE_BITS + NODE_BITS)) | (nodeIndex & ((1L << NODE_BITS) - 1));
+        while (true) {
+            long previous = lastId.get();
+            long candidate = Math.max(previous + SEQUENCE_STEP, base);
+            if (lastId.compareAndSet(previous, candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+
+    /**
+     * 固定容量的环形缓冲，写入无锁，满后覆盖最旧的消息
+     */
+    private static final class ChatRing {
+        private final AtomicReferenceArray<ChatHistoryMessage> slots;
+        private final AtomicLong written = new AtomicLong();
+
+        private ChatRing(int capacity) {
+            this.slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+        }
+
+        /**
+         * 缓冲本身及当前持有的消息的估算大小
+         */
+        long estimateBytes() {
+            int capacity = slots.length();
+            long bytes = RoomMemoryCollector.shallow(2, 0) + RoomMemoryCollector.referenceArray(capacity)
+                    + RoomMemoryCollector.shallow(1, 0) + RoomMemoryCollector.shallow(0, 8);
+            for (int i = 0; i < capacity; i++) {
+                ChatHistoryMessage message = slots.get(i);
+                if (message != null) {
+                    bytes += RoomMemoryCollector.shallow(8, 0) + 2 * RoomMemoryCollector.BOXED
+                            + RoomMemoryCollector.string(message.getSenderId())
+                            + RoomMemoryCollector.string(message.getSender())
+                            + RoomMemoryCollector.string(message.getAvatarUrl())
+                            + RoomMemoryCollector.string(message.getContent());
+                }
+            }
+            return bytes;
+        }
+
+        void add(ChatHistoryMessage message) {
+            long index = written.getAndIncrement();
+            slots.set((int) (index % slots.length()), message);
+        }
+
+        /**
+         * 当前缓冲内容，按消息ID从新到旧
+         */
+        List<ChatHistoryMessage> newestFirst() {
+            int capacity = slots.length();
+            List<ChatHistoryMessage> messages = new ArrayList<>(capacity);
+            for (int i = 0; i < capacity; i++) {
+                ChatHistoryMessage message = slots.get(i);
+                if (message != null) {
+                    messages.add(message);
+                }
+            }
+            messages.sort(Comparator.comparing(ChatHistoryMessage::getId).reversed());
+            return messages;
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package com.mahjong.service;
 
 import com.mahjong.entity.Player;
-import com.mahjong.entity.Room;
 import com.mahjong.repository.PlayerRepository;
-import com.mahjong.repository.RoomRepository;
 import com.mahjong.service.dto.ApiResponse;
+import com.mahjong.service.dto.PlayerProfile;
+import com.mahjong.service.dto.SessionProfile;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,12 +23,19 @@ import java.util.regex.Pattern;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(value = "mahjong.service", description = "业务服务方法耗时")
 public class ChatService {
 
     private static final Logger log = LoggerFactory.getLogger(ChatService.class);
 
-    private final RoomRepository roomRepository;
+    // 聊天消息日志器，按 game.logging.sampling 采样；系统消息仍用 log 输出
+    private static final Logger eventLog = LoggerFactory.getLogger(ChatService.class.getName() + ".event");
+
+    private final RoomLookupService roomLookupService;
     private final PlayerRepository playerRepository;
+    private final PlayerService playerService;
+    private final SensitiveWordFilter sensitiveWordFilter;
+    private final PlayerSessionRegistry playerSessionRegistry;
 
     @Autowired
     private WebSocketService webSocketService;
@@ -35,10 +43,6 @@ public class ChatService {
     // 聊天消息内容验证正则表达式
     private static final Pattern CONTENT_PATTERN = Pattern.compile("^[\\s\\S]{1,100}$");
 
-    // 敏感词过滤（简单示例）
-    private static final String[] SENSITIVE_WORDS = {
-        "政治", "色情", "暴力", "赌博", "毒品"
-    };
 
     /**
      * 发送聊天消息
@@ -50,39 +54,31 @@ public class ChatService {
      */
     public ApiResponse<Map<String, Object>> sendChatMessage(Long userId, String roomId, String content) {
         try {
-            log.info("用户 {} 在房间 {} 发送聊天消息: {}", userId, roomId, content);
-
             // 验证消息内容
             String validationResult = validateMessageContent(content);
             if (validationResult != null) {
                 return ApiResponse.badRequest(validationResult);
             }
 
-            // 检查用户是否存在
-            Player player = playerRepository.findById(userId.toString()).orElse(null);
-            if (player == null) {
-                return ApiResponse.notFound("用户不存在");
-            }
-
-            // 检查房间是否存在
-            Room room = roomRepository.findByRoomNumber(roomId).orElse(null);
-            if (room == null) {
-                return ApiResponse.notFound("房间不存在");
-            }
-
-            // 检查用户是否在房间中
-            Player playerInRoom = playerRepository.findByRoomIdAndId(room.getId(), String.valueOf(userId)).orElse(null);
-            if (playerInRoom == null) {
-                return ApiResponse.badRequest("您不在此房间中");
+            // 在线玩家直接使用会话快照校验房间成员身份，无需查库
+            SessionProfile session = playerSessionRegistry.get(userId.toString());
+            if (session == null || !session.isInRoom(roomId)) {
+                ApiResponse<Map<String, Object>> membershipError = checkMembership(userId, roomId);
+                if (membershipError != null) {
+                    return membershipError;
+                }
             }
 
             // 过滤敏感词
-            String filteredContent = filterSensitiveWords(content);
+            String filteredContent = sensitiveWordFilter.filter(content);
 
             // 发送消息
             webSocketService.handleChatMessage(userId, roomId, filteredContent);
 
-            log.info("聊天消息发送成功: 用户={}, 房间={}", userId, roomId);
+            eventLog.atInfo().setMessage("聊天消息发送成功")
+                    .addKeyValue("roomId", roomId)
+                    .addKeyValue("userId", userId)
+                    .log();
             return ApiResponse.success("消息发送成功", Map.of("status", "sent", "roomId", roomId));
 
         } catch (Exception e) {
@@ -91,6 +87,29 @@ public class ChatService {
         }
     }
 
+    /**
+     * 从数据库校验用户和房间成员身份（未建立Socket连接或快照未命中时使用）
+     *
+     * @return 校验失败时的响应，通过返回null
+     */
+    private ApiResponse<Map<String, Object>> checkMembership(Long userId, String roomId) {
+        PlayerProfile profile = playerService.getPlayerProfile(userId.toString());
+        if (profile == null) {
+            return ApiResponse.notFound("用户不存在");
+        }
+
+        Long roomKey = roomLookupService.findRoomId(roomId).orElse(null);
+        if (roomKey == null) {
+            return ApiResponse.notFound("房间不存在");
+        }
+
+        Player playerInRoom = playerRepository.findByRoomIdAndId(roomKey, String.valueOf(userId)).orElse(null);
+        if (playerInRoom == null) {
+            return ApiResponse.badRequest("您不在此房间中");
+        }
+        return null;
+    }
+
     /**
      * 发送系统消息到房间
      *
@@ -103,8 +122,7 @@ public class ChatService {
             log.info("向房间 {} 发送系统消息: {}", roomId, content);
 
             // 检查房间是否存在
-            Room room = roomRepository.findByRoomNumber(roomId).orElse(null);
-            if (room == null) {
+            if (roomLookupService.findRoomId(roomId).isEmpty()) {
                 return ApiResponse.notFound("房间不存在");
             }
 
@@ -172,20 +190,6 @@ public class ChatService {
         return null;
     }
 
-    /**
-     * 过滤敏感词
-     *
-     * @param content 原始内容
-     * @return 过滤后的内容
-     */
-    private String filterSensitiveWords(String content) {
-        String result = content;
-        for (String word : SENSITIVE_WORDS) {
-            result = result.replaceAll(word, "***");
-        }
-        return result;
-    }
-
     /**
      * 发送玩家加入消息
      *
@@ -0,0 +1,244 @@
+package com.mahjong.service;
+
+import com.mahjong.config.RetentionProperties;
+import com.mahjong.event.RoomLifecycleEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 过期房间回收器
+ * 按主键分块批量清理过期房间：每块在独立的短事务中先归档已结束的对局数据，
+ * 再按外键顺序用集合语句删除，块与块之间让出一段时间，避免长时间持有锁。
+ * 全程使用JDBC，不加载任何实体，不占用持久化上下文。
+ * 对局动作和聊天记录在启用分区保留时由 {@link PartitionRetentionService} 按月导出后整体删除，
+ * 这里不再逐行删除；未启用时与其他表一样先归档再删除。归档表由 database/02-archive-tables.sql 创建。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Service
+public class ExpiredRoomReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredRoomReaper.class);
+
+    // 锁定一块过期房间，SKIP LOCKED 保证多节点同时清理时互不等待
+    private static final String SELECT_EXPIRED_CHUNK =
+            "SELECT id, room_number FROM rooms WHERE expires_at IS NOT NULL AND expires_at < :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED";
+
+    private static final String ARCHIVE_GAMES =
+            "INSERT IGNORE INTO games_archive SELECT g.* FROM games g " +
+            "WHERE g.room_id IN (:roomIds) AND g.game_status = 'FINISHED'";
+
+    private static final String ARCHIVE_ROUNDS =
+            "INSERT IGNORE INTO game_rounds_archive SELECT r.* FROM game_rounds r " +
+            "JOIN games g ON r.game_id = g.id " +
+            "WHERE g.room_id IN (:roomIds) AND g.game_status = 'FINISHED'";
+
+    private static final String ARCHIVE_ACTIONS =
+            "INSERT IGNORE INTO game_actions_archive SELECT a.* FROM game_actions a " +
+            "JOIN games g ON a.game_id = g.id " +
+            "WHERE g.room_id IN (:roomIds) AND g.game_status = 'FINISHED'";
+
+    private static final String ARCHIVE_CHAT =
+            "INSERT IGNORE INTO chat_messages_archive SELECT c.* FROM chat_messages c " +
+            "WHERE c.room_id IN (:roomIds)";
+
+    private static final String ARCHIVE_PLAYER_ROUNDS =
+            "INSERT IGNORE INTO player_rounds_archive SELECT pr.* FROM player_rounds pr " +
+            "JOIN game_rounds r ON pr.game_round_id = r.id " +
+            "JOIN games g ON r.game_id = g.id " +
+            "WHERE g.room_id IN (:roomIds) AND g.game_status = 'FINISHED'";
+
+    private static final String GAME_ACTIONS = "game_actions";
+    private static final String CHAT_MESSAGES = "chat_messages";
+
+    // 未分区时按外键依赖顺序先删除：动作 -> 聊天
+    private static final String DELETE_ACTIONS =
+            "DELETE a FROM game_actions a JOIN games g ON a.game_id = g.id WHERE g.room_id IN (:roomIds)";
+    private static final String DELETE_CHAT = "DELETE FROM chat_messages WHERE room_id IN (:roomIds)";
+
+    // 再按外键依赖顺序删除：玩家回合 -> 回合 -> 游戏 -> 玩家 -> 房间
+    private static final String[] DELETE_STATEMENTS = {
+            "DELETE pr FROM player_rounds pr JOIN game_rounds r ON pr.game_round_id = r.id " +
+                    "JOIN games g ON r.game_id = g.id WHERE g.room_id IN (:roomIds)",
+            "DELETE r FROM game_rounds r JOIN games g ON r.game_id = g.id WHERE g.room_id IN (:roomIds)",
+            "DELETE FROM games WHERE room_id IN (:roomIds)",
+            "DELETE FROM players WHERE room_id IN (:roomIds)",
+            "DELETE FROM rooms WHERE id IN (:roomIds)"
+    };
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RetentionProperties retentionProperties;
+
+    @Value("${game.room.cleanup-chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${game.room.cleanup-pause:200}")
+    private long pauseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * 定时清理过期房间
+     */
+    @Scheduled(fixedDelayString = "${game.room.cleanup-interval:300000}",
+               initialDelayString = "${game.room.cleanup-interval:300000}")
+    public void scheduledReap() {
+        try {
+            reap();
+        } catch (Exception e) {
+            log.error("定时清理过期房间失败: ", e);
+        }
+    }
+
+    /**
+     * 分块清理所有过期房间
+     *
+     * @return 清理的房间数量；若已有清理任务在执行则返回0
+     */
+    public int reap() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("过期房间清理正在进行，跳过本次请求");
+            return 0;
+        }
+
+        int total = 0;
+        long start = System.currentTimeMillis();
+        try {
+            LocalDateTime cutoff = LocalDateTime.now();
+            while (true) {
+                List<ExpiredRoom> chunk = transactionTemplate.execute(status -> reapChunk(cutoff));
+                if (chunk == null || chunk.isEmpty()) {
+                    break;
+                }
+
+                // 事务提交后再通知大厅索引和房间号分配器
+                for (ExpiredRoom room : chunk) {
+                    eventPublisher.publishEvent(RoomLifecycleEvent.expired(room.id, room.roomNumber));
+                }
+                total += chunk.size();
+
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+                if (!pause()) {
+                    break;
+                }
+            }
+
+            if (total > 0) {
+                log.info("清理过期房间完成，共清理{}个房间，耗时{}ms", total, System.currentTimeMillis() - start);
+            }
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 在当前事务中归档并删除一块过期房间
+     */
+    private List<ExpiredRoom> reapChunk(LocalDateTime cutoff) {
+        MapSqlParameterSource selectParams = new MapSqlParameterSource()
+                .addValue("now", Timestamp.valueOf(cutoff))
+                .addValue("limit", chunkSize);
+        List<ExpiredRoom> rooms = jdbcTemplate.query(SELECT_EXPIRED_CHUNK, selectParams,
+                (rs, rowNum) -> new ExpiredRoom(rs.getLong("id"), rs.getString("room_number")));
+        if (rooms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> roomIds = new ArrayList<>(rooms.size());
+        for (ExpiredRoom room : rooms) {
+            roomIds.add(room.id);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("roomIds", roomIds);
+
+        boolean actionsRetained = retainedByPartition(GAME_ACTIONS);
+        boolean chatRetained = retainedByPartition(CHAT_MESSAGES);
+
+        int archivedGames = jdbcTemplate.update(ARCHIVE_GAMES, params);
+        if (archivedGames > 0) {
+            jdbcTemplate.update(ARCHIVE_ROUNDS, params);
+            if (!actionsRetained) {
+                jdbcTemplate.update(ARCHIVE_ACTIONS, params);
+            }
+            jdbcTemplate.update(ARCHIVE_PLAYER_ROUNDS, params);
+        }
+        if (!chatRetained) {
+            jdbcTemplate.update(ARCHIVE_CHAT, params);
+        }
+
+        if (!actionsRetained) {
+            jdbcTemplate.update(DELETE_ACTIONS, params);
+        }
+        if (!chatRetained) {
+            jdbcTemplate.update(DELETE_CHAT, params);
+        }
+        for (String sql : DELETE_STATEMENTS) {
+            jdbcTemplate.update(sql, params);
+        }
+
+        log.debug("清理过期房间块: 房间数={}, 归档对局数={}", rooms.size(), archivedGames);
+        return rooms;
+    }
+
+    /**
+     * 表是否已分区并由分区保留服务按月导出删除（此时已无外键约束，房间删除后行保留到分区过期）
+     */
+    private boolean retainedByPartition(String table) {
+        return retentionProperties.isEnabled() && retentionProperties.getTables().contains(table);
+    }
+
+    /**
+     * 块之间让出时间，被中断时返回false
+     */
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("过期房间清理被中断");
+            return false;
+        }
+    }
+
+    private static final class ExpiredRoom {
+        private final long id;
+        private final String roomNumber;
+
+        private ExpiredRoom(long id, String roomNumber) {
+            this.id = id;
+            this.roomNumber = roomNumber;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.mahjong.service;
 
+import com.mahjong.config.CacheNames;
 import com.mahjong.entity.GameConfig;
 import com.mahjong.repository.GameConfigRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -57,11 +60,12 @@ public class GameConfigService {
     }
 
     /**
-     * 获取配置详情
+     * 获取配置详情（两级缓存，返回值应视为只读）
      *
      * @param configId 配置ID
      * @return 配置信息
      */
+    @Cacheable(cacheNames = CacheNames.GAME_CONFIGS, key = "#configId", unless = "#result == null")
     @Transactional(readOnly = true)
     public Optional<GameConfig> getConfigById(Long configId) {
         return gameConfigRepository.findById(configId);
@@ -119,6 +123,7 @@ public class GameConfigService {
      * @return 更新后的配置
      * @throws IllegalArgumentException 当配置不存在或权限不足时
      */
+    @CacheEvict(cacheNames = CacheNames.GAME_CONFIGS, key = "#configId")
     @Transactional
     public GameConfig updateConfig(Long configId, String creatorId, GameConfig config) {
         log.info("更新游戏配置: configId={}, creatorId={}", configId, creatorId);
@@ -154,6 +159,7 @@ public class GameConfigService {
      * @param creatorId 创建者ID（用于权限验证）
      * @throws IllegalArgumentException 当配置不存在或权限不足时
      */
+    @CacheEvict(cacheNames = CacheNames.GAME_CONFIGS, key = "#configId")
     @Transactional
     public void deleteConfig(Long configId, String creatorId) {
         log.info("删除游戏配置: configId={}, creatorId={}", configId, creatorId);
@@ -179,6 +185,7 @@ public class GameConfigService {
      *
      * @param configId 配置ID
      */
+    @CacheEvict(cacheNames = CacheNames.GAME_CONFIGS, key = "#configId")
     @Transactional
     public void incrementUseCount(Long configId) {
         Optional<GameConfig> configOpt = gameConfigRepository.findById(configId);
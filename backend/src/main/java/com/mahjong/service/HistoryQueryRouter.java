@@ -0,0 +1,229 @@
+package com.mahjong.service;
+
+import com.mahjong.archive.ArchiveHeader;
+import com.mahjong.archive.ColumnarArchiveReader;
+import com.mahjong.config.RetentionProperties;
+import lombok.Builder;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 历史查询路由
+ * 已归档的时间段读取归档文件，其余时间段查询热表，对调用方透明。
+ * 归档总是从最早的分区开始连续进行，因此归档覆盖的是一个时间前缀 (-∞, archivedBefore)。
+ * 归档文件由取得维护锁的节点写入共享的归档目录，各节点按 game.retention.index-refresh-interval 定时重新扫描，
+ * 其他节点删除分区后到下次扫描前，本节点查询不到该分区的数据。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Service
+public class HistoryQueryRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryQueryRouter.class);
+
+    private static final String GAME_ACTIONS = "game_actions";
+    private static final String CHAT_MESSAGES = "chat_messages";
+    private static final String CREATED_AT = "created_at";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RetentionProperties properties;
+
+    // 表名 -> 按覆盖范围排序的归档文件
+    private final Map<String, List<ArchiveFile>> archives = new ConcurrentHashMap<>();
+
+    /**
+     * 扫描归档目录，重建归档文件索引（已索引的文件不再读取文件头）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${game.retention.index-refresh-interval:60000}",
+            initialDelayString = "${game.retention.index-refresh-interval:60000}")
+    public synchronized void refreshIndex() {
+        for (String table : properties.getTables()) {
+            Path dir = Paths.get(properties.getArchiveDir(), table);
+            Map<Path, ArchiveFile> known = new HashMap<>();
+            archives.getOrDefault(table, List.of()).forEach(f -> known.put(f.path, f));
+            List<ArchiveFile> files = new ArrayList<>();
+            if (Files.isDirectory(dir)) {
+                try (Stream<Path> paths = Files.list(dir)) {
+                    paths.filter(p -> p.getFileName().toString().endsWith(PartitionRetentionService.ARCHIVE_SUFFIX))
+                         .forEach(p -> {
+                             ArchiveFile indexed = known.get(p);
+                             if (indexed != null) {
+                                 files.add(indexed);
+                                 return;
+                             }
+                             try {
+                                 files.add(new ArchiveFile(p, ColumnarArchiveReader.readHeader(p)));
+                             } catch (IOException e) {
+                                 log.error("读取归档文件头失败: {}", p, e);
+                             }
+                         });
+                } catch (IOException e) {
+                    log.error("扫描归档目录失败: {}", dir, e);
+                }
+            }
+            files.sort(Comparator.comparing(f -> f.header.getRangeTo()));
+            List<ArchiveFile> previous = archives.put(table, files);
+            if (!files.isEmpty() && !files.equals(previous)) {
+                log.info("归档索引: 表={}, 文件数={}, 归档截止={}", table, files.size(), archivedBefore(table));
+            }
+        }
+    }
+
+    /**
+     * 查询对局的操作记录
+     */
+    @Transactional(readOnly = true)
+    public HistoryResult findGameActions(Long gameId, LocalDateTime from, LocalDateTime to, int limit) {
+        return query(GAME_ACTIONS, "game_id", gameId, from, to, limit);
+    }
+
+    /**
+     * 查询房间的聊天记录
+     */
+    @Transactional(readOnly = true)
+    public HistoryResult findChatMessages(Long roomId, LocalDateTime from, LocalDateTime to, int limit) {
+        return query(CHAT_MESSAGES, "room_id", roomId, from, to, limit);
+    }
+
+    /**
+     * 归档覆盖的时间上界，null表示尚无归档
+     */
+    public LocalDateTime archivedBefore(String table) {
+        List<ArchiveFile> files = archives.get(table);
+        return files == null || files.isEmpty() ? null : files.get(files.size() - 1).header.getRangeTo();
+    }
+
+    private HistoryResult query(String table, String keyColumn, long keyValue,
+                                LocalDateTime from, LocalDateTime to, int limit) {
+        int maxRows = Math.min(Math.max(limit, 1), properties.getMaxQueryRows());
+        List<Map<String, Object>> rows = new ArrayList<>();
+        LocalDateTime boundary = archivedBefore(table);
+
+        // 归档部分：[from, min(to, boundary))
+        int archiveRows = 0;
+        if (boundary != null && (from == null || from.isBefore(boundary))) {
+            LocalDateTime archiveTo = to == null || to.isAfter(boundary) ? boundary : to;
+            archiveRows = scanArchives(table, keyColumn, keyValue, from, archiveTo, maxRows, rows);
+        }
+
+        // 热表部分：[max(from, boundary), to)
+        int hotRows = 0;
+        boolean needsHot = boundary == null || to == null || to.isAfter(boundary);
+        if (needsHot && rows.size() < maxRows) {
+            LocalDateTime hotFrom = boundary != null && (from == null || from.isBefore(boundary)) ? boundary : from;
+            hotRows = queryHot(table, keyColumn, keyValue, hotFrom, to, maxRows - rows.size(), rows);
+        }
+
+        return HistoryResult.builder()
+                .rows(rows)
+                .archiveRows(archiveRows)
+                .hotRows(hotRows)
+                .truncated(rows.size() >= maxRows)
+                .build();
+    }
+
+    private int scanArchives(String table, String keyColumn, long keyValue, LocalDateTime from, LocalDateTime to,
+                             int maxRows, List<Map<String, Object>> rows) {
+        int before = rows.size();
+        for (ArchiveFile file : archives.getOrDefault(table, List.of())) {
+            if (rows.size() >= maxRows) {
+                break;
+            }
+            if (!file.header.overlaps(from, to)) {
+                continue;
+            }
+            try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file.path)) {
+                ArchiveHeader header = reader.getHeader();
+                List<ColumnarArchiveReader.Condition> conditions = ColumnarArchiveReader.Condition.of(
+                        ColumnarArchiveReader.Condition.equalTo(header, keyColumn, keyValue),
+                        ColumnarArchiveReader.Condition.between(header, CREATED_AT, from, to));
+                reader.scan(conditions, row -> {
+                    Map<String, Object> record = new LinkedHashMap<>();
+                    for (int c = 0; c < row.length; c++) {
+                        record.put(header.getColumnNames().get(c), row[c]);
+                    }
+                    rows.add(record);
+                    return rows.size() < maxRows;
+                });
+            } catch (IOException e) {
+                log.error("读取归档文件失败: {}", file.path, e);
+            }
+        }
+        return rows.size() - before;
+    }
+
+    private int queryHot(String table, String keyColumn, long keyValue, LocalDateTime from, LocalDateTime to,
+                         int maxRows, List<Map<String, Object>> rows) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM ").append(table)
+                .append(" WHERE ").append(keyColumn).append(" = :key");
+        MapSqlParameterSource params = new MapSqlParameterSource("key", keyValue);
+        if (from != null) {
+            sql.append(" AND ").append(CREATED_AT).append(" >= :from");
+            params.addValue("from", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND ").append(CREATED_AT).append(" < :to");
+            params.addValue("to", Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY ").append(CREATED_AT).append(", id LIMIT :limit");
+        params.addValue("limit", maxRows);
+
+        List<Map<String, Object>> hot = jdbcTemplate.queryForList(sql.toString(), params);
+        for (Map<String, Object> record : hot) {
+            record.replaceAll((column, value) -> value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime() : value);
+            rows.add(record);
+        }
+        return hot.size();
+    }
+
+    /**
+     * 历史查询结果
+     */
+    @Data
+    @Builder
+    public static class HistoryResult {
+        private List<Map<String, Object>> rows;
+        private Integer archiveRows;
+        private Integer hotRows;
+        private Boolean truncated;
+    }
+
+    private static final class ArchiveFile {
+        private final Path path;
+        private final ArchiveHeader header;
+
+        private ArchiveFile(Path path, ArchiveHeader header) {
+            this.path = path;
+            this.header = header;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.mahjong.service;
+
+import com.mahjong.entity.Player;
+import com.mahjong.event.PlayerScoreChangedEvent;
+import com.mahjong.repository.PlayerRepository;
+import com.mahjong.service.dto.ApiResponse;
+import lombok.Builder;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 排行榜服务
+ * 基于Redis有序集合维护日榜、周榜、总榜：玩家表的分数/胜场每次变更后 ZINCRBY 增量更新（O(log n)），
+ * 查询前K名和"我的排名及前后名次"均为范围读取。日榜/周榜按周期分键，新周期自动写入新键，
+ * 旧键依靠过期时间淘汰，无需扫描或重算。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private static final String KEY_PREFIX = "leaderboard:";
+    private static final String NAMES_KEY = KEY_PREFIX + "names";
+    private static final String APPLIED_KEY_PREFIX = KEY_PREFIX + "applied:";
+    private static final Duration APPLIED_TTL = Duration.ofDays(2);
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /**
+     * 排名指标
+     */
+    public enum Metric {
+        /**
+         * 累计得分
+         */
+        SCORE,
+
+        /**
+         * 胡牌次数
+         */
+        WINS
+    }
+
+    /**
+     * 排行周期
+     */
+    public enum Window {
+        /**
+         * 日榜，保留2天
+         */
+        DAILY(Duration.ofDays(2)),
+
+        /**
+         * 周榜，保留15天
+         */
+        WEEKLY(Duration.ofDays(15)),
+
+        /**
+         * 总榜，不过期
+         */
+        ALL_TIME(null);
+
+        private final Duration ttl;
+
+        Window(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    /**
+     * 总榜不存在时从玩家表初始化一次
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeAllTime() {
+        try {
+            String scoreKey = key(Metric.SCORE, Window.ALL_TIME, LocalDate.now());
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(scoreKey))) {
+                return;
+            }
+            int seeded = 0;
+            Page<Player> page = playerRepository.findAll(PageRequest.of(0, 1000));
+            while (true) {
+                List<Player> players = page.getContent();
+                seedPlayers(players);
+                seeded += players.size();
+                if (!page.hasNext()) {
+                    break;
+                }
+                page = playerRepository.findAll(page.nextPageable());
+            }
+            log.info("总排行榜初始化完成，共{}名玩家", seeded);
+        } catch (Exception e) {
+            log.error("总排行榜初始化失败: ", e);
+        }
+    }
+
+    /**
+     * 玩家得分变更（事务提交后）同步到各周期榜单
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoreChanged(PlayerScoreChangedEvent event) {
+        try {
+            apply(event);
+        } catch (Exception e) {
+            log.error("更新排行榜失败: playerId={}, roundId={}", event.getPlayerId(), event.getGameRoundId(), e);
+        }
+    }
+
+    /**
+     * 把一次得分变更计入各周期榜单。回合结算的变更按 "回合+玩家" 去重：
+     * WATCH 幂等键后在同一个 MULTI 中写入幂等键和全部 ZINCRBY，EXEC 失败时两者都不生效，可以重试；
+     * 幂等键在 WATCH 之后被并发写入时 EXEC 放弃，不会重复计入。
+     *
+     * @return 是否计入（已计入过时返回false）
+     */
+    public boolean apply(PlayerScoreChangedEvent event) {
+        if (event.getScoreDelta() == 0 && event.getWinsDelta() == 0 && event.getTotalScore() == null) {
+            return false;
+        }
+        String appliedKey = event.getGameRoundId() != null
+                ? APPLIED_KEY_PREFIX + event.getGameRoundId() + ":" + event.getPlayerId() : null;
+        LocalDate today = LocalDate.now();
+
+        List<Object> results = redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                if (appliedKey != null) {
+                    ops.watch(appliedKey);
+                    if (Boolean.TRUE.equals(ops.hasKey(appliedKey))) {
+                        ops.unwatch();
+                        return null;
+                    }
+                }
+                ops.multi();
+                if (appliedKey != null) {
+                    ops.opsForValue().set(appliedKey, 1, APPLIED_TTL);
+                }
+                writeChange(ops, event, today);
+                return ops.exec();
+            }
+        });
+        return results != null && !results.isEmpty();
+    }
+
+    private void writeChange(RedisOperations<String, Object> ops, PlayerScoreChangedEvent event, LocalDate today) {
+        String playerId = event.getPlayerId();
+        for (Window window : Window.values()) {
+            String scoreKey = key(Metric.SCORE, window, today);
+            if (window == Window.ALL_TIME && event.getTotalScore() != null) {
+                ops.opsForZSet().add(scoreKey, playerId, event.getTotalScore());
+            } else if (event.getScoreDelta() != 0) {
+                ops.opsForZSet().incrementScore(scoreKey, playerId, event.getScoreDelta());
+            }
+            if (event.getWinsDelta() != 0) {
+                ops.opsForZSet().incrementScore(key(Metric.WINS, window, today), playerId, event.getWinsDelta());
+            }
+            if (window.ttl != null) {
+                for (Metric metric : Metric.values()) {
+                    ops.expire(key(metric, window, today), window.ttl);
+                }
+            }
+        }
+        if (event.getPlayerName() != null) {
+            ops.opsForHash().put(NAMES_KEY, playerId, event.getPlayerName());
+        }
+    }
+
+    /**
+     * 查询前K名
+     *
+     * @param metric 排名指标
+     * @param window 排行周期
+     * @param limit  名次数量
+     * @return 榜单条目
+     */
+    public ApiResponse<List<LeaderboardEntry>> getTop(Metric metric, Window window, int limit) {
+        try {
+            int size = Math.min(Math.max(limit, 1), 100);
+            String key = key(metric, window, LocalDate.now());
+            Set<ZSetOperations.TypedTuple<Object>> tuples = redisTemplate.opsForZSet()
+                    .reverseRangeWithScores(key, 0, size - 1);
+            return ApiResponse.success("获取排行榜成功", toEntries(tuples, 1));
+        } catch (Exception e) {
+            log.error("获取排行榜失败: metric={}, window={}", metric, window, e);
+            return ApiResponse.error("获取排行榜失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询玩家排名及前后若干名
+     *
+     * @param metric   排名指标
+     * @param window   排行周期
+     * @param playerId 玩家ID
+     * @param radius   前后名次数量
+     * @return 以该玩家为中心的榜单片段，玩家未上榜时返回notFound
+     */
+    public ApiResponse<List<LeaderboardEntry>> getAround(Metric metric, Window window, String playerId, int radius) {
+        try {
+            int span = Math.min(Math.max(radius, 0), 50);
+            String key = key(metric, window, LocalDate.now());
+            Long rank = redisTemplate.opsForZSet().reverseRank(key, playerId);
+            if (rank == null) {
+                return ApiResponse.notFound("玩家未上榜");
+            }
+            long start = Math.max(0, rank - span);
+            Set<ZSetOperations.TypedTuple<Object>> tuples = redisTemplate.opsForZSet()
+                    .reverseRangeWithScores(key, start, rank + span);
+            return ApiResponse.success("获取排名成功", toEntries(tuples, start + 1));
+        } catch (Exception e) {
+            log.error("获取玩家排名失败: metric={}, window={}, playerId={}", metric, window, playerId, e);
+            return ApiResponse.error("获取玩家排名失败: " + e.getMessage());
+        }
+    }
+
+    private void seedPlayers(List<Player> players) {
+        if (players.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (Player player : players) {
+                    int score = player.getTotalScore() != null ? player.getTotalScore() : 0;
+                    int wins = player.getWinsCount() != null ? player.getWinsCount() : 0;
+                    ops.opsForZSet().add(key(Metric.SCORE, Window.ALL_TIME, today), player.getId(), score);
+                    if (wins > 0) {
+                        ops.opsForZSet().add(key(Metric.WINS, Window.ALL_TIME, today), player.getId(), wins);
+                    }
+                    ops.opsForHash().put(NAMES_KEY, player.getId(), player.getPlayerName());
+                }
+                return null;
+            }
+        });
+    }
+
+    private List<LeaderboardEntry> toEntries(Set<ZSetOperations.TypedTuple<Object>> tuples, long firstRank) {
+        if (tuples == null || tuples.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object> playerIds = new ArrayList<>(tuples.size());
+        for (ZSetOperations.TypedTuple<Object> tuple : tuples) {
+            playerIds.add(String.valueOf(tuple.getValue()));
+        }
+        List<Object> names = redisTemplate.opsForHash().multiGet(NAMES_KEY, playerIds);
+
+        List<LeaderboardEntry> entries = new ArrayList<>(tuples.size());
+        long rank = firstRank;
+        int index = 0;
+        for (ZSetOperations.TypedTuple<Object> tuple : tuples) {
+            Object name = names != null ? names.get(index) : null;
+            entries.add(LeaderboardEntry.builder()
+                    .rank(rank++)
+                    .playerId(String.valueOf(tuple.getValue()))
+                    .nickname(name != null ? name.toString() : null)
+                    .value(tuple.getScore() != null ? tuple.getScore().longValue() : 0L)
+                    .build());
+            index++;
+        }
+        return entries;
+    }
+
+    /**
+     * 榜单键：leaderboard:{指标}:{周期}:{周期编号}
+     */
+    static String key(Metric metric, Window window, LocalDate date) {
+        String bucket;
+        switch (window) {
+            case DAILY:
+                bucket = date.format(DAY_FORMAT);
+                break;
+            case WEEKLY:
+                bucket = date.get(IsoFields.WEEK_BASED_YEAR) + "W"
+                        + String.format("%02d", date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+                break;
+            default:
+                bucket = "all";
+                break;
+        }
+        return KEY_PREFIX + metric.name().toLowerCase() + ":" + window.name().toLowerCase() + ":" + bucket;
+    }
+
+    /**
+     * 榜单条目
+     */
+    @Data
+    @Builder
+    public static class LeaderboardEntry {
+        private Long rank;
+        private String playerId;
+        private String nickname;
+        private Long value;
+    }
+}
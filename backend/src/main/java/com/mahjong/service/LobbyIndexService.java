@@ -0,0 +1,366 @@
+package com.mahjong.service;
+
+import com.mahjong.dto.response.RoomResponse;
+import com.mahjong.entity.Room;
+import com.mahjong.event.RoomLifecycleEvent;
+import com.mahjong.repository.RoomRepository;
+import lombok.Builder;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 大厅房间索引服务
+ * 在内存中维护可浏览房间的有序索引，由房间生命周期事件增量更新，
+ * 房间列表查询直接读取索引，不访问数据库
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Service
+public class LobbyIndexService implements RoomMemoryContributor {
+
+    private static final Logger log = LoggerFactory.getLogger(LobbyIndexService.class);
+
+    /**
+     * 大厅频道名称（Socket.IO房间）
+     */
+    public static final String LOBBY_CHANNEL = "lobby";
+
+    /**
+     * 大厅增量更新事件名
+     */
+    public static final String LOBBY_UPDATE_EVENT = "lobby_update";
+
+    // 跳表节点、索引键和房间ID映射条目的估算大小
+    private static final long INDEX_ENTRY = RoomMemoryCollector.shallow(3, 0) + RoomMemoryCollector.shallow(1, 26)
+            + RoomMemoryCollector.MAP_ENTRY + RoomMemoryCollector.BOXED;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    // 按 状态 -> 是否有密码 -> 是否允许观战 -> 空位数(降序) -> 创建时间(降序) -> ID 排序的索引
+    private final ConcurrentSkipListMap<LobbyKey, RoomResponse> index = new ConcurrentSkipListMap<>();
+
+    // 房间ID到当前索引键的映射，用于更新时定位旧条目
+    private final Map<Long, LobbyKey> keysByRoomId = new ConcurrentHashMap<>();
+
+    // 索引版本号，每次变更递增，客户端据此发现丢失的增量
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 应用启动后从数据库加载一次未过期房间
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            List<Room> rooms = roomRepository.findUnexpiredRooms(LocalDateTime.now());
+            index.clear();
+            keysByRoomId.clear();
+            for (Room room : rooms) {
+                if (indexable(room)) {
+                    upsert(room, RoomResponse.fromEntity(room));
+                }
+            }
+            log.info("大厅索引加载完成，共{}个房间", rooms.size());
+        } catch (Exception e) {
+            log.error("大厅索引加载失败: ", e);
+        }
+    }
+
+    /**
+     * 房间生命周期事件处理（事务提交后执行）
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomLifecycle(RoomLifecycleEvent event) {
+        Map<String, Object> update;
+        if (event.isRemoval() || event.getRoom() == null) {
+            long assigned = remove(event.getRoomId());
+            if (assigned == 0) {
+                return;
+            }
+            update = Map.of(
+                "op", "remove",
+                "roomId", event.getRoomId(),
+                "roomNumber", event.getRoomNumber(),
+                "version", assigned
+            );
+        } else {
+            if (!indexable(event.getRoom())) {
+                return;
+            }
+            RoomResponse entry = RoomResponse.fromEntity(event.getRoom());
+            long assigned = upsert(event.getRoom(), entry);
+            if (assigned == 0) {
+                return;
+            }
+            update = Map.of(
+                "op", "upsert",
+                "room", entry,
+                "version", assigned
+            );
+        }
+
+        webSocketService.sendMessageToRoom(LOBBY_CHANNEL, LOBBY_UPDATE_EVENT, update);
+    }
+
+    /**
+     * 查询大厅房间列表
+     *
+     * @param status        房间状态（null表示全部）
+     * @param hasPassword   是否有密码（null表示不限）
+     * @param allowSpectate 是否允许观战（null表示不限）
+     * @param page          页码（从1开始）
+     * @param size          每页大小
+     * @return 分页结果
+     */
+    public LobbyPage query(Room.RoomStatus status, Boolean hasPassword, Boolean allowSpectate, int page, int size) {
+        int safePage = Math.max(page, 1);
+        int safeSize = Math.max(size, 1);
+        int skip = (safePage - 1) * safeSize;
+        long currentVersion = version.get();
+
+        NavigableMap<LobbyKey, RoomResponse> range = status == null
+                ? index
+                : index.subMap(LobbyKey.lowest(status), true, LobbyKey.highest(status), true);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RoomResponse> rooms = new ArrayList<>(Math.min(safeSize, 64));
+        int total = 0;
+        for (Map.Entry<LobbyKey, RoomResponse> entry : range.entrySet()) {
+            LobbyKey key = entry.getKey();
+            if (hasPassword != null && key.hasPassword != hasPassword) {
+                continue;
+            }
+            if (allowSpectate != null && key.allowSpectate != allowSpectate) {
+                continue;
+            }
+            if (key.expiresAt != null && !key.expiresAt.isAfter(now)) {
+                continue;
+            }
+            if (total >= skip && rooms.size() < safeSize) {
+                rooms.add(entry.getValue());
+            }
+            total++;
+        }
+
+        return LobbyPage.builder()
+                .rooms(rooms)
+                .total(total)
+                .version(currentVersion)
+                .build();
+    }
+
+    /**
+     * 当前索引中的房间数
+     */
+    public int size() {
+        return keysByRoomId.size();
+    }
+
+    /**
+     * 索引中指定状态的房间数（遍历该状态的区间，仅用于指标采集）
+     */
+    public int countByStatus(Room.RoomStatus status) {
+        return index.subMap(LobbyKey.lowest(status), true, LobbyKey.highest(status), true).size();
+    }
+
+    /**
+     * 各房间的索引条目（房间快照及其中的玩家、观战者列表），同时标记仍在索引中的房间
+     */
+    @Override
+    public void contribute(RoomMemoryCollector collector) {
+        index.forEach((key, entry) -> {
+            collector.listed(entry.getId(), entry.getRoomNumber(), entry.getRoomStatus());
+            collector.add(entry.getRoomNumber(), "lobby.entry", INDEX_ENTRY + estimateBytes(entry));
+        });
+    }
+
+    private static long estimateBytes(RoomResponse entry) {
+        long bytes = RoomMemoryCollector.shallow(18, 0) + RoomMemoryCollector.BOXED + 3 * RoomMemoryCollector.DATE_TIME
+                + RoomMemoryCollector.string(entry.getRoomNumber())
+                + RoomMemoryCollector.string(entry.getRoomName())
+                + RoomMemoryCollector.string(entry.getCreatorId())
+                + RoomMemoryCollector.string(entry.getCreatorNickname())
+                + estimateBytes(entry.getPlayers())
+                + estimateBytes(entry.getSpectators());
+        RoomResponse.GameConfigResponse config = entry.getGameConfig();
+        if (config != null) {
+            bytes += RoomMemoryCollector.shallow(12, 0) + RoomMemoryCollector.BOXED
+                    + RoomMemoryCollector.string(config.getConfigName())
+                    + RoomMemoryCollector.string(config.getDescription());
+        }
+        return bytes;
+    }
+
+    private static long estimateBytes(List<RoomResponse.PlayerResponse> players) {
+        if (players == null) {
+            return 0;
+        }
+        long bytes = RoomMemoryCollector.shallow(1, 8) + RoomMemoryCollector.referenceArray(players.size());
+        for (RoomResponse.PlayerResponse player : players) {
+            bytes += RoomMemoryCollector.shallow(13, 0) + RoomMemoryCollector.BOXED + RoomMemoryCollector.DATE_TIME
+                    + RoomMemoryCollector.string(player.getId())
+                    + RoomMemoryCollector.string(player.getPlayerName())
+                    + RoomMemoryCollector.string(player.getAvatarUrl());
+            if (player.getNickname() != player.getPlayerName()) {
+                bytes += RoomMemoryCollector.string(player.getNickname());
+            }
+        }
+        return bytes;
+    }
+
+    private static boolean indexable(Room room) {
+        return room.getId() != null && room.getRoomStatus() != null;
+    }
+
+    /**
+     * 写入或更新房间条目
+     * 版本号在房间ID的映射锁内分配，推送给客户端的版本与本次变更一一对应
+     *
+     * @return 本次变更分配的版本号，若事件已过时则返回0
+     */
+    private long upsert(Room room, RoomResponse entry) {
+        LobbyKey newKey = LobbyKey.of(room);
+        long[] assigned = new long[1];
+
+        keysByRoomId.compute(room.getId(), (id, oldKey) -> {
+            if (oldKey != null) {
+                // 并发提交的事件可能乱序到达，按房间行版本号丢弃不比当前条目新的快照
+                // （人数的批量更新不改 updated_at，但每次都推进版本号）
+                if (newKey.roomVersion <= oldKey.roomVersion && newKey.roomVersion >= 0) {
+                    return oldKey;
+                }
+                index.remove(oldKey);
+            }
+            index.put(newKey, entry);
+            assigned[0] = version.incrementAndGet();
+            return newKey;
+        });
+        return assigned[0];
+    }
+
+    /**
+     * 移除房间条目
+     *
+     * @return 本次变更分配的版本号，房间不在索引中时返回0
+     */
+    private long remove(Long roomId) {
+        if (roomId == null) {
+            return 0;
+        }
+        long[] assigned = new long[1];
+        keysByRoomId.computeIfPresent(roomId, (id, key) -> {
+            index.remove(key);
+            assigned[0] = version.incrementAndGet();
+            return null;
+        });
+        return assigned[0];
+    }
+
+    /**
+     * 大厅分页结果
+     */
+    @Data
+    @Builder
+    public static class LobbyPage {
+        private List<RoomResponse> rooms;
+        private Integer total;
+        private Long version;
+    }
+
+    /**
+     * 索引排序键
+     */
+    private static final class LobbyKey implements Comparable<LobbyKey> {
+
+        private static final Comparator<LobbyKey> ORDER = Comparator
+                .comparingInt((LobbyKey k) -> k.statusOrdinal)
+                .thenComparing(k -> k.hasPassword)
+                .thenComparing(k -> !k.allowSpectate)
+                .thenComparing(Comparator.comparingInt((LobbyKey k) -> k.seatsFree).reversed())
+                .thenComparing(Comparator.comparingLong((LobbyKey k) -> k.createdAtMillis).reversed())
+                .thenComparingLong(k -> k.roomId);
+
+        private final int statusOrdinal;
+        private final boolean hasPassword;
+        private final boolean allowSpectate;
+        private final int seatsFree;
+        private final long createdAtMillis;
+        private final long roomId;
+        private final LocalDateTime expiresAt;
+        // 房间行版本号，不参与排序，未知时为-1
+        private final long roomVersion;
+
+        private LobbyKey(int statusOrdinal, boolean hasPassword, boolean allowSpectate, int seatsFree,
+                         long createdAtMillis, long roomId, LocalDateTime expiresAt, long roomVersion) {
+            this.statusOrdinal = statusOrdinal;
+            this.hasPassword = hasPassword;
+            this.allowSpectate = allowSpectate;
+            this.seatsFree = seatsFree;
+            this.createdAtMillis = createdAtMillis;
+            this.roomId = roomId;
+            this.expiresAt = expiresAt;
+            this.roomVersion = roomVersion;
+        }
+
+        static LobbyKey of(Room room) {
+            int maxPlayers = room.getMaxPlayers() != null ? room.getMaxPlayers() : 4;
+            int currentPlayers = room.getCurrentPlayers() != null ? room.getCurrentPlayers() : 0;
+            long createdAt = room.getCreatedAt() != null
+                    ? room.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : 0L;
+            return new LobbyKey(
+                    room.getRoomStatus().ordinal(),
+                    room.getPassword() != null && !room.getPassword().trim().isEmpty(),
+                    room.allowsSpectate(),
+                    Math.max(0, maxPlayers - currentPlayers),
+                    createdAt,
+                    room.getId(),
+                    room.getExpiresAt(),
+                    room.getVersion() != null ? room.getVersion() : -1L);
+        }
+
+        static LobbyKey lowest(Room.RoomStatus status) {
+            return new LobbyKey(status.ordinal(), false, true, Integer.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, null, -1L);
+        }
+
+        static LobbyKey highest(Room.RoomStatus status) {
+            return new LobbyKey(status.ordinal(), true, false, Integer.MIN_VALUE, Long.MIN_VALUE, Long.MAX_VALUE, null, -1L);
+        }
+
+        @Override
+        public int compareTo(LobbyKey other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof LobbyKey && compareTo((LobbyKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(roomId);
+        }
+    }
+}
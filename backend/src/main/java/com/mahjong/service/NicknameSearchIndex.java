@@ -0,0 +1,435 @@
+package com.mahjong.service;
+
+import com.mahjong.event.PlayerChangedEvent;
+import com.mahjong.repository.PlayerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 昵称搜索索引
+ * 内存倒排索引：昵称归一化（NFKC + 小写）后按单字和相邻二字切分，每个片段对应一个有序的文档号列表。
+ * 搜索时取关键词的二字片段（单字关键词取单字片段），从最短的列表出发逐一在其余列表中二分查找求交集，
+ * 再用子串匹配确认并打分，只保留当前页所需的前K名。耗时取决于最稀有片段的列表长度，与玩家总数无关；
+ * 最稀有片段仍很长时（如常见单字）最多扫描 game.search.max-scan 个候选，结果和总数只覆盖已扫描部分并标记为截断。
+ * 索引由玩家变更事件增量维护，其他节点新增、改名、删除的玩家经 {@link com.mahjong.event.PlayerChangeRelay} 转发到达；
+ * 通知丢失（Redis 断开期间）的变更在下次定时全量重建时补齐。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Service
+public class NicknameSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(NicknameSearchIndex.class);
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Value("${game.search.max-scan:20000}")
+    private int maxScan = 20000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 由 lock 保护
+    private IndexData data = new IndexData();
+    // 重建期间的增量变更，重建完成后在新索引上重放
+    private List<Consumer<IndexData>> pendingDuringRebuild;
+
+    /**
+     * 启动时从玩家表构建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    /**
+     * 定期全量重建，清理批量删除（如过期房间清理）遗留的条目
+     */
+    @Scheduled(fixedDelayString = "${game.search.rebuild-interval:3600000}",
+               initialDelayString = "${game.search.rebuild-interval:3600000}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexData fresh = new IndexData();
+        try {
+            String afterId = "";
+            while (true) {
+                List<Object[]> rows = playerRepository.findIdAndNameAfter(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    fresh.put((String) row[0], normalize((String) row[1]));
+                }
+                if (rows.size() < LOAD_BATCH_SIZE) {
+                    break;
+                }
+                afterId = (String) rows.get(rows.size() - 1)[0];
+            }
+        } catch (Exception e) {
+            log.error("昵称索引构建失败: ", e);
+            fresh = null;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (fresh != null) {
+                for (Consumer<IndexData> change : pendingDuringRebuild) {
+                    change.accept(fresh);
+                }
+                data = fresh;
+                log.info("昵称索引构建完成: 玩家数={}, 片段数={}", fresh.docByPlayer.size(), fresh.postings.size());
+            }
+            pendingDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 玩家新增、改名、删除后同步索引（含其他节点转发的变更）
+     */
+    @EventListener
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        if (event.isRemoved()) {
+            remove(event.getPlayerId());
+        } else {
+            put(event.getPlayerId(), event.getPlayerName());
+        }
+    }
+
+    /**
+     * 新增玩家或更新昵称
+     */
+    public void put(String playerId, String playerName) {
+        if (playerId == null) {
+            return;
+        }
+        String name = normalize(playerName);
+        apply(index -> index.put(playerId, name));
+    }
+
+    /**
+     * 移除玩家
+     */
+    public void remove(String playerId) {
+        if (playerId == null) {
+            return;
+        }
+        apply(index -> index.remove(playerId));
+    }
+
+    /**
+     * 搜索昵称包含关键词的玩家
+     *
+     * @param keyword 关键词
+     * @param offset  跳过的结果数
+     * @param limit   返回的结果数
+     * @return 按相关度排序的当前页玩家ID及匹配总数
+     */
+    public SearchResult search(String keyword, int offset, int limit) {
+        String query = normalize(keyword);
+        if (query.isEmpty() || limit <= 0) {
+            return new SearchResult(List.of(), 0, false);
+        }
+        lock.readLock().lock();
+        try {
+            return data.search(query, Math.max(offset, 0), limit, maxScan);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 已索引的玩家数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return data.docByPlayer.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<IndexData> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(data);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 归一化：兼容字符折叠（全角转半角等）并转小写
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text.trim(), Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 切分片段：索引时取全部单字和相邻二字；查询时关键词不少于两个字只取二字片段
+     */
+    static Set<String> grams(String text, boolean forIndex) {
+        Set<String> grams = new LinkedHashSet<>();
+        int[] codePoints = text.codePoints().toArray();
+        if (forIndex || codePoints.length == 1) {
+            for (int cp : codePoints) {
+                grams.add(new String(Character.toChars(cp)));
+            }
+        }
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            grams.add(new String(codePoints, i, 2));
+        }
+        return grams;
+    }
+
+    /**
+     * 索引数据：玩家与文档号的映射、归一化昵称、片段倒排列表
+     */
+    private static final class IndexData {
+        private final Map<String, Integer> docByPlayer = new HashMap<>();
+        private final List<String> playerIds = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private final Map<String, Postings> postings = new HashMap<>();
+        private int[] freeDocs = new int[16];
+        private int freeCount;
+
+        void put(String playerId, String name) {
+            Integer doc = docByPlayer.get(playerId);
+            if (doc != null) {
+                if (name.equals(names.get(doc))) {
+                    return;
+                }
+                unindex(doc);
+            } else {
+                doc = allocateDoc(playerId);
+            }
+            names.set(doc, name);
+            for (String gram : grams(name, true)) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(doc);
+            }
+        }
+
+        void remove(String playerId) {
+            Integer doc = docByPlayer.remove(playerId);
+            if (doc == null) {
+                return;
+            }
+            unindex(doc);
+            playerIds.set(doc, null);
+            names.set(doc, null);
+            if (freeCount == freeDocs.length) {
+                freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+            }
+            freeDocs[freeCount++] = doc;
+        }
+
+        SearchResult search(String query, int offset, int limit, int maxScan) {
+            List<Postings> lists = new ArrayList<>();
+            for (String gram : grams(query, false)) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return new SearchResult(List.of(), 0, false);
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(p -> p.size));
+
+            // 保留最好的 keep 个，堆顶为其中最差的
+            int keep = offset + limit;
+            PriorityQueue<Hit> top = new PriorityQueue<>(Math.min(keep, 1024), Comparator.reverseOrder());
+            int total = 0;
+            Postings smallest = lists.get(0);
+            int scan = Math.min(smallest.size, Math.max(maxScan, keep));
+            candidates:
+            for (int i = 0; i < scan; i++) {
+                int doc = smallest.docs[i];
+                for (int l = 1; l < lists.size(); l++) {
+                    if (!lists.get(l).contains(doc)) {
+                        continue candidates;
+                    }
+                }
+                String name = names.get(doc);
+                int position = name.indexOf(query);
+                if (position < 0) {
+                    continue;
+                }
+                total++;
+                Hit hit = new Hit(playerIds.get(doc), name, position, name.length() == query.length());
+                if (top.size() < keep) {
+                    top.add(hit);
+                } else if (hit.compareTo(top.peek()) < 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+
+            List<Hit> ranked = new ArrayList<>(top);
+            ranked.sort(null);
+            List<String> page = new ArrayList<>(limit);
+            for (int i = offset; i < ranked.size(); i++) {
+                page.add(ranked.get(i).playerId);
+            }
+            return new SearchResult(page, total, scan < smallest.size);
+        }
+
+        private int allocateDoc(String playerId) {
+            int doc;
+            if (freeCount > 0) {
+                doc = freeDocs[--freeCount];
+                playerIds.set(doc, playerId);
+            } else {
+                doc = playerIds.size();
+                playerIds.add(playerId);
+                names.add(null);
+            }
+            docByPlayer.put(playerId, doc);
+            return doc;
+        }
+
+        private void unindex(int doc) {
+            String name = names.get(doc);
+            if (name == null) {
+                return;
+            }
+            for (String gram : grams(name, true)) {
+                Postings list = postings.get(gram);
+                if (list != null && list.remove(doc) && list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * 搜索结果
+     */
+    public static final class SearchResult {
+        private final List<String> playerIds;
+        private final int total;
+        private final boolean truncated;
+
+        public SearchResult(List<String> playerIds, int total, boolean truncated) {
+            this.playerIds = playerIds;
+            this.total = total;
+            this.truncated = truncated;
+        }
+
+        public List<String> getPlayerIds() {
+            return playerIds;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * 候选超过扫描上限，总数只统计了已扫描部分
+         */
+        public boolean isTruncated() {
+            return truncated;
+        }
+    }
+
+    /**
+     * 候选结果排序：完全匹配优先，其次匹配位置靠前、昵称较短、字典序
+     */
+    private static final class Hit implements Comparable<Hit> {
+        private final String playerId;
+        private final String name;
+        private final int position;
+        private final boolean exact;
+
+        private Hit(String playerId, String name, int position, boolean exact) {
+            this.playerId = playerId;
+            this.name = name;
+            this.position = position;
+            this.exact = exact;
+        }
+
+        @Override
+        public int compareTo(Hit other) {
+            if (exact != other.exact) {
+                return exact ? -1 : 1;
+            }
+            if (position != other.position) {
+                return Integer.compare(position, other.position);
+            }
+            if (name.length() != other.name.length()) {
+                return Integer.compare(name.length(), other.name.length());
+            }
+            int byName = name.compareTo(other.name);
+            return byName != 0 ? byName : playerId.compareTo(other.playerId);
+        }
+    }
+
+    /**
+     * 有序文档号列表
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            int index = Arrays.binarySearch(docs, 0, size, doc);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+            docs[insertAt] = doc;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int index = Arrays.binarySearch(docs, 0, size, doc);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(int doc) {
+            return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.mahjong.service;
+
+import com.mahjong.archive.ArchiveColumnType;
+import com.mahjong.archive.ArchiveHeader;
+import com.mahjong.archive.ColumnarArchiveWriter;
+import com.mahjong.config.RetentionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+
+/**
+ * 历史数据分区保留服务
+ * 对按 RANGE(TO_DAYS(created_at)) 月度分区的大表：提前创建未来分区（迁移脚本只建立兜底分区，
+ * 首次维护时按当前日期拆出历史分区和当月起的按月分区），
+ * 将超出热数据保留期的分区导出为列式归档文件后整体删除（DROP PARTITION 不产生逐行删除开销），
+ * 使热表的写入性能和索引大小不随历史总量增长。
+ * 多节点部署时维护在 MySQL 命名锁内执行，同一时刻只有一个节点预建、导出和删除分区；
+ * 归档目录须为各节点共享的存储，其他节点由 {@link HistoryQueryRouter} 定时重新扫描后读到新的归档文件。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Service
+public class PartitionRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionRetentionService.class);
+
+    /**
+     * 兜底分区名称
+     */
+    static final String FUTURE_PARTITION = "p_future";
+
+    /**
+     * 历史分区名称（启用分区前的全部数据）
+     */
+    static final String HISTORY_PARTITION = "p_history";
+
+    /**
+     * 归档文件扩展名
+     */
+    static final String ARCHIVE_SUFFIX = ".mja.gz";
+
+    // MySQL TO_DAYS('1970-01-01')
+    private static final long TO_DAYS_EPOCH = 719528L;
+
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    // 分区维护的 MySQL 命名锁
+    private static final String MAINTENANCE_LOCK = "mahjong_partition_maintenance";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RetentionProperties properties;
+
+    @Autowired
+    private HistoryQueryRouter historyQueryRouter;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * 启动时预建分区，迁移后首次启动即按当前月份拆分兜底分区
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void premakeOnStartup() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            withMaintenanceLock(() -> {
+                for (String table : properties.getTables()) {
+                    try {
+                        List<PartitionInfo> partitions = listPartitions(table);
+                        if (!partitions.isEmpty()) {
+                            premakePartitions(table, partitions);
+                        }
+                    } catch (Exception e) {
+                        log.error("启动时预建分区失败: 表={}", table, e);
+                    }
+                }
+                return 0;
+            });
+        } catch (Exception e) {
+            log.error("启动时预建分区失败: ", e);
+        }
+    }
+
+    /**
+     * 每日维护分区
+     */
+    @Scheduled(cron = "${game.retention.cron:0 30 3 * * *}")
+    public void scheduledMaintain() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            maintain();
+        } catch (Exception e) {
+            log.error("历史数据分区维护失败: ", e);
+        }
+    }
+
+    /**
+     * 对所有配置的表执行分区维护
+     *
+     * @return 本次导出并删除的分区数
+     */
+    public int maintain() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("分区维护正在进行，跳过本次请求");
+            return 0;
+        }
+        try {
+            int exported = withMaintenanceLock(() -> {
+                int count = 0;
+                for (String table : properties.getTables()) {
+                    count += maintainTable(table);
+                }
+                return count;
+            });
+            if (exported > 0) {
+                historyQueryRouter.refreshIndex();
+            }
+            return exported;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 持有 MySQL 命名锁时执行，锁已被其他节点持有时直接跳过。
+     * 命名锁属于数据库会话，加锁和释放须在同一连接上，因此执行期间占用一个连接
+     *
+     * @return work 的返回值，未取得锁时返回0
+     */
+    private int withMaintenanceLock(IntSupplier work) {
+        Integer result = jdbcTemplate.execute((ConnectionCallback<Integer>) con -> {
+            if (!namedLock(con, "SELECT GET_LOCK(?, 0)")) {
+                log.info("其他节点正在维护分区，跳过本次维护");
+                return 0;
+            }
+            try {
+                return work.getAsInt();
+            } finally {
+                namedLock(con, "SELECT RELEASE_LOCK(?)");
+            }
+        });
+        return result != null ? result : 0;
+    }
+
+    private static boolean namedLock(Connection con, String sql) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, MAINTENANCE_LOCK);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private int maintainTable(String table) {
+        List<PartitionInfo> partitions = listPartitions(table);
+        if (partitions.isEmpty()) {
+            log.warn("表{}未分区，跳过分区维护（请先执行分区迁移脚本）", table);
+            return 0;
+        }
+
+        premakePartitions(table, partitions);
+
+        LocalDate hotBoundary = YearMonth.now().minusMonths(Math.max(properties.getHotMonths(), 1) - 1L).atDay(1);
+        int exported = 0;
+        for (PartitionInfo partition : partitions) {
+            if (partition.upperBound == null || partition.upperBound.isAfter(hotBoundary)) {
+                break;
+            }
+            try {
+                exportPartition(table, partition);
+                jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + partition.name);
+                exported++;
+                log.info("分区已归档并删除: 表={}, 分区={}", table, partition.name);
+            } catch (Exception e) {
+                // 导出失败则保留分区，下次重试；后续分区也不处理，保证归档范围连续
+                log.error("归档分区失败: 表={}, 分区={}", table, partition.name, e);
+                break;
+            }
+        }
+        return exported;
+    }
+
+    /**
+     * 从 p_future 中拆出未来几个月的分区；只有兜底分区时（刚执行迁移），当月之前的数据拆入 p_history
+     */
+    private void premakePartitions(String table, List<PartitionInfo> partitions) {
+        PartitionInfo last = partitions.get(partitions.size() - 1);
+        if (last.upperBound != null || !FUTURE_PARTITION.equals(last.name)) {
+            log.warn("表{}缺少 {} 兜底分区，无法预建分区", table, FUTURE_PARTITION);
+            return;
+        }
+        LocalDate lastUpper = partitions.size() > 1 ? partitions.get(partitions.size() - 2).upperBound : null;
+
+        YearMonth current = YearMonth.now();
+        YearMonth target = current.plusMonths(properties.getPremakeMonths());
+        List<String> definitions = new ArrayList<>();
+        if (lastUpper == null) {
+            definitions.add("PARTITION " + HISTORY_PARTITION
+                    + " VALUES LESS THAN (TO_DAYS('" + current.atDay(1) + "'))");
+        }
+        for (YearMonth month = current; !month.isAfter(target); month = month.plusMonths(1)) {
+            LocalDate upper = month.plusMonths(1).atDay(1);
+            if (lastUpper != null && !upper.isAfter(lastUpper)) {
+                continue;
+            }
+            definitions.add("PARTITION p" + month.format(PARTITION_MONTH)
+                    + " VALUES LESS THAN (TO_DAYS('" + upper + "'))");
+        }
+        if (definitions.isEmpty()) {
+            return;
+        }
+        definitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE");
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + FUTURE_PARTITION
+                + " INTO (" + String.join(", ", definitions) + ")");
+        log.info("表{}预建分区{}个", table, definitions.size() - 1);
+    }
+
+    /**
+     * 流式读取分区数据并写入归档文件
+     */
+    private void exportPartition(String table, PartitionInfo partition) throws IOException {
+        Path file = archiveFile(table, partition.name);
+        LocalDateTime rangeFrom = partition.lowerBound == null ? null : partition.lowerBound.atStartOfDay();
+        LocalDateTime rangeTo = partition.upperBound.atStartOfDay();
+
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "SELECT * FROM " + table + " PARTITION (" + partition.name + ") ORDER BY id",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // MySQL驱动按行流式返回，避免整个分区载入内存
+                ps.setFetchSize(Integer.MIN_VALUE);
+                return ps;
+            }, (ResultSet rs) -> {
+                try {
+                    writeArchive(rs, file, new ArchiveHeader(table, rangeFrom, rangeTo,
+                            columnNames(rs.getMetaData()), columnTypes(rs.getMetaData())));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeArchive(ResultSet rs, Path file, ArchiveHeader header) throws IOException, SQLException {
+        ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file, header, properties.getRowGroupSize());
+        try {
+            int columnCount = header.columnCount();
+            while (rs.next()) {
+                Object[] row = new Object[columnCount];
+                for (int c = 0; c < columnCount; c++) {
+                    row[c] = rs.getObject(c + 1);
+                }
+                writer.append(row);
+            }
+            writer.close();
+            log.info("归档文件写入完成: {}，共{}行", file, writer.getTotalRows());
+        } catch (IOException | SQLException | RuntimeException e) {
+            writer.abort();
+            throw e;
+        }
+    }
+
+    private List<PartitionInfo> listPartitions(String table) {
+        List<PartitionInfo> partitions = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION",
+                rs -> {
+                    String description = rs.getString("PARTITION_DESCRIPTION");
+                    LocalDate upper = "MAXVALUE".equalsIgnoreCase(description)
+                            ? null
+                            : LocalDate.ofEpochDay(Long.parseLong(description.trim()) - TO_DAYS_EPOCH);
+                    LocalDate lower = partitions.isEmpty() ? null : partitions.get(partitions.size() - 1).upperBound;
+                    partitions.add(new PartitionInfo(rs.getString("PARTITION_NAME"), lower, upper));
+                },
+                table);
+        return partitions;
+    }
+
+    Path archiveFile(String table, String partitionName) {
+        return Paths.get(properties.getArchiveDir(), table, table + "-" + partitionName + ARCHIVE_SUFFIX);
+    }
+
+    private static List<String> columnNames(ResultSetMetaData metaData) throws SQLException {
+        List<String> names = new ArrayList<>(metaData.getColumnCount());
+        for (int c = 1; c <= metaData.getColumnCount(); c++) {
+            names.add(metaData.getColumnLabel(c));
+        }
+        return names;
+    }
+
+    private static List<ArchiveColumnType> columnTypes(ResultSetMetaData metaData) throws SQLException {
+        List<ArchiveColumnType> types = new ArrayList<>(metaData.getColumnCount());
+        for (int c = 1; c <= metaData.getColumnCount(); c++) {
+            types.add(ArchiveColumnType.fromJdbcType(metaData.getColumnType(c)));
+        }
+        return types;
+    }
+
+    /**
+     * 分区信息，覆盖范围 [lowerBound, upperBound)
+     */
+    private static final class PartitionInfo {
+        private final String name;
+        private final LocalDate lowerBound;
+        private final LocalDate upperBound;
+
+        private PartitionInfo(String name, LocalDate lowerBound, LocalDate upperBound) {
+            this.name = name;
+            this.lowerBound = lowerBound;
+            this.upperBound = upperBound;
+        }
+    }
+}
@@ -1,17 +1,37 @@
 package com.mahjong.service;
 
+import com.mahjong.config.CacheNames;
+import com.mahjong.entity.GameRound;
 import com.mahjong.entity.Player;
+import com.mahjong.entity.PlayerRound;
 import com.mahjong.entity.Room;
+import com.mahjong.event.PlayerScoreChangedEvent;
+import com.mahjong.event.RoundSettledEvent;
+import com.mahjong.repository.GameRoundRepository;
 import com.mahjong.repository.PlayerRepository;
+import com.mahjong.repository.PlayerRoundRepository;
 import com.mahjong.repository.RoomRepository;
 import com.mahjong.service.dto.ApiResponse;
+import com.mahjong.service.dto.PlayerProfile;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -24,12 +44,18 @@ import java.util.Optional;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(value = "mahjong.service", description = "业务服务方法耗时")
 public class PlayerService {
 
     private static final Logger log = LoggerFactory.getLogger(PlayerService.class);
 
     private final PlayerRepository playerRepository;
     private final RoomRepository roomRepository;
+    private final NicknameSearchIndex nicknameSearchIndex;
+    private final GameRoundRepository gameRoundRepository;
+    private final PlayerRoundRepository playerRoundRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 根据ID获取玩家
@@ -38,10 +64,23 @@ public class PlayerService {
         return getPlayerInfo(playerId);
     }
 
+    /**
+     * 获取玩家资料（两级缓存）
+     *
+     * @param playerId 玩家ID
+     * @return 玩家资料，玩家不存在时返回null
+     */
+    @Cacheable(cacheNames = CacheNames.PLAYER_PROFILES, key = "#playerId", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public PlayerProfile getPlayerProfile(String playerId) {
+        return playerRepository.findById(playerId).map(PlayerProfile::fromEntity).orElse(null);
+    }
+
     /**
      * 创建或更新玩家
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYER_PROFILES, key = "#playerId")
     public ApiResponse<Player> createOrUpdatePlayer(String playerId, String nickname, String avatar, String device) {
         try {
             Optional<Player> playerOpt = playerRepository.findById(playerId);
@@ -108,6 +147,7 @@ public class PlayerService {
      * 更新玩家昵称
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYER_PROFILES, key = "#playerId")
     public ApiResponse<Player> updatePlayerNickname(String playerId, String nickname) {
         try {
             Optional<Player> playerOpt = playerRepository.findById(playerId);
@@ -130,6 +170,7 @@ public class PlayerService {
      * 更新玩家头像并返回玩家对象
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYER_PROFILES, key = "#playerId")
     public ApiResponse<Player> updatePlayerAvatarWithPlayer(String playerId, String avatarUrl) {
         try {
             ApiResponse<String> result = updatePlayerAvatar(playerId, avatarUrl);
@@ -154,6 +195,7 @@ public class PlayerService {
      * 更新玩家分数
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYER_PROFILES, key = "#playerId")
     public ApiResponse<Player> updatePlayerScore(String playerId, Integer score) {
         try {
             Optional<Player> playerOpt = playerRepository.findById(playerId);
@@ -163,7 +205,10 @@ public class PlayerService {
 
             Player player = playerOpt.get();
             if (score != null) {
+                int previous = player.getTotalScore() != null ? player.getTotalScore() : 0;
                 player.setTotalScore(score);
+                eventPublisher.publishEvent(
+                        PlayerScoreChangedEvent.scoreSet(playerId, player.getPlayerName(), previous, score));
             }
             playerRepository.save(player);
 
@@ -177,6 +222,7 @@ public class PlayerService {
     /**
      * 获取在线玩家列表
      */
+    @Transactional(readOnly = true)
     public ApiResponse<List<Player>> getOnlinePlayers(int page, int size) {
         try {
             List<Player> onlinePlayers = playerRepository.findByPlayerStatus(Player.PlayerStatus.ONLINE);
@@ -198,25 +244,35 @@ public class PlayerService {
 
     /**
      * 搜索玩家
+     * 分页以索引结果为准：当前页为索引排序后的第 page 页，总数为索引匹配数。索引由主库提交后的玩家变更事件维护，
+     * 因此按主库读取玩家行，只跳过读取前刚被删除的玩家。
      */
-    public ApiResponse<List<Player>> searchPlayers(String keyword, int page, int size) {
+    @Transactional
+    public ApiResponse<Page<Player>> searchPlayers(String keyword, int page, int size) {
         try {
-            List<Player> allPlayers = playerRepository.findAll();
-            List<Player> matchedPlayers = allPlayers.stream()
-                .filter(p -> p.getPlayerName() != null &&
-                           p.getPlayerName().toLowerCase().contains(keyword.toLowerCase()))
-                .collect(java.util.stream.Collectors.toList());
-
-            // 分页处理
-            int start = (page - 1) * size;
-            int end = Math.min(start + size, matchedPlayers.size());
+            PageRequest pageable = PageRequest.of(Math.max(page, 1) - 1, Math.max(size, 1));
+            NicknameSearchIndex.SearchResult result = nicknameSearchIndex.search(
+                    keyword, (int) pageable.getOffset(), pageable.getPageSize());
+            if (result.getPlayerIds().isEmpty()) {
+                return ApiResponse.success("搜索玩家成功", new PageImpl<>(List.of(), pageable, result.getTotal()));
+            }
 
-            if (start >= matchedPlayers.size()) {
-                return ApiResponse.success("搜索玩家成功", List.of());
+            Map<String, Player> found = new HashMap<>();
+            for (Player player : playerRepository.findAllById(result.getPlayerIds())) {
+                found.put(player.getId(), player);
             }
 
-            List<Player> pagedPlayers = matchedPlayers.subList(start, end);
-            return ApiResponse.success("搜索玩家成功", pagedPlayers);
+            List<Player> pagedPlayers = new ArrayList<>(result.getPlayerIds().size());
+            for (String playerId : result.getPlayerIds()) {
+                Player player = found.get(playerId);
+                if (player != null) {
+                    pagedPlayers.add(player);
+                }
+            }
+            if (result.isTruncated()) {
+                log.debug("昵称搜索候选超过扫描上限: keyword={}, 已匹配={}", keyword, result.getTotal());
+            }
+            return ApiResponse.success("搜索玩家成功", new PageImpl<>(pagedPlayers, pageable, result.getTotal()));
         } catch (Exception e) {
             log.error("搜索玩家失败", e);
             return ApiResponse.error("搜索玩家失败: " + e.getMessage());
@@ -240,6 +296,7 @@ public class PlayerService {
     /**
      * 获取玩家统计概览
      */
+    @Transactional(readOnly = true)
     public ApiResponse<Object> getPlayerStatsOverview() {
         try {
             long totalPlayers = playerRepository.count();
@@ -262,6 +319,7 @@ public class PlayerService {
     /**
      * 获取玩家统计信息
      */
+    @Transactional(readOnly = true)
     public ApiResponse<Object> getGameStats() {
         try {
             long totalPlayers = playerRepository.count();
@@ -307,6 +365,7 @@ public class PlayerService {
      * @return 操作结果
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYER_PROFILES, key = "#playerId")
     public ApiResponse<String> updatePlayerName(String playerId, String newName) {
         try {
             Optional<Player> playerOpt = playerRepository.findById(playerId);
@@ -351,6 +410,7 @@ public class PlayerService {
      * @return 操作结果
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYER_PROFILES, key = "#playerId")
     public ApiResponse<String> updatePlayerAvatar(String playerId, String avatarUrl) {
         try {
             Optional<Player> playerOpt = playerRepository.findById(playerId);
@@ -586,6 +646,7 @@ public class PlayerService {
      * @return 操作结果
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYER_PROFILES, key = "#playerId")
     public ApiResponse<String> addPlayerScore(String playerId, int score) {
         try {
             Optional<Player> playerOpt = playerRepository.findById(playerId);
@@ -594,6 +655,8 @@ public class PlayerService {
             }
 
             playerRepository.addScore(playerId, score);
+            eventPublisher.publishEvent(
+                    PlayerScoreChangedEvent.adjusted(playerId, playerOpt.get().getPlayerName(), score, 0));
             log.info("增加玩家分数: 玩家ID={}, 分数={}", playerId, score);
             return ApiResponse.success("分数更新成功");
 
@@ -610,6 +673,7 @@ public class PlayerService {
      * @return 操作结果
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYER_PROFILES, key = "#playerId")
     public ApiResponse<String> addPlayerWin(String playerId) {
         try {
             Optional<Player> playerOpt = playerRepository.findById(playerId);
@@ -618,6 +682,8 @@ public class PlayerService {
             }
 
             playerRepository.incrementWins(playerId);
+            eventPublisher.publishEvent(
+                    PlayerScoreChangedEvent.adjusted(playerId, playerOpt.get().getPlayerName(), 0, 1));
             log.info("增加玩家胜利次数: 玩家ID={}", playerId);
             return ApiResponse.success("胜利次数更新成功");
 
@@ -627,6 +693,61 @@ public class PlayerService {
         }
     }
 
+    /**
+     * 结算回合：把各玩家的回合得分和胡牌计入玩家表，逐个玩家发布得分变更事件（排行榜），
+     * 最后发布回合结算事件（玩家统计）。
+     * 同一回合只结算一次，重复调用直接返回。
+     *
+     * @param gameRoundId 回合ID
+     * @return 结算的玩家数
+     */
+    @Transactional
+    public ApiResponse<Integer> settleRound(Long gameRoundId) {
+        try {
+            Optional<GameRound> roundOpt = gameRoundRepository.findById(gameRoundId);
+            if (roundOpt.isEmpty()) {
+                return ApiResponse.notFound("回合不存在");
+            }
+            GameRound round = roundOpt.get();
+            if (!round.isFinished()) {
+                return ApiResponse.badRequest("回合尚未结束");
+            }
+            if (gameRoundRepository.markScoresSettled(gameRoundId) == 0) {
+                log.debug("回合已结算，跳过: roundId={}", gameRoundId);
+                return ApiResponse.success("回合已结算", 0);
+            }
+
+            List<PlayerRound> playerRounds = playerRoundRepository.findByGameRoundId(gameRoundId);
+            Cache profiles = cacheManager.getCache(CacheNames.PLAYER_PROFILES);
+            for (PlayerRound playerRound : playerRounds) {
+                String playerId = playerRound.getPlayerId();
+                int score = playerRound.getScore() != null ? playerRound.getScore() : 0;
+                if (score != 0) {
+                    playerRepository.addScore(playerId, score);
+                }
+                boolean winner = Boolean.TRUE.equals(playerRound.getWinner());
+                if (winner) {
+                    playerRepository.incrementWins(playerId);
+                }
+                if (profiles != null) {
+                    profiles.evict(playerId);
+                }
+                eventPublisher.publishEvent(PlayerScoreChangedEvent.settled(
+                        playerId, playerRound.getPlayerName(), score, winner, gameRoundId));
+            }
+
+            Long gameId = round.getGame() != null ? round.getGame().getId() : null;
+            eventPublisher.publishEvent(new RoundSettledEvent(gameRoundId, gameId));
+            log.info("回合结算完成: roundId={}, 玩家数={}", gameRoundId, playerRounds.size());
+            return ApiResponse.success("回合结算成功", playerRounds.size());
+
+        } catch (Exception e) {
+            log.error("回合结算失败: roundId={}", gameRoundId, e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ApiResponse.error("回合结算失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 清理不活跃的玩家
      */
@@ -658,6 +779,7 @@ public class PlayerService {
      * @param roomId 房间ID
      * @return 统计信息
      */
+    @Transactional(readOnly = true)
     public ApiResponse<Object> getRoomPlayerStats(Long roomId) {
         try {
             List<Object[]> stats = playerRepository.countPlayersByStatusInRoom(roomId);
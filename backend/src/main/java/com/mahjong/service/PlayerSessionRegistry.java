@@ -0,0 +1,155 @@
+package com.mahjong.service;
+
+import com.mahjong.entity.Player;
+import com.mahjong.entity.Room;
+import com.mahjong.event.PlayerChangedEvent;
+import com.mahjong.event.RoomLifecycleEvent;
+import com.mahjong.repository.PlayerRepository;
+import com.mahjong.service.dto.SessionProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 会话玩家快照注册表
+ * 玩家建立Socket连接时加载一次资料和所在房间，之后由玩家变更事件和房间过期事件整体替换快照，
+ * 聊天和Socket事件处理直接读取快照，稳定状态下不访问数据库。
+ * 玩家变更事件包括其他节点经 {@link com.mahjong.event.PlayerChangeRelay} 转发的变更，
+ * 玩家通过其他节点的REST接口加入、离开房间或改名后，本节点的快照随之更新。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Service
+public class PlayerSessionRegistry implements RoomMemoryContributor {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerSessionRegistry.class);
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    private final Map<String, SessionProfile> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 连接建立时加载玩家快照
+     *
+     * @return 玩家快照，玩家不存在时返回null
+     */
+    public SessionProfile attach(String playerId) {
+        SessionProfile profile = playerRepository.findWithRoomById(playerId)
+                .map(PlayerSessionRegistry::fromEntity)
+                .orElse(null);
+        if (profile != null) {
+            sessions.put(playerId, profile);
+        } else {
+            sessions.remove(playerId);
+        }
+        return profile;
+    }
+
+    /**
+     * 连接断开时移除快照
+     */
+    public void detach(String playerId) {
+        sessions.remove(playerId);
+    }
+
+    /**
+     * 获取在线玩家快照，未连接时返回null
+     */
+    public SessionProfile get(String playerId) {
+        return sessions.get(playerId);
+    }
+
+    /**
+     * 玩家资料或所在房间变更后替换快照
+     */
+    @EventListener
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        if (event.isRemoved()) {
+            // 玩家记录随离开房间删除，保留昵称以便展示
+            sessions.computeIfPresent(event.getPlayerId(), (id, current) -> current.toBuilder()
+                    .roomId(null).roomNumber(null).spectator(false).build());
+            return;
+        }
+        boolean[] needsReload = {false};
+        sessions.computeIfPresent(event.getPlayerId(), (id, current) -> {
+            String roomNumber = event.getRoomNumber();
+            if (roomNumber == null && event.getRoomId() != null) {
+                if (event.getRoomId().equals(current.getRoomId())) {
+                    roomNumber = current.getRoomNumber();
+                } else {
+                    // 房间未随玩家加载，无法得知房间号
+                    needsReload[0] = true;
+                }
+            }
+            return current.toBuilder()
+                    .nickname(event.getPlayerName())
+                    .avatarUrl(event.getAvatarUrl())
+                    .roomId(event.getRoomId())
+                    .roomNumber(roomNumber)
+                    .spectator(event.isSpectator())
+                    .build();
+        });
+        if (needsReload[0]) {
+            log.debug("玩家快照房间号未知，重新加载: playerId={}", event.getPlayerId());
+            attach(event.getPlayerId());
+        }
+    }
+
+    /**
+     * 当前持有的会话快照数
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * 所在房间的玩家和观战者的会话快照
+     */
+    @Override
+    public void contribute(RoomMemoryCollector collector) {
+        sessions.forEach((playerId, profile) -> {
+            String roomNumber = profile.getRoomNumber();
+            if (roomNumber != null) {
+                collector.seat(roomNumber, profile.isSpectator());
+                collector.add(roomNumber, profile.isSpectator() ? "sessions.spectators" : "sessions.players",
+                        RoomMemoryCollector.MAP_ENTRY + RoomMemoryCollector.shallow(5, 1) + RoomMemoryCollector.BOXED
+                                + RoomMemoryCollector.string(playerId)
+                                + RoomMemoryCollector.string(profile.getNickname())
+                                + RoomMemoryCollector.string(profile.getAvatarUrl())
+                                + RoomMemoryCollector.string(roomNumber));
+            }
+        });
+    }
+
+    /**
+     * 房间过期清理后清除其中玩家的房间信息
+     */
+    @EventListener
+    public void onRoomLifecycle(RoomLifecycleEvent event) {
+        if (!event.isRemoval() || event.getRoomId() == null) {
+            return;
+        }
+        sessions.replaceAll((id, current) -> event.getRoomId().equals(current.getRoomId())
+                ? current.toBuilder().roomId(null).roomNumber(null).spectator(false).build()
+                : current);
+    }
+
+    private static SessionProfile fromEntity(Player player) {
+        Room room = player.getRoom();
+        return SessionProfile.builder()
+                .playerId(player.getId())
+                .nickname(player.getPlayerName())
+                .avatarUrl(player.getPlayerAvatar())
+                .roomId(room != null ? room.getId() : null)
+                .roomNumber(room != null ? room.getRoomNumber() : null)
+                .spectator(Boolean.TRUE.equals(player.getSpectator()))
+                .build();
+    }
+}
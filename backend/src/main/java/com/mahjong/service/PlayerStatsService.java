@@ -0,0 +1,179 @@
+package com.mahjong.service;
+
+import com.mahjong.entity.GameRound;
+import com.mahjong.entity.PlayerRound;
+import com.mahjong.entity.PlayerStats;
+import com.mahjong.event.RoundSettledEvent;
+import com.mahjong.repository.GameActionRepository;
+import com.mahjong.repository.GameRoundRepository;
+import com.mahjong.repository.PlayerRoundRepository;
+import com.mahjong.repository.PlayerStatsRepository;
+import com.mahjong.service.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 玩家统计投影服务
+ * 回合结算时把 GameRound / PlayerRound / GameAction 的结果累加到 player_stats，
+ * 资料页只需按主键读取一行。启动时补算已结束但尚未计入的回合（上线前的历史回合、结算后进程退出未处理的事件）。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+public class PlayerStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerStatsService.class);
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final PlayerStatsRepository playerStatsRepository;
+    private final GameRoundRepository gameRoundRepository;
+    private final PlayerRoundRepository playerRoundRepository;
+    private final GameActionRepository gameActionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 回合结算事件处理（结算事务提交后执行）
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onRoundSettled(RoundSettledEvent event) {
+        try {
+            applyRound(event.getGameRoundId());
+        } catch (Exception e) {
+            log.error("更新玩家统计失败: roundId={}", event.getGameRoundId(), e);
+        }
+    }
+
+    /**
+     * 启动后补算未计入统计的已结束回合，每个回合单独提交
+     *
+     * @return 计入的回合数
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int backfill() {
+        int applied = 0;
+        long afterId = 0L;
+        try {
+            while (true) {
+                List<Long> roundIds = gameRoundRepository.findUnappliedFinishedRoundIds(
+                        afterId, PageRequest.of(0, BACKFILL_BATCH_SIZE));
+                for (Long roundId : roundIds) {
+                    Integer players = transactionTemplate.execute(status -> applyRound(roundId));
+                    if (players != null && players > 0) {
+                        applied++;
+                    }
+                }
+                if (roundIds.size() < BACKFILL_BATCH_SIZE) {
+                    break;
+                }
+                afterId = roundIds.get(roundIds.size() - 1);
+            }
+            if (applied > 0) {
+                log.info("玩家统计补算完成，共{}个回合", applied);
+            }
+        } catch (Exception e) {
+            log.error("玩家统计补算失败: ", e);
+        }
+        return applied;
+    }
+
+    /**
+     * 把一个已结束回合计入玩家统计，重复调用不会重复计入
+     *
+     * @param gameRoundId 回合ID
+     * @return 更新的玩家数
+     */
+    @Transactional
+    public int applyRound(Long gameRoundId) {
+        Optional<GameRound> roundOpt = gameRoundRepository.findById(gameRoundId);
+        if (roundOpt.isEmpty() || !roundOpt.get().isFinished()) {
+            log.warn("回合不存在或尚未结束，跳过统计: roundId={}", gameRoundId);
+            return 0;
+        }
+        if (gameRoundRepository.markStatsApplied(gameRoundId) == 0) {
+            log.debug("回合统计已计入，跳过: roundId={}", gameRoundId);
+            return 0;
+        }
+
+        GameRound round = roundOpt.get();
+        LocalDateTime roundAt = round.getEndedAt() != null ? round.getEndedAt() : LocalDateTime.now();
+        boolean zimo = round.getWinType() == GameRound.WinType.ZIMO;
+
+        Map<String, Object[]> actionSummary = new HashMap<>();
+        for (Object[] row : gameActionRepository.summarizeRoundByPlayer(gameRoundId)) {
+            actionSummary.put((String) row[0], row);
+        }
+
+        List<PlayerRound> playerRounds = playerRoundRepository.findByGameRoundId(gameRoundId);
+        for (PlayerRound playerRound : playerRounds) {
+            boolean winner = Boolean.TRUE.equals(playerRound.getWinner());
+            int score = playerRound.getScore() != null ? playerRound.getScore() : 0;
+            int fan = winner && playerRound.getFanCount() != null ? playerRound.getFanCount() : 0;
+            Object[] actions = actionSummary.get(playerRound.getPlayerId());
+
+            playerStatsRepository.accumulateRound(
+                    playerRound.getPlayerId(),
+                    winner ? 1 : 0,
+                    winner && zimo ? 1 : 0,
+                    score,
+                    winner ? Math.max(score, 0) : 0,
+                    fan,
+                    winner ? String.valueOf(fan) : null,
+                    actions != null ? toInt(actions[3]) : 0,
+                    actions != null ? toInt(actions[4]) : 0,
+                    actions != null ? toInt(actions[5]) : 0,
+                    actions != null ? toLong(actions[1]) : 0L,
+                    actions != null ? toLong(actions[2]) : 0L,
+                    roundAt);
+        }
+
+        log.debug("回合统计已计入: roundId={}, 玩家数={}", gameRoundId, playerRounds.size());
+        return playerRounds.size();
+    }
+
+    /**
+     * 获取玩家统计（主键单行读取）
+     *
+     * @param playerId 玩家ID
+     * @return 玩家统计，未参与过任何回合时返回notFound
+     */
+    @Transactional(readOnly = true)
+    public ApiResponse<PlayerStats> getPlayerStats(String playerId) {
+        try {
+            Optional<PlayerStats> statsOpt = playerStatsRepository.findById(playerId);
+            if (statsOpt.isEmpty()) {
+                return ApiResponse.notFound("暂无统计数据");
+            }
+            return ApiResponse.success("获取玩家统计成功", statsOpt.get());
+        } catch (Exception e) {
+            log.error("获取玩家统计失败: playerId={}", playerId, e);
+            return ApiResponse.error("获取玩家统计失败: " + e.getMessage());
+        }
+    }
+
+    private static int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
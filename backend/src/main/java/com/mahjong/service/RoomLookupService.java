@@ -0,0 +1,93 @@
+package com.mahjong.service;
+
+import com.mahjong.config.CacheNames;
+import com.mahjong.entity.Room;
+import com.mahjong.event.RoomLifecycleEvent;
+import com.mahjong.repository.RoomRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * 房间号查找服务
+ * 房间号 -> 房间ID 的映射走两级缓存。多数调用方（成员校验、准备、聊天）只需要房间ID，
+ * 命中时直接返回，不访问数据库；需要房间实体的调用方按房间号单条查询，顺带刷新映射。
+ * 房间号会在房间过期后被回收，房间删除事件会清除映射（其他节点经失效通知同步）。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Service
+public class RoomLookupService {
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * 按房间号查找房间ID
+     *
+     * @param roomNumber 房间号
+     * @return 房间ID
+     */
+    public Optional<Long> findRoomId(String roomNumber) {
+        if (roomNumber == null) {
+            return Optional.empty();
+        }
+        Cache roomIds = roomIds();
+        Cache.ValueWrapper cached = roomIds.get(roomNumber);
+        if (cached != null && cached.get() instanceof Number) {
+            return Optional.of(((Number) cached.get()).longValue());
+        }
+
+        // 不缓存不存在的房间号，避免新建房间后仍被判定为不存在
+        Optional<Long> roomId = roomRepository.findIdByRoomNumber(roomNumber);
+        roomId.ifPresent(id -> roomIds.putIfAbsent(roomNumber, id));
+        return roomId;
+    }
+
+    /**
+     * 按房间号查找房间
+     *
+     * @param roomNumber 房间号
+     * @return 房间
+     */
+    public Optional<Room> findByRoomNumber(String roomNumber) {
+        if (roomNumber == null) {
+            return Optional.empty();
+        }
+        Optional<Room> room = roomRepository.findByRoomNumber(roomNumber);
+        room.ifPresent(r -> {
+            Cache roomIds = roomIds();
+            Cache.ValueWrapper cached = roomIds.get(roomNumber);
+            if (cached == null || !r.getId().equals(toLong(cached.get()))) {
+                roomIds.put(roomNumber, r.getId());
+            }
+        });
+        return room;
+    }
+
+    /**
+     * 房间过期清理后移除映射
+     */
+    @EventListener
+    public void onRoomLifecycle(RoomLifecycleEvent event) {
+        if (event.isRemoval() && event.getRoomNumber() != null) {
+            roomIds().evict(event.getRoomNumber());
+        }
+    }
+
+    private Cache roomIds() {
+        return cacheManager.getCache(CacheNames.ROOM_IDS);
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+}
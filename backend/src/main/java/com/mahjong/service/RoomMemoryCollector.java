@@ -0,0 +1,222 @@
+package com.mahjong.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 房间内存估算汇总
+ * 各 {@link RoomMemoryContributor} 按房间号写入估算字节数和人数，同时提供按对象布局估算大小的工具方法。
+ * 只持有房间ID的组件按ID写入，汇总时按大厅索引上报的房间号归并，大厅索引中已没有的房间记为 "#房间ID"。
+ * 估算以64位JVM开启压缩指针为准（对象头12字节、引用4字节、8字节对齐），
+ * 只计房间独占的对象，多个房间共享的常量和连接本身（Netty通道、缓冲区）不计入。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+public class RoomMemoryCollector {
+
+    public static final int OBJECT_HEADER = 12;
+    public static final int REFERENCE = 4;
+
+    /**
+     * Long、LocalDate、LocalTime 等只含少量字段的包装对象
+     */
+    public static final int BOXED = 16;
+
+    /**
+     * LocalDateTime 及其引用的日期、时间对象
+     */
+    public static final int DATE_TIME = 16 + 2 * 24;
+
+    /**
+     * ConcurrentHashMap 节点及按0.75负载因子摊到每个条目的桶数组槽位
+     */
+    public static final int MAP_ENTRY = 32 + 8;
+
+    /**
+     * 空的 ConcurrentHashMap（含初始桶数组）
+     */
+    public static final int CONCURRENT_MAP = 64 + 80;
+
+    private final Map<String, RoomUsage> rooms = new HashMap<>();
+
+    // 大厅索引上报的房间ID -> 房间号
+    private final Map<Long, String> roomNumbers = new HashMap<>();
+
+    // 按房间ID记录、尚未归并到房间号的占用
+    private final Map<Long, Map<String, Long>> byRoomId = new HashMap<>();
+
+    /**
+     * 记录房间某一组成部分的估算字节数，同一部分多次记录时累加
+     */
+    public void add(String roomNumber, String component, long bytes) {
+        if (roomNumber != null && bytes > 0) {
+            usage(roomNumber).components.merge(component, bytes, Long::sum);
+        }
+    }
+
+    /**
+     * 按房间ID记录某一组成部分的估算字节数，汇总时归并到房间号
+     */
+    public void addByRoomId(Long roomId, String component, long bytes) {
+        if (roomId != null && bytes > 0) {
+            byRoomId.computeIfAbsent(roomId, k -> new TreeMap<>()).merge(component, bytes, Long::sum);
+        }
+    }
+
+    /**
+     * 记录房间Socket频道中的连接数
+     */
+    public void members(String roomNumber, int count) {
+        if (roomNumber != null) {
+            RoomUsage usage = usage(roomNumber);
+            usage.channel = true;
+            usage.members = count;
+        }
+    }
+
+    /**
+     * 记录一个持有该房间会话快照的玩家
+     */
+    public void seat(String roomNumber, boolean spectator) {
+        if (roomNumber != null) {
+            RoomUsage usage = usage(roomNumber);
+            if (spectator) {
+                usage.spectators++;
+            } else {
+                usage.players++;
+            }
+        }
+    }
+
+    /**
+     * 标记房间仍在大厅索引中（未过期、未解散）
+     */
+    public void listed(Long roomId, String roomNumber, String status) {
+        if (roomNumber != null) {
+            if (roomId != null) {
+                roomNumbers.put(roomId, roomNumber);
+            }
+            RoomUsage usage = usage(roomNumber);
+            usage.listed = true;
+            usage.status = status;
+        }
+    }
+
+    /**
+     * 汇总结果，房间号 -> 占用
+     */
+    public Map<String, RoomUsage> rooms() {
+        byRoomId.forEach((roomId, components) -> {
+            String roomNumber = roomNumbers.getOrDefault(roomId, "#" + roomId);
+            components.forEach((component, bytes) -> add(roomNumber, component, bytes));
+        });
+        byRoomId.clear();
+        return Collections.unmodifiableMap(rooms);
+    }
+
+    private RoomUsage usage(String roomNumber) {
+        return rooms.computeIfAbsent(roomNumber, RoomUsage::new);
+    }
+
+    /**
+     * 按字段数估算对象本身大小
+     *
+     * @param references     引用字段数
+     * @param primitiveBytes 基本类型字段总字节数
+     */
+    public static long shallow(int references, int primitiveBytes) {
+        return align(OBJECT_HEADER + (long) references * REFERENCE + primitiveBytes);
+    }
+
+    /**
+     * 引用数组大小
+     */
+    public static long referenceArray(int length) {
+        return align(16 + (long) length * REFERENCE);
+    }
+
+    /**
+     * 字符串大小（String对象及其字节数组），null 为0
+     */
+    public static long string(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return 24 + align(16 + (long) value.length() * bytesPerChar);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * 单个房间的估算占用
+     */
+    public static final class RoomUsage {
+        private final String roomNumber;
+        private final Map<String, Long> components = new TreeMap<>();
+        private boolean channel;
+        private int members;
+        private int players;
+        private int spectators;
+        private boolean listed;
+        private String status;
+
+        private RoomUsage(String roomNumber) {
+            this.roomNumber = roomNumber;
+        }
+
+        public String getRoomNumber() {
+            return roomNumber;
+        }
+
+        public Map<String, Long> getComponents() {
+            return components;
+        }
+
+        public long getBytes() {
+            long total = 0;
+            for (long bytes : components.values()) {
+                total += bytes;
+            }
+            return total;
+        }
+
+        /**
+         * 是否存在Socket频道映射（连接全部断开后映射仍保留时成员数为0）
+         */
+        public boolean hasChannel() {
+            return channel;
+        }
+
+        public int getMembers() {
+            return members;
+        }
+
+        public int getPlayers() {
+            return players;
+        }
+
+        public int getSpectators() {
+            return spectators;
+        }
+
+        public boolean isListed() {
+            return listed;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.mahjong.service;
+
+/**
+ * 房间内存占用来源
+ * 持有按房间划分的内存状态的组件实现此接口，由 {@link RoomMemoryService} 在查询时遍历汇总
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+public interface RoomMemoryContributor {
+
+    /**
+     * 按房间号上报当前持有状态的估算大小
+     */
+    void contribute(RoomMemoryCollector collector);
+}
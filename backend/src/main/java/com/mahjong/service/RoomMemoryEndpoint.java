@@ -0,0 +1,36 @@
+package com.mahjong.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 房间内存端点
+ * GET /actuator/roommemory?top=20 查看当前节点的合计和占用最高的房间，
+ * GET /actuator/roommemory/{roomNumber} 查看单个房间的明细
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Component
+@Endpoint(id = "roommemory")
+public class RoomMemoryEndpoint {
+
+    @Autowired
+    private RoomMemoryService roomMemoryService;
+
+    @ReadOperation
+    public Map<String, Object> report(@Nullable Integer top) {
+        return roomMemoryService.report(top);
+    }
+
+    @ReadOperation
+    public Map<String, Object> room(@Selector String roomNumber) {
+        return roomMemoryService.room(roomNumber);
+    }
+}
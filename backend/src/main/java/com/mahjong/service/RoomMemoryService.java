@@ -0,0 +1,157 @@
+package com.mahjong.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 房间内存统计服务
+ * 查询时遍历各 {@link RoomMemoryContributor} 估算每个房间的保留大小，给出节点合计和占用最高的房间，
+ * 并标记超过单房间上限的房间，以及大厅索引中已不存在却仍持有内存状态的房间（疑似泄漏）。
+ * 只在查询时计算，不在业务路径上维护计数。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Service
+public class RoomMemoryService {
+
+    /**
+     * 超过单房间内存上限
+     */
+    public static final String FLAG_OVER_LIMIT = "overLimit";
+
+    /**
+     * 大厅索引中已无此房间（已过期或解散），但仍有内存状态
+     */
+    public static final String FLAG_UNLISTED = "unlisted";
+
+    /**
+     * Socket频道映射仍在，但频道内已没有连接
+     */
+    public static final String FLAG_EMPTY_CHANNEL = "emptyChannel";
+
+    private static final Comparator<RoomMemoryCollector.RoomUsage> HEAVIEST_FIRST =
+            Comparator.comparingLong(RoomMemoryCollector.RoomUsage::getBytes).reversed();
+
+    @Autowired
+    private List<RoomMemoryContributor> contributors;
+
+    @Value("${game.room.memory-limit:10485760}")
+    private long memoryLimit;
+
+    @Value("${game.room.memory-report-top:20}")
+    private int defaultTop;
+
+    @Value("${game.cluster.node-index:0}")
+    private int nodeIndex;
+
+    /**
+     * 当前节点的房间内存报告
+     *
+     * @param top 返回的最重房间数和疑似泄漏房间数，为空时使用配置值
+     */
+    public Map<String, Object> report(Integer top) {
+        int limit = top != null && top > 0 ? top : defaultTop;
+        Map<String, RoomMemoryCollector.RoomUsage> rooms = collect();
+
+        long totalBytes = 0;
+        int players = 0;
+        int spectators = 0;
+        int members = 0;
+        int overLimit = 0;
+        Map<String, Long> components = new TreeMap<>();
+        List<RoomMemoryCollector.RoomUsage> suspects = new ArrayList<>();
+        for (RoomMemoryCollector.RoomUsage usage : rooms.values()) {
+            long bytes = usage.getBytes();
+            totalBytes += bytes;
+            players += usage.getPlayers();
+            spectators += usage.getSpectators();
+            members += usage.getMembers();
+            usage.getComponents().forEach((component, size) -> components.merge(component, size, Long::sum));
+            if (bytes > memoryLimit) {
+                overLimit++;
+            }
+            if (!usage.isListed() || (usage.hasChannel() && usage.getMembers() == 0)) {
+                suspects.add(usage);
+            }
+        }
+
+        List<Map<String, Object>> heaviest = rooms.values().stream()
+                .sorted(HEAVIEST_FIRST)
+                .limit(limit)
+                .map(this::summarize)
+                .toList();
+        List<Map<String, Object>> suspected = suspects.stream()
+                .sorted(HEAVIEST_FIRST)
+                .limit(limit)
+                .map(this::summarize)
+                .toList();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("node", nodeIndex);
+        result.put("limitBytes", memoryLimit);
+        result.put("heapMaxBytes", Runtime.getRuntime().maxMemory());
+        result.put("rooms", rooms.size());
+        result.put("totalBytes", totalBytes);
+        result.put("averageBytes", rooms.isEmpty() ? 0 : totalBytes / rooms.size());
+        result.put("players", players);
+        result.put("spectators", spectators);
+        result.put("connections", members);
+        result.put("components", components);
+        result.put("overLimit", overLimit);
+        result.put("suspects", suspects.size());
+        result.put("top", heaviest);
+        result.put("suspectRooms", suspected);
+        return result;
+    }
+
+    /**
+     * 单个房间的内存明细
+     *
+     * @return 明细，当前节点没有该房间的任何内存状态时返回null
+     */
+    public Map<String, Object> room(String roomNumber) {
+        RoomMemoryCollector.RoomUsage usage = collect().get(roomNumber);
+        return usage != null ? summarize(usage) : null;
+    }
+
+    private Map<String, RoomMemoryCollector.RoomUsage> collect() {
+        RoomMemoryCollector collector = new RoomMemoryCollector();
+        for (RoomMemoryContributor contributor : contributors) {
+            contributor.contribute(collector);
+        }
+        return collector.rooms();
+    }
+
+    private Map<String, Object> summarize(RoomMemoryCollector.RoomUsage usage) {
+        List<String> flags = new ArrayList<>();
+        if (usage.getBytes() > memoryLimit) {
+            flags.add(FLAG_OVER_LIMIT);
+        }
+        if (!usage.isListed()) {
+            flags.add(FLAG_UNLISTED);
+        }
+        if (usage.hasChannel() && usage.getMembers() == 0) {
+            flags.add(FLAG_EMPTY_CHANNEL);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("roomNumber", usage.getRoomNumber());
+        summary.put("status", usage.getStatus());
+        summary.put("bytes", usage.getBytes());
+        summary.put("connections", usage.getMembers());
+        summary.put("players", usage.getPlayers());
+        summary.put("spectators", usage.getSpectators());
+        summary.put("components", usage.getComponents());
+        summary.put("flags", flags);
+        return summary;
+    }
+}
@@ -0,0 +1,242 @@
+package com.mahjong.service;
+
+import com.mahjong.event.RoomLifecycleEvent;
+import com.mahjong.repository.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 房间号分配器
+ * 6位房间号空间按节点切分为互不重叠的区间，每个节点只在自己的区间内分配，
+ * 多节点部署时无需相互协调。区间内的空闲号码预先打乱放入栈中，分配和回收均为O(1)。
+ * 房间可能由其他节点的过期清理删除（本节点收不到过期事件），创建房间的事务也可能回滚，
+ * 因此定期与 rooms 表对账，回收本地标记占用但表中已不存在的号码。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Service
+public class RoomNumberAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomNumberAllocator.class);
+
+    /**
+     * 房间号空间大小（000000 - 999999）
+     */
+    static final int NUMBER_SPACE = 1_000_000;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Value("${game.cluster.node-index:0}")
+    private int nodeIndex;
+
+    @Value("${game.cluster.node-count:1}")
+    private int nodeCount;
+
+    // 本节点负责的区间 [rangeStart, rangeEnd)
+    private int rangeStart;
+    private int rangeEnd;
+
+    // 已占用号码（按区间内偏移量记录）
+    private BitSet used;
+
+    // 空闲号码栈（区间内偏移量），栈顶为下一个分配的号码
+    private int[] freeStack;
+    private int freeTop;
+
+    private volatile boolean initialized;
+
+    // 上一轮对账时本地占用但表中不存在的号码；连续两轮缺失才回收，避免误回收尚未提交的新房间号
+    private BitSet missingLastPass = new BitSet();
+
+    /**
+     * 应用启动后根据数据库中已存在的房间号初始化空闲池
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            ensureInitialized();
+        } catch (Exception e) {
+            log.error("房间号分配器初始化失败，将在首次分配时重试: ", e);
+        }
+    }
+
+    /**
+     * 分配一个空闲房间号
+     *
+     * @return 6位数字房间号
+     * @throws IllegalStateException 本节点区间内房间号已用尽
+     */
+    public String allocate() {
+        ensureInitialized();
+        synchronized (this) {
+            if (freeTop == 0) {
+                throw new IllegalStateException("房间号已用尽");
+            }
+            int offset = freeStack[--freeTop];
+            used.set(offset);
+            return format(rangeStart + offset);
+        }
+    }
+
+    /**
+     * 归还房间号
+     * 不属于本节点区间或格式不合法的号码直接忽略
+     *
+     * @param roomNumber 房间号
+     */
+    public void release(String roomNumber) {
+        int number = parse(roomNumber);
+        if (number < 0 || !initialized) {
+            return;
+        }
+        synchronized (this) {
+            if (number >= rangeStart && number < rangeEnd) {
+                releaseOffset(number - rangeStart);
+            }
+        }
+    }
+
+    /**
+     * 与 rooms 表对账，回收连续两轮对账都已不在表中的号码
+     */
+    @Scheduled(fixedDelayString = "${game.cluster.room-number-reconcile-interval:300000}",
+            initialDelayString = "${game.cluster.room-number-reconcile-interval:300000}")
+    public void reconcile() {
+        if (!initialized) {
+            return;
+        }
+        BitSet persisted = loadUsed();
+        int released = 0;
+        synchronized (this) {
+            BitSet missing = (BitSet) used.clone();
+            missing.andNot(persisted);
+            BitSet stale = (BitSet) missing.clone();
+            stale.and(missingLastPass);
+            missingLastPass = missing;
+            for (int offset = stale.nextSetBit(0); offset >= 0; offset = stale.nextSetBit(offset + 1)) {
+                releaseOffset(offset);
+                released++;
+            }
+        }
+        if (released > 0) {
+            log.info("房间号对账回收{}个号码，当前可用={}", released, available());
+        }
+    }
+
+    private void releaseOffset(int offset) {
+        if (!used.get(offset)) {
+            return;
+        }
+        used.clear(offset);
+        // 归还的号码放到栈内随机位置，避免刚释放的号码立即被复用
+        int slot = freeTop == 0 ? 0 : ThreadLocalRandom.current().nextInt(freeTop + 1);
+        freeStack[freeTop++] = freeStack[slot];
+        freeStack[slot] = offset;
+    }
+
+    /**
+     * 房间过期删除后回收房间号
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomLifecycle(RoomLifecycleEvent event) {
+        if (event.getType() == RoomLifecycleEvent.Type.EXPIRED) {
+            release(event.getRoomNumber());
+        }
+    }
+
+    /**
+     * 本节点剩余可用房间号数量
+     */
+    public synchronized int available() {
+        return initialized ? freeTop : 0;
+    }
+
+    private void ensureInitialized() {
+        if (initialized) {
+            return;
+        }
+        synchronized (this) {
+            if (initialized) {
+                return;
+            }
+            if (nodeCount < 1 || nodeIndex < 0 || nodeIndex >= nodeCount) {
+                throw new IllegalStateException("无效的节点配置: node-index=" + nodeIndex + ", node-count=" + nodeCount);
+            }
+
+            int sliceSize = NUMBER_SPACE / nodeCount;
+            rangeStart = nodeIndex * sliceSize;
+            rangeEnd = nodeIndex == nodeCount - 1 ? NUMBER_SPACE : rangeStart + sliceSize;
+            int rangeSize = rangeEnd - rangeStart;
+
+            used = loadUsed();
+
+            freeStack = new int[rangeSize];
+            freeTop = 0;
+            for (int offset = used.nextClearBit(0); offset < rangeSize; offset = used.nextClearBit(offset + 1)) {
+                freeStack[freeTop++] = offset;
+            }
+            shuffle(freeStack, freeTop);
+
+            initialized = true;
+            log.info("房间号分配器初始化完成: 节点={}/{}, 区间=[{}, {}), 可用={}",
+                    nodeIndex, nodeCount, format(rangeStart), format(rangeEnd - 1), freeTop);
+        }
+    }
+
+    /**
+     * 读取本节点区间内已存在的房间号
+     */
+    private BitSet loadUsed() {
+        BitSet persisted = new BitSet(rangeEnd - rangeStart);
+        List<String> existing = roomRepository.findRoomNumbersBetween(format(rangeStart), format(rangeEnd - 1));
+        for (String roomNumber : existing) {
+            int number = parse(roomNumber);
+            if (number >= rangeStart && number < rangeEnd) {
+                persisted.set(number - rangeStart);
+            }
+        }
+        return persisted;
+    }
+
+    private static void shuffle(int[] values, int length) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    private static String format(int number) {
+        return String.format("%06d", number);
+    }
+
+    private static int parse(String roomNumber) {
+        if (roomNumber == null || roomNumber.length() != 6) {
+            return -1;
+        }
+        int number = 0;
+        for (int i = 0; i < 6; i++) {
+            char c = roomNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+}
@@ -1,24 +1,30 @@
 package com.mahjong.service;
 
+import com.mahjong.config.CacheNames;
 import com.mahjong.dto.response.RoomResponse;
 import com.mahjong.entity.GameConfig;
 import com.mahjong.entity.Player;
 import com.mahjong.entity.Room;
+import com.mahjong.event.RoomLifecycleEvent;
 import com.mahjong.repository.GameConfigRepository;
 import com.mahjong.repository.PlayerRepository;
 import com.mahjong.repository.RoomRepository;
 import com.mahjong.service.dto.ApiResponse;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 /**
  * 房间管理服务
@@ -28,6 +34,7 @@ import java.util.UUID;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(value = "mahjong.service", description = "业务服务方法耗时")
 public class RoomService {
 
     private static final Logger log = LoggerFactory.getLogger(RoomService.class);
@@ -35,36 +42,31 @@ public class RoomService {
     private final RoomRepository roomRepository;
     private final PlayerRepository playerRepository;
     private final GameConfigRepository gameConfigRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RoomNumberAllocator roomNumberAllocator;
+    private final ExpiredRoomReaper expiredRoomReaper;
+    private final RoomLookupService roomLookupService;
+    private final GameConfigService gameConfigService;
+    private final SeatAllocator seatAllocator;
 
   
     /**
-     * 将Room实体转换为RoomResponse DTO
+     * 将Room实体转换为RoomResponse DTO（不含玩家列表和游戏配置）
      */
     public RoomResponse convertToRoomResponse(Room room) {
-        if (room == null) {
-            return null;
-        }
+        return RoomResponse.fromEntity(room);
+    }
 
-        
-        return RoomResponse.builder()
-                .id(room.getId())
-                .roomNumber(room.getRoomNumber())
-                .roomName(room.getRoomName())
-                .creatorId(room.getCreatorId())
-                .creatorNickname("")
-                .roomStatus(room.getRoomStatus().toString())
-                .maxPlayers(room.getMaxPlayers())
-                .currentPlayers(room.getCurrentPlayers())
-                .spectatorCount(room.getSpectatorCount())
-                .hasPassword(false)
-                .allowSpectate(room.getAllowSpectate())
-                .isPublic(true)
-                .gameConfig(null)
-                .players(null)
-                .spectators(null)
-                .createdAt(room.getCreatedAt())
-                .expiresAt(room.getExpiresAt())
-                .build();
+    /**
+     * 获取房间详情（玩家、观战者、游戏配置），一次查询加载
+     *
+     * @param roomNumber 房间号
+     * @return 房间详情，房间不存在时返回null
+     */
+    public RoomResponse getRoomDetail(String roomNumber) {
+        return roomRepository.findDetailByRoomNumber(roomNumber)
+                .map(RoomResponse::fromDetail)
+                .orElse(null);
     }
 
     /**
@@ -79,13 +81,15 @@ public class RoomService {
      * @return 创建的房间信息
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYER_PROFILES, key = "#creatorId")
     public ApiResponse<Room> createRoom(String roomName, String creatorId, String creatorName,
                                       Long configId, Integer maxPlayers, String password) {
+        String roomNumber = null;
         try {
             log.info("开始创建房间: 创建者={}, 房间名={}", creatorName, roomName);
 
-            // 验证游戏配置
-            Optional<GameConfig> configOpt = gameConfigRepository.findById(configId);
+            // 验证游戏配置（两级缓存）
+            Optional<GameConfig> configOpt = gameConfigService.getConfigById(configId);
             if (configOpt.isEmpty()) {
                 return ApiResponse.badRequest("游戏配置不存在");
             }
@@ -96,8 +100,8 @@ public class RoomService {
                 maxPlayers = config.getActualPlayerCount();
             }
 
-            // 生成唯一房间号
-            String roomNumber = generateUniqueRoomNumber();
+            // 从本节点号段分配房间号
+            roomNumber = roomNumberAllocator.allocate();
 
             // 创建房间
             Room room = Room.builder()
@@ -106,9 +110,9 @@ public class RoomService {
                     .password(password)
                     .creatorId(creatorId)
                     .maxPlayers(maxPlayers)
-                    .currentPlayers(0)
+                    .currentPlayers(1)
                     .roomStatus(Room.RoomStatus.WAITING)
-                    .gameConfig(config)
+                    .gameConfig(gameConfigRepository.getReferenceById(configId))
                     .allowSpectate(config.allowsSpectate())
                     .spectatorCount(0)
                     .expiresAt(LocalDateTime.now().plusHours(config.getRoomExpiryHours()))
@@ -130,16 +134,18 @@ public class RoomService {
                     .build();
 
             playerRepository.save(creator);
-
-            // 更新房间玩家数量
-            room.incrementPlayerCount();
-            roomRepository.save(room);
+            eventPublisher.publishEvent(RoomLifecycleEvent.of(RoomLifecycleEvent.Type.CREATED, room, creatorId));
 
             log.info("房间创建成功: 房间号={}, 房间ID={}", roomNumber, room.getId());
             return ApiResponse.success("房间创建成功", room);
 
         } catch (Exception e) {
             log.error("创建房间失败: ", e);
+            if (roomNumber != null) {
+                // 回滚已写入的房间记录后归还房间号
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                roomNumberAllocator.release(roomNumber);
+            }
             return ApiResponse.error("创建房间失败: " + e.getMessage());
         }
     }
@@ -155,12 +161,13 @@ public class RoomService {
      * @return 加入结果
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYER_PROFILES, key = "#playerId")
     public ApiResponse<Room> joinRoom(String roomNumber, String playerId, String playerName, String password, Boolean spectator) {
         try {
             log.info("玩家尝试加入房间: 玩家={}, 房间号={}", playerName, roomNumber);
 
             // 查找房间
-            Optional<Room> roomOpt = roomRepository.findByRoomNumber(roomNumber);
+            Optional<Room> roomOpt = roomLookupService.findByRoomNumber(roomNumber);
             if (roomOpt.isEmpty()) {
                 return ApiResponse.notFound("房间不存在");
             }
@@ -204,11 +211,11 @@ public class RoomService {
 
                 playerRepository.save(spectatorPlayer);
 
-                // 更新观战人数
-                room.incrementSpectatorCount();
-                roomRepository.save(room);
+                // 原子更新观战人数并读取最新房间状态
+                roomRepository.incrementSpectatorCount(room.getId());
+                room = roomRepository.findById(room.getId()).orElseThrow();
+                eventPublisher.publishEvent(RoomLifecycleEvent.of(RoomLifecycleEvent.Type.JOINED, room, playerId));
 
-  
                 log.info("观战者加入成功: 玩家={}, 房间号={}", playerName, roomNumber);
                 return ApiResponse.success("观战成功", room);
             }
@@ -218,11 +225,17 @@ public class RoomService {
                 return ApiResponse.badRequest("房间已满");
             }
 
-            // 查找可用位置
-            Integer position = findAvailablePosition(room);
+            // 在座位位图上抢座，本节点的并发加入在内存中分出不同座位
+            Integer position = seatAllocator.claim(room.getId(), room.getMaxPlayers());
             if (position == null) {
-                return ApiResponse.badRequest("没有可用位置");
+                // 数据库显示未满，位图可能因其他节点或清理任务而过时，重新加载后再试一次
+                seatAllocator.resync(room.getId());
+                position = seatAllocator.claim(room.getId(), room.getMaxPlayers());
+                if (position == null) {
+                    return ApiResponse.badRequest("没有可用位置");
+                }
             }
+            seatAllocator.releaseOnRollback(room.getId(), position);
 
             Player player = Player.builder()
                     .id(playerId)
@@ -237,11 +250,21 @@ public class RoomService {
 
             playerRepository.save(player);
 
-            // 更新房间玩家数量
-            room.incrementPlayerCount();
-            roomRepository.save(room);
+            // 原子更新玩家数量（先刷出玩家记录），0行表示其他节点已占满房间
+            try {
+                if (roomRepository.incrementPlayerCount(room.getId()) == 0) {
+                    TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                    return ApiResponse.badRequest("房间已满");
+                }
+            } catch (DataIntegrityViolationException e) {
+                // 座位已被其他节点占用
+                seatAllocator.resync(room.getId());
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                return ApiResponse.badRequest("座位已被占用，请重试");
+            }
+            room = roomRepository.findById(room.getId()).orElseThrow();
+            eventPublisher.publishEvent(RoomLifecycleEvent.of(RoomLifecycleEvent.Type.JOINED, room, playerId));
 
-  
             log.info("玩家加入成功: 玩家={}, 位置={}, 房间号={}", playerName, position, roomNumber);
             return ApiResponse.success("加入房间成功", room);
 
@@ -259,12 +282,13 @@ public class RoomService {
      * @return 离开结果
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYER_PROFILES, key = "#playerId")
     public ApiResponse<String> leaveRoom(String roomNumber, String playerId) {
         try {
             log.info("玩家离开房间: 玩家ID={}, 房间号={}", playerId, roomNumber);
 
             // 查找房间
-            Optional<Room> roomOpt = roomRepository.findByRoomNumber(roomNumber);
+            Optional<Room> roomOpt = roomLookupService.findByRoomNumber(roomNumber);
             if (roomOpt.isEmpty()) {
                 return ApiResponse.notFound("房间不存在");
             }
@@ -284,15 +308,15 @@ public class RoomService {
                 return ApiResponse.badRequest("游戏中无法离开房间");
             }
 
-            // 删除玩家记录
+            // 删除玩家记录并原子更新房间人数
             playerRepository.delete(player);
-
-            // 更新房间人数
             if (player.getSpectator()) {
-                room.decrementSpectatorCount();
+                roomRepository.decrementSpectatorCount(room.getId());
             } else {
-                room.decrementPlayerCount();
+                roomRepository.decrementPlayerCount(room.getId());
+                seatAllocator.releaseAfterCommit(room.getId(), player.getPlayerPosition());
             }
+            room = roomRepository.findById(room.getId()).orElseThrow();
 
             // 如果是创建者离开且有其他玩家，转移创建者身份
             if (player.getId().equals(room.getCreatorId()) && room.getCurrentPlayers() > 0) {
@@ -300,12 +324,12 @@ public class RoomService {
                 if (!remainingPlayers.isEmpty()) {
                     Player newCreator = remainingPlayers.get(0);
                     room.setCreatorId(newCreator.getId());
+                    roomRepository.save(room);
                 }
             }
 
-            roomRepository.save(room);
+            eventPublisher.publishEvent(RoomLifecycleEvent.of(RoomLifecycleEvent.Type.LEFT, room, playerId));
 
-    
             log.info("玩家离开成功: 玩家ID={}, 房间号={}", playerId, roomNumber);
             return ApiResponse.success("离开房间成功", "已成功离开房间");
 
@@ -319,7 +343,7 @@ public class RoomService {
      * 根据房间号获取房间
      */
     public Room getRoomByNumber(String roomNumber) {
-        Optional<Room> roomOpt = roomRepository.findByRoomNumber(roomNumber);
+        Optional<Room> roomOpt = roomLookupService.findByRoomNumber(roomNumber);
         return roomOpt.orElse(null);
     }
 
@@ -329,7 +353,7 @@ public class RoomService {
     @Transactional
     public ApiResponse<Room> setPlayerReady(String roomNumber, String playerId, Boolean ready) {
         try {
-            Optional<Room> roomOpt = roomRepository.findByRoomNumber(roomNumber);
+            Optional<Room> roomOpt = roomLookupService.findByRoomNumber(roomNumber);
             if (roomOpt.isEmpty()) {
                 return ApiResponse.notFound("房间不存在");
             }
@@ -355,24 +379,6 @@ public class RoomService {
         }
     }
 
-    /**
-     * 获取房间列表
-     */
-    public ApiResponse<List<Room>> getRoomList(String status, Boolean needFull, int page, int size) {
-        try {
-            List<Room> rooms;
-            if ("active".equals(status)) {
-                rooms = roomRepository.findActiveRooms(LocalDateTime.now());
-            } else {
-                rooms = roomRepository.findAll();
-            }
-            return ApiResponse.success("获取房间列表成功", rooms);
-        } catch (Exception e) {
-            log.error("获取房间列表失败", e);
-            return ApiResponse.error("获取房间列表失败: " + e.getMessage());
-        }
-    }
-
     /**
      * 获取用户所在房间
      */
@@ -391,12 +397,13 @@ public class RoomService {
 
     /**
      * 清理过期房间
+     *
+     * @return 清理的房间数量
      */
-    @Transactional
-    public ApiResponse<String> cleanupExpiredRooms() {
+    public ApiResponse<Integer> cleanupExpiredRooms() {
         try {
-            cleanExpiredRooms();
-            return ApiResponse.success("清理过期房间成功");
+            int cleanedCount = expiredRoomReaper.reap();
+            return ApiResponse.success("清理过期房间成功", cleanedCount);
         } catch (Exception e) {
             log.error("清理过期房间失败", e);
             return ApiResponse.error("清理过期房间失败: " + e.getMessage());
@@ -411,7 +418,7 @@ public class RoomService {
      */
     public ApiResponse<Room> getRoomInfo(String roomNumber) {
         try {
-            Optional<Room> roomOpt = roomRepository.findByRoomNumber(roomNumber);
+            Optional<Room> roomOpt = roomLookupService.findByRoomNumber(roomNumber);
             if (roomOpt.isEmpty()) {
                 return ApiResponse.notFound("房间不存在");
             }
@@ -436,6 +443,7 @@ public class RoomService {
      *
      * @return 活跃房间列表
      */
+    @Transactional(readOnly = true)
     public ApiResponse<List<Room>> getActiveRooms() {
         try {
             List<Room> rooms = roomRepository.findActiveRooms(LocalDateTime.now());
@@ -457,14 +465,12 @@ public class RoomService {
     @Transactional
     public ApiResponse<String> playerReady(String roomNumber, String playerId) {
         try {
-            Optional<Room> roomOpt = roomRepository.findByRoomNumber(roomNumber);
-            if (roomOpt.isEmpty()) {
+            Optional<Long> roomId = roomLookupService.findRoomId(roomNumber);
+            if (roomId.isEmpty()) {
                 return ApiResponse.notFound("房间不存在");
             }
 
-            Room room = roomOpt.get();
-
-            Optional<Player> playerOpt = playerRepository.findByRoomIdAndId(room.getId(), playerId);
+            Optional<Player> playerOpt = playerRepository.findByRoomIdAndId(roomId.get(), playerId);
             if (playerOpt.isEmpty()) {
                 return ApiResponse.notFound("您不在此房间中");
             }
@@ -502,14 +508,12 @@ public class RoomService {
     @Transactional
     public ApiResponse<String> playerUnready(String roomNumber, String playerId) {
         try {
-            Optional<Room> roomOpt = roomRepository.findByRoomNumber(roomNumber);
-            if (roomOpt.isEmpty()) {
+            Optional<Long> roomId = roomLookupService.findRoomId(roomNumber);
+            if (roomId.isEmpty()) {
                 return ApiResponse.notFound("房间不存在");
             }
 
-            Room room = roomOpt.get();
-
-            Optional<Player> playerOpt = playerRepository.findByRoomIdAndId(room.getId(), playerId);
+            Optional<Player> playerOpt = playerRepository.findByRoomIdAndId(roomId.get(), playerId);
             if (playerOpt.isEmpty()) {
                 return ApiResponse.notFound("您不在此房间中");
             }
@@ -545,7 +549,7 @@ public class RoomService {
      */
     public ApiResponse<Boolean> canStartGame(String roomNumber) {
         try {
-            Optional<Room> roomOpt = roomRepository.findByRoomNumber(roomNumber);
+            Optional<Room> roomOpt = roomLookupService.findByRoomNumber(roomNumber);
             if (roomOpt.isEmpty()) {
                 return ApiResponse.notFound("房间不存在");
             }
@@ -560,71 +564,4 @@ public class RoomService {
             return ApiResponse.error("检查失败: " + e.getMessage());
         }
     }
-
-    /**
-     * 清理过期房间
-     */
-    @Transactional
-    public void cleanExpiredRooms() {
-        try {
-            List<Room> expiredRooms = roomRepository.findExpiredRooms(LocalDateTime.now());
-            if (!expiredRooms.isEmpty()) {
-                for (Room room : expiredRooms) {
-                    // 删除房间相关的所有玩家
-                    playerRepository.deleteByRoomId(room.getId());
-                    // 删除房间
-                    roomRepository.delete(room);
-                }
-                log.info("清理过期房间完成，共清理{}个房间", expiredRooms.size());
-            }
-        } catch (Exception e) {
-            log.error("清理过期房间失败: ", e);
-        }
-    }
-
-    /**
-     * 生成唯一房间号
-     *
-     * @return 房间号
-     */
-    private String generateUniqueRoomNumber() {
-        String roomNumber;
-        int attempts = 0;
-        final int MAX_ATTEMPTS = 100;
-
-        do {
-            // 生成6位数字房间号
-            roomNumber = String.format("%06d", (int)(Math.random() * 1000000));
-            attempts++;
-
-            if (attempts >= MAX_ATTEMPTS) {
-                // 如果随机生成失败，使用UUID
-                roomNumber = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-                break;
-            }
-        } while (roomRepository.findByRoomNumber(roomNumber).isPresent());
-
-        return roomNumber;
-    }
-
-    /**
-     * 查找房间中的可用位置
-     *
-     * @param room 房间
-     * @return 可用位置，null表示没有可用位置
-     */
-    private Integer findAvailablePosition(Room room) {
-        List<Player> players = playerRepository.findActivePlayersByRoomId(room.getId());
-
-        for (int position = 1; position <= room.getMaxPlayers(); position++) {
-            int finalPosition = position;
-            boolean isOccupied = players.stream()
-                    .anyMatch(p -> p.getPlayerPosition().equals(finalPosition));
-            if (!isOccupied) {
-                return position;
-            }
-        }
-
-        return null;
-    }
 }
\ No newline at end of file
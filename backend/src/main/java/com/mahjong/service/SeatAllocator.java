@@ -0,0 +1,158 @@
+package com.mahjong.service;
+
+import com.mahjong.event.RoomLifecycleEvent;
+import com.mahjong.repository.PlayerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 座位分配器
+ * 每个房间一个原子整数作为座位位图，第 n 位表示位置 n+1 已占用，抢座只需一次CAS。
+ * 位图在房间首次分配座位时按数据库中的已占位置初始化；加入事务回滚时归还座位，
+ * 离开事务提交后释放座位。数据库唯一约束仍是最终保障，位图与数据库不一致时调用 {@link #resync} 重新加载。
+ * 位图在房间过期清理后移除，仍残留的位图会出现在房间内存报告中。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Service
+public class SeatAllocator implements RoomMemoryContributor {
+
+    /**
+     * 位图可表示的最大座位数
+     */
+    private static final int MAX_SEATS = Integer.SIZE - 1;
+
+    // 映射条目、房间ID和位图对象的估算大小
+    private static final long SEAT_MAP_ENTRY = RoomMemoryCollector.MAP_ENTRY + RoomMemoryCollector.BOXED
+            + RoomMemoryCollector.shallow(0, 4);
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    private final Map<Long, AtomicInteger> seatMaps = new ConcurrentHashMap<>();
+
+    /**
+     * 占用编号最小的空座位
+     *
+     * @param roomId     房间ID
+     * @param maxPlayers 房间座位数
+     * @return 座位号（从1开始），没有空位时返回null
+     */
+    public Integer claim(Long roomId, int maxPlayers) {
+        AtomicInteger seats = seatsOf(roomId);
+        int allSeats = (1 << Math.min(maxPlayers, MAX_SEATS)) - 1;
+        while (true) {
+            int occupied = seats.get();
+            int free = ~occupied & allSeats;
+            if (free == 0) {
+                return null;
+            }
+            int seat = Integer.lowestOneBit(free);
+            if (seats.compareAndSet(occupied, occupied | seat)) {
+                return Integer.numberOfTrailingZeros(seat) + 1;
+            }
+        }
+    }
+
+    /**
+     * 释放座位
+     */
+    public void release(Long roomId, int position) {
+        if (position < 1 || position > MAX_SEATS) {
+            return;
+        }
+        AtomicInteger seats = seatMaps.get(roomId);
+        if (seats != null) {
+            int seat = 1 << (position - 1);
+            seats.getAndUpdate(occupied -> occupied & ~seat);
+        }
+    }
+
+    /**
+     * 当前事务未提交时归还座位
+     */
+    public void releaseOnRollback(Long roomId, int position) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(roomId, position);
+                }
+            }
+        });
+    }
+
+    /**
+     * 当前事务提交后释放座位
+     */
+    public void releaseAfterCommit(Long roomId, int position) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(roomId, position);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(roomId, position);
+            }
+        });
+    }
+
+    /**
+     * 丢弃房间位图，下次分配时从数据库重新加载
+     */
+    public void resync(Long roomId) {
+        seatMaps.remove(roomId);
+    }
+
+    /**
+     * 各房间的座位位图，位图只按房间ID保存，汇总时按大厅索引换算为房间号
+     */
+    @Override
+    public void contribute(RoomMemoryCollector collector) {
+        seatMaps.keySet().forEach(roomId -> collector.addByRoomId(roomId, "seats", SEAT_MAP_ENTRY));
+    }
+
+    /**
+     * 房间过期清理后移除位图
+     */
+    @EventListener
+    public void onRoomLifecycle(RoomLifecycleEvent event) {
+        if (event.isRemoval() && event.getRoomId() != null) {
+            seatMaps.remove(event.getRoomId());
+        }
+    }
+
+    private AtomicInteger seatsOf(Long roomId) {
+        AtomicInteger seats = seatMaps.get(roomId);
+        if (seats != null) {
+            return seats;
+        }
+        // 在映射锁外查询数据库，并发加载时以先放入的为准
+        AtomicInteger loaded = new AtomicInteger(toBitmap(playerRepository.findActivePositionsByRoomId(roomId)));
+        AtomicInteger existing = seatMaps.putIfAbsent(roomId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private static int toBitmap(List<Integer> positions) {
+        int occupied = 0;
+        for (Integer position : positions) {
+            if (position != null && position >= 1 && position <= MAX_SEATS) {
+                occupied |= 1 << (position - 1);
+            }
+        }
+        return occupied;
+    }
+}
@@ -0,0 +1,140 @@
+package com.mahjong.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 敏感词过滤服务
+ * 词库文件每行一个词条，# 开头为注释。词库构建为 Aho-Corasick 自动机，每条消息单次扫描完成过滤；
+ * 词库文件变化时（或调用 {@link #reload()}）在后台构建新自动机后整体替换，过滤中的消息不受影响。
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Service
+public class SensitiveWordFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SensitiveWordFilter.class);
+
+    private static final String MASK = "***";
+
+    /**
+     * 词库无法读取时使用的内置词条
+     */
+    private static final List<String> DEFAULT_WORDS = List.of("政治", "色情", "暴力", "赌博", "毒品");
+
+    private final ResourceLoader resourceLoader;
+
+    @Value("${game.chat.sensitive-words-location:classpath:sensitive-words.txt}")
+    private String location;
+
+    private volatile AhoCorasickMatcher matcher = AhoCorasickMatcher.build(DEFAULT_WORDS);
+    private volatile long loadedModified = -1;
+
+    public SensitiveWordFilter(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        reload();
+    }
+
+    /**
+     * 过滤敏感词，命中部分替换为 ***
+     */
+    public String filter(String content) {
+        if (content == null || content.isEmpty()) {
+            return content;
+        }
+        return matcher.replace(content, MASK);
+    }
+
+    /**
+     * 是否包含敏感词
+     */
+    public boolean containsSensitiveWord(String content) {
+        return content != null && matcher.matches(content);
+    }
+
+    /**
+     * 当前词条数
+     */
+    public int getWordCount() {
+        return matcher.wordCount();
+    }
+
+    /**
+     * 重新加载词库
+     *
+     * @return 加载后的词条数
+     */
+    public synchronized int reload() {
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            log.warn("敏感词库不存在，使用内置词条: location={}", location);
+            return getWordCount();
+        }
+        try {
+            long modified = lastModified(resource);
+            List<String> words = readWords(resource);
+            matcher = AhoCorasickMatcher.build(words);
+            loadedModified = modified;
+            log.info("敏感词库加载完成: location={}, 词条数={}", location, matcher.wordCount());
+        } catch (IOException e) {
+            log.error("敏感词库加载失败，继续使用当前词库: location={}", location, e);
+        }
+        return getWordCount();
+    }
+
+    /**
+     * 定期检查词库文件修改时间，变化时重新加载（类路径内打包的词库不会变化）
+     */
+    @Scheduled(fixedDelayString = "${game.chat.sensitive-words-check-interval:60000}")
+    public void reloadIfModified() {
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            return;
+        }
+        long modified = lastModified(resource);
+        if (modified > 0 && modified != loadedModified) {
+            reload();
+        }
+    }
+
+    private static List<String> readWords(Resource resource) throws IOException {
+        List<String> words = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String word = line.strip();
+                if (!word.isEmpty() && !word.startsWith("#")) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
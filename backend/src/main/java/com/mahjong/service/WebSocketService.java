@@ -2,19 +2,30 @@ package com.mahjong.service;
 
 import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.Transport;
+import com.corundumstudio.socketio.handler.ClientHead;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.transport.NamespaceClient;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mahjong.dto.response.RoomResponse;
 import com.mahjong.entity.Player;
-import com.mahjong.entity.Room;
-import com.mahjong.repository.PlayerRepository;
-import com.mahjong.service.dto.ApiResponse;
+import com.mahjong.jfr.BroadcastEvent;
+import com.mahjong.service.dto.ChatHistoryMessage;
+import com.mahjong.service.dto.PlayerProfile;
+import com.mahjong.service.dto.SessionProfile;
+import com.mahjong.websocket.SyncLatencyTracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -22,10 +33,16 @@ import java.util.concurrent.ConcurrentHashMap;
  * 处理房间状态同步和实时通信
  */
 @Service
-public class WebSocketService {
+public class WebSocketService implements RoomMemoryContributor {
 
     private static final Logger log = LoggerFactory.getLogger(WebSocketService.class);
 
+    // 高频事件（消息推送、状态同步、聊天）使用独立日志器按 game.logging.sampling 采样，连接、进出房间等生命周期日志不采样
+    private static final Logger eventLog = LoggerFactory.getLogger(WebSocketService.class.getName() + ".event");
+
+    // 排队数据包（Packet对象及队列节点）的估算大小，不含消息体
+    private static final long QUEUED_PACKET = RoomMemoryCollector.shallow(8, 4) + 24;
+
     @Autowired
     private SocketIOServer socketIOServer;
 
@@ -36,10 +53,19 @@ public class WebSocketService {
     private PlayerService playerService;
 
     @Autowired
-    private PlayerRepository playerRepository;
+    private ObjectMapper objectMapper;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private ChatHistoryService chatHistoryService;
+
+    @Autowired
+    private PlayerSessionRegistry playerSessionRegistry;
+
+    @Autowired
+    private SyncLatencyTracer syncLatencyTracer;
+
+    @Value("${game.chat.history-size:50}")
+    private int chatHistorySize;
 
     // 存储用户ID到客户端连接的映射
     private final Map<Long, SocketIOClient> userClientMap = new ConcurrentHashMap<>();
@@ -51,16 +77,16 @@ public class WebSocketService {
      * 用户连接WebSocket
      */
     public void handleConnect(SocketIOClient client, Long userId) {
-        log.info("用户 {} 建立WebSocket连接", userId);
+        log.atInfo().setMessage("建立WebSocket连接").addKeyValue("userId", userId).log();
 
         // 存储客户端连接
         userClientMap.put(userId, client);
 
-        // 获取用户信息
-        Player player = playerRepository.findById(userId.toString()).orElse(null);
-        if (player != null && player.getRoom() != null) {
+        // 加载会话快照（连接期间唯一一次查库），之后由玩家变更事件刷新
+        SessionProfile profile = playerSessionRegistry.attach(userId.toString());
+        if (profile != null && profile.getRoomNumber() != null) {
             // 如果用户已在房间中，加入房间频道
-            joinRoom(client, userId, player.getRoom().getRoomNumber());
+            joinRoom(client, userId, profile.getRoomNumber());
         }
 
         // 发送连接成功消息
@@ -74,10 +100,12 @@ public class WebSocketService {
      * 用户断开WebSocket连接
      */
     public void handleDisconnect(SocketIOClient client, Long userId) {
-        log.info("用户 {} 断开WebSocket连接", userId);
+        log.atInfo().setMessage("断开WebSocket连接").addKeyValue("userId", userId).log();
 
-        // 从所有房间中移除用户
-        userClientMap.remove(userId);
+        // 从所有房间中移除用户，仅当断开的是当前连接时移除会话快照
+        if (userClientMap.remove(userId, client)) {
+            playerSessionRegistry.detach(userId.toString());
+        }
 
         // 从房间映射中移除用户
         roomClientMap.forEach((roomId, clients) -> {
@@ -97,6 +125,12 @@ public class WebSocketService {
         // 更新房间客户端映射
         roomClientMap.computeIfAbsent(roomId, k -> new ConcurrentHashMap<>()).put(userId, client);
 
+        // 从内存环形缓冲推送近期聊天，新加入和重连的玩家无需查库
+        client.sendEvent("chat_history", Map.of(
+            "roomId", roomId,
+            "messages", chatHistoryService.recent(roomId, chatHistorySize)
+        ));
+
         log.debug("用户 {} 加入房间频道 {}", userId, roomId);
     }
 
@@ -121,6 +155,22 @@ public class WebSocketService {
         log.debug("用户 {} 离开房间频道 {}", userId, roomId);
     }
 
+    /**
+     * 订阅大厅房间列表增量更新
+     */
+    public void joinLobby(SocketIOClient client) {
+        client.joinRoom(LobbyIndexService.LOBBY_CHANNEL);
+        log.debug("客户端 {} 订阅大厅更新", client.getSessionId());
+    }
+
+    /**
+     * 取消订阅大厅房间列表更新
+     */
+    public void leaveLobby(SocketIOClient client) {
+        client.leaveRoom(LobbyIndexService.LOBBY_CHANNEL);
+        log.debug("客户端 {} 取消订阅大厅更新", client.getSessionId());
+    }
+
     /**
      * 向指定用户发送消息
      */
@@ -129,7 +179,10 @@ public class WebSocketService {
         if (client != null) {
             try {
                 client.sendEvent(event, data);
-                log.debug("向用户 {} 发送消息 {}: {}", userId, event, data);
+                eventLog.atDebug().setMessage("向用户发送消息")
+                        .addKeyValue("userId", userId)
+                        .addKeyValue("event", event)
+                        .log();
             } catch (Exception e) {
                 log.error("向用户 {} 发送消息失败: {}", userId, e.getMessage(), e);
             }
@@ -140,12 +193,26 @@ public class WebSocketService {
      * 向房间内所有用户发送消息
      */
     public void sendMessageToRoom(String roomId, String event, Object data) {
+        BroadcastEvent fanOut = new BroadcastEvent();
+        fanOut.begin();
         try {
-            socketIOServer.getRoomOperations(roomId).sendEvent(event, data);
-            log.debug("向房间 {} 发送消息 {}: {}", roomId, event, data);
+            SyncLatencyTracer.Trace trace = syncLatencyTracer.begin(event);
+            if (trace != null) {
+                syncLatencyTracer.send(trace, socketIOServer.getRoomOperations(roomId).getClients(), event, data);
+            } else {
+                socketIOServer.getRoomOperations(roomId).sendEvent(event, data);
+            }
+            eventLog.atDebug().setMessage("向房间发送消息")
+                    .addKeyValue("roomId", roomId)
+                    .addKeyValue("event", event)
+                    .log();
         } catch (Exception e) {
             log.error("向房间 {} 发送消息失败: {}", roomId, e.getMessage(), e);
         }
+        fanOut.end();
+        if (fanOut.shouldCommit()) {
+            commitBroadcast(fanOut, roomId, event, socketIOServer.getRoomOperations(roomId).getClients().size());
+        }
     }
 
     /**
@@ -154,15 +221,33 @@ public class WebSocketService {
     public void sendMessageToRoomExcept(String roomId, Long excludeUserId, String event, Object data) {
         Map<Long, SocketIOClient> clients = roomClientMap.get(roomId);
         if (clients != null) {
-            clients.forEach((userId, client) -> {
-                if (!userId.equals(excludeUserId)) {
-                    try {
-                        client.sendEvent(event, data);
-                    } catch (Exception e) {
-                        log.error("向用户 {} 发送房间消息失败: {}", userId, e.getMessage(), e);
+            BroadcastEvent fanOut = new BroadcastEvent();
+            fanOut.begin();
+            SyncLatencyTracer.Trace trace = syncLatencyTracer.begin(event);
+            if (trace != null) {
+                List<SocketIOClient> recipients = new ArrayList<>(clients.size());
+                clients.forEach((userId, client) -> {
+                    if (!userId.equals(excludeUserId)) {
+                        recipients.add(client);
                     }
-                }
-            });
+                });
+                syncLatencyTracer.send(trace, recipients, event, data);
+            } else {
+                clients.forEach((userId, client) -> {
+                    if (!userId.equals(excludeUserId)) {
+                        try {
+                            client.sendEvent(event, data);
+                        } catch (Exception e) {
+                            log.error("向用户 {} 发送房间消息失败: {}", userId, e.getMessage(), e);
+                        }
+                    }
+                });
+            }
+            fanOut.end();
+            if (fanOut.shouldCommit()) {
+                int recipients = excludeUserId != null && clients.containsKey(excludeUserId) ? clients.size() - 1 : clients.size();
+                commitBroadcast(fanOut, roomId, event, recipients);
+            }
         }
     }
 
@@ -170,25 +255,36 @@ public class WebSocketService {
      * 广播消息给所有连接的客户端
      */
     public void broadcastMessage(String event, Object data) {
+        BroadcastEvent fanOut = new BroadcastEvent();
+        fanOut.begin();
         try {
             socketIOServer.getBroadcastOperations().sendEvent(event, data);
-            log.debug("广播消息 {}: {}", event, data);
+            eventLog.atDebug().setMessage("广播消息").addKeyValue("event", event).log();
         } catch (Exception e) {
             log.error("广播消息失败: {}", e.getMessage(), e);
         }
+        fanOut.end();
+        if (fanOut.shouldCommit()) {
+            commitBroadcast(fanOut, null, event, socketIOServer.getAllClients().size());
+        }
+    }
+
+    /**
+     * 提交广播JFR事件
+     */
+    private void commitBroadcast(BroadcastEvent fanOut, String roomId, String event, int recipients) {
+        fanOut.roomId = roomId;
+        fanOut.eventType = event;
+        fanOut.recipients = recipients;
+        fanOut.commit();
     }
 
     /**
      * 同步房间状态变化
      */
     public void syncRoomStateChange(String roomId, String changeType, Object data) {
-        Room room = null;
-        ApiResponse<Room> response = roomService.getRoomInfo(roomId);
-        if (response.isSuccess() && response.getData() != null) {
-            room = response.getData();
-        }
-        if (room != null) {
-            RoomResponse roomResponse = roomService.convertToRoomResponse(room);
+        RoomResponse roomResponse = roomService.getRoomDetail(roomId);
+        if (roomResponse != null) {
 
             Map<String, Object> message = Map.of(
                 "changeType", changeType,
@@ -197,7 +293,10 @@ public class WebSocketService {
             );
 
             sendMessageToRoom(roomId, "room_state_change", message);
-            log.info("同步房间 {} 状态变化: {}", roomId, changeType);
+            eventLog.atInfo().setMessage("同步房间状态变化")
+                    .addKeyValue("roomId", roomId)
+                    .addKeyValue("changeType", changeType)
+                    .log();
         }
     }
 
@@ -211,7 +310,10 @@ public class WebSocketService {
         );
 
         sendMessageToRoomExcept(roomId, Long.parseLong(player.getId()), "player_joined", data);
-        log.info("通知房间 {} 用户 {} 加入", roomId, player.getId());
+        log.atInfo().setMessage("通知用户加入")
+                .addKeyValue("roomId", roomId)
+                .addKeyValue("userId", player.getId())
+                .log();
     }
 
     /**
@@ -224,7 +326,10 @@ public class WebSocketService {
         );
 
         sendMessageToRoom(roomId, "player_left", data);
-        log.info("通知房间 {} 用户 {} 离开", roomId, playerId);
+        log.atInfo().setMessage("通知用户离开")
+                .addKeyValue("roomId", roomId)
+                .addKeyValue("userId", playerId)
+                .log();
     }
 
     /**
@@ -237,7 +342,10 @@ public class WebSocketService {
         );
 
         sendMessageToRoom(roomId, "game_status_change", data);
-        log.info("通知房间 {} 游戏状态变化: {}", roomId, gameStatus);
+        log.atInfo().setMessage("通知游戏状态变化")
+                .addKeyValue("roomId", roomId)
+                .addKeyValue("gameStatus", gameStatus)
+                .log();
     }
 
     /**
@@ -251,27 +359,42 @@ public class WebSocketService {
         );
 
         sendMessageToRoom(roomId, "player_ready_change", data);
-        log.info("通知房间 {} 用户 {} 准备状态变化: {}", roomId, playerId, isReady);
+        eventLog.atInfo().setMessage("通知准备状态变化")
+                .addKeyValue("roomId", roomId)
+                .addKeyValue("userId", playerId)
+                .addKeyValue("ready", isReady)
+                .log();
     }
 
     /**
      * 处理聊天消息
      */
     public void handleChatMessage(Long userId, String roomId, String content) {
-        Player player = playerRepository.findById(userId.toString()).orElse(null);
-        if (player != null) {
-            Map<String, Object> chatMessage = Map.of(
-                "id", UUID.randomUUID().toString(),
-                "senderId", userId,
-                "sender", player.getPlayerName(),
-                "avatarUrl", player.getPlayerAvatar(),
-                "content", content,
-                "timestamp", System.currentTimeMillis(),
-                "type", "user"
-            );
+        // 优先使用会话快照，未建立Socket连接的用户（HTTP发送）回退到资料缓存
+        SessionProfile session = playerSessionRegistry.get(userId.toString());
+        String nickname = null;
+        String avatarUrl = null;
+        if (session != null) {
+            nickname = session.getNickname();
+            avatarUrl = session.getAvatarUrl();
+        } else {
+            PlayerProfile profile = playerService.getPlayerProfile(userId.toString());
+            if (profile != null) {
+                nickname = profile.getNickname();
+                avatarUrl = profile.getAvatarUrl();
+            }
+        }
+        if (nickname != null) {
+            ChatHistoryMessage chatMessage = chatHistoryService.append(roomId, userId.toString(),
+                    nickname, avatarUrl, content, ChatHistoryService.TYPE_USER);
 
             sendMessageToRoom(roomId, "chat_message", chatMessage);
-            log.info("用户 {} 在房间 {} 发送聊天消息: {}", userId, roomId, content);
+            // 不记录消息正文，只记录长度
+            eventLog.atInfo().setMessage("房间聊天消息")
+                    .addKeyValue("roomId", roomId)
+                    .addKeyValue("userId", userId)
+                    .addKeyValue("length", content.length())
+                    .log();
         }
     }
 
@@ -279,16 +402,14 @@ public class WebSocketService {
      * 处理系统消息
      */
     public void sendSystemMessage(String roomId, String content) {
-        Map<String, Object> systemMessage = Map.of(
-            "id", UUID.randomUUID().toString(),
-            "sender", "系统",
-            "content", content,
-            "timestamp", System.currentTimeMillis(),
-            "type", "system"
-        );
+        ChatHistoryMessage systemMessage = chatHistoryService.append(roomId, ChatHistoryService.SYSTEM_SENDER_ID,
+                "系统", null, content, ChatHistoryService.TYPE_SYSTEM);
 
         sendMessageToRoom(roomId, "chat_message", systemMessage);
-        log.info("房间 {} 系统消息: {}", roomId, content);
+        log.atInfo().setMessage("房间系统消息")
+                .addKeyValue("roomId", roomId)
+                .addKeyValue("content", content)
+                .log();
     }
 
     /**
@@ -306,6 +427,60 @@ public class WebSocketService {
         return clients != null ? clients.size() : 0;
     }
 
+    /**
+     * 当前建立连接的用户数
+     */
+    public int getOnlineUserCount() {
+        return userClientMap.size();
+    }
+
+    /**
+     * 当前有在线用户的房间频道数
+     */
+    public int getActiveRoomCount() {
+        return roomClientMap.size();
+    }
+
+    /**
+     * 房间频道映射和频道内连接待发送的数据包。
+     * 同一广播的消息体被多个连接的队列共享，按对象只计一次，大小取其JSON序列化长度
+     */
+    @Override
+    public void contribute(RoomMemoryCollector collector) {
+        roomClientMap.forEach((roomId, clients) -> {
+            collector.members(roomId, clients.size());
+            collector.add(roomId, "socket.members", RoomMemoryCollector.MAP_ENTRY + RoomMemoryCollector.string(roomId)
+                    + RoomMemoryCollector.CONCURRENT_MAP
+                    + (long) clients.size() * (RoomMemoryCollector.MAP_ENTRY + RoomMemoryCollector.BOXED));
+
+            Set<Object> payloads = Collections.newSetFromMap(new IdentityHashMap<>());
+            long queued = 0;
+            for (SocketIOClient client : clients.values()) {
+                if (client instanceof NamespaceClient) {
+                    ClientHead head = ((NamespaceClient) client).getBaseClient();
+                    Transport transport = head.getCurrentTransport();
+                    if (transport != null) {
+                        for (Packet packet : head.getPacketsQueue(transport)) {
+                            queued += QUEUED_PACKET + payloadBytes(packet.getData(), payloads);
+                        }
+                    }
+                }
+            }
+            collector.add(roomId, "socket.outbound", queued);
+        });
+    }
+
+    private long payloadBytes(Object data, Set<Object> counted) {
+        if (data == null || !counted.add(data)) {
+            return 0;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(data).length;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
     /**
      * 获取房间在线用户列表
      */
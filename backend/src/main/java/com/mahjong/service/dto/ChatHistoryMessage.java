@@ -0,0 +1,64 @@
+package com.mahjong.service.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 聊天历史消息
+ * 同时用于房间内存环形缓冲和历史查询结果，id 按时间递增，可作为分页游标；
+ * id 超出 JavaScript 安全整数范围，序列化为字符串
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryMessage {
+
+    /**
+     * 消息ID
+     */
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long id;
+
+    /**
+     * 房间号
+     */
+    private String roomId;
+
+    /**
+     * 发送者ID（系统消息为 system）
+     */
+    private String senderId;
+
+    /**
+     * 发送者昵称
+     */
+    private String sender;
+
+    /**
+     * 发送者头像（仅内存中的近期消息携带）
+     */
+    private String avatarUrl;
+
+    /**
+     * 消息内容
+     */
+    private String content;
+
+    /**
+     * 消息类型：user / system
+     */
+    private String type;
+
+    /**
+     * 发送时间戳（毫秒）
+     */
+    private Long timestamp;
+}
@@ -0,0 +1,34 @@
+package com.mahjong.service.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 聊天历史分页结果
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryPage {
+
+    /**
+     * 消息列表，按时间从新到旧
+     */
+    private List<ChatHistoryMessage> messages;
+
+    /**
+     * 下一页游标（传入 before 参数），为空表示没有更早的消息
+     */
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long nextCursor;
+}
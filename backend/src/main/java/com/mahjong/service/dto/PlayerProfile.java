@@ -0,0 +1,59 @@
+package com.mahjong.service.dto;
+
+import com.mahjong.entity.Player;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 玩家资料
+ * 只包含不随在线状态变化的字段，作为 playerProfiles 缓存的值
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerProfile {
+
+    /**
+     * 玩家ID
+     */
+    private String id;
+
+    /**
+     * 昵称
+     */
+    private String nickname;
+
+    /**
+     * 头像URL
+     */
+    private String avatarUrl;
+
+    /**
+     * 总积分
+     */
+    private Integer totalScore;
+
+    /**
+     * 胜利次数
+     */
+    private Integer winsCount;
+
+    /**
+     * 从玩家实体构建
+     */
+    public static PlayerProfile fromEntity(Player player) {
+        return PlayerProfile.builder()
+                .id(player.getId())
+                .nickname(player.getPlayerName())
+                .avatarUrl(player.getPlayerAvatar())
+                .totalScore(player.getTotalScore())
+                .winsCount(player.getWinsCount())
+                .build();
+    }
+}
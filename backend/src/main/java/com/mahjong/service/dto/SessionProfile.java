@@ -0,0 +1,55 @@
+package com.mahjong.service.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 会话玩家快照
+ * 连接建立时生成，之后只整体替换不修改，可在任意线程无锁读取
+ *
+ * @author 开发团队
+ * @since 1.0.0
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class SessionProfile {
+
+    /**
+     * 玩家ID
+     */
+    private final String playerId;
+
+    /**
+     * 昵称
+     */
+    private final String nickname;
+
+    /**
+     * 头像URL
+     */
+    private final String avatarUrl;
+
+    /**
+     * 所在房间ID（不在房间时为null）
+     */
+    private final Long roomId;
+
+    /**
+     * 所在房间号（不在房间时为null）
+     */
+    private final String roomNumber;
+
+    /**
+     * 是否为观战者
+     */
+    private final boolean spectator;
+
+    /**
+     * 是否在指定房间中
+     */
+    public boolean isInRoom(String roomNumber) {
+        return this.roomNumber != null && this.roomNumber.equals(roomNumber);
+    }
+}
@@ -0,0 +1,193 @@
+package com.mahjong.websocket;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.mahjong.config.RateLimitProperties;
+import com.mahjong.service.PlayerSessionRegistry;
+import com.mahjong.service.RoomMemoryCollector;
+import com.mahjong.service.RoomMemoryContributor;
+import com.mahjong.service.dto.SessionProfile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Socket事件限流器
+ * 每个连接、每个房间按事件类型各有一个令牌桶，在事件进入业务服务前判定是否放行。
+ * 房间桶只对连接所属玩家当前所在的房间计数（以会话快照为准），客户端填写任意房间号不会占用他人房间的配额；
+ * 连接桶已扣减而房间桶拒绝时退回连接桶的令牌，被拒绝的事件不重复计数。
+ * 令牌桶以 GCRA 实现：桶状态只有一个“理论到达时间”，放行判定是一次CAS，无锁。
+ * 空闲的桶（理论到达时间已过，等价于满桶）定期清除，断开连接时清除该连接的桶。
+ */
+@Component
+public class SocketRateLimiter implements RoomMemoryContributor {
+
+    /**
+     * 限流维度
+     */
+    public enum Scope {
+        CONNECTION, ROOM
+    }
+
+    // 令牌桶及其 AtomicLong 的估算大小
+    private static final long BUCKET = RoomMemoryCollector.shallow(1, 16) + RoomMemoryCollector.shallow(0, 8);
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlayerSessionRegistry playerSessionRegistry;
+
+    private final Map<UUID, Map<String, Bucket>> connectionBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Bucket>> roomBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> throttledCounters = new ConcurrentHashMap<>();
+
+    /**
+     * 判定事件是否放行
+     *
+     * @param client 客户端连接
+     * @param event  事件名
+     * @param roomId 房间号，为空或不是该连接玩家所在房间时只检查连接限额
+     * @return 被限流时返回需要等待的毫秒数，放行返回0
+     */
+    public long tryAcquire(SocketIOClient client, String event, String roomId) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        RateLimitProperties.EventLimit limit = properties.getEvents().get(event);
+        if (limit == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+
+        Bucket connectionBucket = null;
+        if (limit.getConnection() != null) {
+            connectionBucket = connectionBuckets
+                    .computeIfAbsent(client.getSessionId(), id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(event, e -> new Bucket(limit.getConnection(), now));
+            long waitNanos = connectionBucket.tryAcquire(now);
+            if (waitNanos > 0) {
+                return throttled(event, Scope.CONNECTION, waitNanos);
+            }
+        }
+        if (limit.getRoom() != null && roomId != null && isInRoom(client, roomId)) {
+            Bucket roomBucket = roomBuckets
+                    .computeIfAbsent(roomId, id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(event, e -> new Bucket(limit.getRoom(), now));
+            long waitNanos = roomBucket.tryAcquire(now);
+            if (waitNanos > 0) {
+                if (connectionBucket != null) {
+                    connectionBucket.refund();
+                }
+                return throttled(event, Scope.ROOM, waitNanos);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 连接所属玩家是否在该房间（玩家或观战者）
+     */
+    private boolean isInRoom(SocketIOClient client, String roomId) {
+        String playerId = client.getHandshakeData().getSingleUrlParam("userId");
+        SessionProfile profile = playerId != null ? playerSessionRegistry.get(playerId) : null;
+        return profile != null && roomId.equals(profile.getRoomNumber());
+    }
+
+    /**
+     * 连接断开时移除其令牌桶
+     */
+    public void removeConnection(SocketIOClient client) {
+        connectionBuckets.remove(client.getSessionId());
+    }
+
+    /**
+     * 清除空闲的令牌桶
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        evictIdle(connectionBuckets, now);
+        evictIdle(roomBuckets, now);
+    }
+
+    private static <K> void evictIdle(Map<K, Map<String, Bucket>> buckets, long now) {
+        buckets.values().forEach(byEvent -> byEvent.values().removeIf(bucket -> bucket.isIdle(now)));
+        buckets.values().removeIf(Map::isEmpty);
+    }
+
+    /**
+     * 房间级令牌桶
+     */
+    @Override
+    public void contribute(RoomMemoryCollector collector) {
+        roomBuckets.forEach((roomId, byEvent) -> collector.add(roomId, "ratelimit.buckets",
+                RoomMemoryCollector.MAP_ENTRY + RoomMemoryCollector.string(roomId) + RoomMemoryCollector.CONCURRENT_MAP
+                        + (long) byEvent.size() * (RoomMemoryCollector.MAP_ENTRY + BUCKET)));
+    }
+
+    private long throttled(String event, Scope scope, long waitNanos) {
+        throttledCounters.computeIfAbsent(event + ':' + scope, k -> Counter.builder("mahjong.socket.throttled")
+                .tag("event", event)
+                .tag("scope", scope.name().toLowerCase())
+                .description("被限流拒绝的Socket事件数")
+                .register(meterRegistry)).increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+    }
+
+    /**
+     * GCRA令牌桶
+     */
+    private static final class Bucket {
+        // 每个令牌的补充间隔
+        private final long emissionNanos;
+        // 允许提前的最大时长，(容量-1)个间隔
+        private final long toleranceNanos;
+        // 理论到达时间
+        private final AtomicLong tat;
+
+        private Bucket(RateLimitProperties.Limit limit, long now) {
+            this.emissionNanos = (long) (TimeUnit.SECONDS.toNanos(1) / Math.max(limit.getRate(), 0.001));
+            this.toleranceNanos = emissionNanos * (Math.max(limit.getBurst(), 1) - 1);
+            this.tat = new AtomicLong(now);
+        }
+
+        /**
+         * @return 放行返回0，否则返回还需等待的纳秒数
+         */
+        long tryAcquire(long now) {
+            while (true) {
+                long current = tat.get();
+                long base = Math.max(current, now);
+                long earliest = base - toleranceNanos;
+                if (now < earliest) {
+                    return earliest - now;
+                }
+                if (tat.compareAndSet(current, base + emissionNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * 退回一次放行扣减的令牌
+         */
+        void refund() {
+            tat.addAndGet(-emissionNanos);
+        }
+
+        boolean isIdle(long now) {
+            return tat.get() <= now;
+        }
+    }
+}
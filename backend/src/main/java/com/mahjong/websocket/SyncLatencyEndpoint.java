@@ -0,0 +1,31 @@
+package com.mahjong.websocket;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 同步延迟端点
+ * GET /actuator/synclatency 查看当前节点各事件类型的阶段延迟，DELETE 清空重新统计
+ */
+@Component
+@Endpoint(id = "synclatency")
+public class SyncLatencyEndpoint {
+
+    @Autowired
+    private SyncLatencyTracer syncLatencyTracer;
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        return syncLatencyTracer.report();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        syncLatencyTracer.reset();
+    }
+}
@@ -0,0 +1,270 @@
+package com.mahjong.websocket;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.corundumstudio.socketio.transport.NamespaceClient;
+import io.netty.channel.ChannelFuture;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 同步延迟追踪器
+ * 事件进入服务端时（Socket事件处理、REST请求）在当前线程记下接收时间；之后由该事件触发的房间广播按比例抽样，
+ * 抽中的广播逐个连接发送，并在事件参数后附带 {traceId, serverTs}。
+ * 以接收时间为起点，按 事件类型 × 阶段 记录累计耗时：
+ * processed 业务处理完成开始广播、broadcast 数据包全部入队、written 写入Socket、
+ * acked 收到客户端 trace_ack、delivered 客户端回执中报告的接收时间（依赖客户端时钟同步，仅作参考）。
+ */
+@Component
+public class SyncLatencyTracer {
+
+    /**
+     * 客户端回执事件名，参数 {traceId, receivedAt(毫秒时间戳)}
+     */
+    public static final String ACK_EVENT = "trace_ack";
+
+    /**
+     * 追踪阶段
+     */
+    public enum Stage {
+        PROCESSED, BROADCAST, WRITTEN, ACKED, DELIVERED
+    }
+
+    // 直方图上限60秒（微秒），2位有效数字
+    private static final long HIGHEST_MICROS = TimeUnit.SECONDS.toMicros(60);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    @Value("${game.trace.enabled:true}")
+    private boolean enabled;
+
+    @Value("${game.trace.sample-rate:0.1}")
+    private double sampleRate;
+
+    @Value("${game.trace.ack-timeout:30000}")
+    private long ackTimeoutMillis;
+
+    @Value("${game.cluster.node-index:0}")
+    private int nodeIndex;
+
+    private final ThreadLocal<Ingress> ingress = new ThreadLocal<>();
+    private final Map<String, Trace> pending = new ConcurrentHashMap<>();
+    private final Map<String, EventHistograms> histograms = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile long since = System.currentTimeMillis();
+
+    /**
+     * 标记当前线程处理的事件进入服务端，须与 {@link #clear()} 成对调用
+     */
+    public void receive() {
+        if (enabled) {
+            ingress.set(new Ingress(System.nanoTime(), System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * 清除当前线程的接收时间
+     */
+    public void clear() {
+        ingress.remove();
+    }
+
+    /**
+     * 为即将发出的广播开始一次追踪
+     *
+     * @param event 广播事件名
+     * @return 追踪，未抽中或当前线程不在事件处理中时返回null
+     */
+    public Trace begin(String event) {
+        Ingress in = ingress.get();
+        if (in == null || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return null;
+        }
+        Trace trace = new Trace(nodeIndex + "-" + sequence.incrementAndGet(), event, in);
+        record(trace, Stage.PROCESSED, System.nanoTime() - in.nanos);
+        return trace;
+    }
+
+    /**
+     * 逐个连接发送追踪中的广播，记录入队和写出时间
+     */
+    public void send(Trace trace, Collection<SocketIOClient> clients, String event, Object data) {
+        Map<String, Object> meta = Map.of("traceId", trace.id, "serverTs", trace.ingress.millis);
+        Packet packet = new Packet(PacketType.MESSAGE);
+        packet.setSubType(PacketType.EVENT);
+        packet.setName(event);
+        packet.setData(Arrays.asList(data, meta));
+
+        pending.put(trace.id, trace);
+        for (SocketIOClient client : clients) {
+            if (!client.isChannelOpen()) {
+                continue;
+            }
+            if (client instanceof NamespaceClient) {
+                NamespaceClient namespaceClient = (NamespaceClient) client;
+                ChannelFuture future = namespaceClient.getBaseClient()
+                        .send(packet.withNsp(namespaceClient.getNamespace().getName()));
+                if (future != null) {
+                    future.addListener(done -> {
+                        if (done.isSuccess()) {
+                            record(trace, Stage.WRITTEN, System.nanoTime() - trace.ingress.nanos);
+                        }
+                    });
+                }
+            } else {
+                client.sendEvent(event, data, meta);
+            }
+        }
+        record(trace, Stage.BROADCAST, System.nanoTime() - trace.ingress.nanos);
+    }
+
+    /**
+     * 处理客户端回执
+     *
+     * @param traceId    追踪ID
+     * @param receivedAt 客户端收到广播时的毫秒时间戳，可为空
+     */
+    public void acknowledge(String traceId, Long receivedAt) {
+        Trace trace = traceId != null ? pending.get(traceId) : null;
+        if (trace == null) {
+            return;
+        }
+        record(trace, Stage.ACKED, System.nanoTime() - trace.ingress.nanos);
+        if (receivedAt != null && receivedAt >= trace.ingress.millis) {
+            record(trace, Stage.DELIVERED, TimeUnit.MILLISECONDS.toNanos(receivedAt - trace.ingress.millis));
+        }
+    }
+
+    /**
+     * 清除超过回执等待时间的追踪
+     */
+    @Scheduled(fixedDelayString = "${game.trace.ack-timeout:30000}")
+    public void evictExpired() {
+        long deadline = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(ackTimeoutMillis);
+        pending.values().removeIf(trace -> trace.ingress.nanos - deadline < 0);
+    }
+
+    /**
+     * 汇总当前节点自启动或上次重置以来的各阶段延迟（毫秒）
+     * 每个阶段附带压缩编码的直方图，多节点结果可解码后合并
+     */
+    public synchronized Map<String, Object> report() {
+        Map<String, Object> events = new TreeMap<>();
+        histograms.forEach((event, byStage) -> {
+            Map<String, Object> stages = new LinkedHashMap<>();
+            for (Stage stage : Stage.values()) {
+                Histogram total = byStage.drain(stage);
+                if (total.getTotalCount() > 0) {
+                    stages.put(stage.name().toLowerCase(), summarize(total));
+                }
+            }
+            events.put(event, stages);
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("node", nodeIndex);
+        result.put("since", since);
+        result.put("enabled", enabled);
+        result.put("sampleRate", sampleRate);
+        result.put("pendingTraces", pending.size());
+        result.put("events", events);
+        return result;
+    }
+
+    /**
+     * 清空已记录的数据
+     */
+    public synchronized void reset() {
+        histograms.clear();
+        since = System.currentTimeMillis();
+    }
+
+    private void record(Trace trace, Stage stage, long nanos) {
+        long micros = Math.max(0, Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_MICROS));
+        histograms.computeIfAbsent(trace.event, k -> new EventHistograms()).recorders.get(stage).recordValue(micros);
+    }
+
+    private static Map<String, Object> summarize(Histogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("p50", millis(histogram.getValueAtPercentile(50)));
+        summary.put("p90", millis(histogram.getValueAtPercentile(90)));
+        summary.put("p99", millis(histogram.getValueAtPercentile(99)));
+        summary.put("p99.9", millis(histogram.getValueAtPercentile(99.9)));
+        summary.put("max", millis(histogram.getMaxValue()));
+
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        summary.put("hdr", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+
+    /**
+     * 事件进入服务端的时间
+     */
+    private static final class Ingress {
+        final long nanos;
+        final long millis;
+
+        Ingress(long nanos, long millis) {
+            this.nanos = nanos;
+            this.millis = millis;
+        }
+    }
+
+    /**
+     * 一次被追踪的广播
+     */
+    public static final class Trace {
+        private final String id;
+        private final String event;
+        private final Ingress ingress;
+
+        private Trace(String id, String event, Ingress ingress) {
+            this.id = id;
+            this.event = event;
+            this.ingress = ingress;
+        }
+    }
+
+    /**
+     * 单个事件类型各阶段的直方图：Recorder 供并发写入，读取时并入累计直方图
+     */
+    private static final class EventHistograms {
+        final Map<Stage, Recorder> recorders = new EnumMap<>(Stage.class);
+        final Map<Stage, Histogram> totals = new EnumMap<>(Stage.class);
+
+        EventHistograms() {
+            for (Stage stage : Stage.values()) {
+                recorders.put(stage, new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS));
+                totals.put(stage, new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS));
+            }
+        }
+
+        Histogram drain(Stage stage) {
+            Histogram total = totals.get(stage);
+            total.add(recorders.get(stage).getIntervalHistogram());
+            return total;
+        }
+    }
+}
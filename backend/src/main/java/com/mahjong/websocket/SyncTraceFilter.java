@@ -0,0 +1,37 @@
+package com.mahjong.websocket;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 在REST请求进入时记录接收时间，请求处理中触发的房间广播以此为同步延迟起点
+ */
+@Component
+public class SyncTraceFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private SyncLatencyTracer syncLatencyTracer;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        syncLatencyTracer.receive();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            syncLatencyTracer.clear();
+        }
+    }
+}
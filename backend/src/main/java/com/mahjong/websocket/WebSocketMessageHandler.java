@@ -6,13 +6,23 @@ import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.annotation.OnConnect;
 import com.corundumstudio.socketio.annotation.OnDisconnect;
 import com.corundumstudio.socketio.annotation.OnEvent;
+import com.mahjong.config.StatementBudgetMonitor;
+import com.mahjong.entity.Room;
+import com.mahjong.jfr.RoomActionEvent;
+import com.mahjong.service.LobbyIndexService;
+import com.mahjong.service.PlayerSessionRegistry;
+import com.mahjong.service.SensitiveWordFilter;
 import com.mahjong.service.WebSocketService;
+import com.mahjong.service.dto.SessionProfile;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * WebSocket消息处理器
@@ -23,32 +33,69 @@ public class WebSocketMessageHandler {
 
     private static final Logger log = LoggerFactory.getLogger(WebSocketMessageHandler.class);
 
+    // 限流日志器，按 game.logging.sampling 采样；连接、断开日志不采样
+    private static final Logger eventLog = LoggerFactory.getLogger(WebSocketMessageHandler.class.getName() + ".event");
+
+    // 事件处理结果标签
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_THROTTLED = "throttled";
+    private static final String OUTCOME_ERROR = "error";
+
     @Autowired
     private SocketIOServer socketIOServer;
 
     @Autowired
     private WebSocketService webSocketService;
 
+    @Autowired
+    private LobbyIndexService lobbyIndexService;
+
+    @Autowired
+    private SensitiveWordFilter sensitiveWordFilter;
+
+    @Autowired
+    private PlayerSessionRegistry playerSessionRegistry;
+
+    @Autowired
+    private SocketRateLimiter socketRateLimiter;
+
+    @Autowired
+    private SyncLatencyTracer syncLatencyTracer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StatementBudgetMonitor statementBudgetMonitor;
+
+    private final Map<String, Timer> eventTimers = new ConcurrentHashMap<>();
+
     /**
      * 客户端连接事件
      */
     @OnConnect
     public void onConnect(SocketIOClient client) {
-        log.info("客户端连接: {}", client.getSessionId());
-
-        // 从连接参数中获取用户ID
-        String userIdStr = client.getHandshakeData().getSingleUrlParam("userId");
-        if (userIdStr != null) {
-            try {
-                Long userId = Long.parseLong(userIdStr);
-                webSocketService.handleConnect(client, userId);
-            } catch (NumberFormatException e) {
-                log.error("无效的用户ID: {}", userIdStr);
+        log.atInfo().setMessage("客户端连接").addKeyValue("sessionId", client.getSessionId()).log();
+        Timer.Sample sample = start();
+        String outcome = OUTCOME_ERROR;
+        try {
+            // 从连接参数中获取用户ID
+            String userIdStr = client.getHandshakeData().getSingleUrlParam("userId");
+            if (userIdStr != null) {
+                try {
+                    Long userId = Long.parseLong(userIdStr);
+                    webSocketService.handleConnect(client, userId);
+                } catch (NumberFormatException e) {
+                    log.error("无效的用户ID: {}", userIdStr);
+                    client.disconnect();
+                }
+            } else {
+                log.warn("客户端连接缺少用户ID参数");
                 client.disconnect();
             }
-        } else {
-            log.warn("客户端连接缺少用户ID参数");
-            client.disconnect();
+            outcome = OUTCOME_SUCCESS;
+        } finally {
+            record(sample, "connect", outcome);
         }
     }
 
@@ -57,17 +104,25 @@ public class WebSocketMessageHandler {
      */
     @OnDisconnect
     public void onDisconnect(SocketIOClient client) {
-        log.info("客户端断开连接: {}", client.getSessionId());
+        log.atInfo().setMessage("客户端断开连接").addKeyValue("sessionId", client.getSessionId()).log();
+        Timer.Sample sample = start();
+        String outcome = OUTCOME_ERROR;
+        try {
+            socketRateLimiter.removeConnection(client);
 
-        // 从连接参数中获取用户ID
-        String userIdStr = client.getHandshakeData().getSingleUrlParam("userId");
-        if (userIdStr != null) {
-            try {
-                Long userId = Long.parseLong(userIdStr);
-                webSocketService.handleDisconnect(client, userId);
-            } catch (NumberFormatException e) {
-                log.error("无效的用户ID: {}", userIdStr);
+            // 从连接参数中获取用户ID
+            String userIdStr = client.getHandshakeData().getSingleUrlParam("userId");
+            if (userIdStr != null) {
+                try {
+                    Long userId = Long.parseLong(userIdStr);
+                    webSocketService.handleDisconnect(client, userId);
+                } catch (NumberFormatException e) {
+                    log.error("无效的用户ID: {}", userIdStr);
+                }
             }
+            outcome = OUTCOME_SUCCESS;
+        } finally {
+            record(sample, "disconnect", outcome);
         }
     }
 
@@ -76,12 +131,21 @@ public class WebSocketMessageHandler {
      */
     @OnEvent(value = "join_room")
     public void onJoinRoom(SocketIOClient client, AckRequest ackRequest, Object data) {
+        Timer.Sample sample = start();
+        String outcome = OUTCOME_SUCCESS;
+        RoomActionEvent action = new RoomActionEvent();
+        action.begin();
         try {
             @SuppressWarnings("unchecked")
             Map<String, Object> params = (Map<String, Object>) data;
 
             String userIdStr = client.getHandshakeData().getSingleUrlParam("userId");
             String roomId = (String) params.get("roomId");
+            action.roomId = roomId;
+            if (throttled(client, ackRequest, "join_room", roomId)) {
+                outcome = OUTCOME_THROTTLED;
+                return;
+            }
 
             if (userIdStr != null && roomId != null) {
                 Long userId = Long.parseLong(userIdStr);
@@ -98,8 +162,12 @@ public class WebSocketMessageHandler {
                 sendErrorAck(ackRequest, "参数不完整");
             }
         } catch (Exception e) {
+            outcome = OUTCOME_ERROR;
             log.error("处理加入房间事件失败", e);
             sendErrorAck(ackRequest, "服务器内部错误");
+        } finally {
+            record(sample, "join_room", outcome);
+            commit(action, client, "join_room", outcome);
         }
     }
 
@@ -108,12 +176,17 @@ public class WebSocketMessageHandler {
      */
     @OnEvent(value = "leave_room")
     public void onLeaveRoom(SocketIOClient client, AckRequest ackRequest, Object data) {
+        Timer.Sample sample = start();
+        String outcome = OUTCOME_SUCCESS;
+        RoomActionEvent action = new RoomActionEvent();
+        action.begin();
         try {
             @SuppressWarnings("unchecked")
             Map<String, Object> params = (Map<String, Object>) data;
 
             String userIdStr = client.getHandshakeData().getSingleUrlParam("userId");
             String roomId = (String) params.get("roomId");
+            action.roomId = roomId;
 
             if (userIdStr != null && roomId != null) {
                 Long userId = Long.parseLong(userIdStr);
@@ -130,8 +203,12 @@ public class WebSocketMessageHandler {
                 sendErrorAck(ackRequest, "参数不完整");
             }
         } catch (Exception e) {
+            outcome = OUTCOME_ERROR;
             log.error("处理离开房间事件失败", e);
             sendErrorAck(ackRequest, "服务器内部错误");
+        } finally {
+            record(sample, "leave_room", outcome);
+            commit(action, client, "leave_room", outcome);
         }
     }
 
@@ -140,13 +217,23 @@ public class WebSocketMessageHandler {
      */
     @OnEvent(value = "chat_message")
     public void onChatMessage(SocketIOClient client, AckRequest ackRequest, Object data) {
+        Timer.Sample sample = start();
+        String outcome = OUTCOME_SUCCESS;
+        RoomActionEvent action = new RoomActionEvent();
+        action.begin();
+        syncLatencyTracer.receive();
         try {
             @SuppressWarnings("unchecked")
             Map<String, Object> messageData = (Map<String, Object>) data;
 
             String userIdStr = client.getHandshakeData().getSingleUrlParam("userId");
             String roomId = (String) messageData.get("roomId");
+            action.roomId = roomId;
             String content = (String) messageData.get("content");
+            if (throttled(client, ackRequest, "chat_message", roomId)) {
+                outcome = OUTCOME_THROTTLED;
+                return;
+            }
 
             if (userIdStr != null && roomId != null && content != null) {
                 Long userId = Long.parseLong(userIdStr);
@@ -157,7 +244,14 @@ public class WebSocketMessageHandler {
                     return;
                 }
 
-                webSocketService.handleChatMessage(userId, roomId, content);
+                // 只允许向会话快照中所在的房间发送，聊天会写入房间历史并广播给房间内所有人
+                SessionProfile session = playerSessionRegistry.get(userIdStr);
+                if (session == null || !session.isInRoom(roomId)) {
+                    sendErrorAck(ackRequest, "您不在此房间中");
+                    return;
+                }
+
+                webSocketService.handleChatMessage(userId, roomId, sensitiveWordFilter.filter(content));
 
                 if (ackRequest.isAckRequested()) {
                     ackRequest.sendAckData(Map.of(
@@ -171,8 +265,13 @@ public class WebSocketMessageHandler {
                 sendErrorAck(ackRequest, "参数不完整");
             }
         } catch (Exception e) {
+            outcome = OUTCOME_ERROR;
             log.error("处理聊天消息事件失败", e);
             sendErrorAck(ackRequest, "服务器内部错误");
+        } finally {
+            syncLatencyTracer.clear();
+            record(sample, "chat_message", outcome);
+            commit(action, client, "chat_message", outcome);
         }
     }
 
@@ -181,14 +280,23 @@ public class WebSocketMessageHandler {
      */
     @OnEvent(value = "ping")
     public void onPing(SocketIOClient client, AckRequest ackRequest) {
+        Timer.Sample sample = start();
+        String outcome = OUTCOME_SUCCESS;
         try {
+            if (throttled(client, ackRequest, "ping", null)) {
+                outcome = OUTCOME_THROTTLED;
+                return;
+            }
             if (ackRequest.isAckRequested()) {
                 ackRequest.sendAckData(Map.of(
                     "pong", System.currentTimeMillis()
                 ));
             }
         } catch (Exception e) {
+            outcome = OUTCOME_ERROR;
             log.error("处理心跳事件失败", e);
+        } finally {
+            record(sample, "ping", outcome);
         }
     }
 
@@ -197,11 +305,20 @@ public class WebSocketMessageHandler {
      */
     @OnEvent(value = "get_room_status")
     public void onGetRoomStatus(SocketIOClient client, AckRequest ackRequest, Object data) {
+        Timer.Sample sample = start();
+        String outcome = OUTCOME_SUCCESS;
+        RoomActionEvent action = new RoomActionEvent();
+        action.begin();
         try {
             @SuppressWarnings("unchecked")
             Map<String, Object> params = (Map<String, Object>) data;
 
             String roomId = (String) params.get("roomId");
+            action.roomId = roomId;
+            if (throttled(client, ackRequest, "get_room_status", roomId)) {
+                outcome = OUTCOME_THROTTLED;
+                return;
+            }
 
             if (roomId != null) {
                 int onlineCount = webSocketService.getRoomOnlineCount(roomId);
@@ -224,8 +341,167 @@ public class WebSocketMessageHandler {
                 sendErrorAck(ackRequest, "房间ID不能为空");
             }
         } catch (Exception e) {
+            outcome = OUTCOME_ERROR;
             log.error("处理获取房间状态事件失败", e);
             sendErrorAck(ackRequest, "服务器内部错误");
+        } finally {
+            record(sample, "get_room_status", outcome);
+            commit(action, client, "get_room_status", outcome);
+        }
+    }
+
+    /**
+     * 订阅大厅事件
+     * 回执中返回当前房间列表快照和版本号，之后通过lobby_update推送增量
+     */
+    @OnEvent(value = "subscribe_lobby")
+    public void onSubscribeLobby(SocketIOClient client, AckRequest ackRequest, Object data) {
+        Timer.Sample sample = start();
+        String outcome = OUTCOME_SUCCESS;
+        try {
+            if (throttled(client, ackRequest, "subscribe_lobby", null)) {
+                outcome = OUTCOME_THROTTLED;
+                return;
+            }
+            Room.RoomStatus status = Room.RoomStatus.WAITING;
+            int size = 20;
+            if (data instanceof Map) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> params = (Map<String, Object>) data;
+                Object statusParam = params.get("status");
+                if (statusParam instanceof String && !((String) statusParam).isBlank()) {
+                    status = "all".equalsIgnoreCase((String) statusParam)
+                            ? null
+                            : Room.RoomStatus.valueOf(((String) statusParam).toUpperCase());
+                }
+                Object sizeParam = params.get("size");
+                if (sizeParam instanceof Number) {
+                    size = Math.min(((Number) sizeParam).intValue(), 100);
+                }
+            }
+
+            // 先加入频道再取快照，保证快照之后的变更都能收到
+            webSocketService.joinLobby(client);
+            LobbyIndexService.LobbyPage snapshot = lobbyIndexService.query(status, null, null, 1, size);
+
+            if (ackRequest.isAckRequested()) {
+                ackRequest.sendAckData(Map.of(
+                    "success", true,
+                    "data", snapshot
+                ));
+            }
+        } catch (IllegalArgumentException e) {
+            sendErrorAck(ackRequest, "无效的房间状态");
+        } catch (Exception e) {
+            outcome = OUTCOME_ERROR;
+            log.error("处理订阅大厅事件失败", e);
+            sendErrorAck(ackRequest, "服务器内部错误");
+        } finally {
+            record(sample, "subscribe_lobby", outcome);
+        }
+    }
+
+    /**
+     * 取消订阅大厅事件
+     */
+    @OnEvent(value = "unsubscribe_lobby")
+    public void onUnsubscribeLobby(SocketIOClient client, AckRequest ackRequest) {
+        Timer.Sample sample = start();
+        String outcome = OUTCOME_SUCCESS;
+        try {
+            webSocketService.leaveLobby(client);
+            if (ackRequest.isAckRequested()) {
+                ackRequest.sendAckData(Map.of("success", true));
+            }
+        } catch (Exception e) {
+            outcome = OUTCOME_ERROR;
+            log.error("处理取消订阅大厅事件失败", e);
+            sendErrorAck(ackRequest, "服务器内部错误");
+        } finally {
+            record(sample, "unsubscribe_lobby", outcome);
+        }
+    }
+
+    /**
+     * 同步延迟追踪回执事件
+     * 客户端收到带追踪信息的广播后可选发送，参数 {traceId, receivedAt}
+     */
+    @OnEvent(value = SyncLatencyTracer.ACK_EVENT)
+    public void onTraceAck(SocketIOClient client, Object data) {
+        Timer.Sample sample = start();
+        String outcome = OUTCOME_SUCCESS;
+        try {
+            if (data instanceof Map) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> params = (Map<String, Object>) data;
+                Object traceId = params.get("traceId");
+                Object receivedAt = params.get("receivedAt");
+                syncLatencyTracer.acknowledge(traceId instanceof String ? (String) traceId : null,
+                        receivedAt instanceof Number ? ((Number) receivedAt).longValue() : null);
+            }
+        } catch (Exception e) {
+            outcome = OUTCOME_ERROR;
+            log.error("处理追踪回执事件失败", e);
+        } finally {
+            record(sample, SyncLatencyTracer.ACK_EVENT, outcome);
+        }
+    }
+
+    /**
+     * 事件限流检查，被限流时回执错误和建议等待的毫秒数
+     *
+     * @return 是否被限流
+     */
+    private boolean throttled(SocketIOClient client, AckRequest ackRequest, String event, String roomId) {
+        long retryAfter = socketRateLimiter.tryAcquire(client, event, roomId);
+        if (retryAfter == 0) {
+            return false;
+        }
+        eventLog.atDebug().setMessage("Socket事件被限流")
+                .addKeyValue("event", event)
+                .addKeyValue("sessionId", client.getSessionId())
+                .addKeyValue("roomId", roomId)
+                .log();
+        if (ackRequest.isAckRequested()) {
+            ackRequest.sendAckData(Map.of(
+                "success", false,
+                "message", "操作过于频繁，请稍后再试",
+                "retryAfter", retryAfter
+            ));
+        }
+        return true;
+    }
+
+    /**
+     * 开始处理事件：计时并开启数据库语句统计，须在 finally 中调用 {@link #record}
+     */
+    private Timer.Sample start() {
+        statementBudgetMonitor.begin();
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * 记录事件处理耗时（标签只有事件名和处理结果）和数据库语句统计
+     */
+    private void record(Timer.Sample sample, String event, String outcome) {
+        statementBudgetMonitor.end(StatementBudgetMonitor.SCOPE_SOCKET, event);
+        sample.stop(eventTimers.computeIfAbsent(event + ':' + outcome, k -> Timer.builder("mahjong.socket.events")
+                .tag("event", event)
+                .tag("outcome", outcome)
+                .description("Socket事件处理耗时")
+                .register(meterRegistry)));
+    }
+
+    /**
+     * 提交房间操作JFR事件，未在录制或低于阈值时直接丢弃
+     */
+    private void commit(RoomActionEvent action, SocketIOClient client, String event, String outcome) {
+        action.end();
+        if (action.shouldCommit()) {
+            action.action = event;
+            action.playerId = client.getHandshakeData().getSingleUrlParam("userId");
+            action.outcome = outcome;
+            action.commit();
         }
     }
 
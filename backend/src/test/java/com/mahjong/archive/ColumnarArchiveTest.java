@@ -0,0 +1,202 @@
+package com.mahjong.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarArchiveTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 7, 1, 0, 0);
+
+    private static final List<String> COLUMNS =
+            List.of("id", "room_id", "seq", "is_system", "message_type", "content", "created_at", "score");
+
+    private static final List<ArchiveColumnType> TYPES = List.of(
+            ArchiveColumnType.LONG, ArchiveColumnType.LONG, ArchiveColumnType.INT, ArchiveColumnType.BOOLEAN,
+            ArchiveColumnType.STRING, ArchiveColumnType.STRING, ArchiveColumnType.TIMESTAMP,
+            ArchiveColumnType.DOUBLE);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsEveryColumnTypeAcrossRowGroups() throws IOException {
+        Path file = dir.resolve("chat_messages/chat_messages-p202607.mja.gz");
+        ArchiveHeader header = header(BASE, BASE.plusMonths(1));
+        List<Object[]> rows = sampleRows(1000);
+
+        write(file, header, rows, 64);
+
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            ArchiveHeader read = reader.getHeader();
+            assertThat(read.getTable()).isEqualTo("chat_messages");
+            assertThat(read.getRangeFrom()).isEqualTo(BASE);
+            assertThat(read.getRangeTo()).isEqualTo(BASE.plusMonths(1));
+            assertThat(read.getColumnNames()).isEqualTo(COLUMNS);
+            assertThat(read.getColumnTypes()).isEqualTo(TYPES);
+
+            List<Object[]> scanned = scanAll(reader, List.of());
+            assertThat(scanned).hasSize(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                assertThat(scanned.get(i)).as("row %d", i).containsExactly(rows.get(i));
+            }
+        }
+    }
+
+    @Test
+    void readsBackUnboundedHistoryRangeAndEmptyArchive() throws IOException {
+        Path file = dir.resolve("p_history.mja.gz");
+        write(file, header(null, BASE), List.of(), 16);
+
+        ArchiveHeader read = ColumnarArchiveReader.readHeader(file);
+        assertThat(read.getRangeFrom()).isNull();
+        assertThat(read.getRangeTo()).isEqualTo(BASE);
+        assertThat(read.overlaps(BASE.minusYears(5), BASE.minusYears(4))).isTrue();
+        assertThat(read.overlaps(BASE, null)).isFalse();
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            assertThat(scanAll(reader, List.of())).isEmpty();
+        }
+    }
+
+    @Test
+    void normalizesJdbcValuesOnWrite() throws IOException {
+        Path file = dir.resolve("jdbc.mja.gz");
+        LocalDateTime createdAt = BASE.plusSeconds(90).plusNanos(123_456_000);
+        Object[] jdbcRow = {7L, 3L, 1, 1, "TEXT", "你好", Timestamp.valueOf(createdAt), new BigDecimal("12.5")};
+
+        write(file, header(BASE, BASE.plusMonths(1)), List.<Object[]>of(jdbcRow), 16);
+
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            assertThat(scanAll(reader, List.of()).get(0))
+                    .containsExactly(7L, 3L, 1, true, "TEXT", "你好", createdAt, 12.5);
+        }
+    }
+
+    @Test
+    void filtersByRoomAndTimeRange() throws IOException {
+        Path file = dir.resolve("filtered.mja.gz");
+        ArchiveHeader header = header(BASE, BASE.plusMonths(1));
+        List<Object[]> rows = sampleRows(1000);
+        write(file, header, rows, 50);
+
+        LocalDateTime from = BASE.plusMinutes(200);
+        LocalDateTime to = BASE.plusMinutes(600);
+        List<Object[]> expected = new ArrayList<>();
+        for (Object[] row : rows) {
+            LocalDateTime createdAt = (LocalDateTime) row[6];
+            if (Long.valueOf(5).equals(row[1]) && !createdAt.isBefore(from) && createdAt.isBefore(to)) {
+                expected.add(row);
+            }
+        }
+
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            List<Object[]> matched = scanAll(reader, ColumnarArchiveReader.Condition.of(
+                    ColumnarArchiveReader.Condition.equalTo(header, "room_id", 5),
+                    ColumnarArchiveReader.Condition.between(header, "created_at", from, to)));
+            assertThat(matched).isNotEmpty().hasSize(expected.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertThat(matched.get(i)).containsExactly(expected.get(i));
+            }
+        }
+
+        assertThatThrownBy(() -> ColumnarArchiveReader.Condition.equalTo(header, "content", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void stopsScanWhenVisitorReturnsFalse() throws IOException {
+        Path file = dir.resolve("stop.mja.gz");
+        write(file, header(BASE, BASE.plusMonths(1)), sampleRows(300), 64);
+
+        List<Object[]> visited = new ArrayList<>();
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            reader.scan(List.of(), row -> {
+                visited.add(row);
+                return visited.size() < 10;
+            });
+        }
+        assertThat(visited).hasSize(10);
+    }
+
+    @Test
+    void publishesFileOnlyOnClose() throws IOException {
+        Path file = dir.resolve("publish.mja.gz");
+        ColumnarArchiveWriter aborted = new ColumnarArchiveWriter(file, header(BASE, BASE.plusMonths(1)), 16);
+        aborted.append(sampleRows(1).get(0));
+        aborted.abort();
+        assertThat(listFiles()).isEmpty();
+
+        ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file, header(BASE, BASE.plusMonths(1)), 16);
+        writer.append(sampleRows(1).get(0));
+        assertThat(Files.exists(file)).isFalse();
+        writer.close();
+        assertThat(listFiles()).containsExactly(file);
+        assertThat(writer.getTotalRows()).isEqualTo(1);
+
+        assertThatThrownBy(() -> new ColumnarArchiveWriter(dir.resolve("bad.mja.gz"),
+                header(BASE, BASE.plusMonths(1)), 16).append(new Object[]{1L}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ArchiveHeader header(LocalDateTime from, LocalDateTime to) {
+        return new ArchiveHeader("chat_messages", from, to, COLUMNS, TYPES);
+    }
+
+    /**
+     * 覆盖递减主键（负差值）、空值、低基数字典列、高基数中文列和微秒时间
+     */
+    private static List<Object[]> sampleRows(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        String[] types = {"TEXT", "EMOJI", "SYSTEM"};
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{
+                    i % 97 == 0 ? 5_000_000L - i : 10_000L + i,
+                    i % 13 == 0 ? null : (long) (i % 7),
+                    i % 11 == 0 ? null : i * 3 - 500,
+                    i % 17 == 0 ? null : i % 3 == 0,
+                    types[i % types.length],
+                    i % 19 == 0 ? null : "消息" + i + " hello 🀄",
+                    BASE.plusMinutes(i).plusNanos((i % 1000) * 1000L),
+                    i % 23 == 0 ? null : i / 4.0
+            });
+        }
+        return rows;
+    }
+
+    private static void write(Path file, ArchiveHeader header, List<Object[]> rows, int rowGroupSize)
+            throws IOException {
+        ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file, header, rowGroupSize);
+        for (Object[] row : rows) {
+            writer.append(row);
+        }
+        writer.close();
+    }
+
+    private static List<Object[]> scanAll(ColumnarArchiveReader reader,
+                                          List<ColumnarArchiveReader.Condition> conditions) throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        reader.scan(conditions, row -> {
+            rows.add(row);
+            return true;
+        });
+        return rows;
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.toList();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.mahjong.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalCacheTest {
+
+    private final LocalCache cache = new LocalCache(100, TimeUnit.MINUTES.toNanos(1));
+
+    @Test
+    void invalidationDropsInFlightPutForSameKey() {
+        long generation = cache.generation("room:1");
+        cache.invalidate("room:1");
+
+        cache.put("room:1", new SimpleValueWrapper(1L), generation);
+
+        assertThat(cache.get("room:1")).isNull();
+    }
+
+    @Test
+    void invalidationOfKeysInOtherStripesKeepsInFlightPut() {
+        String key = "room:1";
+        long generation = cache.generation(key);
+        int invalidated = 0;
+        for (int i = 0; i < 100; i++) {
+            String other = "room:" + (i + 2);
+            cache.invalidate(other);
+            if (cache.generation(key) != generation) {
+                // 与 key 同分段，重新取代数，模拟之后才开始的回源
+                generation = cache.generation(key);
+            } else {
+                invalidated++;
+            }
+        }
+
+        cache.put(key, new SimpleValueWrapper(1L), generation);
+
+        assertThat(invalidated).isPositive();
+        assertThat(cache.get(key)).isNotNull();
+        assertThat(cache.get(key).get()).isEqualTo(1L);
+    }
+
+    @Test
+    void clearDropsEveryInFlightPut() {
+        long first = cache.generation("a");
+        long second = cache.generation("b");
+        cache.clear();
+
+        cache.put("a", new SimpleValueWrapper(1), first);
+        cache.put("b", new SimpleValueWrapper(2), second);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void evictsEldestEntriesBeyondCapacity() {
+        LocalCache small = new LocalCache(2, TimeUnit.MINUTES.toNanos(1));
+        small.put("a", new SimpleValueWrapper(1), small.generation("a"));
+        small.put("b", new SimpleValueWrapper(2), small.generation("b"));
+        small.put("c", new SimpleValueWrapper(3), small.generation("c"));
+
+        assertThat(small.get("a")).isNull();
+        assertThat(small.get("c")).isNotNull();
+        assertThat(small.sizeEvictions.sum()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,58 @@
+package com.mahjong.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSamplingFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final LogSamplingFilter filter = new LogSamplingFilter();
+
+    @BeforeEach
+    void setUp() {
+        context.getLogger("com.mahjong").setLevel(Level.INFO);
+        filter.setContext(context);
+        filter.setSampling("com.mahjong.service.WebSocketService.event=10,com.mahjong.websocket=3");
+        filter.start();
+    }
+
+    @Test
+    void samplesEventLoggerButKeepsLifecycleLogsOfSameClass() {
+        Logger lifecycle = context.getLogger("com.mahjong.service.WebSocketService");
+        Logger event = context.getLogger("com.mahjong.service.WebSocketService.event");
+
+        assertThat(passed(lifecycle, Level.INFO, 20)).isEqualTo(20);
+        assertThat(passed(event, Level.INFO, 20)).isEqualTo(2);
+    }
+
+    @Test
+    void matchesLongestPrefixOnLoggerNameBoundary() {
+        assertThat(passed(context.getLogger("com.mahjong.websocket.WebSocketMessageHandler"), Level.INFO, 9)).isEqualTo(3);
+        assertThat(passed(context.getLogger("com.mahjong.websocketx.Other"), Level.INFO, 9)).isEqualTo(9);
+    }
+
+    @Test
+    void neverSamplesWarningsOrDisabledLevels() {
+        Logger event = context.getLogger("com.mahjong.service.WebSocketService.event");
+
+        assertThat(passed(event, Level.WARN, 10)).isEqualTo(10);
+        assertThat(filter.decide(null, event, Level.DEBUG, null, null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(passed(event, Level.INFO, 10)).isEqualTo(1);
+    }
+
+    private int passed(Logger logger, Level level, int attempts) {
+        int passed = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (filter.decide(null, logger, level, null, null, null) == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+        return passed;
+    }
+}
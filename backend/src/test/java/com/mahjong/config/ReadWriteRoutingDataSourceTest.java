@@ -0,0 +1,138 @@
+package com.mahjong.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 读写分离路由测试：两个独立的 MySQL 容器分别充当主库和从库，各写入一行标记自身身份，
+ * 按生产环境的包装顺序（延迟连接代理 -> 语句计数代理 -> 路由数据源）组装后验证事务路由。
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReadWriteRoutingDataSourceTest {
+
+    @Container
+    private static final MySQLContainer<?> PRIMARY = new MySQLContainer<>("mysql:8.0");
+
+    @Container
+    private static final MySQLContainer<?> REPLICA = new MySQLContainer<>("mysql:8.0");
+
+    private static HikariDataSource primaryPool;
+    private static HikariDataSource replicaPool;
+
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeAll
+    static void createPools() {
+        mark(PRIMARY, "primary");
+        mark(REPLICA, "replica");
+        primaryPool = pool(PRIMARY, PRIMARY.getUsername(), "primary");
+        replicaPool = pool(REPLICA, REPLICA.getUsername(), "replica");
+        // 与 DatabaseConfig 一致，从库连接池为只读
+        replicaPool.setReadOnly(true);
+    }
+
+    @AfterAll
+    static void closePools() {
+        primaryPool.close();
+        replicaPool.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReadWriteRoutingDataSource(primaryPool, replicaPool);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new StatementCountingDataSource(routing));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionReadsFromReplica() {
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionAndPlainAccessUsePrimary() {
+        assertThat(nodeIn(readWrite)).isEqualTo("primary");
+        assertThat(currentNode()).isEqualTo("primary");
+
+        readWrite.executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO node (name) VALUES ('written')"));
+
+        assertThat(countWritten(primaryPool)).isEqualTo(1);
+        assertThat(countWritten(replicaPool)).isZero();
+        new JdbcTemplate(primaryPool).update("DELETE FROM node WHERE name = 'written'");
+    }
+
+    @Test
+    void readOnlyTransactionFallsBackToPrimaryWhenReplicaUnavailable() {
+        routing.setReplicaAvailable(false);
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+
+        routing.setReplicaAvailable(true);
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void lagMonitorTakesNonReplicaInstanceOutOfRouting() {
+        // 以有 REPLICATION CLIENT 权限的 root 连接：实例未配置复制，SHOW REPLICA STATUS 返回空结果
+        try (HikariDataSource monitorPool = pool(REPLICA, "root", "replica-monitor")) {
+            new ReplicaLagMonitor(monitorPool, routing, 5).check();
+        }
+
+        assertThat(routing.isReplicaAvailable()).isFalse();
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+    }
+
+    private String nodeIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> currentNode());
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node WHERE name <> 'written' LIMIT 1", String.class);
+    }
+
+    private static int countWritten(DataSource pool) {
+        Integer count = new JdbcTemplate(pool).queryForObject(
+                "SELECT COUNT(*) FROM node WHERE name = 'written'", Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private static void mark(MySQLContainer<?> container, String name) {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                container.getJdbcUrl(), container.getUsername(), container.getPassword()));
+        jdbc.execute("CREATE TABLE node (name VARCHAR(16) NOT NULL)");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+    }
+
+    private static HikariDataSource pool(MySQLContainer<?> container, String username, String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(container.getJdbcUrl());
+        pool.setUsername(username);
+        pool.setPassword(container.getPassword());
+        pool.setMaximumPoolSize(2);
+        return pool;
+    }
+}
@@ -0,0 +1,110 @@
+package com.mahjong.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReplicaLagMonitorTest {
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    private ReadWriteRoutingDataSource routing;
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        routing = new ReadWriteRoutingDataSource(mock(DataSource.class), replica);
+        monitor = new ReplicaLagMonitor(replica, routing, 5);
+    }
+
+    @Test
+    void replicaWithinLagThresholdStaysAvailable() throws SQLException {
+        replicaStatus("SHOW REPLICA STATUS", "Seconds_Behind_Source", "3");
+
+        monitor.check();
+
+        assertThat(routing.isReplicaAvailable()).isTrue();
+    }
+
+    @Test
+    void laggingReplicaIsUnavailableUntilItCatchesUp() throws SQLException {
+        replicaStatus("SHOW REPLICA STATUS", "Seconds_Behind_Source", "30");
+        monitor.check();
+        assertThat(routing.isReplicaAvailable()).isFalse();
+
+        replicaStatus("SHOW REPLICA STATUS", "Seconds_Behind_Source", "0");
+        monitor.check();
+        assertThat(routing.isReplicaAvailable()).isTrue();
+    }
+
+    @Test
+    void stoppedReplicationIsUnavailable() throws SQLException {
+        replicaStatus("SHOW REPLICA STATUS", "Seconds_Behind_Source", null);
+
+        monitor.check();
+
+        assertThat(routing.isReplicaAvailable()).isFalse();
+    }
+
+    @Test
+    void instanceWithoutReplicaStatusIsUnavailable() throws SQLException {
+        ResultSet empty = mock(ResultSet.class);
+        when(empty.next()).thenReturn(false);
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(empty);
+
+        monitor.check();
+
+        assertThat(routing.isReplicaAvailable()).isFalse();
+    }
+
+    @Test
+    void fallsBackToLegacyStatementOnOlderServers() throws SQLException {
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenThrow(new SQLException("syntax error"));
+        replicaStatus("SHOW SLAVE STATUS", "Seconds_Behind_Master", "1");
+
+        monitor.check();
+
+        assertThat(routing.isReplicaAvailable()).isTrue();
+    }
+
+    @Test
+    void unreachableReplicaIsUnavailable() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        monitor.check();
+
+        assertThat(routing.isReplicaAvailable()).isFalse();
+    }
+
+    private void replicaStatus(String sql, String column, String lag) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getString(column)).thenReturn(lag);
+        when(statement.executeQuery(sql)).thenReturn(rs);
+    }
+}
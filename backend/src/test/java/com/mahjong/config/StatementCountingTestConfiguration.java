@@ -0,0 +1,34 @@
+package com.mahjong.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * 切片测试的数据源：按 spring.datasource.jdbc-url 建连接池，外包语句计数代理，
+ * 测试中用 {@link StatementScope} 统计被测方法执行的语句数。配合 @AutoConfigureTestDatabase(replace = NONE)
+ * 和 @DynamicPropertySource 指向 Testcontainers 容器使用。
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class StatementCountingTestConfiguration {
+
+    @Bean
+    public HikariDataSource statementTestPool(Environment environment) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(environment.getRequiredProperty("spring.datasource.jdbc-url"));
+        pool.setUsername(environment.getRequiredProperty("spring.datasource.username"));
+        pool.setPassword(environment.getRequiredProperty("spring.datasource.password"));
+        pool.setMaximumPoolSize(4);
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource statementTestPool) {
+        return new StatementCountingDataSource(statementTestPool);
+    }
+}
@@ -0,0 +1,191 @@
+package com.mahjong.entity.codec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactColumnConverterTest {
+
+    private static final Tile EAST = new Tile(Tile.Suit.HONOR, 1, false);
+    private static final Tile WHITE = new Tile(Tile.Suit.HONOR, 7, false);
+    private static final Tile ONE_CHARACTER = new Tile(Tile.Suit.CHARACTER, 1, false);
+    private static final Tile NINE_DOT_MIXED = new Tile(Tile.Suit.DOT, 9, true);
+    private static final Tile FLOWER = new Tile(Tile.Suit.FLOWER, 8, false);
+
+    @Test
+    void tileListRoundTripsAsOneBytePerTile() {
+        TileListConverter converter = new TileListConverter();
+        List<Tile> tiles = List.of(EAST, WHITE, ONE_CHARACTER, NINE_DOT_MIXED, FLOWER);
+
+        byte[] column = converter.convertToDatabaseColumn(tiles);
+
+        assertThat(column).hasSize(1 + tiles.size());
+        assertThat(column[0]).isEqualTo((byte) CompactColumnConverter.FORMAT_COMPACT_V1);
+        assertThat(converter.convertToEntityAttribute(column)).containsExactlyElementsOf(tiles);
+        assertThat(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(List.of()))).isEmpty();
+    }
+
+    @Test
+    void tileListReadsLegacyJson() {
+        byte[] legacy = ("[{\"type\":\"honor\",\"value\":\"east\"},"
+                + "{\"type\":\"dot\",\"value\":\"9\",\"isMixed\":true},"
+                + "{\"type\":\"character\",\"value\":\"1\",\"isMixed\":false}]").getBytes(StandardCharsets.UTF_8);
+
+        assertThat(new TileListConverter().convertToEntityAttribute(legacy))
+                .containsExactly(EAST, NINE_DOT_MIXED, ONE_CHARACTER);
+    }
+
+    @Test
+    void writesJsonWhenCompactColumnsAreDisabled() {
+        TileListConverter converter = new TileListConverter();
+        ReflectionTestUtils.setField(converter, "compact", false);
+
+        byte[] column = converter.convertToDatabaseColumn(List.of(EAST, NINE_DOT_MIXED));
+
+        assertThat(new String(column, StandardCharsets.UTF_8))
+                .isEqualTo("[{\"type\":\"honor\",\"value\":\"east\"},{\"type\":\"dot\",\"value\":\"9\",\"isMixed\":true}]");
+        assertThat(new TileListConverter().convertToEntityAttribute(column)).containsExactly(EAST, NINE_DOT_MIXED);
+    }
+
+    @Test
+    void meldListRoundTripsFlagsAndPositions() {
+        MeldListConverter converter = new MeldListConverter();
+        List<Meld> melds = List.of(
+                Meld.builder().tiles(List.of(ONE_CHARACTER, ONE_CHARACTER, ONE_CHARACTER)).fromPosition(0).build(),
+                Meld.builder().tiles(List.of(EAST, EAST, EAST, EAST)).concealed(true).build(),
+                Meld.builder().tiles(List.of(NINE_DOT_MIXED, NINE_DOT_MIXED, NINE_DOT_MIXED)).fromPosition(6).build());
+
+        byte[] column = converter.convertToDatabaseColumn(melds);
+
+        assertThat(column).hasSize(1 + 3 + 3 + 4 + 3);
+        assertThat(converter.convertToEntityAttribute(column)).isEqualTo(melds);
+    }
+
+    @Test
+    void meldListFallsBackToJsonOutsideCompactRange() {
+        MeldListConverter converter = new MeldListConverter();
+        Tile[] eight = new Tile[8];
+        Arrays.fill(eight, WHITE);
+        List<Meld> tooManyTiles = List.of(Meld.builder().tiles(List.of(eight)).build());
+        List<Meld> farPosition = List.of(Meld.builder().tiles(List.of(EAST, EAST, EAST)).fromPosition(7).build());
+
+        for (List<Meld> melds : List.of(tooManyTiles, farPosition)) {
+            byte[] column = converter.convertToDatabaseColumn(melds);
+            assertThat(column[0]).isEqualTo((byte) '[');
+            assertThat(converter.convertToEntityAttribute(column)).isEqualTo(melds);
+        }
+    }
+
+    @Test
+    void meldListReadsLegacyJson() {
+        byte[] legacy = ("[{\"tiles\":[{\"type\":\"honor\",\"value\":\"east\"},{\"type\":\"honor\",\"value\":\"east\"},"
+                + "{\"type\":\"honor\",\"value\":\"east\"}],\"concealed\":false,\"fromPosition\":2}]")
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertThat(new MeldListConverter().convertToEntityAttribute(legacy)).containsExactly(
+                Meld.builder().tiles(List.of(EAST, EAST, EAST)).fromPosition(2).build());
+    }
+
+    @Test
+    void scoreMapRoundTripsUuidAndPlainKeysInOrder() {
+        ScoreMapConverter converter = new ScoreMapConverter();
+        String uuid = UUID.randomUUID().toString();
+        String upperUuid = UUID.randomUUID().toString().toUpperCase();
+        Map<String, Integer> scores = new LinkedHashMap<>();
+        scores.put(uuid, -48);
+        scores.put("guest-7", 0);
+        scores.put(upperUuid, Integer.MAX_VALUE);
+        scores.put("玩家", Integer.MIN_VALUE);
+
+        byte[] column = converter.convertToDatabaseColumn(scores);
+
+        // 标准UUID键占17字节，非标准形式（大写）按字符串写入
+        assertThat(column[1]).isEqualTo((byte) 0x00);
+        Map<String, Integer> decoded = converter.convertToEntityAttribute(column);
+        assertThat(decoded).containsExactlyEntriesOf(scores);
+    }
+
+    @Test
+    void scoreMapFallsBackToJsonForLongKeys() {
+        ScoreMapConverter converter = new ScoreMapConverter();
+        Map<String, Integer> scores = Map.of("x".repeat(256), 12);
+
+        byte[] column = converter.convertToDatabaseColumn(scores);
+
+        assertThat(column[0]).isEqualTo((byte) '{');
+        assertThat(converter.convertToEntityAttribute(column)).isEqualTo(scores);
+        assertThat(converter.convertToEntityAttribute("{\"p1\":-3,\"p2\":3}".getBytes(StandardCharsets.UTF_8)))
+                .containsEntry("p1", -3).containsEntry("p2", 3);
+    }
+
+    @Test
+    void roundStatisticsRoundTripsAsTwelveBytes() {
+        RoundStatisticsConverter converter = new RoundStatisticsConverter();
+        RoundStatistics stats = new RoundStatistics(30, 29, 2, 1, 0xFFFF, 7);
+
+        byte[] column = converter.convertToDatabaseColumn(stats);
+
+        assertThat(column).hasSize(13);
+        assertThat(converter.convertToEntityAttribute(column)).isEqualTo(stats);
+    }
+
+    @Test
+    void roundStatisticsFallsBackToJsonAndReadsLegacyJson() {
+        RoundStatisticsConverter converter = new RoundStatisticsConverter();
+        RoundStatistics overflow = new RoundStatistics(0x10000, 0, 0, 0, 0, 0);
+
+        byte[] column = converter.convertToDatabaseColumn(overflow);
+
+        assertThat(column[0]).isEqualTo((byte) '{');
+        assertThat(converter.convertToEntityAttribute(column)).isEqualTo(overflow);
+        assertThat(converter.convertToEntityAttribute(
+                "{\"drawCount\":3,\"discardCount\":2,\"pengCount\":1}".getBytes(StandardCharsets.UTF_8)))
+                .isEqualTo(RoundStatistics.builder().drawCount(3).discardCount(2).pengCount(1).build());
+    }
+
+    @Test
+    void nullAndEmptyColumnsDecodeToNull() {
+        TileListConverter converter = new TileListConverter();
+
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(new byte[0])).isNull();
+    }
+
+    @Test
+    void truncatedCompactColumnIsRejected() {
+        byte[] column = new RoundStatisticsConverter().convertToDatabaseColumn(new RoundStatistics(1, 2, 3, 4, 5, 6));
+        byte[] truncated = Arrays.copyOf(column, column.length - 1);
+
+        assertThatThrownBy(() -> new RoundStatisticsConverter().convertToEntityAttribute(truncated))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TileListConverter().convertToEntityAttribute(new byte[]{1, 0x7F}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void varintAndZigZagCoverFullRange() {
+        long[] values = {0, 1, -1, 63, -64, 127, 128, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (long value : values) {
+            CompactColumnConverter.writeVarint(out, CompactColumnConverter.zigZag(value));
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(out.toByteArray());
+        for (long value : values) {
+            assertThat(CompactColumnConverter.unZigZag(CompactColumnConverter.readVarint(in))).isEqualTo(value);
+        }
+        assertThat(in.hasRemaining()).isFalse();
+    }
+}
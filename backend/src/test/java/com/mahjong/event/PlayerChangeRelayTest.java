@@ -0,0 +1,94 @@
+package com.mahjong.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mahjong.config.CacheProperties;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class PlayerChangeRelayTest {
+
+    private final CacheProperties cacheProperties = new CacheProperties();
+
+    @Test
+    void forwardsLocalChangeToOtherNodes() {
+        RedisTemplate<String, Object> redisTemplate = redisTemplate();
+        PlayerChangeRelay sender = relay(redisTemplate, mock(ApplicationEventPublisher.class));
+        ApplicationEventPublisher receiverEvents = mock(ApplicationEventPublisher.class);
+        PlayerChangeRelay receiver = relay(redisTemplate(), receiverEvents);
+
+        sender.onPlayerChanged(PlayerChangedEvent.saved("p1", "雀神", "a.png", 7L, "123456", true));
+        byte[] published = published(redisTemplate);
+        receiver.onMessage(new DefaultMessage("player:changed".getBytes(StandardCharsets.UTF_8), published), null);
+
+        ArgumentCaptor<PlayerChangedEvent> forwarded = ArgumentCaptor.forClass(PlayerChangedEvent.class);
+        verify(receiverEvents).publishEvent(forwarded.capture());
+        PlayerChangedEvent event = forwarded.getValue();
+        assertThat(event.isRemote()).isTrue();
+        assertThat(event.isRemoved()).isFalse();
+        assertThat(event.getPlayerId()).isEqualTo("p1");
+        assertThat(event.getPlayerName()).isEqualTo("雀神");
+        assertThat(event.getAvatarUrl()).isEqualTo("a.png");
+        assertThat(event.getRoomId()).isEqualTo(7L);
+        assertThat(event.getRoomNumber()).isEqualTo("123456");
+        assertThat(event.isSpectator()).isTrue();
+    }
+
+    @Test
+    void ignoresOwnMessagesAndDoesNotForwardRemoteEvents() {
+        RedisTemplate<String, Object> redisTemplate = redisTemplate();
+        ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+        PlayerChangeRelay relay = relay(redisTemplate, events);
+
+        relay.onPlayerChanged(PlayerChangedEvent.removed("p1"));
+        relay.onMessage(new DefaultMessage(new byte[0], published(redisTemplate)), null);
+        verify(events, never()).publishEvent(any(Object.class));
+
+        RedisTemplate<String, Object> other = redisTemplate();
+        relay(other, events).onPlayerChanged(PlayerChangedEvent.remote("p1", true, null, null, null, null, false));
+        verifyNoInteractions(other);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisTemplate<String, Object> redisTemplate() {
+        return mock(RedisTemplate.class);
+    }
+
+    private PlayerChangeRelay relay(RedisTemplate<String, Object> redisTemplate, ApplicationEventPublisher events) {
+        PlayerChangeRelay relay = new PlayerChangeRelay();
+        ReflectionTestUtils.setField(relay, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(relay, "eventPublisher", events);
+        ReflectionTestUtils.setField(relay, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(relay, "cacheProperties", cacheProperties);
+        return relay;
+    }
+
+    /**
+     * 执行发布回调，取出发布到玩家变更频道的消息体
+     */
+    @SuppressWarnings("unchecked")
+    private static byte[] published(RedisTemplate<String, Object> redisTemplate) {
+        ArgumentCaptor<RedisCallback<Long>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(redisTemplate).execute(callback.capture());
+        RedisConnection connection = mock(RedisConnection.class);
+        callback.getValue().doInRedis(connection);
+        ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+        verify(connection).publish(eq("player:changed".getBytes(StandardCharsets.UTF_8)), body.capture());
+        return body.getValue();
+    }
+}
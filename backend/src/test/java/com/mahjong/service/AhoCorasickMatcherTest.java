@@ -0,0 +1,145 @@
+package com.mahjong.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AhoCorasickMatcherTest {
+
+    private static final String MASK = "***";
+
+    @Test
+    void masksOverlappingMatchesAsOneSpan() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.build(List.of("abc", "bcd"));
+
+        assertThat(matcher.replace("xabcdx", MASK)).isEqualTo("x***x");
+    }
+
+    @Test
+    void masksNestedMatchesByOuterWord() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.build(List.of("abcd", "bc", "d"));
+
+        assertThat(matcher.replace("abcd", MASK)).isEqualTo("***");
+        assertThat(matcher.replace("abc", MASK)).isEqualTo("a***");
+        assertThat(matcher.replace("xbcx", MASK)).isEqualTo("x***x");
+    }
+
+    @Test
+    void keepsAdjacentMatchesSeparate() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.build(List.of("ab", "cd"));
+
+        assertThat(matcher.replace("abcd", MASK)).isEqualTo("******");
+        assertThat(matcher.replace("ab-cd", MASK)).isEqualTo("***-***");
+    }
+
+    @Test
+    void longerWordReachingBackMergesEarlierSpans() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.build(List.of("ab", "cd", "bcde"));
+
+        assertThat(matcher.replace("abcde!", MASK)).isEqualTo("***!");
+    }
+
+    @Test
+    void matchesIgnoringCase() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.build(List.of("BadWord", "外挂"));
+
+        assertThat(matcher.matches("a BADWORD here")).isTrue();
+        assertThat(matcher.replace("a bAdWoRd here", MASK)).isEqualTo("a *** here");
+        assertThat(matcher.replace("开外挂了", MASK)).isEqualTo("开***了");
+        assertThat(matcher.matches("bad word")).isFalse();
+    }
+
+    @Test
+    void returnsOriginalTextWhenNothingMatches() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.build(List.of("abc"));
+        String text = "ab bc";
+
+        assertThat(matcher.replace(text, MASK)).isSameAs(text);
+        assertThat(matcher.matches(text)).isFalse();
+        assertThat(AhoCorasickMatcher.build(List.of()).replace(text, MASK)).isSameAs(text);
+    }
+
+    @Test
+    void ignoresBlankAndDuplicateWords() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.build(Arrays.asList("abc", " ", "", null, "ABC", "b"));
+
+        assertThat(matcher.wordCount()).isEqualTo(2);
+        assertThat(matcher.replace("x x", MASK)).isEqualTo("x x");
+    }
+
+    @Test
+    void agreesWithNaiveScanOnRandomInput() {
+        Random random = new Random(20240601L);
+        String alphabet = "aAbBc";
+        for (int round = 0; round < 500; round++) {
+            List<String> words = new ArrayList<>();
+            int wordCount = 1 + random.nextInt(6);
+            for (int w = 0; w < wordCount; w++) {
+                words.add(randomString(random, alphabet, 1 + random.nextInt(4)));
+            }
+            String text = randomString(random, alphabet, random.nextInt(30));
+
+            AhoCorasickMatcher matcher = AhoCorasickMatcher.build(words);
+
+            assertThat(matcher.replace(text, "#")).as("words=%s text=%s", words, text)
+                    .isEqualTo(naiveReplace(words, text, "#"));
+            assertThat(matcher.matches(text)).isEqualTo(!naiveReplace(words, text, "#").equals(text));
+        }
+    }
+
+    /**
+     * 逐个位置逐个词条比较，合并重叠区间后替换
+     */
+    private static String naiveReplace(List<String> words, String text, String mask) {
+        String folded = fold(text);
+        List<int[]> spans = new ArrayList<>();
+        for (int start = 0; start < text.length(); start++) {
+            for (String word : words) {
+                if (folded.startsWith(fold(word), start)) {
+                    spans.add(new int[]{start, start + word.length()});
+                }
+            }
+        }
+        if (spans.isEmpty()) {
+            return text;
+        }
+        spans.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+        List<int[]> merged = new ArrayList<>();
+        for (int[] span : spans) {
+            int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && span[0] < last[1]) {
+                last[1] = Math.max(last[1], span[1]);
+            } else {
+                merged.add(span.clone());
+            }
+        }
+        StringBuilder result = new StringBuilder();
+        int copied = 0;
+        for (int[] span : merged) {
+            result.append(text, copied, span[0]).append(mask);
+            copied = span[1];
+        }
+        return result.append(text.substring(copied)).toString();
+    }
+
+    private static String fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+}
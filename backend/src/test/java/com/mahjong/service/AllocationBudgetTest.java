@@ -0,0 +1,288 @@
+package com.mahjong.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mahjong.config.LogSamplingFilter;
+import com.mahjong.repository.GameConfigRepository;
+import com.mahjong.repository.PlayerRepository;
+import com.mahjong.repository.RoomRepository;
+import com.mahjong.websocket.SyncLatencyTracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.YamlProcessor;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 热点路径分配预算检查
+ * 通过 ThreadMXBean 读取当前线程累计分配的字节数，计算每个场景单次操作的堆分配量，
+ * 与 allocation-budget.properties 比较，任一场景超出预算（或缺少预算）时测试失败。
+ * 每个场景先充分预热让 JIT 完成编译和逃逸分析，再取多轮测量中的最小值，排除扩容等一次性分配。
+ * 日志级别与生产环境一致（com.mahjong 为 INFO，采样规则取 application.yml 默认值），日志事件照常创建但不输出。
+ * <p>
+ * -Dallocation.skip=true 跳过；-Dallocation.update=true 按本次测量值（加 10% 余量）重写预算文件
+ */
+@SpringJUnitConfig(AllocationBudgetTest.Config.class)
+@TestPropertySource(properties = {"game.chat.history-size=50", "game.trace.enabled=false"})
+@DisabledIfSystemProperty(named = "allocation.skip", matches = "true")
+class AllocationBudgetTest {
+
+    private static final int WARMUP_OPS = 50_000;
+    private static final int MEASURE_ROUNDS = 5;
+    private static final int OPS_PER_ROUND = 10_000;
+    private static final double UPDATE_HEADROOM = 1.10;
+    private static final String BUDGET_RESOURCE = "allocation-budget.properties";
+    private static final Path BUDGET_SOURCE = Paths.get("src/test/resources", BUDGET_RESOURCE);
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static LoggingOverride logging;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Autowired
+    private ChatHistoryService chatHistoryService;
+
+    @Autowired
+    private PlayerSessionRegistry playerSessionRegistry;
+
+    @Autowired
+    private SocketIOServer socketIOServer;
+
+    // 场景中不会调用的依赖
+    @MockitoBean
+    private PlayerService playerService;
+
+    @MockitoBean
+    private RoomLookupService roomLookupService;
+
+    @MockitoBean
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @MockitoBean
+    private GameConfigRepository gameConfigRepository;
+
+    @MockitoBean
+    private RoomNumberAllocator roomNumberAllocator;
+
+    @MockitoBean
+    private ExpiredRoomReaper expiredRoomReaper;
+
+    @MockitoBean
+    private GameConfigService gameConfigService;
+
+    @MockitoBean
+    private SeatAllocator seatAllocator;
+
+    @BeforeAll
+    static void productionLogging() {
+        logging = LoggingOverride.apply();
+    }
+
+    @AfterAll
+    static void restoreLogging() {
+        logging.restore();
+    }
+
+    @Test
+    void hotPathsStayWithinAllocationBudget() throws IOException {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported(), "当前JVM不支持线程分配统计");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        AllocationScenarios scenarios = new AllocationScenarios(webSocketService, chatHistoryService,
+                playerSessionRegistry, socketIOServer);
+        long overhead = measure(() -> { }, () -> { });
+        Map<String, Long> measured = new TreeMap<>();
+        scenarios.all().forEach((name, operation) ->
+                measured.put(name, Math.max(0, measure(operation, scenarios::reset) - overhead)));
+
+        if (Boolean.getBoolean("allocation.update")) {
+            writeBudget(measured);
+            return;
+        }
+
+        Properties budget = readBudget();
+        List<String> failures = new ArrayList<>();
+        measured.forEach((name, bytes) -> {
+            String limit = budget.getProperty(name);
+            if (limit == null) {
+                failures.add(String.format("%s 缺少预算（实测 %,d B/op）", name, bytes));
+            } else if (bytes > Long.parseLong(limit.trim())) {
+                failures.add(String.format("%s 实测 %,d B/op，超出预算 %,d B/op", name, bytes, Long.parseLong(limit.trim())));
+            }
+        });
+        assertThat(failures)
+                .as("确认增加的分配合理后，用 -Dallocation.update=true 重新生成 %s 并在提交中说明原因。实测: %s",
+                        BUDGET_SOURCE, measured)
+                .isEmpty();
+    }
+
+    /**
+     * 单次操作分配的字节数：预热后取各轮的最小值
+     */
+    private static long measure(Runnable operation, Runnable reset) {
+        for (int i = 0; i < WARMUP_OPS; i++) {
+            operation.run();
+        }
+        reset.run();
+
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURE_ROUNDS; round++) {
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < OPS_PER_ROUND; i++) {
+                operation.run();
+            }
+            long allocated = THREADS.getCurrentThreadAllocatedBytes() - before;
+            best = Math.min(best, allocated / OPS_PER_ROUND);
+            reset.run();
+        }
+        return best;
+    }
+
+    private static Properties readBudget() throws IOException {
+        Properties budget = new Properties();
+        try (Reader reader = new InputStreamReader(
+                new ClassPathResource(BUDGET_RESOURCE).getInputStream(), StandardCharsets.UTF_8)) {
+            budget.load(reader);
+        }
+        return budget;
+    }
+
+    private static void writeBudget(Map<String, Long> measured) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(BUDGET_SOURCE, StandardCharsets.UTF_8)) {
+            writer.write("# 热点路径单次操作的堆分配预算（字节），由 AllocationBudgetTest 以 -Dallocation.update=true 运行生成\n");
+            writer.write("# 实测值加 10% 余量，按 64 字节取整。调高预算需在提交说明中写明原因\n");
+            for (Map.Entry<String, Long> entry : measured.entrySet()) {
+                long limit = (long) Math.ceil(entry.getValue() * UPDATE_HEADROOM / 64) * 64;
+                writer.write(entry.getKey() + "=" + limit + "\n");
+            }
+        }
+    }
+
+    /**
+     * 只装配场景用到的服务，热点路径上的仓库用不记录调用的桩
+     */
+    @Import({WebSocketService.class, ChatHistoryService.class, PlayerSessionRegistry.class,
+            SyncLatencyTracer.class, RoomService.class})
+    static class Config {
+
+        @Bean(destroyMethod = "")
+        SocketIOServer socketIOServer() {
+            return new SocketIOServer(new Configuration());
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper()
+                    .registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        RoomRepository roomRepository() {
+            return AllocationScenarios.roomRepository();
+        }
+
+        @Bean
+        PlayerRepository playerRepository() {
+            return AllocationScenarios.playerRepository();
+        }
+    }
+
+    /**
+     * 测量期间把日志切换到生产级别并丢弃输出，结束后恢复
+     */
+    private static final class LoggingOverride {
+        private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        private final Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        private final Logger mahjong = context.getLogger("com.mahjong");
+        private final Level rootLevel = root.getLevel();
+        private final Level mahjongLevel = mahjong.getLevel();
+        private final List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        private final LogSamplingFilter sampling = new LogSamplingFilter();
+
+        static LoggingOverride apply() {
+            LoggingOverride override = new LoggingOverride();
+            for (Iterator<Appender<ILoggingEvent>> it = override.root.iteratorForAppenders(); it.hasNext(); ) {
+                override.appenders.add(it.next());
+            }
+            override.root.detachAndStopAllAppenders();
+            override.root.setLevel(Level.WARN);
+            override.mahjong.setLevel(Level.INFO);
+            override.sampling.setContext(override.context);
+            override.sampling.setSampling(defaultSampling());
+            override.sampling.start();
+            override.context.addTurboFilter(override.sampling);
+            return override;
+        }
+
+        void restore() {
+            context.getTurboFilterList().remove(sampling);
+            root.setLevel(rootLevel);
+            mahjong.setLevel(mahjongLevel);
+            appenders.forEach(appender -> {
+                appender.start();
+                root.addAppender(appender);
+            });
+        }
+
+        /**
+         * application.yml 默认配置（不含 profile 文档）中的 game.logging.sampling
+         */
+        private static String defaultSampling() {
+            YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+            yaml.setResources(new ClassPathResource("application.yml"));
+            yaml.setDocumentMatchers(properties -> properties.containsKey("spring.config.activate.on-profile")
+                    ? YamlProcessor.MatchStatus.NOT_FOUND
+                    : YamlProcessor.MatchStatus.FOUND);
+            Properties properties = yaml.getObject();
+            return properties != null ? properties.getProperty("game.logging.sampling", "") : "";
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.mahjong.service;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.namespace.Namespace;
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketEncoder;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mahjong.entity.GameConfig;
+import com.mahjong.entity.Player;
+import com.mahjong.entity.Room;
+import com.mahjong.entity.codec.Tile;
+import com.mahjong.entity.codec.TileListConverter;
+import com.mahjong.repository.PlayerRepository;
+import com.mahjong.repository.RoomRepository;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * 分配预算检查的场景
+ * 用 Spring 装配的 WebSocketService、ChatHistoryService、RoomService 组装一个4人对局加2名观战者的房间，
+ * 仓库用动态代理桩代替（不记录调用，不产生额外分配）；Socket.IO 连接也是桩对象，
+ * 收到的数据包按服务端方式编码到池化缓冲区后释放，
+ * 因此每个场景统计的是服务端一次操作从构造消息到逐个连接编码的全部堆分配。
+ */
+final class AllocationScenarios {
+
+    static final String ROOM_NUMBER = "123456";
+    private static final int SEATED = 4;
+    private static final int SPECTATORS = 2;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 20, 30, 15);
+
+    static final Room ROOM = room();
+
+    private final WebSocketService webSocketService;
+    private final ChatHistoryService chatHistoryService;
+    private final TileListConverter tileListConverter = new TileListConverter();
+    private final PacketEncoder encoder = new PacketEncoder(new Configuration(), new JacksonJsonSupport(new JavaTimeModule()));
+    private final ByteBufAllocator allocator = PooledByteBufAllocator.DEFAULT;
+
+    private final SocketIOClient joiningClient;
+    private final Player joiningPlayer;
+    private final List<Tile> hand = hand();
+    private long chatCount;
+
+    AllocationScenarios(WebSocketService webSocketService, ChatHistoryService chatHistoryService,
+                        PlayerSessionRegistry playerSessionRegistry, SocketIOServer server) {
+        this.webSocketService = webSocketService;
+        this.chatHistoryService = chatHistoryService;
+        Namespace namespace = (Namespace) server.getNamespace(Namespace.DEFAULT_NAME);
+
+        for (Player player : ROOM.getPlayers()) {
+            playerSessionRegistry.attach(player.getId());
+            SocketIOClient client = client(namespace);
+            namespace.addClient(client);
+            namespace.joinRoom(ROOM_NUMBER, client.getSessionId());
+            webSocketService.joinRoom(client, Long.parseLong(player.getId()), ROOM_NUMBER);
+        }
+        for (int i = 0; i < 50; i++) {
+            chat();
+        }
+
+        joiningClient = client(namespace);
+        joiningPlayer = player(9, "新玩家", null, true);
+    }
+
+    /**
+     * 房间仓库桩：房间详情返回已加载的实体，按房间号查ID返回空（待写库的聊天消息视为房间已清理）
+     */
+    static RoomRepository roomRepository() {
+        return stub(RoomRepository.class, (name, args) -> switch (name) {
+            case "findDetailByRoomNumber" -> Optional.of(ROOM);
+            case "findIdsByRoomNumbers" -> List.of();
+            default -> null;
+        });
+    }
+
+    /**
+     * 玩家仓库桩：会话快照按ID加载房间内的玩家
+     */
+    static PlayerRepository playerRepository() {
+        return stub(PlayerRepository.class, (name, args) -> "findWithRoomById".equals(name)
+                ? ROOM.getPlayers().stream().filter(p -> p.getId().equals(args[0])).findFirst()
+                : null);
+    }
+
+    /**
+     * 场景名 -> 单次操作
+     */
+    Map<String, Runnable> all() {
+        Map<String, Runnable> scenarios = new LinkedHashMap<>();
+        scenarios.put("joinRoom", this::joinRoom);
+        scenarios.put("ready", this::ready);
+        scenarios.put("chatBroadcast", this::chat);
+        scenarios.put("discard", this::discard);
+        scenarios.put("stateSync", this::stateSync);
+        return scenarios;
+    }
+
+    /**
+     * 清理场景累积的状态（待写库的聊天消息），在计量区间之外调用
+     */
+    void reset() {
+        chatHistoryService.flush();
+    }
+
+    /**
+     * 观战者加入房间频道（推送近期聊天）并通知其余成员，随后离开，保证房间状态不随迭代增长
+     */
+    private void joinRoom() {
+        Long userId = Long.parseLong(joiningPlayer.getId());
+        webSocketService.joinRoom(joiningClient, userId, ROOM_NUMBER);
+        webSocketService.notifyPlayerJoined(ROOM_NUMBER, joiningPlayer);
+        webSocketService.leaveRoom(userId, ROOM_NUMBER);
+    }
+
+    private void ready() {
+        webSocketService.notifyPlayerReadyChange(ROOM_NUMBER, 1L, true);
+    }
+
+    private void chat() {
+        webSocketService.handleChatMessage(1L, ROOM_NUMBER, (chatCount++ & 1) == 0 ? "这把牌不错，等我胡一把" : "快点出牌");
+    }
+
+    /**
+     * 出牌：游戏引擎尚未实现，以现有的两段代替——手牌按紧凑格式编码写列，广播出牌动作
+     */
+    private void discard() {
+        tileListConverter.convertToDatabaseColumn(hand);
+        webSocketService.sendMessageToRoom(ROOM_NUMBER, "game_action", Map.of(
+                "type", "discard",
+                "playerId", 1L,
+                "tile", hand.get(hand.size() - 1),
+                "timestamp", System.currentTimeMillis()
+        ));
+    }
+
+    /**
+     * 房间状态同步：读取房间详情（仓库桩直接返回已加载的实体）并广播
+     */
+    private void stateSync() {
+        webSocketService.syncRoomStateChange(ROOM_NUMBER, "player_ready", Map.of("playerId", 1L));
+    }
+
+    /**
+     * Socket.IO 连接桩：发送的事件按服务端方式编码后释放，其余方法返回默认值
+     */
+    private SocketIOClient client(Namespace namespace) {
+        UUID sessionId = UUID.randomUUID();
+        return (SocketIOClient) Proxy.newProxyInstance(SocketIOClient.class.getClassLoader(),
+                new Class<?>[]{SocketIOClient.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "sendEvent" -> {
+                            Packet packet = new Packet(PacketType.MESSAGE);
+                            packet.setSubType(PacketType.EVENT);
+                            packet.setName((String) args[0]);
+                            packet.setData(Arrays.asList((Object[]) args[1]));
+                            encode(packet);
+                            return null;
+                        }
+                        case "send" -> {
+                            encode((Packet) args[0]);
+                            return null;
+                        }
+                        case "getSessionId" -> {
+                            return sessionId;
+                        }
+                        case "getNamespace" -> {
+                            return namespace;
+                        }
+                        case "isChannelOpen" -> {
+                            return true;
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        default -> {
+                            return defaultValue(method.getReturnType());
+                        }
+                    }
+                });
+    }
+
+    private void encode(Packet packet) throws IOException {
+        packet.setNsp("");
+        ByteBuf buffer = encoder.allocateBuffer(allocator);
+        try {
+            encoder.encodePacket(packet, buffer, allocator, false);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    private static Room room() {
+        GameConfig config = GameConfig.builder()
+                .id(1L)
+                .configName("标准规则")
+                .configDescription("河南麻将标准玩法")
+                .baseScore(1)
+                .maxRounds(8)
+                .mixedTileEnabled(true)
+                .allowPeng(true)
+                .allowGang(true)
+                .thinkTime(30)
+                .boolDefault(true)
+                .usageCount(1024L)
+                .build();
+        List<Player> players = new ArrayList<>(SEATED + SPECTATORS);
+        for (int position = 1; position <= SEATED; position++) {
+            players.add(player(position, "玩家" + position, position, false));
+        }
+        for (int i = 1; i <= SPECTATORS; i++) {
+            players.add(player(SEATED + i, "观众" + i, null, true));
+        }
+        Room room = Room.builder()
+                .id(10_000L)
+                .roomNumber(ROOM_NUMBER)
+                .roomName("河南麻将房间")
+                .creatorId(players.get(0).getId())
+                .maxPlayers(SEATED)
+                .currentPlayers(SEATED)
+                .spectatorCount(SPECTATORS)
+                .roomStatus(Room.RoomStatus.WAITING)
+                .allowSpectate(true)
+                .gameConfig(config)
+                .players(players)
+                .createdAt(NOW)
+                .expiresAt(NOW.plusHours(1))
+                .updatedAt(NOW)
+                .build();
+        players.forEach(player -> player.setRoom(room));
+        return room;
+    }
+
+    private static Player player(int id, String name, Integer position, boolean spectator) {
+        return Player.builder()
+                .id(String.valueOf(id))
+                .playerName(name)
+                .playerAvatar("https://cdn.example.com/avatar/" + id + ".png")
+                .playerPosition(position)
+                .playerStatus(spectator ? Player.PlayerStatus.ONLINE : Player.PlayerStatus.READY)
+                .spectator(spectator)
+                .totalScore(0)
+                .winsCount(0)
+                .lastActiveAt(NOW)
+                .build();
+    }
+
+    /**
+     * 13张手牌加摸到的1张
+     */
+    private static List<Tile> hand() {
+        List<Tile> tiles = new ArrayList<>(14);
+        for (int rank = 1; rank <= 9; rank++) {
+            tiles.add(new Tile(Tile.Suit.CHARACTER, rank, false));
+        }
+        for (int rank = 1; rank <= 5; rank++) {
+            tiles.add(new Tile(Tile.Suit.DOT, rank, false));
+        }
+        return tiles;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, BiFunction<String, Object[], Object> results) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            return results.apply(method.getName(), args);
+        });
+    }
+}
@@ -0,0 +1,172 @@
+package com.mahjong.service;
+
+import com.mahjong.repository.RoomRepository;
+import com.mahjong.service.dto.ChatHistoryMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatHistoryServiceTest {
+
+    private static final String ROOM = "123456";
+    private static final Long ROOM_KEY = 9L;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private JdbcTemplate plainJdbcTemplate;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private RoomLookupService roomLookupService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ChatHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "historySize", 3);
+        ReflectionTestUtils.setField(service, "flushBatchSize", 500);
+        ReflectionTestUtils.setField(service, "retryBufferSize", 3);
+    }
+
+    @Test
+    void failedBatchIsRetriedOnNextFlush() {
+        stubRoomIds();
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(plainJdbcTemplate);
+        when(plainJdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(2);
+        service.append(ROOM, "p1", "甲", null, "第一条", ChatHistoryService.TYPE_USER);
+        service.append(ROOM, "p2", "乙", null, "第二条", ChatHistoryService.TYPE_USER);
+
+        service.flush();
+        assertThat(service.pendingCount()).isEqualTo(2);
+
+        service.flush();
+        assertThat(service.pendingCount()).isZero();
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(plainJdbcTemplate, times(2)).update(anyString(), args.capture());
+        assertThat(args.getValue()).hasSize(16).contains("第一条", "第二条");
+        assertThat(meterRegistry.find("mahjong.chat.dropped").counter()).isNull();
+    }
+
+    @Test
+    void retryBufferDropsOldestBeyondCapacity() {
+        stubRoomIds();
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(plainJdbcTemplate);
+        when(plainJdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(3);
+        for (int i = 1; i <= 5; i++) {
+            service.append(ROOM, "p1", "甲", null, "消息" + i, ChatHistoryService.TYPE_USER);
+        }
+
+        service.flush();
+        assertThat(service.pendingCount()).isEqualTo(3);
+        assertThat(meterRegistry.counter("mahjong.chat.dropped").count()).isEqualTo(2);
+
+        service.flush();
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(plainJdbcTemplate, times(2)).update(anyString(), args.capture());
+        assertThat(args.getValue()).contains("消息3", "消息4", "消息5").doesNotContain("消息1", "消息2");
+    }
+
+    @Test
+    void newMessagesDuringOutageStayWithinRetryCapacity() {
+        ReflectionTestUtils.setField(service, "flushBatchSize", 2);
+        stubRoomIds();
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(plainJdbcTemplate);
+        when(plainJdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+        for (int i = 1; i <= 5; i++) {
+            service.append(ROOM, "p1", "甲", null, "消息" + i, ChatHistoryService.TYPE_USER);
+        }
+        service.flush();
+
+        // 重试缓冲已满，数据库仍不可用时继续有新消息
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 2; i++) {
+                service.append(ROOM, "p1", "甲", null, "新消息" + round + i, ChatHistoryService.TYPE_USER);
+            }
+            service.flush();
+            assertThat(service.pendingCount()).isEqualTo(3);
+        }
+        assertThat(meterRegistry.counter("mahjong.chat.dropped").count()).isEqualTo(8);
+
+        when(plainJdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(2, 1);
+        service.flush();
+        assertThat(service.pendingCount()).isZero();
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(plainJdbcTemplate, times(6)).update(anyString(), args.capture());
+        List<Object[]> written = args.getAllValues().subList(4, 6);
+        assertThat(written.get(0)).contains("新消息11", "新消息20");
+        assertThat(written.get(1)).contains("新消息21");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void firstReadSeedsRingFromTable() {
+        when(roomLookupService.findRoomId(ROOM)).thenReturn(Optional.of(ROOM_KEY));
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(message(30L), message(20L), message(10L)));
+
+        List<ChatHistoryMessage> recent = service.recent(ROOM, 10);
+        service.append(ROOM, "p1", "甲", null, "新消息", ChatHistoryService.TYPE_USER);
+        List<ChatHistoryMessage> afterAppend = service.recent(ROOM, 10);
+
+        assertThat(recent).extracting(ChatHistoryMessage::getId).containsExactly(10L, 20L, 30L);
+        assertThat(afterAppend).extracting(ChatHistoryMessage::getId).startsWith(20L, 30L).hasSize(3);
+        verify(jdbcTemplate, times(1)).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void unknownRoomIsNotBuffered() {
+        when(roomLookupService.findRoomId("000000")).thenReturn(Optional.empty());
+
+        assertThat(service.recent("000000", 10)).isEmpty();
+        assertThat(service.bufferedRoomCount()).isZero();
+        verify(jdbcTemplate, never()).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+    }
+
+    private void stubRoomIds() {
+        when(roomRepository.findIdsByRoomNumbers(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{ROOM, ROOM_KEY}));
+    }
+
+    private static ChatHistoryMessage message(Long id) {
+        return ChatHistoryMessage.builder().id(id).roomId(ROOM).senderId("p1").sender("甲")
+                .content("历史" + id).type(ChatHistoryService.TYPE_USER).timestamp(id).build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.mahjong.service;
+
+import com.mahjong.archive.ArchiveColumnType;
+import com.mahjong.archive.ArchiveHeader;
+import com.mahjong.archive.ColumnarArchiveWriter;
+import com.mahjong.config.RetentionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoryQueryRouterTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    private final HistoryQueryRouter router = new HistoryQueryRouter();
+
+    @BeforeEach
+    void setUp() {
+        RetentionProperties properties = new RetentionProperties();
+        properties.setTables(List.of("chat_messages"));
+        properties.setArchiveDir(dir.toString());
+        ReflectionTestUtils.setField(router, "properties", properties);
+    }
+
+    @Test
+    void periodicRefreshPicksUpArchivesWrittenByAnotherNode() throws IOException {
+        router.refreshIndex();
+        assertThat(router.archivedBefore("chat_messages")).isNull();
+
+        // 其他节点导出到共享归档目录
+        writeArchive("chat_messages-p_history.mja.gz", null, BASE);
+        writeArchive("chat_messages-p202601.mja.gz", BASE, BASE.plusMonths(1));
+        router.refreshIndex();
+
+        assertThat(router.archivedBefore("chat_messages")).isEqualTo(BASE.plusMonths(1));
+    }
+
+    private void writeArchive(String name, LocalDateTime from, LocalDateTime to) throws IOException {
+        Path file = dir.resolve("chat_messages").resolve(name);
+        Files.createDirectories(file.getParent());
+        ArchiveHeader header = new ArchiveHeader("chat_messages", from, to,
+                List.of("id", "created_at"), List.of(ArchiveColumnType.LONG, ArchiveColumnType.TIMESTAMP));
+        ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file, header, 16);
+        writer.close();
+    }
+}
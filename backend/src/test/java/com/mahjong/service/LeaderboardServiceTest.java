@@ -0,0 +1,133 @@
+package com.mahjong.service;
+
+import com.mahjong.event.PlayerScoreChangedEvent;
+import com.mahjong.repository.PlayerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardServiceTest {
+
+    private static final String ALL_TIME_SCORE_KEY = "leaderboard:score:all_time:all";
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private RedisOperations<String, Object> operations;
+
+    @Mock
+    private ZSetOperations<String, Object> zSetOps;
+
+    @Mock
+    private ValueOperations<String, Object> valueOps;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOps;
+
+    @InjectMocks
+    private LeaderboardService leaderboardService;
+
+    @Test
+    void duplicateRoundAndPlayerIsCountedOnce() {
+        runSessionCallbacks();
+        String appliedKey = "leaderboard:applied:9:p1";
+        when(operations.hasKey(appliedKey)).thenReturn(false).thenReturn(true);
+        when(operations.opsForZSet()).thenReturn(zSetOps);
+        when(operations.opsForValue()).thenReturn(valueOps);
+        when(operations.opsForHash()).thenReturn(hashOps);
+        when(operations.exec()).thenReturn(List.of("OK"));
+        PlayerScoreChangedEvent event = PlayerScoreChangedEvent.settled("p1", "雀神", 30, true, 9L);
+
+        assertThat(leaderboardService.apply(event)).isTrue();
+        assertThat(leaderboardService.apply(event)).isFalse();
+
+        verify(operations, times(2)).watch(appliedKey);
+        verify(operations).unwatch();
+        verify(operations, times(1)).multi();
+        verify(valueOps).set(appliedKey, 1, Duration.ofDays(2));
+        verify(zSetOps, times(3)).incrementScore(anyString(), eq("p1"), eq(30.0));
+        verify(zSetOps, times(3)).incrementScore(anyString(), eq("p1"), eq(1.0));
+    }
+
+    @Test
+    void windowKeysRollOverByDayAndIsoWeek() {
+        LocalDate sunday = LocalDate.of(2027, 1, 3);
+        LocalDate monday = LocalDate.of(2027, 1, 4);
+
+        assertThat(LeaderboardService.key(LeaderboardService.Metric.SCORE, LeaderboardService.Window.DAILY, sunday))
+                .isEqualTo("leaderboard:score:daily:20270103");
+        assertThat(LeaderboardService.key(LeaderboardService.Metric.SCORE, LeaderboardService.Window.DAILY, monday))
+                .isEqualTo("leaderboard:score:daily:20270104");
+        // 2027-01-03 仍属 2026 年第 53 周，周一才切换到 2027W01
+        assertThat(LeaderboardService.key(LeaderboardService.Metric.WINS, LeaderboardService.Window.WEEKLY, sunday))
+                .isEqualTo("leaderboard:wins:weekly:2026W53");
+        assertThat(LeaderboardService.key(LeaderboardService.Metric.WINS, LeaderboardService.Window.WEEKLY, monday))
+                .isEqualTo("leaderboard:wins:weekly:2027W01");
+        assertThat(LeaderboardService.key(LeaderboardService.Metric.SCORE, LeaderboardService.Window.ALL_TIME, monday))
+                .isEqualTo(ALL_TIME_SCORE_KEY);
+    }
+
+    @Test
+    void scoreSetWritesAbsoluteAllTimeAndDeltaWindows() {
+        runSessionCallbacks();
+        when(operations.opsForZSet()).thenReturn(zSetOps);
+        when(operations.opsForHash()).thenReturn(hashOps);
+        when(operations.exec()).thenReturn(List.of(true));
+
+        assertThat(leaderboardService.apply(PlayerScoreChangedEvent.scoreSet("p1", "雀神", 100, 250))).isTrue();
+
+        verify(operations, never()).watch(anyString());
+        verify(zSetOps).add(ALL_TIME_SCORE_KEY, "p1", 250.0);
+        verify(zSetOps, never()).incrementScore(eq(ALL_TIME_SCORE_KEY), any(), anyDouble());
+        ArgumentCaptor<String> deltaKeys = ArgumentCaptor.forClass(String.class);
+        verify(zSetOps, times(2)).incrementScore(deltaKeys.capture(), eq("p1"), eq(150.0));
+        assertThat(deltaKeys.getAllValues()).satisfiesExactly(
+                key -> assertThat(key).startsWith("leaderboard:score:daily:"),
+                key -> assertThat(key).startsWith("leaderboard:score:weekly:"));
+
+        ArgumentCaptor<String> expiredKeys = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Duration> ttls = ArgumentCaptor.forClass(Duration.class);
+        verify(operations, times(4)).expire(expiredKeys.capture(), ttls.capture());
+        assertThat(expiredKeys.getAllValues()).noneMatch(key -> key.contains(":all_time:"));
+        assertThat(ttls.getAllValues()).containsExactly(
+                Duration.ofDays(2), Duration.ofDays(2), Duration.ofDays(15), Duration.ofDays(15));
+        verify(hashOps).put("leaderboard:names", "p1", "雀神");
+    }
+
+    /**
+     * 让 RedisTemplate 把事务回调交给模拟的 RedisOperations 执行
+     */
+    private void runSessionCallbacks() {
+        when(redisTemplate.execute(ArgumentMatchers.<SessionCallback<List<Object>>>any()))
+                .thenAnswer(invocation -> invocation.<SessionCallback<List<Object>>>getArgument(0).execute(operations));
+    }
+}
@@ -0,0 +1,74 @@
+package com.mahjong.service;
+
+import com.mahjong.entity.Room;
+import com.mahjong.event.RoomLifecycleEvent;
+import com.mahjong.repository.RoomRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LobbyIndexServiceTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private WebSocketService webSocketService;
+
+    @InjectMocks
+    private LobbyIndexService lobbyIndex;
+
+    @Test
+    void dropsSnapshotWithOlderRoomVersion() {
+        // 两次并发加入：人数的批量更新不改 updated_at，提交后事件乱序到达
+        lobbyIndex.onRoomLifecycle(joined(room(3L, 3)));
+        lobbyIndex.onRoomLifecycle(joined(room(2L, 2)));
+
+        LobbyIndexService.LobbyPage page = lobbyIndex.query(null, null, null, 1, 10);
+        assertThat(page.getRooms()).singleElement()
+                .satisfies(entry -> assertThat(entry.getCurrentPlayers()).isEqualTo(3));
+        assertThat(page.getVersion()).isEqualTo(1);
+        verify(webSocketService, times(1)).sendMessageToRoom(eq(LobbyIndexService.LOBBY_CHANNEL),
+                eq(LobbyIndexService.LOBBY_UPDATE_EVENT), any());
+    }
+
+    @Test
+    void appliesSnapshotWithNewerRoomVersion() {
+        lobbyIndex.onRoomLifecycle(joined(room(2L, 2)));
+        lobbyIndex.onRoomLifecycle(joined(room(3L, 3)));
+        lobbyIndex.onRoomLifecycle(joined(room(3L, 3)));
+
+        LobbyIndexService.LobbyPage page = lobbyIndex.query(null, null, null, 1, 10);
+        assertThat(page.getRooms()).singleElement()
+                .satisfies(entry -> assertThat(entry.getCurrentPlayers()).isEqualTo(3));
+        assertThat(page.getVersion()).isEqualTo(2);
+    }
+
+    private static RoomLifecycleEvent joined(Room room) {
+        return RoomLifecycleEvent.of(RoomLifecycleEvent.Type.JOINED, room, "p1");
+    }
+
+    private static Room room(Long version, int currentPlayers) {
+        Room room = new Room();
+        room.setId(7L);
+        room.setRoomNumber("123456");
+        room.setCurrentPlayers(currentPlayers);
+        room.setVersion(version);
+        room.setCreatedAt(UPDATED_AT);
+        room.setUpdatedAt(UPDATED_AT);
+        return room;
+    }
+}
@@ -0,0 +1,76 @@
+package com.mahjong.service;
+
+import com.mahjong.event.PlayerChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NicknameSearchIndexTest {
+
+    private final NicknameSearchIndex index = new NicknameSearchIndex();
+
+    @Test
+    void ranksExactThenEarlierMatchesAndPagesOnIndexOrder() {
+        index.put("p1", "老王头");
+        index.put("p2", "王");
+        index.put("p3", "隔壁老王");
+        index.put("p4", "王者");
+        index.put("p5", "张三");
+
+        NicknameSearchIndex.SearchResult first = index.search("王", 0, 2);
+        NicknameSearchIndex.SearchResult second = index.search("王", 2, 2);
+
+        assertThat(first.getTotal()).isEqualTo(4);
+        assertThat(first.getPlayerIds()).containsExactly("p2", "p4");
+        assertThat(second.getPlayerIds()).containsExactly("p1", "p3");
+        assertThat(first.isTruncated()).isFalse();
+    }
+
+    @Test
+    void renamesAndRemovalsUpdatePostings() {
+        index.put("p1", "Ｍａｈｊｏｎｇ");
+        assertThat(index.search("mahj", 0, 10).getPlayerIds()).containsExactly("p1");
+
+        index.put("p1", "雀神");
+        assertThat(index.search("mahj", 0, 10).getTotal()).isZero();
+        assertThat(index.search("雀神", 0, 10).getPlayerIds()).containsExactly("p1");
+
+        index.remove("p1");
+        assertThat(index.search("雀", 0, 10).getTotal()).isZero();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void appliesPlayerChangeEvents() {
+        index.onPlayerChanged(PlayerChangedEvent.saved("p1", "东风", null, null, null, false));
+        assertThat(index.search("东风", 0, 10).getPlayerIds()).containsExactly("p1");
+
+        index.onPlayerChanged(PlayerChangedEvent.saved("p1", "西风", null, 7L, null, false));
+        assertThat(index.search("东风", 0, 10).getTotal()).isZero();
+        assertThat(index.search("西风", 0, 10).getPlayerIds()).containsExactly("p1");
+
+        index.onPlayerChanged(PlayerChangedEvent.removed("p1"));
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void capsCandidateScanAndFlagsTruncatedResults() {
+        ReflectionTestUtils.setField(index, "maxScan", 100);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            index.put("p" + i, "玩家" + i);
+            expected.add("p" + i);
+        }
+
+        NicknameSearchIndex.SearchResult result = index.search("玩家", 0, 10);
+
+        assertThat(result.isTruncated()).isTrue();
+        assertThat(result.getTotal()).isEqualTo(100);
+        assertThat(result.getPlayerIds()).hasSize(10).isSubsetOf(expected);
+        assertThat(index.search("玩家999", 0, 10).getPlayerIds()).containsExactly("p999");
+    }
+}
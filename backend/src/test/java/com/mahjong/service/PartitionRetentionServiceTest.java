@@ -0,0 +1,88 @@
+package com.mahjong.service;
+
+import com.mahjong.config.RetentionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionRetentionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private HistoryQueryRouter historyQueryRouter;
+
+    @Mock
+    private Connection connection;
+
+    @InjectMocks
+    private PartitionRetentionService service;
+
+    @BeforeEach
+    void setUp() {
+        RetentionProperties properties = new RetentionProperties();
+        properties.setTables(List.of("chat_messages"));
+        ReflectionTestUtils.setField(service, "properties", properties);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+    }
+
+    @Test
+    void skipsMaintenanceWhileAnotherNodeHoldsTheLock() throws Exception {
+        PreparedStatement acquire = statement(0);
+        when(connection.prepareStatement("SELECT GET_LOCK(?, 0)")).thenReturn(acquire);
+
+        assertThat(service.maintain()).isZero();
+
+        verify(jdbcTemplate, never()).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        verify(connection, never()).prepareStatement("SELECT RELEASE_LOCK(?)");
+        verify(historyQueryRouter, never()).refreshIndex();
+    }
+
+    @Test
+    void maintainsTablesInsideTheLockAndReleasesIt() throws Exception {
+        PreparedStatement acquire = statement(1);
+        PreparedStatement release = statement(1);
+        when(connection.prepareStatement("SELECT GET_LOCK(?, 0)")).thenReturn(acquire);
+        when(connection.prepareStatement("SELECT RELEASE_LOCK(?)")).thenReturn(release);
+
+        assertThat(service.maintain()).isZero();
+
+        // 表未分区时只读取分区列表
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq("chat_messages"));
+        verify(release).setString(1, "mahjong_partition_maintenance");
+        verify(release).executeQuery();
+    }
+
+    private static PreparedStatement statement(int result) throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(statement.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getInt(1)).thenReturn(result);
+        return statement;
+    }
+}
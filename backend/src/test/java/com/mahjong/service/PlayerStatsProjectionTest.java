@@ -0,0 +1,170 @@
+package com.mahjong.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mahjong.entity.Game;
+import com.mahjong.entity.GameConfig;
+import com.mahjong.entity.GameRound;
+import com.mahjong.entity.PlayerRound;
+import com.mahjong.entity.PlayerStats;
+import com.mahjong.entity.Room;
+import com.mahjong.repository.PlayerStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 玩家统计投影测试：INSERT ... ON DUPLICATE KEY UPDATE 累加与番数分布 JSON_SET 须在 MySQL 上验证，
+ * 同一回合重复计入只生效一次
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PlayerStatsService.class)
+@Testcontainers(disabledWithoutDocker = true)
+class PlayerStatsProjectionTest {
+
+    private static final TypeReference<Map<String, Integer>> FAN_DISTRIBUTION = new TypeReference<>() {
+    };
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.jdbc-url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlayerStatsService playerStatsService;
+
+    @Autowired
+    private PlayerStatsRepository playerStatsRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Game game;
+
+    @BeforeEach
+    void setUp() {
+        GameConfig config = new GameConfig();
+        config.setConfigName("stats-projection");
+        entityManager.persist(config);
+
+        Room room = new Room();
+        room.setRoomNumber("100002");
+        room.setRoomName("统计测试");
+        room.setCreatorId("winner");
+        room.setGameConfig(config);
+        entityManager.persist(room);
+
+        game = new Game();
+        game.setRoom(room);
+        entityManager.persist(game);
+    }
+
+    @Test
+    void applyingRoundTwiceCountsOnce() {
+        Long roundId = finishedRound(1, 8, 40);
+
+        assertThat(playerStatsService.applyRound(roundId)).isEqualTo(2);
+        assertThat(playerStatsService.applyRound(roundId)).isZero();
+
+        PlayerStats winner = stats("winner");
+        assertThat(winner.getRoundsPlayed()).isEqualTo(1);
+        assertThat(winner.getWins()).isEqualTo(1);
+        assertThat(winner.getZimoCount()).isEqualTo(1);
+        assertThat(winner.getTotalScore()).isEqualTo(40L);
+        assertThat(winner.getTotalFan()).isEqualTo(8);
+        assertThat(fanDistribution(winner)).containsExactly(Map.entry("8", 1));
+
+        PlayerStats loser = stats("loser");
+        assertThat(loser.getRoundsPlayed()).isEqualTo(1);
+        assertThat(loser.getWins()).isZero();
+        assertThat(loser.getTotalScore()).isEqualTo(-40L);
+        assertThat(loser.getHighScore()).isEqualTo(-40);
+        assertThat(fanDistribution(loser)).isEmpty();
+    }
+
+    @Test
+    void fanDistributionAccumulatesAcrossRounds() {
+        playerStatsService.applyRound(finishedRound(1, 8, 40));
+        playerStatsService.applyRound(finishedRound(2, 8, 40));
+        playerStatsService.applyRound(finishedRound(3, 13, 90));
+
+        PlayerStats winner = stats("winner");
+        assertThat(winner.getRoundsPlayed()).isEqualTo(3);
+        assertThat(winner.getWins()).isEqualTo(3);
+        assertThat(winner.getTotalFan()).isEqualTo(29);
+        assertThat(winner.getHighScore()).isEqualTo(90);
+        assertThat(winner.getTotalWinScore()).isEqualTo(170L);
+        assertThat(fanDistribution(winner)).containsOnly(Map.entry("8", 2), Map.entry("13", 1));
+
+        PlayerStats loser = stats("loser");
+        assertThat(loser.getRoundsPlayed()).isEqualTo(3);
+        assertThat(loser.getTotalScore()).isEqualTo(-170L);
+        assertThat(fanDistribution(loser)).isEmpty();
+    }
+
+    /**
+     * 写入一个已结束的自摸回合：winner 胡牌，loser 付分
+     */
+    private Long finishedRound(int roundNumber, int fan, int score) {
+        GameRound round = new GameRound();
+        round.setGame(game);
+        round.setRoundNumber(roundNumber);
+        round.setRoundStatus(GameRound.RoundStatus.FINISHED);
+        round.setWinType(GameRound.WinType.ZIMO);
+        round.setFanCount(fan);
+        round.setEndedAt(LocalDateTime.of(2026, 1, 1, 12, roundNumber));
+        entityManager.persist(round);
+        entityManager.persist(playerRound(round, "winner", 1, true, score, fan));
+        entityManager.persist(playerRound(round, "loser", 2, false, -score, 0));
+        entityManager.flush();
+        return round.getId();
+    }
+
+    private PlayerStats stats(String playerId) {
+        entityManager.clear();
+        return playerStatsRepository.findById(playerId).orElseThrow();
+    }
+
+    private Map<String, Integer> fanDistribution(PlayerStats stats) {
+        try {
+            return objectMapper.readValue(stats.getFanDistribution(), FAN_DISTRIBUTION);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static PlayerRound playerRound(GameRound round, String playerId, int position,
+                                           boolean winner, int score, int fan) {
+        PlayerRound playerRound = new PlayerRound();
+        playerRound.setGameRound(round);
+        playerRound.setPlayerId(playerId);
+        playerRound.setPlayerName("玩家" + playerId);
+        playerRound.setPlayerPosition(position);
+        playerRound.setWinner(winner);
+        playerRound.setScore(score);
+        playerRound.setFanCount(fan);
+        return playerRound;
+    }
+}
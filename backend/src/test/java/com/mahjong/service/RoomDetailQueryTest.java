@@ -0,0 +1,126 @@
+package com.mahjong.service;
+
+import com.mahjong.config.StatementCountingTestConfiguration;
+import com.mahjong.config.StatementScope;
+import com.mahjong.dto.response.RoomResponse;
+import com.mahjong.entity.GameConfig;
+import com.mahjong.entity.Player;
+import com.mahjong.entity.Room;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 房间详情查询测试：玩家、观战者、游戏配置须随房间一条语句加载，转换为响应时不再触发懒加载
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RoomService.class, StatementCountingTestConfiguration.class})
+@Testcontainers(disabledWithoutDocker = true)
+class RoomDetailQueryTest {
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.jdbc-url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @MockitoBean
+    private RoomNumberAllocator roomNumberAllocator;
+
+    @MockitoBean
+    private ExpiredRoomReaper expiredRoomReaper;
+
+    @MockitoBean
+    private RoomLookupService roomLookupService;
+
+    @MockitoBean
+    private GameConfigService gameConfigService;
+
+    @MockitoBean
+    private SeatAllocator seatAllocator;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Test
+    void loadsRoomDetailWithOneStatement() {
+        GameConfig config = new GameConfig();
+        config.setConfigName("detail-query");
+        entityManager.persist(config);
+
+        Room room = new Room();
+        room.setRoomNumber("100001");
+        room.setRoomName("详情测试");
+        room.setCreatorId("player-1");
+        room.setGameConfig(config);
+        room.setCurrentPlayers(4);
+        room.setSpectatorCount(1);
+        entityManager.persist(room);
+        for (int position = 1; position <= 4; position++) {
+            entityManager.persist(player("player-" + position, room, position, false));
+        }
+        entityManager.persist(player("spectator-1", room, 0, true));
+        entityManager.flush();
+        entityManager.clear();
+
+        StatementScope.begin();
+        RoomResponse detail;
+        StatementScope scope;
+        try {
+            detail = roomService.getRoomDetail("100001");
+        } finally {
+            scope = StatementScope.end();
+        }
+
+        assertThat(scope.getStatements()).isEqualTo(1);
+        assertThat(detail.getPlayers()).extracting(RoomResponse.PlayerResponse::getPosition)
+                .containsExactly(1, 2, 3, 4);
+        assertThat(detail.getSpectators()).hasSize(1);
+        assertThat(detail.getCreatorNickname()).isEqualTo("玩家player-1");
+        assertThat(detail.getGameConfig()).isNotNull();
+    }
+
+    @Test
+    void missingRoomIssuesOneStatement() {
+        StatementScope.begin();
+        RoomResponse detail;
+        StatementScope scope;
+        try {
+            detail = roomService.getRoomDetail("999999");
+        } finally {
+            scope = StatementScope.end();
+        }
+
+        assertThat(detail).isNull();
+        assertThat(scope.getStatements()).isEqualTo(1);
+    }
+
+    private static Player player(String id, Room room, int position, boolean spectator) {
+        Player player = new Player();
+        player.setId(id);
+        player.setRoom(room);
+        player.setPlayerName("玩家" + id);
+        player.setPlayerPosition(position);
+        player.setSpectator(spectator);
+        return player;
+    }
+}
@@ -0,0 +1,77 @@
+package com.mahjong.service;
+
+import com.mahjong.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RoomNumberAllocatorTest {
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @InjectMocks
+    private RoomNumberAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(allocator, "nodeIndex", 1);
+        ReflectionTestUtils.setField(allocator, "nodeCount", 4);
+    }
+
+    @Test
+    void allocatesOnlyWithinNodeRangeAndSkipsExistingNumbers() {
+        when(roomRepository.findRoomNumbersBetween("250000", "499999")).thenReturn(List.of("250000", "250001"));
+        allocator.initialize();
+
+        assertThat(allocator.available()).isEqualTo(250_000 - 2);
+        for (int i = 0; i < 1000; i++) {
+            int number = Integer.parseInt(allocator.allocate());
+            assertThat(number).isBetween(250_002, 499_999);
+        }
+    }
+
+    @Test
+    void reconcileReleasesNumbersMissingFromTableForTwoPasses() {
+        when(roomRepository.findRoomNumbersBetween(anyString(), anyString())).thenReturn(List.of());
+        allocator.initialize();
+        String reapedElsewhere = allocator.allocate();
+        String stillPersisted = allocator.allocate();
+        int full = allocator.available() + 2;
+
+        when(roomRepository.findRoomNumbersBetween(anyString(), anyString())).thenReturn(List.of(stillPersisted));
+        allocator.reconcile();
+        assertThat(allocator.available()).isEqualTo(full - 2);
+
+        allocator.reconcile();
+        assertThat(allocator.available()).isEqualTo(full - 1);
+
+        // 已回收的号码再次释放不会重复入栈
+        allocator.release(reapedElsewhere);
+        assertThat(allocator.available()).isEqualTo(full - 1);
+    }
+
+    @Test
+    void reconcileKeepsNumberAllocatedAfterPreviousPass() {
+        when(roomRepository.findRoomNumbersBetween(anyString(), anyString())).thenReturn(List.of());
+        allocator.initialize();
+        allocator.reconcile();
+        int before = allocator.available();
+
+        // 在两轮对账之间分配、尚未落库的号码只缺失一轮，不会被回收
+        allocator.allocate();
+        allocator.reconcile();
+        assertThat(allocator.available()).isEqualTo(before - 1);
+    }
+}
@@ -0,0 +1,171 @@
+package com.mahjong.service;
+
+import com.mahjong.event.RoomLifecycleEvent;
+import com.mahjong.repository.PlayerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatAllocatorTest {
+
+    private static final Long ROOM_ID = 7L;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @InjectMocks
+    private SeatAllocator allocator;
+
+    @Test
+    void claimsLowestFreeSeatAfterLoadingOccupiedPositions() {
+        when(playerRepository.findActivePositionsByRoomId(ROOM_ID)).thenReturn(Arrays.asList(1, 3, null, 0, 99));
+
+        assertThat(allocator.claim(ROOM_ID, 4)).isEqualTo(2);
+        assertThat(allocator.claim(ROOM_ID, 4)).isEqualTo(4);
+        assertThat(allocator.claim(ROOM_ID, 4)).isNull();
+
+        allocator.release(ROOM_ID, 3);
+        assertThat(allocator.claim(ROOM_ID, 4)).isEqualTo(3);
+        verify(playerRepository, times(1)).findActivePositionsByRoomId(ROOM_ID);
+    }
+
+    @Test
+    void concurrentClaimsNeverHandOutTheSameSeat() throws Exception {
+        int seats = 31;
+        int threads = 64;
+        when(playerRepository.findActivePositionsByRoomId(ROOM_ID)).thenReturn(List.of());
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return allocator.claim(ROOM_ID, seats);
+                }));
+            }
+            start.countDown();
+
+            List<Integer> claimed = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                Integer seat = future.get(10, TimeUnit.SECONDS);
+                if (seat != null) {
+                    claimed.add(seat);
+                }
+            }
+            Collections.sort(claimed);
+            List<Integer> expected = new ArrayList<>();
+            for (int seat = 1; seat <= seats; seat++) {
+                expected.add(seat);
+            }
+            assertThat(claimed).isEqualTo(expected);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void resyncReloadsPositionsFromDatabase() {
+        when(playerRepository.findActivePositionsByRoomId(ROOM_ID)).thenReturn(List.of()).thenReturn(List.of(1, 2));
+
+        assertThat(allocator.claim(ROOM_ID, 4)).isEqualTo(1);
+        // 座位1的写入失败，数据库实际占用1、2
+        allocator.resync(ROOM_ID);
+
+        assertThat(allocator.claim(ROOM_ID, 4)).isEqualTo(3);
+        verify(playerRepository, times(2)).findActivePositionsByRoomId(ROOM_ID);
+    }
+
+    @Test
+    void roomRemovalDropsBitmap() {
+        when(playerRepository.findActivePositionsByRoomId(ROOM_ID)).thenReturn(List.of());
+        assertThat(allocator.claim(ROOM_ID, 4)).isEqualTo(1);
+
+        allocator.onRoomLifecycle(RoomLifecycleEvent.expired(ROOM_ID, "123456"));
+
+        assertThat(allocator.claim(ROOM_ID, 4)).isEqualTo(1);
+    }
+
+    @Test
+    void reportsBitmapsByRoomNumberAndFlagsRoomsMissingFromLobby() {
+        when(playerRepository.findActivePositionsByRoomId(ROOM_ID)).thenReturn(List.of());
+        when(playerRepository.findActivePositionsByRoomId(8L)).thenReturn(List.of());
+        allocator.claim(ROOM_ID, 4);
+        allocator.claim(8L, 4);
+
+        RoomMemoryCollector collector = new RoomMemoryCollector();
+        collector.listed(ROOM_ID, "123456", "WAITING");
+        allocator.contribute(collector);
+
+        Map<String, RoomMemoryCollector.RoomUsage> rooms = collector.rooms();
+        assertThat(rooms.get("123456").getComponents()).containsKey("seats");
+        assertThat(rooms.get("123456").isListed()).isTrue();
+        // 大厅索引中已没有的房间仍持有位图
+        assertThat(rooms.get("#8").getComponents()).containsKey("seats");
+        assertThat(rooms.get("#8").isListed()).isFalse();
+    }
+
+    @Test
+    void releaseOnRollbackReturnsSeatOnlyWhenNotCommitted() {
+        when(playerRepository.findActivePositionsByRoomId(ROOM_ID)).thenReturn(List.of());
+        Integer committed = allocator.claim(ROOM_ID, 4);
+        Integer rolledBack = allocator.claim(ROOM_ID, 4);
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED,
+                () -> allocator.releaseOnRollback(ROOM_ID, committed));
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK,
+                () -> allocator.releaseOnRollback(ROOM_ID, rolledBack));
+
+        assertThat(allocator.claim(ROOM_ID, 4)).isEqualTo(rolledBack);
+        assertThat(allocator.claim(ROOM_ID, 4)).isEqualTo(3);
+    }
+
+    @Test
+    void releaseAfterCommitWaitsForCommit() {
+        when(playerRepository.findActivePositionsByRoomId(ROOM_ID)).thenReturn(List.of(1));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            allocator.releaseAfterCommit(ROOM_ID, 1);
+            assertThat(allocator.claim(ROOM_ID, 1)).isNull();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(allocator.claim(ROOM_ID, 1)).isEqualTo(1);
+    }
+
+    private static void completeTransaction(int status, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(status);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
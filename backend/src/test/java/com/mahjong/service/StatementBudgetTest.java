@@ -0,0 +1,174 @@
+package com.mahjong.service;
+
+import com.mahjong.config.StatementBudgetProperties;
+import com.mahjong.config.StatementCountingTestConfiguration;
+import com.mahjong.config.StatementScope;
+import com.mahjong.entity.GameConfig;
+import com.mahjong.entity.Player;
+import com.mahjong.entity.Room;
+import com.mahjong.service.dto.ApiResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 语句预算测试：聊天发送和加入房间在缓存全部未命中、会话快照缺失、座位位图未加载的最坏情况下，
+ * 执行的语句数不超过 game.statements.budgets 中对应接口的预算
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RoomService.class, ChatService.class, PlayerService.class, RoomLookupService.class, SeatAllocator.class,
+        StatementCountingTestConfiguration.class, StatementBudgetTest.NoCache.class})
+@EnableConfigurationProperties(StatementBudgetProperties.class)
+@Testcontainers(disabledWithoutDocker = true)
+class StatementBudgetTest {
+
+    private static final String ROOM_NUMBER = "200001";
+    private static final String CREATOR_ID = "10001";
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.jdbc-url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    /**
+     * 不启用缓存，所有按房间号、玩家ID的查找都回源
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    static class NoCache {
+        @Bean
+        CacheManager cacheManager() {
+            return new NoOpCacheManager();
+        }
+    }
+
+    @MockitoBean
+    private RoomNumberAllocator roomNumberAllocator;
+
+    @MockitoBean
+    private ExpiredRoomReaper expiredRoomReaper;
+
+    @MockitoBean
+    private GameConfigService gameConfigService;
+
+    @MockitoBean
+    private NicknameSearchIndex nicknameSearchIndex;
+
+    @MockitoBean
+    private SensitiveWordFilter sensitiveWordFilter;
+
+    @MockitoBean
+    private PlayerSessionRegistry playerSessionRegistry;
+
+    @MockitoBean
+    private WebSocketService webSocketService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private StatementBudgetProperties budgets;
+
+    @BeforeEach
+    void createRoom() {
+        GameConfig config = new GameConfig();
+        config.setConfigName("statement-budget");
+        entityManager.persist(config);
+
+        Room room = new Room();
+        room.setRoomNumber(ROOM_NUMBER);
+        room.setRoomName("语句预算");
+        room.setCreatorId(CREATOR_ID);
+        room.setGameConfig(config);
+        room.setCurrentPlayers(1);
+        entityManager.persist(room);
+
+        Player creator = new Player();
+        creator.setId(CREATOR_ID);
+        creator.setRoom(room);
+        creator.setPlayerName("房主");
+        creator.setPlayerPosition(1);
+        creator.setSpectator(false);
+        entityManager.persist(creator);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void chatFromPlayerWithoutSessionStaysWithinBudget() {
+        when(sensitiveWordFilter.filter(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        int statements = countStatements(() -> chatService.sendChatMessage(Long.valueOf(CREATOR_ID), ROOM_NUMBER, "你好"));
+
+        verify(webSocketService).handleChatMessage(Long.valueOf(CREATOR_ID), ROOM_NUMBER, "你好");
+        assertThat(statements).isLessThanOrEqualTo(budgets.budgetFor("POST /api/chat/message"));
+    }
+
+    @Test
+    void joinAsPlayerWithColdSeatBitmapStaysWithinBudget() {
+        int statements = countStatements(() -> {
+            ApiResponse<Room> response = roomService.joinRoom(ROOM_NUMBER, "10002", "玩家二", null, false);
+            assertThat(response.isSuccess()).as(response.getMessage()).isTrue();
+            assertThat(response.getData().getCurrentPlayers()).isEqualTo(2);
+            return response;
+        });
+
+        assertThat(statements).isLessThanOrEqualTo(budgets.budgetFor("POST /api/v1/rooms/{roomNumber}/join"));
+    }
+
+    @Test
+    void joinAsSpectatorStaysWithinBudget() {
+        int statements = countStatements(() -> {
+            ApiResponse<Room> response = roomService.joinRoom(ROOM_NUMBER, "10003", "观众", null, true);
+            assertThat(response.isSuccess()).as(response.getMessage()).isTrue();
+            assertThat(response.getData().getSpectatorCount()).isEqualTo(1);
+            return response;
+        });
+
+        assertThat(statements).isLessThanOrEqualTo(budgets.budgetFor("POST /api/v1/rooms/{roomNumber}/join"));
+    }
+
+    private static int countStatements(Supplier<?> operation) {
+        StatementScope.begin();
+        StatementScope scope;
+        try {
+            operation.get();
+        } finally {
+            scope = StatementScope.end();
+        }
+        return scope.getStatements();
+    }
+}
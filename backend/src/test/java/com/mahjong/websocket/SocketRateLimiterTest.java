@@ -0,0 +1,96 @@
+package com.mahjong.websocket;
+
+import com.corundumstudio.socketio.HandshakeData;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.mahjong.config.RateLimitProperties;
+import com.mahjong.service.PlayerSessionRegistry;
+import com.mahjong.service.dto.SessionProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SocketRateLimiterTest {
+
+    private static final String EVENT = "chat_message";
+
+    @Mock
+    private PlayerSessionRegistry playerSessionRegistry;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final SocketRateLimiter limiter = new SocketRateLimiter();
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.EventLimit limit = new RateLimitProperties.EventLimit();
+        limit.setConnection(limit(2));
+        limit.setRoom(limit(1));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getEvents().put(EVENT, limit);
+
+        ReflectionTestUtils.setField(limiter, "properties", properties);
+        ReflectionTestUtils.setField(limiter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(limiter, "playerSessionRegistry", playerSessionRegistry);
+    }
+
+    @Test
+    void roomBucketOnlyCountsRoomTheSessionBelongsTo() {
+        SocketIOClient outsider = client("p1", "111111");
+        SocketIOClient member = client("p2", "222222");
+
+        // 客户端填写他人房间号，只扣连接桶
+        assertThat(limiter.tryAcquire(outsider, EVENT, "222222")).isZero();
+        assertThat(limiter.tryAcquire(outsider, EVENT, "222222")).isZero();
+
+        assertThat(limiter.tryAcquire(member, EVENT, "222222")).isZero();
+        assertThat(limiter.tryAcquire(member, EVENT, "222222")).isPositive();
+        assertThat(throttled("room")).isEqualTo(1);
+    }
+
+    @Test
+    void roomRejectRefundsConnectionToken() {
+        SocketIOClient member = client("p1", "111111");
+
+        assertThat(limiter.tryAcquire(member, EVENT, "111111")).isZero();
+        assertThat(limiter.tryAcquire(member, EVENT, "111111")).isPositive();
+
+        // 被房间桶拒绝的那次不占连接配额，连接桶还剩一个令牌
+        assertThat(limiter.tryAcquire(member, EVENT, null)).isZero();
+        assertThat(limiter.tryAcquire(member, EVENT, null)).isPositive();
+        assertThat(throttled("room")).isEqualTo(1);
+        assertThat(throttled("connection")).isEqualTo(1);
+    }
+
+    private SocketIOClient client(String playerId, String roomNumber) {
+        HandshakeData handshake = mock(HandshakeData.class);
+        SocketIOClient client = mock(SocketIOClient.class);
+        when(client.getSessionId()).thenReturn(UUID.randomUUID());
+        when(client.getHandshakeData()).thenReturn(handshake);
+        when(handshake.getSingleUrlParam("userId")).thenReturn(playerId);
+        when(playerSessionRegistry.get(playerId))
+                .thenReturn(SessionProfile.builder().playerId(playerId).roomNumber(roomNumber).build());
+        return client;
+    }
+
+    private double throttled(String scope) {
+        return meterRegistry.counter("mahjong.socket.throttled", "event", EVENT, "scope", scope).count();
+    }
+
+    private static RateLimitProperties.Limit limit(int burst) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setRate(0.001);
+        limit.setBurst(burst);
+        return limit;
+    }
+}
@@ -0,0 +1,102 @@
+package com.mahjong.websocket;
+
+import com.corundumstudio.socketio.AckRequest;
+import com.corundumstudio.socketio.HandshakeData;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.mahjong.config.StatementBudgetMonitor;
+import com.mahjong.service.PlayerSessionRegistry;
+import com.mahjong.service.SensitiveWordFilter;
+import com.mahjong.service.WebSocketService;
+import com.mahjong.service.dto.SessionProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketMessageHandlerTest {
+
+    private static final String PLAYER_ID = "10001";
+
+    @Mock
+    private WebSocketService webSocketService;
+
+    @Mock
+    private SensitiveWordFilter sensitiveWordFilter;
+
+    @Mock
+    private PlayerSessionRegistry playerSessionRegistry;
+
+    @Mock
+    private SocketRateLimiter socketRateLimiter;
+
+    @Mock
+    private SyncLatencyTracer syncLatencyTracer;
+
+    @Mock
+    private StatementBudgetMonitor statementBudgetMonitor;
+
+    @Mock
+    private AckRequest ackRequest;
+
+    @InjectMocks
+    private WebSocketMessageHandler handler;
+
+    private SocketIOClient client;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(handler, "meterRegistry", new SimpleMeterRegistry());
+        HandshakeData handshake = mock(HandshakeData.class);
+        client = mock(SocketIOClient.class);
+        when(client.getHandshakeData()).thenReturn(handshake);
+        when(handshake.getSingleUrlParam("userId")).thenReturn(PLAYER_ID);
+        when(ackRequest.isAckRequested()).thenReturn(true);
+    }
+
+    @Test
+    void chatToRoomOutsideSessionIsRejected() {
+        when(playerSessionRegistry.get(PLAYER_ID)).thenReturn(session("111111"));
+
+        handler.onChatMessage(client, ackRequest, Map.of("roomId", "222222", "content", "你好"));
+
+        verify(webSocketService, never()).handleChatMessage(anyLong(), anyString(), anyString());
+        verify(ackRequest).sendAckData(Map.of("success", false, "message", "您不在此房间中"));
+    }
+
+    @Test
+    void chatWithoutSessionIsRejected() {
+        handler.onChatMessage(client, ackRequest, Map.of("roomId", "111111", "content", "你好"));
+
+        verify(webSocketService, never()).handleChatMessage(anyLong(), anyString(), anyString());
+        verify(sensitiveWordFilter, never()).filter(any());
+    }
+
+    @Test
+    void chatToOwnRoomIsBroadcast() {
+        when(playerSessionRegistry.get(PLAYER_ID)).thenReturn(session("111111"));
+        when(sensitiveWordFilter.filter("你好")).thenReturn("你好");
+
+        handler.onChatMessage(client, ackRequest, Map.of("roomId", "111111", "content", "你好"));
+
+        verify(webSocketService).handleChatMessage(Long.valueOf(PLAYER_ID), "111111", "你好");
+    }
+
+    private static SessionProfile session(String roomNumber) {
+        return SessionProfile.builder().playerId(PLAYER_ID).nickname("玩家").roomNumber(roomNumber).build();
+    }
+}
@@ -0,0 +1,26 @@
+#!/bin/bash
+# 构建并运行基准测试，结果以 JSON 保存到 benchmarks/results/<名称>.json
+#
+# 用法: ./run.sh [结果名称] [JMH参数...]
+#   ./run.sh                          # 全部基准，结果名为当前提交号
+#   ./run.sh baseline ChatFilter      # 只运行名称匹配 ChatFilter 的基准
+#   ./run.sh quick -f 1 -wi 1 -i 2    # 缩短运行时间（结果仅供粗略参考）
+
+set -e
+
+cd "$(dirname "$0")"
+
+NAME=${1:-$(git rev-parse --short HEAD 2>/dev/null || date +%Y%m%d%H%M%S)}
+shift || true
+
+echo "正在安装后端 classes 包..."
+(cd ../backend && mvn -B -q install -DskipTests)
+
+echo "正在构建基准测试..."
+mvn -B -q package
+
+mkdir -p results
+java -jar target/benchmarks.jar -rf json -rff "results/${NAME}.json" "$@"
+
+echo ""
+echo "结果已保存: benchmarks/results/${NAME}.json"
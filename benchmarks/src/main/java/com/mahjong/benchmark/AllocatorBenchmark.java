@@ -0,0 +1,122 @@
+package com.mahjong.benchmark;
+
+import com.mahjong.repository.PlayerRepository;
+import com.mahjong.repository.RoomRepository;
+import com.mahjong.service.RoomNumberAllocator;
+import com.mahjong.service.SeatAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 房间号分配与座位分配基准
+ * 仓库用桩对象代替，只测量内存中的分配与回收；
+ * 单线程结果反映单次开销，4线程结果反映同一节点/同一房间上的竞争。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class AllocatorBenchmark {
+
+    /**
+     * 已有约一半房间号被占用的单节点分配器
+     */
+    @State(Scope.Benchmark)
+    public static class RoomNumbers {
+        RoomNumberAllocator allocator;
+
+        @Setup
+        public void setup() {
+            List<String> existing = new ArrayList<>(500_000);
+            for (int number = 0; number < 1_000_000; number += 2) {
+                existing.add(String.format("%06d", number));
+            }
+            allocator = new RoomNumberAllocator();
+            Fixtures.inject(allocator, "roomRepository",
+                    Fixtures.stubRepository(RoomRepository.class, Map.of("findRoomNumbersBetween", existing)));
+            Fixtures.inject(allocator, "nodeIndex", 0);
+            Fixtures.inject(allocator, "nodeCount", 1);
+            allocator.initialize();
+        }
+    }
+
+    /**
+     * 座位分配器，初始所有房间无人入座
+     */
+    @State(Scope.Benchmark)
+    public static class Seats {
+        final AtomicLong nextRoomId = new AtomicLong();
+        SeatAllocator allocator;
+
+        @Setup
+        public void setup() {
+            allocator = new SeatAllocator();
+            Fixtures.inject(allocator, "playerRepository",
+                    Fixtures.stubRepository(PlayerRepository.class, Map.of("findActivePositionsByRoomId", List.of())));
+        }
+    }
+
+    /**
+     * 每个线程独占一个房间
+     */
+    @State(Scope.Thread)
+    public static class OwnRoom {
+        Long roomId;
+
+        @Setup
+        public void setup(Seats seats) {
+            roomId = seats.nextRoomId.incrementAndGet();
+        }
+    }
+
+    @Benchmark
+    public String allocateAndReleaseRoomNumber(RoomNumbers state) {
+        String roomNumber = state.allocator.allocate();
+        state.allocator.release(roomNumber);
+        return roomNumber;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String allocateAndReleaseRoomNumberContended(RoomNumbers state) {
+        return allocateAndReleaseRoomNumber(state);
+    }
+
+    @Benchmark
+    public Integer claimAndReleaseSeat(Seats seats, OwnRoom room) {
+        return claimAndRelease(seats.allocator, room.roomId);
+    }
+
+    /**
+     * 4个线程争抢同一房间的4个座位
+     */
+    @Benchmark
+    @Threads(4)
+    public Integer claimAndReleaseSeatSharedRoom(Seats seats) {
+        return claimAndRelease(seats.allocator, 0L);
+    }
+
+    private static Integer claimAndRelease(SeatAllocator allocator, Long roomId) {
+        Integer seat = allocator.claim(roomId, 4);
+        if (seat != null) {
+            allocator.release(roomId, seat);
+        }
+        return seat;
+    }
+}
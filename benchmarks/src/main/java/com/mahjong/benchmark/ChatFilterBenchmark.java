@@ -0,0 +1,106 @@
+package com.mahjong.benchmark;
+
+import com.mahjong.service.SensitiveWordFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 聊天敏感词过滤基准
+ * 通过 SensitiveWordFilter 的正式加载路径读入生成的词库，
+ * 与原先逐词 replaceAll 的实现对比，观察耗时随词库规模的变化。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ChatFilterBenchmark {
+
+    private static final int CONTENT_COUNT = 1024;
+
+    /**
+     * 词库词条数
+     */
+    @Param({"10", "1000", "50000"})
+    public int dictionarySize;
+
+    /**
+     * 消息中含敏感词的比例
+     */
+    @Param({"0.0", "0.2"})
+    public double dirtyRatio;
+
+    private SensitiveWordFilter filter;
+    private List<String> words;
+    private String[] contents;
+    private Path wordFile;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        words = Fixtures.sensitiveWords(dictionarySize, 42L);
+        contents = Fixtures.chatContents(CONTENT_COUNT, 40, words, dirtyRatio, 7L);
+
+        wordFile = Files.createTempFile("sensitive-words", ".txt");
+        Files.write(wordFile, words, StandardCharsets.UTF_8);
+        filter = new SensitiveWordFilter(new DefaultResourceLoader());
+        Fixtures.inject(filter, "location", wordFile.toUri().toString());
+        if (filter.reload() != dictionarySize) {
+            throw new IllegalStateException("词库加载不完整: " + filter.getWordCount());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(wordFile);
+    }
+
+    @Benchmark
+    public String filter() {
+        return filter.filter(nextContent());
+    }
+
+    @Benchmark
+    public boolean containsSensitiveWord() {
+        return filter.containsSensitiveWord(nextContent());
+    }
+
+    /**
+     * 原实现：逐个词条 replaceAll，仅在小词库下运行有意义
+     */
+    @Benchmark
+    public String legacyReplaceAll() {
+        String content = nextContent();
+        if (dictionarySize > 1000) {
+            return content;
+        }
+        for (String word : words) {
+            content = content.replaceAll(word, "***");
+        }
+        return content;
+    }
+
+    private String nextContent() {
+        return contents[cursor++ & (CONTENT_COUNT - 1)];
+    }
+}
@@ -0,0 +1,200 @@
+package com.mahjong.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mahjong.dto.response.RoomResponse;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 基准测试共用的样本数据与桩对象
+ * 样本取固定随机种子生成，保证不同运行之间输入一致、结果可比。
+ */
+final class Fixtures {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 20, 30, 15);
+
+    private Fixtures() {
+    }
+
+    /**
+     * 与应用配置一致的 ObjectMapper（spring.jackson.* + JavaTimeModule）
+     */
+    static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * 房间详情：满座玩家、若干观战者和游戏配置
+     */
+    static RoomResponse roomDetail(int roomIndex, int spectators) {
+        List<RoomResponse.PlayerResponse> players = new ArrayList<>(4);
+        for (int position = 1; position <= 4; position++) {
+            players.add(player("p" + roomIndex + "-" + position, "玩家" + roomIndex + "_" + position, position));
+        }
+        List<RoomResponse.PlayerResponse> watchers = new ArrayList<>(spectators);
+        for (int i = 0; i < spectators; i++) {
+            watchers.add(player("s" + roomIndex + "-" + i, "观众" + i, null));
+        }
+        return RoomResponse.builder()
+                .id(10_000L + roomIndex)
+                .roomNumber(String.format("%06d", 123_456 + roomIndex))
+                .roomName("河南麻将房间" + roomIndex)
+                .hasPassword(false)
+                .creatorId(players.get(0).getId())
+                .creatorNickname(players.get(0).getNickname())
+                .roomStatus("PLAYING")
+                .maxPlayers(4)
+                .currentPlayers(4)
+                .spectatorCount(spectators)
+                .allowSpectate(true)
+                .isPublic(true)
+                .gameConfig(RoomResponse.GameConfigResponse.builder()
+                        .id(1L)
+                        .configName("标准规则")
+                        .baseScore(1)
+                        .maxRounds(8)
+                        .allowPeng(true)
+                        .allowGang(true)
+                        .mixedTileEnabled(true)
+                        .thinkTime(30)
+                        .description("河南麻将标准玩法")
+                        .isDefault(true)
+                        .useCount(1024)
+                        .build())
+                .players(players)
+                .spectators(watchers)
+                .createdAt(NOW)
+                .expiresAt(NOW.plusHours(1))
+                .updatedAt(NOW)
+                .build();
+    }
+
+    /**
+     * 大厅列表页：不含玩家明细的房间摘要
+     */
+    static List<RoomResponse> lobbyPage(int size) {
+        List<RoomResponse> rooms = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            RoomResponse room = roomDetail(i, 0);
+            room.setPlayers(null);
+            room.setSpectators(null);
+            room.setRoomStatus("WAITING");
+            room.setCurrentPlayers(1 + i % 3);
+            rooms.add(room);
+        }
+        return rooms;
+    }
+
+    /**
+     * 房间内广播的聊天消息
+     */
+    static Map<String, Object> chatMessage() {
+        return Map.of(
+                "id", "1234567890123456789",
+                "roomId", "123456",
+                "senderId", "p0-1",
+                "sender", "玩家0_1",
+                "content", "这把牌不错，等我胡一把",
+                "type", "user",
+                "timestamp", 1717245015000L
+        );
+    }
+
+    /**
+     * 生成聊天内容：混合常用汉字、字母和数字，按比例插入词库中的词条
+     */
+    static String[] chatContents(int count, int length, List<String> words, double dirtyRatio, long seed) {
+        Random random = new Random(seed);
+        String alphabet = "的一是了我不人在他有这个上们来到时大地为子中你说生国年着就那和要她出也得里后自以会家可下而过天去能对小多然于心学么之都好看起发当没成只如事把还用第样道想作种开美总从无情己面最女但现前些所同日手又行意动方期它头经长儿回位分爱老因很给名法间斯知世什两次使身者被高已亲其进此话常与活正感abcdefgxyz0123456789";
+        String[] contents = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder(length + 8);
+            while (sb.length() < length) {
+                if (!words.isEmpty() && random.nextDouble() < dirtyRatio / 4) {
+                    sb.append(words.get(random.nextInt(words.size())));
+                } else {
+                    sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+            }
+            contents[i] = sb.substring(0, length);
+        }
+        return contents;
+    }
+
+    /**
+     * 生成指定数量的不重复词条（2~4个汉字）
+     */
+    static List<String> sensitiveWords(int count, long seed) {
+        Random random = new Random(seed);
+        Set<String> words = new LinkedHashSet<>();
+        words.addAll(List.of("政治", "色情", "暴力", "赌博", "毒品"));
+        while (words.size() < count) {
+            int length = 2 + random.nextInt(3);
+            StringBuilder sb = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                sb.append((char) (0x4E00 + random.nextInt(0x5000)));
+            }
+            words.add(sb.toString());
+        }
+        return new ArrayList<>(words).subList(0, count);
+    }
+
+    /**
+     * 仓库接口桩：按方法名返回固定结果，其余方法返回 null
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stubRepository(Class<T> type, Map<String, Object> results) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            return results.get(method.getName());
+        });
+    }
+
+    /**
+     * 设置私有字段（替代 Spring 注入）
+     */
+    static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("无法设置字段: " + fieldName, e);
+        }
+    }
+
+    private static RoomResponse.PlayerResponse player(String id, String nickname, Integer position) {
+        return RoomResponse.PlayerResponse.builder()
+                .id(id)
+                .playerName(nickname)
+                .nickname(nickname)
+                .avatarUrl("https://cdn.example.com/avatar/" + id + ".png")
+                .position(position)
+                .status(position != null ? "PLAYING" : "SPECTATING")
+                .isSpectator(position == null)
+                .isOnline(true)
+                .isReady(position != null)
+                .totalScore(position != null ? position * 10L : 0L)
+                .winCount(position != null ? position : 0)
+                .lastActiveAt(NOW)
+                .build();
+    }
+}
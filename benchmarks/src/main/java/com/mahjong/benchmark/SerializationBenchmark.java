@@ -0,0 +1,78 @@
+package com.mahjong.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mahjong.dto.response.RoomResponse;
+import com.mahjong.service.dto.ApiResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST 响应 JSON 序列化基准
+ * 覆盖房间详情（GET /api/v1/rooms/{roomNumber}）、统一响应包装和大厅列表页。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SerializationBenchmark {
+
+    /**
+     * 房间观战人数
+     */
+    @Param({"0", "20"})
+    public int spectators;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter roomWriter;
+    private RoomResponse room;
+    private ApiResponse<RoomResponse> wrappedRoom;
+    private ApiResponse<List<RoomResponse>> lobbyPage;
+
+    @Setup
+    public void setup() {
+        objectMapper = Fixtures.objectMapper();
+        roomWriter = objectMapper.writerFor(RoomResponse.class);
+        room = Fixtures.roomDetail(0, spectators);
+        wrappedRoom = ApiResponse.success(room);
+        lobbyPage = ApiResponse.success(Fixtures.lobbyPage(20));
+    }
+
+    @Benchmark
+    public byte[] roomResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(room);
+    }
+
+    /**
+     * 预先解析类型的 ObjectWriter，对比按运行时类型查找序列化器的开销
+     */
+    @Benchmark
+    public byte[] roomResponseWithWriter() throws JsonProcessingException {
+        return roomWriter.writeValueAsBytes(room);
+    }
+
+    @Benchmark
+    public byte[] apiResponseOfRoom() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(wrappedRoom);
+    }
+
+    @Benchmark
+    public byte[] apiResponseOfLobbyPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(lobbyPage);
+    }
+}
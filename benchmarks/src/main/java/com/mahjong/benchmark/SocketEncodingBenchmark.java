@@ -0,0 +1,85 @@
+package com.mahjong.benchmark;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketEncoder;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Socket.IO 事件编码基准
+ * 按 netty-socketio 发送事件的方式构造数据包（MESSAGE + EVENT，参数列表作为数据），
+ * 使用服务端同样的池化分配器编码，测量房间状态推送和聊天广播的单包编码开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SocketEncodingBenchmark {
+
+    private PacketEncoder encoder;
+    private ByteBufAllocator allocator;
+    private Packet roomStatePacket;
+    private Packet chatPacket;
+
+    @Setup
+    public void setup() {
+        encoder = new PacketEncoder(new Configuration(), new JacksonJsonSupport(new JavaTimeModule()));
+        allocator = PooledByteBufAllocator.DEFAULT;
+        roomStatePacket = event("room_state_change", Map.of(
+                "type", "player_joined",
+                "room", Fixtures.roomDetail(0, 4),
+                "timestamp", 1717245015000L));
+        chatPacket = event("chat_message", Fixtures.chatMessage());
+    }
+
+    @Benchmark
+    public int roomStateChange() throws IOException {
+        return encode(roomStatePacket);
+    }
+
+    @Benchmark
+    public int chatMessage() throws IOException {
+        return encode(chatPacket);
+    }
+
+    private int encode(Packet packet) throws IOException {
+        ByteBuf buffer = encoder.allocateBuffer(allocator);
+        try {
+            encoder.encodePacket(packet, buffer, allocator, false);
+            return buffer.readableBytes();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static Packet event(String name, Object data) {
+        Packet packet = new Packet(PacketType.MESSAGE);
+        packet.setSubType(PacketType.EVENT);
+        packet.setNsp("");
+        packet.setName(name);
+        packet.setData(List.of(data));
+        return packet;
+    }
+}
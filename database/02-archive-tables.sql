@@ -0,0 +1,16 @@
+-- 河南麻将游戏对局归档表
+-- 过期房间回收时，已结束对局的游戏、回合、玩家回合数据以及房间聊天记录先复制到归档表再删除
+-- 归档表与原表结构一致（LIKE 复制列和索引，不复制外键）
+-- 启用分区保留（03-partition-history-tables.sql）后，对局动作和聊天记录改由按月分区导出归档，
+-- game_actions_archive / chat_messages_archive 只保存启用前回收的数据
+
+USE mahjong_game;
+
+CREATE TABLE IF NOT EXISTS games_archive LIKE games;
+CREATE TABLE IF NOT EXISTS game_rounds_archive LIKE game_rounds;
+CREATE TABLE IF NOT EXISTS game_actions_archive LIKE game_actions;
+CREATE TABLE IF NOT EXISTS player_rounds_archive LIKE player_rounds;
+CREATE TABLE IF NOT EXISTS chat_messages_archive LIKE chat_messages;
+
+-- 过期房间回收按 expires_at 范围扫描
+CREATE INDEX idx_expires_at ON rooms (expires_at);
@@ -0,0 +1,31 @@
+-- 河南麻将游戏历史表分区迁移
+-- game_actions 与 chat_messages 按 created_at 月度 RANGE 分区，
+-- 过期分区由 PartitionRetentionService 导出为归档文件后 DROP PARTITION，
+-- 热表的写入性能与索引大小不随历史总量增长。
+--
+-- 注意：
+-- 1. MySQL 分区表不支持外键，且主键必须包含分区列，因此先删除外键并把主键改为 (id, created_at)
+-- 2. 分区函数 TO_DAYS 要求 created_at 为 DATETIME 类型
+-- 3. 迁移只建立 p_future 兜底分区；设置 RETENTION_ENABLED=true 后，应用启动时（及每日维护时）
+--    由 PartitionRetentionService 把 p_future 拆分为 p_history（执行当月之前的全部数据）
+--    和从当月开始的按月分区，月份边界由应用按当前日期生成，无需手工修改本脚本
+-- 4. 首次拆分会重组 p_future 中的全部数据，请在执行迁移后于低峰期启动应用
+
+USE mahjong_game;
+
+-- 对局操作记录
+ALTER TABLE game_actions DROP FOREIGN KEY fk_action_game;
+ALTER TABLE game_actions DROP FOREIGN KEY fk_action_round;
+ALTER TABLE game_actions MODIFY created_at DATETIME(6) NOT NULL;
+ALTER TABLE game_actions DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at);
+ALTER TABLE game_actions PARTITION BY RANGE (TO_DAYS(created_at)) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+-- 聊天记录
+ALTER TABLE chat_messages DROP FOREIGN KEY fk_chat_room;
+ALTER TABLE chat_messages MODIFY created_at DATETIME(6) NOT NULL;
+ALTER TABLE chat_messages DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at);
+ALTER TABLE chat_messages PARTITION BY RANGE (TO_DAYS(created_at)) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
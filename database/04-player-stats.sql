@@ -0,0 +1,34 @@
+-- 河南麻将游戏玩家统计投影
+-- 回合结算时按玩家增量累加，资料页按主键单行读取
+
+USE mahjong_game;
+
+CREATE TABLE IF NOT EXISTS player_stats (
+    player_id VARCHAR(36) PRIMARY KEY COMMENT '玩家ID',
+    rounds_played INT NOT NULL DEFAULT 0 COMMENT '参与回合数',
+    wins INT NOT NULL DEFAULT 0 COMMENT '胡牌次数',
+    zimo_count INT NOT NULL DEFAULT 0 COMMENT '自摸次数',
+    total_score BIGINT NOT NULL DEFAULT 0 COMMENT '累计得分',
+    high_score INT NOT NULL DEFAULT 0 COMMENT '单回合最高得分',
+    total_win_score BIGINT NOT NULL DEFAULT 0 COMMENT '胡牌累计得分',
+    total_fan INT NOT NULL DEFAULT 0 COMMENT '胡牌累计番数',
+    fan_distribution JSON COMMENT '番数分布',
+    peng_count INT NOT NULL DEFAULT 0 COMMENT '碰牌次数',
+    ming_gang_count INT NOT NULL DEFAULT 0 COMMENT '明杠次数(含补杠)',
+    an_gang_count INT NOT NULL DEFAULT 0 COMMENT '暗杠次数',
+    think_time_total_ms BIGINT NOT NULL DEFAULT 0 COMMENT '累计思考时间(毫秒)',
+    think_action_count BIGINT NOT NULL DEFAULT 0 COMMENT '计时操作数',
+    last_round_at DATETIME(6) NULL COMMENT '最近结算时间',
+    updated_at DATETIME(6) NOT NULL COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='玩家统计投影表';
+
+-- 回合统计幂等标记
+ALTER TABLE game_rounds ADD COLUMN stats_applied BOOLEAN DEFAULT FALSE COMMENT '是否已计入玩家统计';
+ALTER TABLE game_rounds ADD COLUMN scores_settled BOOLEAN DEFAULT FALSE COMMENT '是否已把得分计入玩家表';
+
+-- 归档表结构需与热表一致（INSERT ... SELECT *）
+ALTER TABLE game_rounds_archive ADD COLUMN stats_applied BOOLEAN DEFAULT FALSE COMMENT '是否已计入玩家统计';
+ALTER TABLE game_rounds_archive ADD COLUMN scores_settled BOOLEAN DEFAULT FALSE COMMENT '是否已把得分计入玩家表';
+
+-- 回合结算时按回合汇总操作
+CREATE INDEX idx_game_round_id ON game_actions (game_round_id);
@@ -0,0 +1,27 @@
+-- 河南麻将游戏回合数据紧凑存储
+-- 手牌、副露、操作计数、回合得分由JSON改为紧凑二进制（见 com.mahjong.entity.codec）
+-- MODIFY 会把现有JSON转成文本字节保留下来，应用读取时按首字节识别旧JSON格式，
+-- 行被重新写入时自动改为紧凑格式；如需回看原始JSON，可设置 game.storage.compact-round-columns=false
+
+USE mahjong_game;
+
+ALTER TABLE player_rounds
+    MODIFY hand_tiles VARBINARY(1024) COMMENT '最终手牌',
+    MODIFY chi_combinations VARBINARY(1024) COMMENT '吃牌组合',
+    MODIFY peng_combinations VARBINARY(1024) COMMENT '碰牌组合',
+    MODIFY gang_combinations VARBINARY(1024) COMMENT '杠牌组合',
+    MODIFY statistics VARBINARY(1024) COMMENT '操作计数';
+
+ALTER TABLE game_rounds
+    MODIFY scores VARBINARY(1024) COMMENT '各玩家得分';
+
+-- 归档表结构需与热表一致（INSERT ... SELECT *）
+ALTER TABLE player_rounds_archive
+    MODIFY hand_tiles VARBINARY(1024) COMMENT '最终手牌',
+    MODIFY chi_combinations VARBINARY(1024) COMMENT '吃牌组合',
+    MODIFY peng_combinations VARBINARY(1024) COMMENT '碰牌组合',
+    MODIFY gang_combinations VARBINARY(1024) COMMENT '杠牌组合',
+    MODIFY statistics VARBINARY(1024) COMMENT '操作计数';
+
+ALTER TABLE game_rounds_archive
+    MODIFY scores VARBINARY(1024) COMMENT '各玩家得分';
@@ -0,0 +1,7 @@
+-- 河南麻将游戏房间乐观锁
+-- 房间人数改为原子UPDATE并推进版本号，持有旧状态的房间实体保存时会因版本不一致失败，不再覆盖并发更新的人数
+
+USE mahjong_game;
+
+ALTER TABLE rooms
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0 COMMENT '乐观锁版本号';
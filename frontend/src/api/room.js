@@ -203,7 +203,6 @@ export const roomApi = {
    * @param {number} params.page - 页码
    * @param {number} params.size - 每页大小
    * @param {string} params.status - 房间状态过滤
-   * @param {boolean} params.isPublic - 是否公开房间
    * @returns {Promise}
    */
   getRoomList: (params = {}) => {
@@ -16,6 +16,7 @@ export const useRoomStore = defineStore('room', () => {
   const error = ref(null)
   const wsConnection = ref(null)
   const currentPlayerId = ref('')
+  const lobbyVersion = ref(0)
 
   // 计算属性
   const isRoomOwner = computed(() => {
@@ -212,6 +213,50 @@ export const useRoomStore = defineStore('room', () => {
     }
   }
 
+  // 大厅订阅（Socket.IO推送房间列表增量）
+  const subscribeLobby = (socket, params = {}) => {
+    if (!socket) return Promise.resolve(false)
+
+    socket.off('lobby_update', applyLobbyUpdate)
+    socket.on('lobby_update', applyLobbyUpdate)
+
+    return new Promise((resolve) => {
+      socket.emit('subscribe_lobby', params, (response) => {
+        if (response && response.success) {
+          roomList.value = response.data.rooms || []
+          lobbyVersion.value = response.data.version || 0
+          resolve(true)
+        } else {
+          error.value = response?.message || '订阅大厅失败'
+          resolve(false)
+        }
+      })
+    })
+  }
+
+  const unsubscribeLobby = (socket) => {
+    if (!socket) return
+    socket.off('lobby_update', applyLobbyUpdate)
+    socket.emit('unsubscribe_lobby')
+  }
+
+  const applyLobbyUpdate = (update) => {
+    // 丢弃过时的增量（快照之前产生的变更）
+    if (!update || update.version <= lobbyVersion.value) return
+
+    if (update.op === 'remove') {
+      roomList.value = roomList.value.filter(room => room.id !== update.roomId)
+    } else if (update.op === 'upsert' && update.room) {
+      const index = roomList.value.findIndex(room => room.id === update.room.id)
+      if (index !== -1) {
+        roomList.value[index] = update.room
+      } else {
+        roomList.value.unshift(update.room)
+      }
+    }
+    lobbyVersion.value = update.version
+  }
+
   // WebSocket 连接管理
   const connectWebSocket = (roomNumber) => {
     if (wsConnection.value) {
@@ -383,6 +428,7 @@ export const useRoomStore = defineStore('room', () => {
     isLoading,
     error,
     wsConnection,
+    lobbyVersion,
 
     // 计算属性
     isRoomOwner,
@@ -404,6 +450,11 @@ export const useRoomStore = defineStore('room', () => {
     getRoomList,
     getUserRoom,
 
+    // 大厅订阅
+    subscribeLobby,
+    unsubscribeLobby,
+    applyLobbyUpdate,
+
     // WebSocket
     connectWebSocket,
     disconnectWebSocket,
@@ -0,0 +1,61 @@
+#!/bin/bash
+# 本机一键压测：启动 MySQL/Redis 容器 → 启动后端 → 运行压测 → 清理
+#
+# 用法: ./run.sh [压测参数...]
+#   ./run.sh                                # 默认 1000 房间 × 4 玩家
+#   ./run.sh --rooms 200 --turns 20         # 参数见 java -jar target/loadtest.jar --help
+#
+# 环境变量:
+#   BACKEND_OPTS   后端 JVM 参数（默认 -Xms1g -Xmx1g）
+#   KEEP_ENV=1     结束后保留容器和后端进程
+
+set -e
+
+cd "$(dirname "$0")"
+RESULTS=results/$(date +%Y%m%d-%H%M%S)
+mkdir -p "$RESULTS"
+
+echo "正在启动 MySQL / Redis..."
+docker compose up -d --wait
+
+echo "正在构建后端和压测工具..."
+(cd ../backend && mvn -B -q package -DskipTests)
+mvn -B -q package
+
+echo "正在启动后端..."
+SPRING_PROFILES_ACTIVE=loadtest \
+DB_URL="jdbc:mysql://127.0.0.1:3306/mahjong_db?useUnicode=true&characterEncoding=utf8&useSSL=false&serverTimezone=Asia/Shanghai&allowPublicKeyRetrieval=true" \
+DB_USERNAME=root DB_PASSWORD=123456 REDIS_HOST=127.0.0.1 \
+LOG_LEVEL=INFO SQL_LOG_LEVEL=WARN JPA_DDL_AUTO=update \
+java ${BACKEND_OPTS:--Xms1g -Xmx1g} -Xlog:gc*:file="$RESULTS/backend-gc.log":time,uptime \
+    -XX:StartFlightRecording:settings=default,../scripts/jfr/mahjong.jfc,dumponexit=true,filename="$RESULTS/backend.jfr" \
+    -jar ../backend/target/mahjong-game-1.0.0.war > "$RESULTS/backend.log" 2>&1 &
+BACKEND_PID=$!
+
+cleanup() {
+    if [ "$KEEP_ENV" != "1" ]; then
+        kill $BACKEND_PID 2>/dev/null || true
+        docker compose down
+    fi
+}
+trap cleanup EXIT
+
+for i in $(seq 1 60); do
+    if curl -sf http://127.0.0.1:9980/actuator/health > /dev/null; then
+        break
+    fi
+    if ! kill -0 $BACKEND_PID 2>/dev/null; then
+        echo "[ERROR] 后端启动失败，见 $RESULTS/backend.log"
+        exit 2
+    fi
+    sleep 2
+done
+
+echo "正在运行压测..."
+set +e
+java -Xms512m -Xmx2g -jar target/loadtest.jar --host 127.0.0.1 --report "$RESULTS/report.json" "$@"
+STATUS=$?
+set -e
+
+echo "结果目录: $RESULTS"
+exit $STATUS
@@ -0,0 +1,92 @@
+package com.mahjong.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 压测指标
+ * 延迟用 HdrHistogram Recorder 记录（纳秒，3位有效数字），Netty 事件线程和 HTTP 线程可无锁并发写入；
+ * 进度线程定期取出区间直方图，既用于打印区间值，也累加到全程直方图。
+ */
+final class LoadMetrics {
+
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(5);
+
+    final Latency connect = new Latency();
+    final Latency ack = new Latency();
+    final Latency delivery = new Latency();
+    private final Map<String, Latency> rest = new ConcurrentHashMap<>();
+
+    final LongAdder connectsFailed = new LongAdder();
+    final LongAdder disconnectsUnexpected = new LongAdder();
+    final LongAdder restErrors = new LongAdder();
+    final LongAdder actionsSent = new LongAdder();
+    final LongAdder actionsFailed = new LongAdder();
+    final LongAdder actionsThrottled = new LongAdder();
+    final LongAdder deliveries = new LongAdder();
+    final LongAdder expectedDeliveries = new LongAdder();
+    final LongAdder roomsCompleted = new LongAdder();
+    final LongAdder roomsFailed = new LongAdder();
+    final AtomicInteger roomsActive = new AtomicInteger();
+    final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong firstConnectMillis = new AtomicLong();
+    private final AtomicLong lastConnectMillis = new AtomicLong();
+
+    Latency rest(String operation) {
+        return rest.computeIfAbsent(operation, k -> new Latency());
+    }
+
+    Map<String, Latency> restLatencies() {
+        return rest;
+    }
+
+    void connected() {
+        long now = System.currentTimeMillis();
+        firstConnectMillis.compareAndSet(0, now);
+        lastConnectMillis.accumulateAndGet(now, Math::max);
+    }
+
+    /**
+     * 第一个到最后一个连接建立之间的秒数
+     */
+    double connectWindowSeconds() {
+        long first = firstConnectMillis.get();
+        return first == 0 ? 0 : (lastConnectMillis.get() - first) / 1000.0;
+    }
+
+    /**
+     * 单项延迟：写入端 Recorder + 全程累计直方图
+     */
+    static final class Latency {
+        private final Recorder recorder = new Recorder(MAX_LATENCY, 3);
+        private final Histogram total = new Histogram(MAX_LATENCY, 3);
+        private Histogram interval;
+
+        void record(long nanos) {
+            recorder.recordValue(Math.min(Math.max(nanos, 0), MAX_LATENCY));
+        }
+
+        /**
+         * 取出上次调用以来的区间直方图并累加到全程（仅由进度线程调用）
+         */
+        synchronized Histogram sampleInterval() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return interval;
+        }
+
+        /**
+         * 全程直方图（调用前先 sampleInterval 取尽剩余数据）
+         */
+        synchronized Histogram total() {
+            return total.copy();
+        }
+    }
+}
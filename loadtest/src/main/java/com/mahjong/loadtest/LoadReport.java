@@ -0,0 +1,141 @@
+package com.mahjong.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 压测结果汇总
+ * 控制台输出可读报告，同时写出 JSON 便于不同版本之间对比。
+ */
+final class LoadReport {
+
+    /**
+     * 投递率低于该值视为不达标（丢消息）
+     */
+    private static final double MIN_DELIVERY_RATIO = 0.999;
+
+    private final Map<String, Object> result = new LinkedHashMap<>();
+    private final boolean passed;
+
+    LoadReport(LoadTestConfig config, LoadMetrics metrics, double elapsedSeconds,
+               Map<String, Object> server, long clientGcMillis) {
+        Histogram delivery = metrics.delivery.total();
+        long expected = metrics.expectedDeliveries.sum();
+        long delivered = metrics.deliveries.sum();
+        double deliveryRatio = expected == 0 ? 0 : (double) delivered / expected;
+        double connectWindow = metrics.connect.total().getTotalCount() <= 1 ? 0 : metrics.connectWindowSeconds();
+        long connects = metrics.connect.total().getTotalCount();
+
+        double p99 = delivery.getValueAtPercentile(99) / 1e6;
+        passed = delivery.getTotalCount() > 0
+                && p99 <= config.sla.toMillis()
+                && deliveryRatio >= MIN_DELIVERY_RATIO
+                && metrics.roomsFailed.sum() == 0;
+
+        result.put("config", config.toMap());
+        result.put("elapsedSeconds", round(elapsedSeconds));
+
+        Map<String, Object> rooms = new LinkedHashMap<>();
+        rooms.put("completed", metrics.roomsCompleted.sum());
+        rooms.put("failed", metrics.roomsFailed.sum());
+        result.put("rooms", rooms);
+
+        Map<String, Object> connections = new LinkedHashMap<>();
+        connections.put("succeeded", connects);
+        connections.put("failed", metrics.connectsFailed.sum());
+        connections.put("unexpectedDisconnects", metrics.disconnectsUnexpected.sum());
+        connections.put("ratePerSecond", connectWindow > 0 ? round(connects / connectWindow) : null);
+        connections.put("latencyMs", percentiles(metrics.connect.total()));
+        result.put("connections", connections);
+
+        Map<String, Object> actions = new LinkedHashMap<>();
+        actions.put("sent", metrics.actionsSent.sum());
+        actions.put("failed", metrics.actionsFailed.sum());
+        actions.put("throttled", metrics.actionsThrottled.sum());
+        actions.put("perSecond", round(metrics.actionsSent.sum() / elapsedSeconds));
+        actions.put("ackLatencyMs", percentiles(metrics.ack.total()));
+        result.put("actions", actions);
+
+        Map<String, Object> sync = new LinkedHashMap<>();
+        sync.put("expected", expected);
+        sync.put("delivered", delivered);
+        sync.put("deliveryPercent", round(deliveryRatio * 100));
+        sync.put("perSecond", round(delivered / elapsedSeconds));
+        sync.put("latencyMs", percentiles(delivery));
+        result.put("sync", sync);
+
+        Map<String, Object> restLatency = new TreeMap<>();
+        metrics.restLatencies().forEach((operation, latency) -> restLatency.put(operation, percentiles(latency.total())));
+        Map<String, Object> restResult = new LinkedHashMap<>();
+        restResult.put("errors", metrics.restErrors.sum());
+        restResult.put("latencyMs", restLatency);
+        result.put("rest", restResult);
+
+        result.put("server", server);
+        result.put("clientGcMs", clientGcMillis);
+        result.put("slaMs", config.sla.toMillis());
+        result.put("passed", passed);
+    }
+
+    boolean isPassed() {
+        return passed;
+    }
+
+    void print(PrintStream out) {
+        out.println();
+        out.println("================ 压测结果 ================");
+        print(out, "", result);
+        out.println("=========================================");
+        out.println(passed ? "结果: 达标" : "结果: 未达标（同步延迟 p99、投递率或房间失败数超出要求）");
+    }
+
+    void write(ObjectMapper objectMapper, String path) throws IOException {
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(path), result);
+    }
+
+    /**
+     * 延迟分位数（毫秒）
+     */
+    static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("count", histogram.getTotalCount());
+        if (histogram.getTotalCount() == 0) {
+            return map;
+        }
+        map.put("mean", round(histogram.getMean() / 1e6));
+        map.put("p50", ms(histogram, 50));
+        map.put("p90", ms(histogram, 90));
+        map.put("p99", ms(histogram, 99));
+        map.put("p99.9", ms(histogram, 99.9));
+        map.put("max", round(histogram.getMaxValue() / 1e6));
+        return map;
+    }
+
+    private static double ms(Histogram histogram, double percentile) {
+        return round(histogram.getValueAtPercentile(percentile) / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(PrintStream out, String indent, Map<String, Object> map) {
+        map.forEach((key, value) -> {
+            if (value instanceof Map) {
+                out.println(indent + key + ":");
+                print(out, indent + "  ", (Map<String, Object>) value);
+            } else {
+                out.println(indent + key + ": " + value);
+            }
+        });
+    }
+}
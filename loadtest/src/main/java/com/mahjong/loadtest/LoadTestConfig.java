@@ -0,0 +1,156 @@
+package com.mahjong.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 压测参数
+ * 命令行以 --name value 形式传入，未指定的参数使用默认值。
+ */
+final class LoadTestConfig {
+
+    String host = "localhost";
+    int httpPort = 9980;
+    int wsPort = 9914;
+
+    /**
+     * 并发房间数
+     */
+    int rooms = 1000;
+
+    /**
+     * 每个房间的玩家数（含房主）
+     */
+    int players = 4;
+
+    /**
+     * 每个房间的观战者数，只接收广播
+     */
+    int spectators = 0;
+
+    /**
+     * 所有房间在该时间内均匀启动
+     */
+    Duration rampUp = Duration.ofSeconds(60);
+
+    /**
+     * 每局脚本的回合数，每回合由轮到的玩家发出一个动作
+     */
+    int turns = 40;
+
+    /**
+     * 回合间隔
+     */
+    Duration turnInterval = Duration.ofMillis(1000);
+
+    /**
+     * 同时进行的 HTTP 请求上限
+     */
+    int httpConcurrency = 64;
+
+    /**
+     * 整体超时，超时后未完成的房间计为失败
+     */
+    Duration timeout = Duration.ofMinutes(15);
+
+    /**
+     * 同步延迟目标（p99），用于判定是否达标
+     */
+    Duration sla = Duration.ofMillis(200);
+
+    /**
+     * 进度输出间隔
+     */
+    Duration progressInterval = Duration.ofSeconds(5);
+
+    /**
+     * JSON 报告输出路径
+     */
+    String report = "loadtest-report.json";
+
+    /**
+     * 玩家ID起始值（Socket 连接参数要求数字ID），默认按启动时间生成以免与上次压测冲突
+     */
+    long idBase = (System.currentTimeMillis() / 1000 % 1_000_000) * 100_000L;
+
+    static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if ("--help".equals(name) || "-h".equals(name)) {
+                throw new IllegalArgumentException(usage());
+            }
+            if (!name.startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("无效参数: " + name + "\n" + usage());
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--host" -> config.host = value;
+                case "--http-port" -> config.httpPort = Integer.parseInt(value);
+                case "--ws-port" -> config.wsPort = Integer.parseInt(value);
+                case "--rooms" -> config.rooms = Integer.parseInt(value);
+                case "--players" -> config.players = Integer.parseInt(value);
+                case "--spectators" -> config.spectators = Integer.parseInt(value);
+                case "--ramp-up" -> config.rampUp = Duration.ofSeconds(Long.parseLong(value));
+                case "--turns" -> config.turns = Integer.parseInt(value);
+                case "--turn-interval" -> config.turnInterval = Duration.ofMillis(Long.parseLong(value));
+                case "--http-concurrency" -> config.httpConcurrency = Integer.parseInt(value);
+                case "--timeout" -> config.timeout = Duration.ofSeconds(Long.parseLong(value));
+                case "--sla" -> config.sla = Duration.ofMillis(Long.parseLong(value));
+                case "--progress-interval" -> config.progressInterval = Duration.ofSeconds(Long.parseLong(value));
+                case "--report" -> config.report = value;
+                case "--id-base" -> config.idBase = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("未知参数: " + name + "\n" + usage());
+            }
+        }
+        if (config.rooms < 1 || config.players < 2 || config.players > 4 || config.spectators < 0 || config.turns < 1) {
+            throw new IllegalArgumentException("参数超出范围: rooms>=1, 2<=players<=4, spectators>=0, turns>=1");
+        }
+        return config;
+    }
+
+    String httpBase() {
+        return "http://" + host + ":" + httpPort;
+    }
+
+    String wsBase() {
+        return "ws://" + host + ":" + wsPort;
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("host", host);
+        map.put("httpPort", httpPort);
+        map.put("wsPort", wsPort);
+        map.put("rooms", rooms);
+        map.put("players", players);
+        map.put("spectators", spectators);
+        map.put("rampUpSeconds", rampUp.toSeconds());
+        map.put("turns", turns);
+        map.put("turnIntervalMs", turnInterval.toMillis());
+        map.put("httpConcurrency", httpConcurrency);
+        map.put("slaMs", sla.toMillis());
+        return map;
+    }
+
+    static String usage() {
+        return """
+                用法: java -jar loadtest.jar [参数]
+                  --host <主机>              后端地址（默认 localhost）
+                  --http-port <端口>         REST 端口（默认 9980）
+                  --ws-port <端口>           Socket.IO 端口（默认 9914）
+                  --rooms <数量>             并发房间数（默认 1000）
+                  --players <数量>           每房间玩家数 2-4（默认 4）
+                  --spectators <数量>        每房间观战者数（默认 0）
+                  --ramp-up <秒>             房间启动时间窗口（默认 60）
+                  --turns <数量>             每局回合数（默认 40）
+                  --turn-interval <毫秒>     回合间隔（默认 1000）
+                  --http-concurrency <数量>  并发 HTTP 请求上限（默认 64）
+                  --timeout <秒>             整体超时（默认 900）
+                  --sla <毫秒>               同步延迟 p99 目标（默认 200）
+                  --progress-interval <秒>   进度输出间隔（默认 5）
+                  --report <路径>            JSON 报告路径（默认 loadtest-report.json）
+                  --id-base <数字>           玩家ID起始值（默认按启动时间生成）""";
+    }
+}
@@ -0,0 +1,151 @@
+package com.mahjong.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Socket.IO 压测入口
+ * 按 ramp-up 均匀启动房间，每个房间独立执行脚本对局，定期输出区间进度，结束后汇总报告。
+ * 退出码：0 达标，1 未达标，2 参数或环境错误。
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config;
+        try {
+            config = LoadTestConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        System.exit(run(config));
+    }
+
+    static int run(LoadTestConfig config) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        LoadMetrics metrics = new LoadMetrics();
+        ExecutorService httpPool = Executors.newFixedThreadPool(config.httpConcurrency, daemon("loadtest-http"));
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, daemon("loadtest-scheduler"));
+        // 进度输出会同步请求 actuator，与回合调度分开以免推迟动作发送
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(daemon("loadtest-progress"));
+        RestClient rest = new RestClient(config.httpBase(), objectMapper, httpPool, metrics);
+        ServerStats server = new ServerStats(rest);
+
+        try (SocketIoClient.Connector connector = new SocketIoClient.Connector(config.wsBase(), objectMapper,
+                Math.max(2, Runtime.getRuntime().availableProcessors()))) {
+            System.out.printf("压测开始: %d 个房间 × (%d 玩家 + %d 观战), %d 回合/局, 回合间隔 %dms, ramp-up %ds%n",
+                    config.rooms, config.players, config.spectators, config.turns,
+                    config.turnInterval.toMillis(), config.rampUp.toSeconds());
+            server.start();
+            long clientGcBefore = clientGcMillis();
+            long start = System.nanoTime();
+
+            List<RoomScenario> scenarios = new ArrayList<>(config.rooms);
+            List<CompletableFuture<Void>> done = new ArrayList<>(config.rooms);
+            long rampNanos = config.rampUp.toNanos();
+            for (int i = 0; i < config.rooms; i++) {
+                RoomScenario scenario = new RoomScenario(i, config, metrics, rest, connector, scheduler);
+                CompletableFuture<Void> finished = new CompletableFuture<>();
+                scheduler.schedule(() -> {
+                    scenario.start().whenComplete((v, e) -> finished.complete(null));
+                }, rampNanos * i / config.rooms, TimeUnit.NANOSECONDS);
+                scenarios.add(scenario);
+                done.add(finished);
+            }
+
+            long interval = config.progressInterval.toMillis();
+            progress.scheduleAtFixedRate(() -> printProgress(metrics, server, start, interval),
+                    interval, interval, TimeUnit.MILLISECONDS);
+
+            try {
+                CompletableFuture.allOf(done.toArray(CompletableFuture[]::new))
+                        .get(config.timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                System.err.println("压测超时，未完成的房间计为失败");
+                scenarios.forEach(RoomScenario::abort);
+            }
+            scheduler.shutdownNow();
+            progress.shutdownNow();
+            progress.awaitTermination(10, TimeUnit.SECONDS);
+
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            drain(metrics);
+            LoadReport report = new LoadReport(config, metrics, elapsed, server.finish(),
+                    clientGcMillis() - clientGcBefore);
+            report.print(System.out);
+            report.write(objectMapper, config.report);
+            System.out.println("报告已写入: " + config.report);
+            return report.isPassed() ? 0 : 1;
+        } finally {
+            httpPool.shutdownNow();
+        }
+    }
+
+    private static void printProgress(LoadMetrics metrics, ServerStats server, long start, long intervalMillis) {
+        try {
+            Histogram connects = metrics.connect.sampleInterval();
+            Histogram delivery = metrics.delivery.sampleInterval();
+            metrics.ack.sampleInterval();
+            metrics.restLatencies().values().forEach(LoadMetrics.Latency::sampleInterval);
+            double heap = server.sampleHeap();
+
+            System.out.printf("[%4ds] 房间 进行中=%d 完成=%d 失败=%d | 连接 %d (+%d/s) | 同步 %.0f/s p50=%.1fms p99=%.1fms max=%.1fms | 服务端堆 %s%n",
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start),
+                    metrics.roomsActive.get(), metrics.roomsCompleted.sum(), metrics.roomsFailed.sum(),
+                    metrics.openConnections.get(), connects.getTotalCount() * 1000 / intervalMillis,
+                    delivery.getTotalCount() * 1000.0 / intervalMillis,
+                    delivery.getValueAtPercentile(50) / 1e6, delivery.getValueAtPercentile(99) / 1e6,
+                    delivery.getMaxValue() / 1e6,
+                    Double.isNaN(heap) ? "-" : String.format("%.0fMB", heap / (1024 * 1024)));
+        } catch (Exception e) {
+            System.err.println("进度输出失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 将 Recorder 中剩余的数据并入全程直方图
+     */
+    private static void drain(LoadMetrics metrics) {
+        metrics.connect.sampleInterval();
+        metrics.delivery.sampleInterval();
+        metrics.ack.sampleInterval();
+        metrics.restLatencies().values().forEach(LoadMetrics.Latency::sampleInterval);
+    }
+
+    /**
+     * 压测端自身的 GC 时间，过高时结果中的延迟可能包含压测端停顿
+     */
+    private static long clientGcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
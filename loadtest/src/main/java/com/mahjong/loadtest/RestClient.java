@@ -0,0 +1,112 @@
+package com.mahjong.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 后端 REST 接口客户端
+ * 请求在固定大小的线程池中同步执行，线程数即并发请求上限，避免瞬间打出数千个连接。
+ * 接口返回统一的 ApiResponse，code 非 200 视为失败。
+ */
+final class RestClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final LoadMetrics metrics;
+    private final String baseUrl;
+
+    RestClient(String baseUrl, ObjectMapper objectMapper, ExecutorService executor, LoadMetrics metrics) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.metrics = metrics;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+    }
+
+    /**
+     * 创建房间，返回房间号
+     */
+    CompletableFuture<String> createRoom(String creatorId, String creatorName, int maxPlayers, String roomName) {
+        return post("create_room", "/api/v1/rooms", Map.of(
+                "roomName", roomName,
+                "creatorId", creatorId,
+                "creatorNickname", creatorName,
+                "maxPlayers", maxPlayers))
+                .thenApply(data -> data.path("roomNumber").asText());
+    }
+
+    CompletableFuture<JsonNode> joinRoom(String roomNumber, String playerId, String playerName, boolean spectator) {
+        return post("join_room", "/api/v1/rooms/" + roomNumber + "/join", Map.of(
+                "playerId", playerId,
+                "playerName", playerName,
+                "asSpectator", spectator));
+    }
+
+    CompletableFuture<JsonNode> ready(String roomNumber, String playerId) {
+        return post("ready", "/api/v1/rooms/" + roomNumber + "/ready", Map.of(
+                "playerId", playerId,
+                "isReady", true));
+    }
+
+    CompletableFuture<JsonNode> leaveRoom(String roomNumber, String playerId) {
+        return post("leave_room", "/api/v1/rooms/" + roomNumber + "/leave", Map.of("playerId", playerId));
+    }
+
+    /**
+     * 读取 actuator 指标，不计入压测指标
+     */
+    JsonNode metric(String name, String tag) throws Exception {
+        String url = baseUrl + "/actuator/metrics/" + name
+                + (tag != null ? "?tag=" + URLEncoder.encode(tag, StandardCharsets.UTF_8) : "");
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private CompletableFuture<JsonNode> post(String operation, String path, Map<String, Object> body) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                        .build();
+                HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                metrics.rest(operation).record(System.nanoTime() - start);
+
+                JsonNode result = objectMapper.readTree(response.body());
+                if (response.statusCode() != 200 || result.path("code").asInt() != 200) {
+                    throw new IllegalStateException(operation + " 失败: HTTP " + response.statusCode()
+                            + " " + result.path("message").asText());
+                }
+                return result.path("data");
+            } catch (Exception e) {
+                metrics.restErrors.increment();
+                throw e instanceof RuntimeException ? (RuntimeException) e : new CompletionException(e);
+            }
+        }, executor);
+    }
+}
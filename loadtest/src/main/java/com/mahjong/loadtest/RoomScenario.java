@@ -0,0 +1,254 @@
+package com.mahjong.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 单个房间的脚本对局
+ * 房主建房 → 其余玩家和观战者加入 → 全部建立 Socket 连接并进入房间频道 → 玩家准备 →
+ * 按固定节奏轮流发出动作 → 离开房间并断开。
+ * <p>
+ * 后端尚无出牌等对局事件，回合动作用房间聊天（chat_message）代替：它与对局动作走同一条
+ * “客户端事件 → 服务端处理 → 房间广播”路径。动作内容携带计划发送时刻，
+ * 房间内每个客户端收到广播时记录“计划发送 → 收到”的同步延迟；以计划时刻而非实际发送时刻为起点，
+ * 压测端自身排队造成的延迟同样计入，避免协调遗漏（coordinated omission）。
+ */
+final class RoomScenario implements SocketIoClient.EventHandler {
+
+    private static final String ACTION_MARK = " t=";
+
+    /**
+     * 最后一回合后等待未到达广播的最长时间
+     */
+    private static final long DRAIN_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+    private static final long DRAIN_CHECK = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final int index;
+    private final LoadTestConfig config;
+    private final LoadMetrics metrics;
+    private final RestClient rest;
+    private final SocketIoClient.Connector connector;
+    private final ScheduledExecutorService scheduler;
+
+    private final List<Member> members = new ArrayList<>();
+    private final CompletableFuture<Void> finished = new CompletableFuture<>();
+    // 已发出但尚未被全部成员收到的广播数
+    private final AtomicLong outstanding = new AtomicLong();
+    private volatile String roomNumber;
+    private volatile boolean leaving;
+
+    RoomScenario(int index, LoadTestConfig config, LoadMetrics metrics, RestClient rest,
+                 SocketIoClient.Connector connector, ScheduledExecutorService scheduler) {
+        this.index = index;
+        this.config = config;
+        this.metrics = metrics;
+        this.rest = rest;
+        this.connector = connector;
+        this.scheduler = scheduler;
+
+        long firstId = config.idBase + (long) index * (config.players + config.spectators);
+        for (int i = 0; i < config.players + config.spectators; i++) {
+            String id = Long.toString(firstId + i);
+            members.add(new Member(id, "压测_" + id.substring(Math.max(0, id.length() - 12)), i >= config.players));
+        }
+    }
+
+    /**
+     * 开始对局，返回的 future 在房间结束（无论成败）后完成
+     */
+    CompletableFuture<Void> start() {
+        metrics.roomsActive.incrementAndGet();
+        Member creator = members.get(0);
+        rest.createRoom(creator.id, creator.name, config.players, "压测房间_" + index)
+                .thenCompose(number -> {
+                    roomNumber = number;
+                    return allOf(members.subList(1, members.size()),
+                            m -> rest.joinRoom(number, m.id, m.name, m.spectator));
+                })
+                .thenCompose(v -> allOf(members, this::connect))
+                .thenCompose(v -> allOf(members, this::subscribe))
+                .thenCompose(v -> allOf(players(), m -> rest.ready(roomNumber, m.id)))
+                .thenRun(this::scheduleTurns)
+                .exceptionally(e -> {
+                    fail(e);
+                    return null;
+                });
+        return finished;
+    }
+
+    /**
+     * 未在超时前完成的房间
+     */
+    void abort() {
+        fail(new IllegalStateException("房间超时"));
+    }
+
+    @Override
+    public void onEvent(SocketIoClient client, String event, JsonNode data, long receivedNanos) {
+        if (!"chat_message".equals(event) || data == null) {
+            return;
+        }
+        String content = data.path("content").asText("");
+        int mark = content.lastIndexOf(ACTION_MARK);
+        if (mark < 0) {
+            return;
+        }
+        try {
+            long intended = Long.parseLong(content.substring(mark + ACTION_MARK.length()));
+            metrics.delivery.record(receivedNanos - intended);
+            metrics.deliveries.increment();
+            outstanding.decrementAndGet();
+        } catch (NumberFormatException ignored) {
+            // 非压测发出的消息
+        }
+    }
+
+    @Override
+    public void onClose(SocketIoClient client, boolean expected) {
+        metrics.openConnections.decrementAndGet();
+        if (!expected && !leaving) {
+            metrics.disconnectsUnexpected.increment();
+        }
+    }
+
+    private CompletableFuture<Void> connect(Member member) {
+        long start = System.nanoTime();
+        return connector.connect(member.id, this).thenAccept(client -> {
+            metrics.connect.record(System.nanoTime() - start);
+            metrics.connected();
+            metrics.openConnections.incrementAndGet();
+            member.client = client;
+        }).whenComplete((v, e) -> {
+            if (e != null) {
+                metrics.connectsFailed.increment();
+            }
+        });
+    }
+
+    private CompletableFuture<Void> subscribe(Member member) {
+        return member.client.emitWithAck("join_room", Map.of("roomId", roomNumber)).thenAccept(ack -> {
+            if (ack == null || !ack.path("success").asBoolean()) {
+                throw new IllegalStateException("加入房间频道失败: " + ack);
+            }
+        });
+    }
+
+    /**
+     * 按计划时刻安排全部回合，第 k 回合由第 k % players 位玩家行动
+     */
+    private void scheduleTurns() {
+        long interval = config.turnInterval.toNanos();
+        long begin = System.nanoTime() + interval;
+        List<Member> players = players();
+        for (int turn = 0; turn < config.turns; turn++) {
+            long intended = begin + turn * interval;
+            Member actor = players.get(turn % players.size());
+            int number = turn;
+            scheduler.schedule(() -> act(actor, number, intended),
+                    intended - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+        // 最后一回合后等待广播全部到达再离开
+        long last = begin + (config.turns - 1) * interval;
+        scheduler.schedule(() -> leaveWhenDrained(last + DRAIN_TIMEOUT),
+                last + config.sla.toNanos() - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private void leaveWhenDrained(long deadline) {
+        if (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            scheduler.schedule(() -> leaveWhenDrained(deadline), DRAIN_CHECK, TimeUnit.NANOSECONDS);
+        } else {
+            leave();
+        }
+    }
+
+    private void act(Member actor, int turn, long intended) {
+        if (finished.isDone()) {
+            return;
+        }
+        metrics.actionsSent.increment();
+        metrics.expectedDeliveries.add(members.size());
+        outstanding.addAndGet(members.size());
+        long sent = System.nanoTime();
+        actor.client.emitWithAck("chat_message", Map.of(
+                "roomId", roomNumber,
+                "content", "出牌" + turn + ACTION_MARK + intended
+        )).thenAccept(ack -> {
+            metrics.ack.record(System.nanoTime() - sent);
+            if (ack != null && ack.path("success").asBoolean()) {
+                return;
+            }
+            // 未被服务端接受的动作不会广播
+            metrics.expectedDeliveries.add(-members.size());
+            outstanding.addAndGet(-members.size());
+            if (ack != null && ack.has("retryAfter")) {
+                metrics.actionsThrottled.increment();
+            } else {
+                metrics.actionsFailed.increment();
+            }
+        });
+    }
+
+    private void leave() {
+        leaving = true;
+        allOf(members, m -> rest.leaveRoom(roomNumber, m.id))
+                .whenComplete((v, e) -> {
+                    members.forEach(Member::close);
+                    if (e != null) {
+                        fail(e);
+                    } else if (finished.complete(null)) {
+                        metrics.roomsActive.decrementAndGet();
+                        metrics.roomsCompleted.increment();
+                    }
+                });
+    }
+
+    private void fail(Throwable e) {
+        leaving = true;
+        members.forEach(Member::close);
+        if (finished.complete(null)) {
+            metrics.roomsActive.decrementAndGet();
+            metrics.roomsFailed.increment();
+            if (metrics.roomsFailed.sum() <= 10) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                System.err.println("房间 " + index + " 失败: " + cause);
+            }
+        }
+    }
+
+    private List<Member> players() {
+        return members.subList(0, config.players);
+    }
+
+    private static CompletableFuture<Void> allOf(List<Member> members,
+                                                 Function<Member, CompletableFuture<?>> action) {
+        return CompletableFuture.allOf(members.stream().map(action).toArray(CompletableFuture[]::new));
+    }
+
+    private static final class Member {
+        final String id;
+        final String name;
+        final boolean spectator;
+        volatile SocketIoClient client;
+
+        Member(String id, String name, boolean spectator) {
+            this.id = id;
+            this.name = name;
+            this.spectator = spectator;
+        }
+
+        void close() {
+            SocketIoClient c = client;
+            if (c != null) {
+                c.close();
+            }
+        }
+    }
+}
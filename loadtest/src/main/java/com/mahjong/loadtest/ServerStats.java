@@ -0,0 +1,113 @@
+package com.mahjong.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 通过 actuator 采集服务端 JVM 指标：堆使用、GC 暂停、线程数、CPU，以及数据库语句统计
+ * 压测开始和结束各取一次快照计算 GC 增量，进度输出时采样堆使用以记录峰值。
+ * actuator 不可访问时各项为空，不影响压测本身。
+ */
+final class ServerStats {
+
+    private final RestClient rest;
+    private volatile double peakHeapUsed = Double.NaN;
+
+    private Snapshot before;
+
+    ServerStats(RestClient rest) {
+        this.rest = rest;
+    }
+
+    void start() {
+        before = snapshot();
+    }
+
+    /**
+     * 采样当前堆使用，返回字节数（不可用时为 NaN）
+     */
+    double sampleHeap() {
+        double heap = value("jvm.memory.used", "area:heap", "VALUE");
+        if (!Double.isNaN(heap) && (Double.isNaN(peakHeapUsed) || heap > peakHeapUsed)) {
+            peakHeapUsed = heap;
+        }
+        return heap;
+    }
+
+    Map<String, Object> finish() {
+        Snapshot after = snapshot();
+        sampleHeap();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("heapUsedMb", mb(after.heapUsed));
+        result.put("heapPeakMb", mb(peakHeapUsed));
+        result.put("heapMaxMb", mb(after.heapMax));
+        result.put("gcPauseCount", delta(after.gcCount, before.gcCount));
+        result.put("gcPauseTotalMs", delta(after.gcTotalSeconds, before.gcTotalSeconds) * 1000);
+        result.put("gcPauseMaxMs", after.gcMaxSeconds * 1000);
+        result.put("liveThreads", after.liveThreads);
+        result.put("processCpuUsage", after.cpuUsage);
+        double operations = delta(after.dbOperations, before.dbOperations);
+        result.put("dbStatementsPerOperation", operations > 0
+                ? Math.round(delta(after.dbStatements, before.dbStatements) / operations * 100) / 100.0 : Double.NaN);
+        result.put("dbBudgetExceeded", delta(after.dbBudgetExceeded, before.dbBudgetExceeded));
+        return result;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        snapshot.heapUsed = sampleHeap();
+        snapshot.heapMax = value("jvm.memory.max", "area:heap", "VALUE");
+        snapshot.gcCount = value("jvm.gc.pause", null, "COUNT");
+        snapshot.gcTotalSeconds = value("jvm.gc.pause", null, "TOTAL_TIME");
+        snapshot.gcMaxSeconds = value("jvm.gc.pause", null, "MAX");
+        snapshot.liveThreads = value("jvm.threads.live", null, "VALUE");
+        snapshot.cpuUsage = value("process.cpu.usage", null, "VALUE");
+        // 以下指标在首次记录时才注册，actuator 可访问但指标不存在时按0计
+        boolean reachable = !Double.isNaN(snapshot.heapUsed);
+        snapshot.dbOperations = counter("mahjong.db.statements", "COUNT", reachable);
+        snapshot.dbStatements = counter("mahjong.db.statements", "TOTAL", reachable);
+        snapshot.dbBudgetExceeded = counter("mahjong.db.budget.exceeded", "COUNT", reachable);
+        return snapshot;
+    }
+
+    private double value(String metric, String tag, String statistic) {
+        try {
+            for (JsonNode measurement : rest.metric(metric, tag).path("measurements")) {
+                if (statistic.equals(measurement.path("statistic").asText())) {
+                    return measurement.path("value").asDouble();
+                }
+            }
+        } catch (Exception ignored) {
+            // actuator 未开放或指标不存在
+        }
+        return Double.NaN;
+    }
+
+    private double counter(String metric, String statistic, boolean reachable) {
+        double value = value(metric, null, statistic);
+        return Double.isNaN(value) && reachable ? 0 : value;
+    }
+
+    private static double delta(double after, double before) {
+        return Double.isNaN(after) || Double.isNaN(before) ? Double.NaN : after - before;
+    }
+
+    private static double mb(double bytes) {
+        return Double.isNaN(bytes) ? Double.NaN : Math.round(bytes / (1024 * 1024));
+    }
+
+    private static final class Snapshot {
+        double heapUsed;
+        double heapMax;
+        double gcCount;
+        double gcTotalSeconds;
+        double gcMaxSeconds;
+        double liveThreads;
+        double cpuUsage;
+        double dbOperations;
+        double dbStatements;
+        double dbBudgetExceeded;
+    }
+}
@@ -0,0 +1,296 @@
+package com.mahjong.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshakerFactory;
+import io.netty.handler.codec.http.websocketx.WebSocketClientProtocolHandler;
+import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketVersion;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 最小化的 Socket.IO 客户端
+ * 直接以 WebSocket 传输连接 netty-socketio（Engine.IO 3 / Socket.IO 2 协议，不经过轮询升级），
+ * 只实现压测需要的部分：默认命名空间的事件收发、回执、客户端心跳。
+ * 所有连接共用一个 Netty 事件循环组，数千个连接只占用少量线程。
+ */
+final class SocketIoClient {
+
+    private static final int MAX_FRAME = 1 << 20;
+
+    private final Connector connector;
+    private final String userId;
+    private final EventHandler handler;
+    private final CompletableFuture<SocketIoClient> connected = new CompletableFuture<>();
+    private final Map<Long, Consumer<JsonNode>> pendingAcks = new ConcurrentHashMap<>();
+    private final AtomicLong ackSequence = new AtomicLong();
+
+    private volatile Channel channel;
+    private volatile boolean closing;
+    private ScheduledFuture<?> heartbeat;
+
+    /**
+     * 收到服务端事件的回调，在 Netty 事件线程上执行，不可阻塞
+     */
+    interface EventHandler {
+        void onEvent(SocketIoClient client, String event, JsonNode data, long receivedNanos);
+
+        default void onClose(SocketIoClient client, boolean expected) {
+        }
+    }
+
+    private SocketIoClient(Connector connector, String userId, EventHandler handler) {
+        this.connector = connector;
+        this.userId = userId;
+        this.handler = handler;
+    }
+
+    String getUserId() {
+        return userId;
+    }
+
+    /**
+     * 发送事件，不需要回执
+     */
+    void emit(String event, Object data) {
+        send("42" + encodeArgs(event, data));
+    }
+
+    /**
+     * 发送事件并等待服务端回执，回执数据为 ack 的第一个参数
+     */
+    CompletableFuture<JsonNode> emitWithAck(String event, Object data) {
+        long id = ackSequence.incrementAndGet();
+        CompletableFuture<JsonNode> future = new CompletableFuture<>();
+        pendingAcks.put(id, future::complete);
+        if (!send("42" + id + encodeArgs(event, data))) {
+            pendingAcks.remove(id);
+            future.completeExceptionally(new IllegalStateException("连接已关闭"));
+        }
+        return future;
+    }
+
+    void close() {
+        closing = true;
+        Channel ch = channel;
+        if (ch != null) {
+            ch.close();
+        }
+    }
+
+    private boolean send(String packet) {
+        Channel ch = channel;
+        if (ch == null || !ch.isActive()) {
+            return false;
+        }
+        ch.writeAndFlush(new TextWebSocketFrame(packet));
+        return true;
+    }
+
+    private String encodeArgs(String event, Object data) {
+        try {
+            ArrayNode args = connector.objectMapper.createArrayNode();
+            args.add(event);
+            args.addPOJO(data);
+            return connector.objectMapper.writeValueAsString(args);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("事件序列化失败: " + event, e);
+        }
+    }
+
+    /**
+     * 处理一个 Engine.IO 数据包
+     */
+    private void onPacket(ChannelHandlerContext ctx, String packet, long receivedNanos) throws Exception {
+        if (packet.isEmpty()) {
+            return;
+        }
+        switch (packet.charAt(0)) {
+            case '0' -> startHeartbeat(ctx, connector.objectMapper.readTree(packet.substring(1)));
+            case '3' -> {
+                // pong
+            }
+            case '4' -> onSocketIoPacket(packet, receivedNanos);
+            case '1' -> ctx.close();
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * 处理 Socket.IO 数据包：4 + 类型 + [回执ID] + JSON 参数
+     */
+    private void onSocketIoPacket(String packet, long receivedNanos) throws Exception {
+        if (packet.length() < 2) {
+            return;
+        }
+        char type = packet.charAt(1);
+        switch (type) {
+            case '0' -> connected.complete(this);
+            case '1' -> close();
+            case '2' -> {
+                int start = skipDigits(packet, 2);
+                JsonNode args = connector.objectMapper.readTree(packet.substring(start));
+                if (args.isArray() && args.size() > 0) {
+                    handler.onEvent(this, args.get(0).asText(), args.get(1), receivedNanos);
+                    // 服务端抽样追踪的广播在最后附带 {traceId, serverTs}，回执后服务端可统计到客户端的完整延迟
+                    JsonNode trace = args.get(2);
+                    if (trace != null && trace.hasNonNull("traceId")) {
+                        emit("trace_ack", Map.of("traceId", trace.get("traceId").asText(),
+                                "receivedAt", System.currentTimeMillis()));
+                    }
+                }
+            }
+            case '3' -> {
+                int start = skipDigits(packet, 2);
+                long id = Long.parseLong(packet.substring(2, start));
+                Consumer<JsonNode> callback = pendingAcks.remove(id);
+                if (callback != null) {
+                    JsonNode args = connector.objectMapper.readTree(packet.substring(start));
+                    callback.accept(args.isArray() && args.size() > 0 ? args.get(0) : args);
+                }
+            }
+            case '4' -> connected.completeExceptionally(new IllegalStateException("服务端拒绝连接: " + packet));
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Engine.IO 3 由客户端按 pingInterval 发送心跳
+     */
+    private void startHeartbeat(ChannelHandlerContext ctx, JsonNode handshake) {
+        long interval = handshake.path("pingInterval").asLong(25_000);
+        heartbeat = ctx.executor().scheduleAtFixedRate(
+                () -> ctx.writeAndFlush(new TextWebSocketFrame("2")), interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void onChannelClosed() {
+        if (heartbeat != null) {
+            heartbeat.cancel(false);
+        }
+        IllegalStateException closed = new IllegalStateException("连接已关闭");
+        connected.completeExceptionally(closed);
+        pendingAcks.values().forEach(callback -> callback.accept(null));
+        pendingAcks.clear();
+        handler.onClose(this, closing);
+    }
+
+    private static int skipDigits(String text, int from) {
+        int i = from;
+        while (i < text.length() && Character.isDigit(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 连接工厂，持有共享的事件循环组
+     */
+    static final class Connector implements AutoCloseable {
+
+        private final EventLoopGroup group;
+        private final Bootstrap bootstrap;
+        private final ObjectMapper objectMapper;
+        private final String baseUrl;
+
+        Connector(String baseUrl, ObjectMapper objectMapper, int threads) {
+            this.baseUrl = baseUrl;
+            this.objectMapper = objectMapper;
+            this.group = new NioEventLoopGroup(threads);
+            this.bootstrap = new Bootstrap()
+                    .group(group)
+                    .channel(NioSocketChannel.class)
+                    .option(ChannelOption.TCP_NODELAY, true)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10_000);
+        }
+
+        /**
+         * 建立连接，Socket.IO 命名空间连接成功（收到 40）后完成
+         */
+        CompletableFuture<SocketIoClient> connect(String userId, EventHandler handler) {
+            SocketIoClient client = new SocketIoClient(this, userId, handler);
+            URI uri = URI.create(baseUrl + "/socket.io/?EIO=3&transport=websocket&userId=" + userId);
+            int port = uri.getPort() > 0 ? uri.getPort() : 80;
+
+            Bootstrap b = bootstrap.clone().handler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel ch) {
+                    ch.pipeline().addLast(
+                            new HttpClientCodec(),
+                            new HttpObjectAggregator(MAX_FRAME),
+                            new WebSocketClientProtocolHandler(WebSocketClientHandshakerFactory.newHandshaker(
+                                    uri, WebSocketVersion.V13, null, false, EmptyHttpHeaders.INSTANCE, MAX_FRAME)),
+                            new WebSocketFrameAggregator(MAX_FRAME),
+                            new PacketHandler(client));
+                }
+            });
+            b.connect(uri.getHost(), port).addListener(future -> {
+                if (!future.isSuccess()) {
+                    client.connected.completeExceptionally(future.cause());
+                }
+            });
+            return client.connected;
+        }
+
+        @Override
+        public void close() {
+            group.shutdownGracefully(0, 2, TimeUnit.SECONDS).syncUninterruptibly();
+        }
+    }
+
+    private static final class PacketHandler extends SimpleChannelInboundHandler<TextWebSocketFrame> {
+
+        private final SocketIoClient client;
+
+        PacketHandler(SocketIoClient client) {
+            this.client = client;
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            client.channel = ctx.channel();
+            super.channelActive(ctx);
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, TextWebSocketFrame frame) throws Exception {
+            client.onPacket(ctx, frame.text(), System.nanoTime());
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            client.onChannelClosed();
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            client.connected.completeExceptionally(cause);
+            ctx.close();
+        }
+    }
+}